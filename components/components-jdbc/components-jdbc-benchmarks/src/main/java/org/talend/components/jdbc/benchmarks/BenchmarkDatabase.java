@@ -0,0 +1,172 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.benchmarks;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.SchemaBuilder.FieldAssembler;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.talend.components.jdbc.runtime.setting.AllSetting;
+import org.talend.daikon.avro.AvroUtils;
+import org.talend.daikon.avro.SchemaConstants;
+
+/**
+ * the embedded derby database used by the benchmarks, the tables have a configurable number of columns whose types are taken
+ * one after another from a fixed list, so a schema width gives always the same table.
+ */
+public class BenchmarkDatabase {
+
+    public static final String DRIVER_CLASS = "org.apache.derby.jdbc.EmbeddedDriver";
+
+    public static final String JDBC_URL = "jdbc:derby:memory:benchmarks;create=true";
+
+    public static final String USER = "any";
+
+    public static final String PASSWORD = "any";
+
+    private static final String[] SQL_TYPES = { "INTEGER", "VARCHAR(64)", "BIGINT", "DOUBLE", "TIMESTAMP", "DECIMAL(10,2)" };
+
+    private static final Schema[] AVRO_TYPES = { AvroUtils._int(), AvroUtils._string(), AvroUtils._long(), AvroUtils._double(),
+            AvroUtils._date(), AvroUtils._decimal() };
+
+    private BenchmarkDatabase() {
+    }
+
+    public static Connection connect() throws SQLException, ClassNotFoundException {
+        Class.forName(DRIVER_CLASS);
+        return DriverManager.getConnection(JDBC_URL, USER, PASSWORD);
+    }
+
+    public static AllSetting createAllSetting() {
+        AllSetting setting = new AllSetting();
+        setting.setDriverClass(DRIVER_CLASS);
+        setting.setJdbcUrl(JDBC_URL);
+        setting.setUsername(USER);
+        setting.setPassword(PASSWORD);
+        return setting;
+    }
+
+    public static String columnName(int index) {
+        return "COL" + index;
+    }
+
+    public static void createTable(Connection conn, String tablename, int columns) throws SQLException {
+        StringBuilder sql = new StringBuilder("CREATE TABLE ").append(tablename).append(" (");
+        for (int i = 0; i < columns; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(columnName(i)).append(' ').append(SQL_TYPES[i % SQL_TYPES.length]);
+        }
+        sql.append(')');
+
+        try (Statement statement = conn.createStatement()) {
+            statement.execute(sql.toString());
+        }
+    }
+
+    public static void dropTable(Connection conn, String tablename) throws SQLException {
+        try (Statement statement = conn.createStatement()) {
+            statement.execute("DROP TABLE " + tablename);
+        }
+    }
+
+    public static void truncateTable(Connection conn, String tablename) throws SQLException {
+        try (Statement statement = conn.createStatement()) {
+            statement.execute("DELETE FROM " + tablename);
+        }
+    }
+
+    public static void loadData(Connection conn, String tablename, Schema schema, int rows) throws SQLException {
+        int columns = schema.getFields().size();
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(tablename).append(" VALUES (");
+        for (int i = 0; i < columns; i++) {
+            sql.append(i > 0 ? ", ?" : "?");
+        }
+        sql.append(')');
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement statement = conn.prepareStatement(sql.toString())) {
+            for (int row = 0; row < rows; row++) {
+                IndexedRecord record = createRecord(schema, row);
+                for (int i = 0; i < columns; i++) {
+                    Object value = record.get(i);
+                    if (value instanceof java.util.Date) {
+                        value = new Timestamp(((java.util.Date) value).getTime());
+                    }
+                    statement.setObject(i + 1, value);
+                }
+                statement.addBatch();
+                if (row % 1000 == 999) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    public static Schema createSchema(String tablename, int columns) {
+        FieldAssembler<Schema> builder = SchemaBuilder.builder().record(tablename).fields();
+        for (int i = 0; i < columns; i++) {
+            String name = columnName(i);
+            builder = builder.name(name).prop(SchemaConstants.TALEND_COLUMN_DB_COLUMN_NAME, name)
+                    .prop(SchemaConstants.TALEND_COLUMN_PATTERN, "yyyy-MM-dd HH:mm:ss")
+                    .type(AvroUtils.wrapAsNullable(AVRO_TYPES[i % AVRO_TYPES.length])).noDefault();
+        }
+        return builder.endRecord();
+    }
+
+    public static IndexedRecord createRecord(Schema schema, int row) {
+        IndexedRecord record = new GenericData.Record(schema);
+        for (Schema.Field field : schema.getFields()) {
+            int i = field.pos();
+            Object value;
+            switch (i % AVRO_TYPES.length) {
+            case 0:
+                value = row;
+                break;
+            case 1:
+                value = "value " + row + " " + i;
+                break;
+            case 2:
+                value = (long) row * i;
+                break;
+            case 3:
+                value = row / 7d;
+                break;
+            case 4:
+                value = new java.util.Date(1500000000000L + row * 1000L);
+                break;
+            default:
+                value = BigDecimal.valueOf(row, 2);
+                break;
+            }
+            record.put(i, value);
+        }
+        return record;
+    }
+
+}
@@ -0,0 +1,114 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.benchmarks;
+
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.talend.components.api.component.runtime.Reader;
+import org.talend.components.jdbc.runtime.JDBCSource;
+import org.talend.components.jdbc.tjdbcinput.TJDBCInputDefinition;
+import org.talend.components.jdbc.tjdbcinput.TJDBCInputProperties;
+
+/**
+ * read a whole table with tJDBCInput : JDBCInputReader.start/advance/getCurrent, the conversion of the rows included.
+ *
+ * A fetch size of 0 means the cursor option is off, so the default fetch size of the driver is used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JDBCInputReaderBenchmark {
+
+    private static final String TABLENAME = "BENCH_INPUT";
+
+    @Param({ "10", "50", "200" })
+    private int columns;
+
+    @Param({ "0", "100", "1000" })
+    private int fetchSize;
+
+    @Param({ "10000" })
+    private int rows;
+
+    private TJDBCInputProperties properties;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Schema schema = BenchmarkDatabase.createSchema(TABLENAME, columns);
+        try (Connection conn = BenchmarkDatabase.connect()) {
+            BenchmarkDatabase.createTable(conn, TABLENAME, columns);
+            BenchmarkDatabase.loadData(conn, TABLENAME, schema, rows);
+        }
+
+        TJDBCInputDefinition definition = new TJDBCInputDefinition();
+        properties = (TJDBCInputProperties) definition.createRuntimeProperties();
+        properties.connection.driverClass.setValue(BenchmarkDatabase.DRIVER_CLASS);
+        properties.connection.jdbcUrl.setValue(BenchmarkDatabase.JDBC_URL);
+        properties.connection.userPassword.userId.setValue(BenchmarkDatabase.USER);
+        properties.connection.userPassword.password.setValue(BenchmarkDatabase.PASSWORD);
+
+        properties.main.schema.setValue(schema);
+        properties.tableSelection.tablename.setValue(TABLENAME);
+        properties.sql.setValue("select * from " + TABLENAME);
+        properties.useCursor.setValue(fetchSize > 0);
+        if (fetchSize > 0) {
+            properties.cursor.setValue(fetchSize);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Connection conn = BenchmarkDatabase.connect()) {
+            BenchmarkDatabase.dropTable(conn, TABLENAME);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Benchmark
+    public int readTable(Blackhole blackhole) throws Exception {
+        JDBCSource source = new JDBCSource();
+        source.initialize(null, properties);
+
+        Reader reader = source.createReader(null);
+        int count = 0;
+        try {
+            for (boolean available = reader.start(); available; available = reader.advance()) {
+                blackhole.consume(reader.getCurrent());
+                count++;
+            }
+        } finally {
+            reader.close();
+        }
+        return count;
+    }
+
+}
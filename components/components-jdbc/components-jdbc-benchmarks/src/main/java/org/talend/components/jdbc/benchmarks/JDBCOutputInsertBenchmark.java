@@ -0,0 +1,140 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.benchmarks;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.talend.components.api.component.runtime.Result;
+import org.talend.components.api.component.runtime.WriteOperation;
+import org.talend.components.api.component.runtime.Writer;
+import org.talend.components.jdbc.runtime.JDBCSink;
+import org.talend.components.jdbc.tjdbcoutput.TJDBCOutputDefinition;
+import org.talend.components.jdbc.tjdbcoutput.TJDBCOutputProperties;
+import org.talend.components.jdbc.tjdbcoutput.TJDBCOutputProperties.DataAction;
+
+/**
+ * insert the same records with tJDBCOutput : JDBCOutputInsertWriter, or the pipelined batches, from open to close. The
+ * table is emptied before each insert, out of the measure.
+ *
+ * A batch size of 0 means the batch option is off, so every record is executed alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JDBCOutputInsertBenchmark {
+
+    private static final String TABLENAME = "BENCH_OUTPUT";
+
+    @Param({ "10", "50", "200" })
+    private int columns;
+
+    @Param({ "0", "100", "1000" })
+    private int batchSize;
+
+    @Param({ "false", "true" })
+    private boolean pipelined;
+
+    @Param({ "5000" })
+    private int rows;
+
+    private TJDBCOutputProperties properties;
+
+    private List<IndexedRecord> records;
+
+    private Connection conn;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Schema schema = BenchmarkDatabase.createSchema(TABLENAME, columns);
+        conn = BenchmarkDatabase.connect();
+        BenchmarkDatabase.createTable(conn, TABLENAME, columns);
+
+        TJDBCOutputDefinition definition = new TJDBCOutputDefinition();
+        properties = (TJDBCOutputProperties) definition.createRuntimeProperties();
+        properties.connection.driverClass.setValue(BenchmarkDatabase.DRIVER_CLASS);
+        properties.connection.jdbcUrl.setValue(BenchmarkDatabase.JDBC_URL);
+        properties.connection.userPassword.userId.setValue(BenchmarkDatabase.USER);
+        properties.connection.userPassword.password.setValue(BenchmarkDatabase.PASSWORD);
+
+        properties.main.schema.setValue(schema);
+        properties.updateOutputSchemas();
+        properties.tableSelection.tablename.setValue(TABLENAME);
+        properties.dataAction.setValue(DataAction.INSERT);
+        properties.dieOnError.setValue(true);
+        properties.commitEvery.setValue(rows);
+        properties.useBatch.setValue(batchSize > 0);
+        if (batchSize > 0) {
+            properties.batchSize.setValue(batchSize);
+        }
+        properties.usePipelinedBatch.setValue(pipelined);
+
+        records = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            records.add(BenchmarkDatabase.createRecord(schema, i));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTable() throws Exception {
+        // one invocation inserts thousands of records, so the cost of this setup doesn't disturb the measure
+        BenchmarkDatabase.truncateTable(conn, TABLENAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try {
+            BenchmarkDatabase.dropTable(conn, TABLENAME);
+        } finally {
+            conn.close();
+        }
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    @Benchmark
+    public Result insert() throws Exception {
+        JDBCSink sink = new JDBCSink();
+        sink.initialize(null, properties);
+
+        WriteOperation writeOperation = sink.createWriteOperation();
+        writeOperation.initialize(null);
+        Writer<Result> writer = writeOperation.createWriter(null);
+
+        writer.open("benchmark");
+        for (IndexedRecord record : records) {
+            writer.write(record);
+        }
+        return writer.close();
+    }
+
+}
@@ -0,0 +1,113 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.benchmarks;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.talend.components.common.avro.JDBCResultSetIndexedRecordConverter;
+import org.talend.components.jdbc.runtime.setting.AllSetting;
+
+/**
+ * convert every row of a table with JDBCResultSetIndexedRecordConverter and read all the values of the records. The
+ * connection stays open, but the query and the fetch of the rows are measured too, compare with the "scan" benchmark which
+ * only reads the result set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ResultSetConverterBenchmark {
+
+    private static final String TABLENAME = "BENCH_CONVERTER";
+
+    @Param({ "10", "50", "200" })
+    private int columns;
+
+    @Param({ "false", "true" })
+    private boolean reuseRecord;
+
+    @Param({ "10000" })
+    private int rows;
+
+    private Connection conn;
+
+    private JDBCResultSetIndexedRecordConverter converter;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Schema schema = BenchmarkDatabase.createSchema(TABLENAME, columns);
+        conn = BenchmarkDatabase.connect();
+        BenchmarkDatabase.createTable(conn, TABLENAME, columns);
+        BenchmarkDatabase.loadData(conn, TABLENAME, schema, rows);
+
+        AllSetting setting = BenchmarkDatabase.createAllSetting();
+        converter = new JDBCResultSetIndexedRecordConverter();
+        converter.setInfluencer(setting);
+        converter.setSchema(schema);
+        converter.setReuseRecord(reuseRecord);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try {
+            BenchmarkDatabase.dropTable(conn, TABLENAME);
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Benchmark
+    public void scan(Blackhole blackhole) throws Exception {
+        try (Statement statement = conn.createStatement();
+                ResultSet resultSet = statement.executeQuery("select * from " + TABLENAME)) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getInt(1));
+            }
+        }
+    }
+
+    @Benchmark
+    public void convert(Blackhole blackhole) throws Exception {
+        try (Statement statement = conn.createStatement();
+                ResultSet resultSet = statement.executeQuery("select * from " + TABLENAME)) {
+            while (resultSet.next()) {
+                IndexedRecord record = converter.convertToAvro(resultSet);
+                for (int i = 0; i < columns; i++) {
+                    blackhole.consume(record.get(i));
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.talend.components.jdbc.runtime.setting.AllSetting;
+import org.talend.components.jdbc.runtime.setting.JDBCSQLBuilder;
+import org.talend.components.jdbc.runtime.type.RowWriter;
+
+/**
+ * bind one record to an insert statement with RowWriter.write, the statement is never executed so only the binding is
+ * measured. write and writeDebug compare the type writers alone and wrapped for the debug sql, the noop statement
+ * removes the cost of the derby driver from the comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowWriterBenchmark {
+
+    private static final String TABLENAME = "BENCH_ROWWRITER";
+
+    @Param({ "10", "50", "200" })
+    private int columns;
+
+    @Param({ "derby", "noop" })
+    private String statementType;
+
+    private Connection conn;
+
+    private PreparedStatement statement;
+
+    private RowWriter rowWriter;
+
+    private RowWriter debugRowWriter;
+
+    private IndexedRecord record;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Schema schema = BenchmarkDatabase.createSchema(TABLENAME, columns);
+        conn = BenchmarkDatabase.connect();
+        BenchmarkDatabase.createTable(conn, TABLENAME, columns);
+
+        AllSetting setting = BenchmarkDatabase.createAllSetting();
+        List<JDBCSQLBuilder.Column> columnList = JDBCSQLBuilder.getInstance().createColumnList(setting, schema);
+        List<JDBCSQLBuilder.Column> insertColumns = new ArrayList<>();
+        for (JDBCSQLBuilder.Column column : columnList) {
+            if (column.insertable) {
+                insertColumns.add(column);
+            }
+        }
+
+        String sql = JDBCSQLBuilder.getInstance().generateSQL4Insert(TABLENAME, columnList);
+        statement = "noop".equals(statementType) ? createNoopStatement() : conn.prepareStatement(sql);
+        rowWriter = new RowWriter(insertColumns, schema, schema, statement);
+        debugRowWriter = new RowWriter(insertColumns, schema, schema, statement, true, sql);
+        record = BenchmarkDatabase.createRecord(schema, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try {
+            statement.close();
+            BenchmarkDatabase.dropTable(conn, TABLENAME);
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Benchmark
+    public String write() throws Exception {
+        return rowWriter.write(record);
+    }
+
+    @Benchmark
+    public String writeDebug() throws Exception {
+        return debugRowWriter.write(record);
+    }
+
+    private static PreparedStatement createNoopStatement() {
+        return (PreparedStatement) Proxy.newProxyInstance(RowWriterBenchmark.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        return null;
+                    }
+                });
+    }
+
+}
@@ -71,6 +71,16 @@ public class AllSetting implements Serializable, JDBCAvroRegistryInfluencer {
 
     private Integer batchSize;
 
+    private Boolean useBatchUpsert;
+
+    private Boolean usePipelinedBatch;
+
+    private Integer maxPendingBatches;
+
+    private Integer parallelConnections;
+
+    private String parallelKeyColumn;
+
     private Boolean closeConnection;
 
     private Boolean propagateQueryResultSet;
@@ -115,6 +125,8 @@ public class AllSetting implements Serializable, JDBCAvroRegistryInfluencer {
     
     public String escapeChar;
     
+    public boolean streamingLoad;
+    
     public String getJdbcUrl() {
         return jdbcUrl;
     }
@@ -282,6 +294,46 @@ public class AllSetting implements Serializable, JDBCAvroRegistryInfluencer {
         this.batchSize = batchSize;
     }
 
+    public boolean getUsePipelinedBatch() {
+        return usePipelinedBatch != null && usePipelinedBatch;
+    }
+
+    public void setUsePipelinedBatch(Boolean usePipelinedBatch) {
+        this.usePipelinedBatch = usePipelinedBatch;
+    }
+
+    public Integer getMaxPendingBatches() {
+        return maxPendingBatches;
+    }
+
+    public void setMaxPendingBatches(Integer maxPendingBatches) {
+        this.maxPendingBatches = maxPendingBatches;
+    }
+
+    public int getParallelConnections() {
+        return parallelConnections == null ? 1 : parallelConnections;
+    }
+
+    public void setParallelConnections(Integer parallelConnections) {
+        this.parallelConnections = parallelConnections;
+    }
+
+    public String getParallelKeyColumn() {
+        return parallelKeyColumn;
+    }
+
+    public void setParallelKeyColumn(String parallelKeyColumn) {
+        this.parallelKeyColumn = parallelKeyColumn;
+    }
+
+    public boolean getUseBatchUpsert() {
+        return useBatchUpsert != null && useBatchUpsert;
+    }
+
+    public void setUseBatchUpsert(Boolean useBatchUpsert) {
+        this.useBatchUpsert = useBatchUpsert;
+    }
+
     public boolean getCloseConnection() {
         return closeConnection != null && closeConnection;
     }
@@ -632,6 +684,59 @@ public class AllSetting implements Serializable, JDBCAvroRegistryInfluencer {
         this.enableFieldOptions = enableFieldOptions;
     }
 
+    private Boolean usePartitionedRead;
+
+    private String partitionColumn;
+
+    private Integer partitionNum;
+
+    public boolean getUsePartitionedRead() {
+        return usePartitionedRead != null && usePartitionedRead;
+    }
+
+    public void setUsePartitionedRead(Boolean usePartitionedRead) {
+        this.usePartitionedRead = usePartitionedRead;
+    }
+
+    public String getPartitionColumn() {
+        return partitionColumn;
+    }
+
+    public void setPartitionColumn(String partitionColumn) {
+        this.partitionColumn = partitionColumn;
+    }
+
+    public Integer getPartitionNum() {
+        return partitionNum;
+    }
+
+    public void setPartitionNum(Integer partitionNum) {
+        this.partitionNum = partitionNum;
+    }
+
+    private Boolean useAdaptiveFetch;
+
+    private Integer fetchMemoryBudget;
+
+    public boolean getUseAdaptiveFetch() {
+        return useAdaptiveFetch != null && useAdaptiveFetch;
+    }
+
+    public void setUseAdaptiveFetch(Boolean useAdaptiveFetch) {
+        this.useAdaptiveFetch = useAdaptiveFetch;
+    }
+
+    /**
+     * the memory in MB the fetched rows which are not read yet can take in the adaptive fetch mode
+     */
+    public int getFetchMemoryBudget() {
+        return fetchMemoryBudget == null || fetchMemoryBudget < 1 ? 64 : fetchMemoryBudget;
+    }
+
+    public void setFetchMemoryBudget(Integer fetchMemoryBudget) {
+        this.fetchMemoryBudget = fetchMemoryBudget;
+    }
+
     @Override
     public String toString() {
         return "AllSetting{" +
@@ -653,6 +758,11 @@ public class AllSetting implements Serializable, JDBCAvroRegistryInfluencer {
                 ", debug=" + debug +
                 ", useBatch=" + useBatch +
                 ", batchSize=" + batchSize +
+                ", useBatchUpsert=" + useBatchUpsert +
+                ", usePipelinedBatch=" + usePipelinedBatch +
+                ", maxPendingBatches=" + maxPendingBatches +
+                ", parallelConnections=" + parallelConnections +
+                ", parallelKeyColumn='" + parallelKeyColumn + '\'' +
                 ", closeConnection=" + closeConnection +
                 ", propagateQueryResultSet=" + propagateQueryResultSet +
                 ", useColumn='" + useColumn + '\'' +
@@ -688,6 +798,11 @@ public class AllSetting implements Serializable, JDBCAvroRegistryInfluencer {
                 ", deletionKey4FieldOption=" + deletionKey4FieldOption +
                 ", updatable4FieldOption=" + updatable4FieldOption +
                 ", insertable4FieldOption=" + insertable4FieldOption +
+                ", usePartitionedRead=" + usePartitionedRead +
+                ", partitionColumn='" + partitionColumn + '\'' +
+                ", partitionNum=" + partitionNum +
+                ", useAdaptiveFetch=" + useAdaptiveFetch +
+                ", fetchMemoryBudget=" + fetchMemoryBudget +
                 '}';
     }
 }
@@ -29,6 +29,8 @@ import org.talend.components.jdbc.tjdbcconnection.TJDBCConnectionDefinition;
 import org.talend.components.jdbc.tjdbcconnection.TJDBCConnectionProperties;
 import org.talend.daikon.properties.presentation.Form;
 import org.talend.daikon.properties.presentation.Widget;
+import org.talend.daikon.properties.property.Property;
+import org.talend.daikon.properties.property.PropertyFactory;
 
 public class TJDBCBulkExecProperties extends BulkModule implements RuntimeSettingProvider {
 
@@ -39,6 +41,9 @@ public class TJDBCBulkExecProperties extends BulkModule implements RuntimeSettin
     public JDBCConnectionModule connection = new JDBCConnectionModule("connection");
     
     public JDBCTableSelectionModule tableSelection = new JDBCTableSelectionModule("tableSelection");
+
+    // only set by tJDBCOutputBulkExec : the rows are already loaded by the output bulk part if the driver supports it
+    public Property<Boolean> streamingLoad = PropertyFactory.newBoolean("streamingLoad");
     
     public TJDBCBulkExecProperties(String name) {
         super(name);
@@ -125,6 +130,8 @@ public class TJDBCBulkExecProperties extends BulkModule implements RuntimeSettin
         setting.setNullValue = this.setNullValue.getValue();
         setting.nullValue = this.nullValue.getValue();
 
+        setting.streamingLoad = this.streamingLoad.getValue();
+
         return setting;
     }
 }
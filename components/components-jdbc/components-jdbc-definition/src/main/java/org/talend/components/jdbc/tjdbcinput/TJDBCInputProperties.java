@@ -102,6 +102,10 @@ public class TJDBCInputProperties extends FixedConnectorsComponentProperties imp
 
     public Property<Integer> cursor = PropertyFactory.newInteger("cursor").setRequired();
 
+    public Property<Boolean> useAdaptiveFetch = PropertyFactory.newBoolean("useAdaptiveFetch").setRequired();
+
+    public Property<Integer> fetchMemoryBudget = PropertyFactory.newInteger("fetchMemoryBudget").setRequired();
+
     public Property<Boolean> trimStringOrCharColumns = PropertyFactory.newBoolean("trimStringOrCharColumns").setRequired();
 
     public TrimFieldsTable trimTable = new TrimFieldsTable("trimTable");
@@ -116,6 +120,12 @@ public class TJDBCInputProperties extends FixedConnectorsComponentProperties imp
 
     public PreparedStatementTable preparedStatementTable = new PreparedStatementTable("preparedStatementTable");
 
+    public Property<Boolean> usePartitionedRead = PropertyFactory.newBoolean("usePartitionedRead").setRequired();
+
+    public Property<String> partitionColumn = PropertyFactory.newString("partitionColumn");
+
+    public Property<Integer> partitionNum = PropertyFactory.newInteger("partitionNum").setRequired();
+
     @Override
     public void setupLayout() {
         super.setupLayout();
@@ -140,6 +150,8 @@ public class TJDBCInputProperties extends FixedConnectorsComponentProperties imp
         Form advancedForm = CommonUtils.addForm(this, Form.ADVANCED);
         advancedForm.addRow(useCursor);
         advancedForm.addRow(cursor);
+        advancedForm.addRow(useAdaptiveFetch);
+        advancedForm.addRow(fetchMemoryBudget);
         advancedForm.addRow(trimStringOrCharColumns);
         advancedForm.addRow(widget(trimTable).setWidgetType(Widget.TABLE_WIDGET_TYPE));
         advancedForm.addRow(enableDBMapping);
@@ -147,6 +159,9 @@ public class TJDBCInputProperties extends FixedConnectorsComponentProperties imp
         advancedForm.addRow(enableSpecialTableName);
         advancedForm.addRow(usePreparedStatement);
         advancedForm.addRow(widget(preparedStatementTable).setWidgetType(Widget.TABLE_WIDGET_TYPE));
+        advancedForm.addRow(usePartitionedRead);
+        advancedForm.addRow(partitionColumn);
+        advancedForm.addRow(partitionNum);
     }
 
     @Override
@@ -157,12 +172,16 @@ public class TJDBCInputProperties extends FixedConnectorsComponentProperties imp
 
         cursor.setValue(1000);
 
+        fetchMemoryBudget.setValue(64);
+
         tableSelection.setConnection(this);
 
         dbMapping.setValue(DBTypes.MYSQL);
 
         enableSpecialTableName.setValue(true);
 
+        partitionNum.setValue(4);
+
         // FIXME now the trigger can't work very well, so have to call the updateTrimTable method in refreshLayout method directly
         // though refreshLayout is called at some strange place
         // EVENT_PROPERTY_VALUE_CHANGED will be fired only for one form which is ready to refresh (others will be ignored)
@@ -203,9 +222,12 @@ public class TJDBCInputProperties extends FixedConnectorsComponentProperties imp
 
         if (form.getName().equals(Form.ADVANCED)) {
             form.getWidget(cursor.getName()).setHidden(!useCursor.getValue());
+            form.getWidget(fetchMemoryBudget.getName()).setHidden(!useAdaptiveFetch.getValue());
             form.getWidget(trimTable.getName()).setHidden(trimStringOrCharColumns.getValue());
             form.getWidget(dbMapping.getName()).setVisible(enableDBMapping.getValue());
             form.getWidget(preparedStatementTable.getName()).setHidden(!usePreparedStatement.getValue());
+            form.getWidget(partitionColumn.getName()).setHidden(!usePartitionedRead.getValue());
+            form.getWidget(partitionNum.getName()).setHidden(!usePartitionedRead.getValue());
 
             updateTrimTable();
         }
@@ -266,6 +288,14 @@ public class TJDBCInputProperties extends FixedConnectorsComponentProperties imp
         refreshLayout(getForm(Form.ADVANCED));
     }
 
+    public void afterUseAdaptiveFetch() {
+        refreshLayout(getForm(Form.ADVANCED));
+    }
+
+    public void afterUsePartitionedRead() {
+        refreshLayout(getForm(Form.ADVANCED));
+    }
+
     public void beforePreparedStatementTable(){
         preparedStatementTable.types.setPossibleValues(PreparedStatementTable.Type.values());
     }
@@ -341,6 +371,8 @@ public class TJDBCInputProperties extends FixedConnectorsComponentProperties imp
 
         setting.setUseCursor(this.useCursor.getValue());
         setting.setCursor(this.cursor.getValue());
+        setting.setUseAdaptiveFetch(this.useAdaptiveFetch.getValue());
+        setting.setFetchMemoryBudget(this.fetchMemoryBudget.getValue());
 
         setting.setTrimStringOrCharColumns(this.trimStringOrCharColumns.getValue());
         setting.setTrims(this.trimTable.trim.getValue());
@@ -357,6 +389,10 @@ public class TJDBCInputProperties extends FixedConnectorsComponentProperties imp
         setting.setValues(this.preparedStatementTable.values.getValue());
         setting.setEnableSpecialTableName(this.enableSpecialTableName.getValue());
 
+        setting.setUsePartitionedRead(this.usePartitionedRead.getValue());
+        setting.setPartitionColumn(this.partitionColumn.getValue());
+        setting.setPartitionNum(this.partitionNum.getValue());
+
         return setting;
     }
 
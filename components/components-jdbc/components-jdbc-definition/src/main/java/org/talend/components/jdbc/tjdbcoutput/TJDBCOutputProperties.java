@@ -118,6 +118,16 @@ public class TJDBCOutputProperties extends FixedConnectorsComponentProperties im
 
     public Property<Integer> batchSize = PropertyFactory.newInteger("batchSize").setRequired();
 
+    public Property<Boolean> useBatchUpsert = PropertyFactory.newBoolean("useBatchUpsert").setRequired();
+
+    public Property<Boolean> usePipelinedBatch = PropertyFactory.newBoolean("usePipelinedBatch").setRequired();
+
+    public Property<Integer> maxPendingBatches = PropertyFactory.newInteger("maxPendingBatches").setRequired();
+
+    public Property<Integer> parallelConnections = PropertyFactory.newInteger("parallelConnections").setRequired();
+
+    public Property<String> parallelKeyColumn = PropertyFactory.newString("parallelKeyColumn");
+
     public void updateOutputSchemas() {
         Schema inputSchema = main.schema.getValue();
 
@@ -176,7 +186,12 @@ public class TJDBCOutputProperties extends FixedConnectorsComponentProperties im
 
         advancedForm.addRow(debug);
         advancedForm.addRow(useBatch);
+        advancedForm.addRow(useBatchUpsert);
         advancedForm.addRow(batchSize);
+        advancedForm.addRow(usePipelinedBatch);
+        advancedForm.addRow(maxPendingBatches);
+        advancedForm.addRow(parallelConnections);
+        advancedForm.addRow(widget(parallelKeyColumn).setWidgetType(Widget.ENUMERATION_WIDGET_TYPE));
     }
 
     @Override
@@ -189,6 +204,8 @@ public class TJDBCOutputProperties extends FixedConnectorsComponentProperties im
 
         useBatch.setValue(true);
         batchSize.setValue(10000);
+        maxPendingBatches.setValue(2);
+        parallelConnections.setValue(1);
 
         tableSelection.setConnection(this);
 
@@ -217,11 +234,21 @@ public class TJDBCOutputProperties extends FixedConnectorsComponentProperties im
             if ((dataAction.getValue() == DataAction.INSERT) || (dataAction.getValue() == DataAction.UPDATE)
                     || (dataAction.getValue() == DataAction.DELETE)) {
                 form.getWidget(useBatch.getName()).setHidden(false);
+                form.getWidget(useBatchUpsert.getName()).setHidden(true);
                 form.getWidget(batchSize.getName()).setHidden(!useBatch.getValue());
+                form.getWidget(usePipelinedBatch.getName()).setHidden(!useBatch.getValue());
+                form.getWidget(maxPendingBatches.getName()).setHidden(!useBatch.getValue() || !usePipelinedBatch.getValue());
             } else {
                 form.getWidget(useBatch.getName()).setHidden(true);
-                form.getWidget(batchSize.getName()).setHidden(true);
+                form.getWidget(useBatchUpsert.getName()).setHidden(false);
+                form.getWidget(batchSize.getName()).setHidden(!useBatchUpsert.getValue());
+                form.getWidget(usePipelinedBatch.getName()).setHidden(true);
+                form.getWidget(maxPendingBatches.getName()).setHidden(true);
             }
+            boolean parallelInsert = (dataAction.getValue() == DataAction.INSERT) && !useOtherConnection;
+            form.getWidget(parallelConnections.getName()).setHidden(!parallelInsert);
+            form.getWidget(parallelKeyColumn.getName())
+                    .setHidden(!parallelInsert || parallelConnections.getValue() == null || parallelConnections.getValue() < 2);
             form.getWidget(fieldOptions.getName()).setVisible(enableFieldOptions.getValue());
 
             updateReferenceColumns();
@@ -241,6 +268,7 @@ public class TJDBCOutputProperties extends FixedConnectorsComponentProperties im
         }
 
         additionalColumns.referenceColumns.setPossibleValues(fieldNames);
+        parallelKeyColumn.setPossibleValues(fieldNames);
     }
 
     public void afterReferencedComponent() {
@@ -260,6 +288,18 @@ public class TJDBCOutputProperties extends FixedConnectorsComponentProperties im
         refreshLayout(getForm(Form.ADVANCED));
     }
 
+    public void afterUseBatchUpsert() {
+        refreshLayout(getForm(Form.ADVANCED));
+    }
+
+    public void afterUsePipelinedBatch() {
+        refreshLayout(getForm(Form.ADVANCED));
+    }
+
+    public void afterParallelConnections() {
+        refreshLayout(getForm(Form.ADVANCED));
+    }
+
     public void afterEnableFieldOptions() {
         refreshLayout(getForm(Form.ADVANCED));
     }
@@ -397,6 +437,11 @@ public class TJDBCOutputProperties extends FixedConnectorsComponentProperties im
         setting.setDebug(this.debug.getValue());
         setting.setUseBatch(this.useBatch.getValue());
         setting.setBatchSize(this.batchSize.getValue());
+        setting.setUseBatchUpsert(this.useBatchUpsert.getValue());
+        setting.setUsePipelinedBatch(this.usePipelinedBatch.getValue());
+        setting.setMaxPendingBatches(this.maxPendingBatches.getValue());
+        setting.setParallelConnections(this.parallelConnections.getValue());
+        setting.setParallelKeyColumn(this.parallelKeyColumn.getValue());
 
         setting.setNewDBColumnNames4AdditionalParameters(this.additionalColumns.names.getValue());
         setting.setSqlExpressions4AdditionalParameters(this.additionalColumns.sqlExpressions.getValue());
@@ -20,10 +20,15 @@ import java.util.Set;
 
 import org.talend.components.api.component.Connector;
 import org.talend.components.api.component.PropertyPathConnector;
+import org.talend.components.api.properties.ComponentReferenceProperties;
 import org.talend.components.jdbc.CommonUtils;
 import org.talend.components.jdbc.RuntimeSettingProvider;
 import org.talend.components.jdbc.module.BulkModule;
+import org.talend.components.jdbc.module.JDBCConnectionModule;
+import org.talend.components.jdbc.module.JDBCTableSelectionModule;
 import org.talend.components.jdbc.runtime.setting.AllSetting;
+import org.talend.components.jdbc.tjdbcconnection.TJDBCConnectionDefinition;
+import org.talend.components.jdbc.tjdbcconnection.TJDBCConnectionProperties;
 import org.talend.daikon.properties.presentation.Form;
 import org.talend.daikon.properties.presentation.Widget;
 import org.talend.daikon.properties.property.Property;
@@ -32,6 +37,17 @@ public class TJDBCOutputBulkProperties extends BulkModule implements RuntimeSett
 
     //public Property<Boolean> includeHeader = newBoolean("includeHeader");
     public Property<Boolean> append = newBoolean("append");
+
+    // only set by tJDBCOutputBulkExec, which loads the rows through the connection without the bulk file when the driver
+    // supports it, so not in the forms
+    public Property<Boolean> streamingLoad = newBoolean("streamingLoad");
+
+    public ComponentReferenceProperties<TJDBCConnectionProperties> referencedComponent = new ComponentReferenceProperties<>(
+            "referencedComponent", TJDBCConnectionDefinition.COMPONENT_NAME);
+
+    public JDBCConnectionModule connection = new JDBCConnectionModule("connection");
+
+    public JDBCTableSelectionModule tableSelection = new JDBCTableSelectionModule("tableSelection");
     
     public TJDBCOutputBulkProperties(String name) {
         super(name);
@@ -40,6 +56,10 @@ public class TJDBCOutputBulkProperties extends BulkModule implements RuntimeSett
     @Override
     public void setupProperties() {
         super.setupProperties();
+
+        tableSelection.setConnection(this);
+
+        connection.setNotRequired();
     }
 
     @Override
@@ -84,6 +104,12 @@ public class TJDBCOutputBulkProperties extends BulkModule implements RuntimeSett
         setting.setNullValue = this.setNullValue.getValue();
         setting.nullValue = this.nullValue.getValue();
         //setting.includeHeader = this.includeHeader.getValue();
+
+        setting.streamingLoad = this.streamingLoad.getValue();
+        if (setting.streamingLoad) {
+            CommonUtils.setReferenceInfoAndConnectionInfo(setting, referencedComponent, connection);
+            setting.setTablename(this.tableSelection.tablename.getValue());
+        }
         return setting;
     }
     
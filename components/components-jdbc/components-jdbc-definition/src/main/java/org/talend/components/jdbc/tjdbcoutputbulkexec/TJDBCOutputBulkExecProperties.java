@@ -49,6 +49,8 @@ public class TJDBCOutputBulkExecProperties extends BulkModule implements Virtual
 
     //public Property<Boolean> includeHeader = newBoolean("includeHeader");
     public Property<Boolean> append = newBoolean("append");
+
+    public Property<Boolean> streamingLoad = newBoolean("streamingLoad");
     
     public TJDBCOutputBulkExecProperties(String name) {
         super(name);
@@ -80,6 +82,7 @@ public class TJDBCOutputBulkExecProperties extends BulkModule implements Virtual
         mainForm.addRow(widget(bulkFilePath).setWidgetType(Widget.FILE_WIDGET_TYPE));
         
         mainForm.addRow(append);
+        mainForm.addRow(streamingLoad);
 
         Form advancedForm = CommonUtils.addForm(this, Form.ADVANCED);
         advancedForm.addRow(rowSeparator);
@@ -123,6 +126,11 @@ public class TJDBCOutputBulkExecProperties extends BulkModule implements Virtual
         outputBulkProperties.main.schema.setStoredValue(main.schema.getStoredValue());
         outputBulkProperties.main.schema.setValueEvaluator(main.schema.getValueEvaluator());
 
+        // the streaming load connects in the output bulk part
+        if (CommonUtils.useExistedConnection(referencedComponent)) {
+            outputBulkProperties.referencedComponent.setReference(this.referencedComponent.getReference());
+        }
+
         // we need to pass also the possible values, only way from the studio to know it comes from a combo box (need to
         // add quotes for generation)
         for (Form form : outputBulkProperties.getForms()) {
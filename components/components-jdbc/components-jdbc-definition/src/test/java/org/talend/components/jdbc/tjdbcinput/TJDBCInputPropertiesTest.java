@@ -177,6 +177,51 @@ public class TJDBCInputPropertiesTest {
         Assert.assertFalse(!advance.getWidget(fixture.preparedStatementTable.getName()).isVisible());
     }
 
+    @Test
+    public void testAfterUsePartitionedRead() throws Exception {
+        TJDBCInputProperties fixture = new TJDBCInputProperties("input");
+        fixture.init();
+
+        Form advanced = fixture.getForm(Form.ADVANCED);
+
+        fixture.usePartitionedRead.setValue(true);
+        fixture.afterUsePartitionedRead();
+        Assert.assertTrue(advanced.getWidget(fixture.partitionColumn.getName()).isVisible());
+        Assert.assertTrue(advanced.getWidget(fixture.partitionNum.getName()).isVisible());
+
+        fixture.partitionColumn.setValue("ID");
+        AllSetting setting = fixture.getRuntimeSetting();
+        Assert.assertTrue(setting.getUsePartitionedRead());
+        Assert.assertEquals("ID", setting.getPartitionColumn());
+        Assert.assertEquals(Integer.valueOf(4), setting.getPartitionNum());
+
+        fixture.usePartitionedRead.setValue(false);
+        fixture.afterUsePartitionedRead();
+        Assert.assertTrue(!advanced.getWidget(fixture.partitionColumn.getName()).isVisible());
+        Assert.assertTrue(!advanced.getWidget(fixture.partitionNum.getName()).isVisible());
+    }
+
+    @Test
+    public void testAfterUseAdaptiveFetch() throws Exception {
+        TJDBCInputProperties fixture = new TJDBCInputProperties("input");
+        fixture.init();
+
+        Form advanced = fixture.getForm(Form.ADVANCED);
+
+        fixture.useAdaptiveFetch.setValue(true);
+        fixture.afterUseAdaptiveFetch();
+        Assert.assertTrue(advanced.getWidget(fixture.fetchMemoryBudget.getName()).isVisible());
+
+        fixture.fetchMemoryBudget.setValue(16);
+        AllSetting setting = fixture.getRuntimeSetting();
+        Assert.assertTrue(setting.getUseAdaptiveFetch());
+        Assert.assertEquals(16, setting.getFetchMemoryBudget());
+
+        fixture.useAdaptiveFetch.setValue(false);
+        fixture.afterUseAdaptiveFetch();
+        Assert.assertTrue(!advanced.getWidget(fixture.fetchMemoryBudget.getName()).isVisible());
+    }
+
     /**
      * Run the void afterReferencedComponent() method test.
      *
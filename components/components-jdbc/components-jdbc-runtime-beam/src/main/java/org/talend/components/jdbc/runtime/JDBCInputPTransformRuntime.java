@@ -13,21 +13,29 @@
 
 package org.talend.components.jdbc.runtime;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 
 import org.apache.avro.Schema;
 import org.apache.avro.generic.IndexedRecord;
 import org.apache.beam.sdk.coders.AvroCoder;
 import org.apache.beam.sdk.coders.Coder;
-import org.apache.beam.sdk.io.jdbc.JdbcIO;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.PTransform;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.Reshuffle;
 import org.apache.beam.sdk.values.PBegin;
 import org.apache.beam.sdk.values.PCollection;
 import org.talend.components.api.component.runtime.RuntimableRuntime;
 import org.talend.components.api.container.RuntimeContainer;
+import org.talend.components.common.runtime.PooledDataSource;
 import org.talend.components.jdbc.avro.ResultSetStringRecordConverter;
 import org.talend.components.jdbc.dataprep.JDBCInputProperties;
+import org.talend.components.jdbc.datastore.JDBCDatastoreProperties;
 import org.talend.components.jdbc.runtime.dataprep.JDBCDatasetRuntime;
+import org.talend.components.jdbc.runtime.reader.JDBCFetchTuner;
 import org.talend.daikon.avro.AvroUtils;
 import org.talend.daikon.avro.converter.IndexedRecordConverter;
 import org.talend.daikon.properties.ValidationResult;
@@ -36,34 +44,25 @@ public class JDBCInputPTransformRuntime extends PTransform<PBegin, PCollection<I
         RuntimableRuntime<JDBCInputProperties> {
 
     private static final int FETCH_SIZE = 1000;
-    private JDBCInputProperties properties;
 
-    private transient IndexedRecordConverter<ResultSet, IndexedRecord> factory;
+    // MB for the fetched rows of a reader, the fetch size above is only the first one
+    private static final int FETCH_MEMORY_BUDGET = 64;
+
+    private JDBCInputProperties properties;
 
     private AvroCoder<?> defaultOutputCoder;
 
     @Override
     public PCollection<IndexedRecord> expand(PBegin pBegin) {
-        return (PCollection<IndexedRecord>) pBegin.apply(JdbcIO
-                .<IndexedRecord> read()
-                .withDataSourceConfiguration(
-                        JdbcIO.DataSourceConfiguration
-                                .create(properties.getDatasetProperties().getDatastoreProperties().getCurrentDriverClass(),
-                                        properties.getDatasetProperties().getDatastoreProperties().jdbcUrl.getValue())
-                                .withUsername(properties.getDatasetProperties().getDatastoreProperties().userId.getValue())
-                                .withPassword(properties.getDatasetProperties().getDatastoreProperties().password.getValue()))
-                .withFetchSize(FETCH_SIZE)
-                .withQuery(properties.getDatasetProperties().getSql()).withRowMapper(new JdbcIO.RowMapper<IndexedRecord>() {
-
-                    @Override
-                    public IndexedRecord mapRow(ResultSet resultSet) throws Exception {
-                        if (factory == null) {
-                            factory = new ResultSetStringRecordConverter();
-                            factory.setSchema(defaultOutputCoder.getSchema());
-                        }
-                        return factory.convertToAvro(resultSet);
-                    }
-                }).withCoder(getDefaultOutputCoder()));
+        JDBCDatastoreProperties datastore = properties.getDatasetProperties().getDatastoreProperties();
+        JDBCFetchTuner fetchTuner = new JDBCFetchTuner(datastore.getCurrentDriverClass(), datastore.jdbcUrl.getValue(),
+                FETCH_MEMORY_BUDGET, FETCH_SIZE);
+
+        // the same steps as JdbcIO.read, the rows of the query are read by one worker and shared by the reshuffle
+        PCollection<IndexedRecord> records = pBegin.apply(Create.of(properties.getDatasetProperties().getSql()))
+                .apply(ParDo.of(new ReadFn(createDataSource(), fetchTuner, defaultOutputCoder)));
+        records.setCoder(getDefaultOutputCoder());
+        return records.apply(Reshuffle.<IndexedRecord> viaRandomKey());
     }
 
     @Override
@@ -71,6 +70,19 @@ public class JDBCInputPTransformRuntime extends PTransform<PBegin, PCollection<I
         return defaultOutputCoder;
     }
 
+    /**
+     * the pooled data source is serializable and shares its connections in each worker, so the bundles don't open a new
+     * connection each time. The read functions keep their connection from their setup to their teardown, and a worker
+     * runs as many of them as its parallelism, so the pool is not bounded.
+     */
+    private PooledDataSource createDataSource() {
+        JDBCDatastoreProperties datastore = properties.getDatasetProperties().getDatastoreProperties();
+        PooledDataSource dataSource = new PooledDataSource(datastore.getCurrentDriverClass(), datastore.jdbcUrl.getValue(),
+                datastore.userId.getValue(), datastore.password.getValue());
+        dataSource.setMaxPoolSize(0);
+        return dataSource;
+    }
+
     @Override
     public ValidationResult initialize(RuntimeContainer container, JDBCInputProperties properties) {
         this.properties = properties;
@@ -89,4 +101,63 @@ public class JDBCInputPTransformRuntime extends PTransform<PBegin, PCollection<I
         return ValidationResult.OK;
     }
 
+    /**
+     * run the query with a connection kept from the setup to the teardown, like JdbcIO. The auto commit disabled by the
+     * fetch tuner for the cursor of PostgreSQL is set back after each query, so the connection doesn't stay in a transaction
+     * until the teardown.
+     */
+    private static class ReadFn extends DoFn<String, IndexedRecord> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PooledDataSource dataSource;
+
+        private final JDBCFetchTuner fetchTuner;
+
+        private final AvroCoder<?> coder;
+
+        private transient Connection connection;
+
+        private transient IndexedRecordConverter<ResultSet, IndexedRecord> factory;
+
+        ReadFn(PooledDataSource dataSource, JDBCFetchTuner fetchTuner, AvroCoder<?> coder) {
+            this.dataSource = dataSource;
+            this.fetchTuner = fetchTuner;
+            this.coder = coder;
+        }
+
+        @Setup
+        public void setup() throws Exception {
+            connection = dataSource.getConnection();
+            factory = new ResultSetStringRecordConverter();
+            factory.setSchema(coder.getSchema());
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext context) throws Exception {
+            try (PreparedStatement statement = connection.prepareStatement(context.element(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                fetchTuner.prepare(statement);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        IndexedRecord record = factory.convertToAvro(resultSet);
+                        fetchTuner.afterRow(resultSet, record);
+                        context.output(record);
+                    }
+                }
+            } finally {
+                fetchTuner.restore();
+            }
+        }
+
+        @Teardown
+        public void teardown() throws Exception {
+            if (connection != null) {
+                connection.close();
+                connection = null;
+            }
+        }
+
+    }
+
 }
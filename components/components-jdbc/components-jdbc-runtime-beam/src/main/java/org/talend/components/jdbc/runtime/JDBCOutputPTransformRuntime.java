@@ -25,6 +25,8 @@ import org.apache.beam.sdk.values.PCollection;
 import org.apache.beam.sdk.values.PDone;
 import org.talend.components.api.component.runtime.RuntimableRuntime;
 import org.talend.components.api.container.RuntimeContainer;
+import org.talend.components.common.runtime.PooledDataSource;
+import org.talend.components.jdbc.datastore.JDBCDatastoreProperties;
 import org.talend.components.jdbc.datastream.JDBCOutputProperties;
 import org.talend.components.jdbc.runtime.setting.JDBCSQLBuilder;
 import org.talend.components.jdbc.runtime.type.JDBCMapping;
@@ -37,11 +39,8 @@ public class JDBCOutputPTransformRuntime extends PTransform<PCollection<IndexedR
 
     @Override
     public PDone expand(PCollection<IndexedRecord> input) {
-        return input.apply(JdbcIO.<IndexedRecord> write().withDataSourceConfiguration(JdbcIO.DataSourceConfiguration
-                .create(properties.getDatasetProperties().getDatastoreProperties().getCurrentDriverClass(),
-                        properties.getDatasetProperties().getDatastoreProperties().jdbcUrl.getValue())
-                .withUsername(properties.getDatasetProperties().getDatastoreProperties().userId.getValue())
-                .withPassword(properties.getDatasetProperties().getDatastoreProperties().password.getValue()))
+        return input.apply(JdbcIO.<IndexedRecord> write()
+                .withDataSourceConfiguration(JdbcIO.DataSourceConfiguration.create(createDataSource()))
                 .withStatement(
                         JDBCSQLBuilder.getInstance().generateSQL4Insert(properties.getDatasetProperties().tableName.getValue(),
                                 properties.getDatasetProperties().main.schema.getValue()))
@@ -58,6 +57,18 @@ public class JDBCOutputPTransformRuntime extends PTransform<PCollection<IndexedR
                 }));
     }
 
+    /**
+     * the write functions of a worker share the connections of this pool. Each of them keeps its connection from its setup
+     * to its teardown, so the pool is not bounded.
+     */
+    private PooledDataSource createDataSource() {
+        JDBCDatastoreProperties datastore = properties.getDatasetProperties().getDatastoreProperties();
+        PooledDataSource dataSource = new PooledDataSource(datastore.getCurrentDriverClass(), datastore.jdbcUrl.getValue(),
+                datastore.userId.getValue(), datastore.password.getValue());
+        dataSource.setMaxPoolSize(0);
+        return dataSource;
+    }
+
     @Override
     public ValidationResult initialize(RuntimeContainer container, JDBCOutputProperties properties) {
         this.properties = properties;
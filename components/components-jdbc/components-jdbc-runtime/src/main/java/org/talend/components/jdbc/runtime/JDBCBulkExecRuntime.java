@@ -26,6 +26,7 @@ import org.talend.components.api.container.RuntimeContainer;
 import org.talend.components.api.properties.ComponentProperties;
 import org.talend.components.jdbc.CommonUtils;
 import org.talend.components.jdbc.RuntimeSettingProvider;
+import org.talend.components.jdbc.runtime.bulk.BulkStreamLoaders;
 import org.talend.components.jdbc.runtime.setting.AllSetting;
 import org.talend.components.jdbc.runtime.setting.JdbcRuntimeSourceOrSinkDefault;
 import org.talend.daikon.avro.SchemaConstants;
@@ -110,6 +111,12 @@ public class JDBCBulkExecRuntime extends JdbcRuntimeSourceOrSinkDefault {
 		}
 
 		try {
+			// the output bulk part has loaded the rows by the same check, no bulk file to load
+			if (setting.streamingLoad && BulkStreamLoaders.find(conn, setting) != null) {
+				LOG.debug("The rows are already loaded by stream.");
+				return vr;
+			}
+
 			try (Statement stmt = conn.createStatement()) {
 				String bulkSql = createBulkSQL();
 				LOG.debug("Executing the query: '{}'", bulkSql);
@@ -14,20 +14,29 @@ package org.talend.components.jdbc.runtime;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
 import org.apache.avro.generic.IndexedRecord;
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.talend.components.api.component.runtime.Result;
 import org.talend.components.api.component.runtime.WriteOperation;
 import org.talend.components.api.component.runtime.Writer;
 import org.talend.components.api.container.RuntimeContainer;
 import org.talend.components.jdbc.CommonUtils;
 import org.talend.components.jdbc.RuntimeSettingProvider;
+import org.talend.components.jdbc.runtime.bulk.BulkStream;
+import org.talend.components.jdbc.runtime.bulk.BulkStreamLoader;
+import org.talend.components.jdbc.runtime.bulk.BulkStreamLoaders;
 import org.talend.components.jdbc.runtime.setting.AllSetting;
 import org.talend.components.jdbc.runtime.type.BulkFormatter;
 import org.talend.daikon.avro.AvroUtils;
@@ -36,10 +45,12 @@ import org.talend.daikon.avro.SchemaConstants;
 import com.csvreader.CsvWriter;
 
 /**
- * Generate bulk file
+ * Generate bulk file, or stream the rows to the database if the streaming load is asked and the driver supports it
  */
 public class JDBCBulkFileWriter implements Writer<Result> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(JDBCBulkFileWriter.class);
+
     protected RuntimeContainer container;
 
     private WriteOperation<Result> writeOperation;
@@ -66,6 +77,14 @@ public class JDBCBulkFileWriter implements Writer<Result> {
     private boolean isDynamic;
     
     private BulkFormatter bulkFormatter;
+
+    private Connection conn;
+
+    private boolean useExistedConnection;
+
+    private BulkStreamLoader streamLoader;
+
+    private BulkStream bulkStream;
     
     public JDBCBulkFileWriter(WriteOperation<Result> writeOperation, RuntimeSettingProvider bulkProperties, RuntimeContainer container) {
         this.writeOperation = writeOperation;
@@ -84,21 +103,62 @@ public class JDBCBulkFileWriter implements Writer<Result> {
     @Override
     public void open(String uId) throws IOException {
         this.result = new Result(uId);
+        if(setting.rowSeparator.length()>1) {
+            throw new RuntimeException("only support one char row separator");
+        }
+        if(setting.fieldSeparator.length()>1) {
+            throw new RuntimeException("only support one char field separator");
+        }
+
+        if (setting.streamingLoad) {
+            openStreamLoader();
+            if (streamLoader != null) {
+                // the csv writer is created with the first record, when the columns are known
+                return;
+            }
+        }
+
         String filepath = setting.bulkFile;
         if (filepath == null || filepath.isEmpty()) {
             throw new RuntimeException("Please set a valid value for \"Bulk File Path\" field.");
         }
         File file = new File(setting.bulkFile);
         file.getParentFile().mkdirs();
-        if(setting.rowSeparator.length()>1) {
-            throw new RuntimeException("only support one char row separator");
-        }
-        if(setting.fieldSeparator.length()>1) {
-            throw new RuntimeException("only support one char field separator");
+        csvWriter = createCsvWriter(new java.io.FileOutputStream(file, isAppend), false);
+
+        fileIsEmpty = (file.length() == 0);
+    }
+
+    private void openStreamLoader() {
+        useExistedConnection = setting.getReferencedComponentId() != null;
+        try {
+            if (useExistedConnection) {
+                conn = JdbcRuntimeUtils.fetchConnectionFromContextOrCreateNew(setting, container);
+            } else {
+                conn = JdbcRuntimeUtils.createConnectionOrGetFromSharedConnectionPoolOrDataSource(container, setting, false);
+            }
+
+            streamLoader = BulkStreamLoaders.find(conn, setting);
+            if (streamLoader == null) {
+                LOG.info("No streaming bulk load for the driver '{}', the bulk file is used.", setting.getDriverClass());
+                closeConnection();
+            }
+        } catch (ClassNotFoundException | SQLException e) {
+            throw CommonUtils.newComponentException(e);
         }
-        csvWriter = new CsvWriter(new OutputStreamWriter(new java.io.FileOutputStream(file, isAppend), charset), setting.fieldSeparator.charAt(0));
+    }
+
+    /**
+     * @param stream true for the stream of a loader, its values are always enclosed, see {@link BulkStreamLoader#load}
+     */
+    private CsvWriter createCsvWriter(OutputStream out, boolean stream) throws IOException {
+        CsvWriter csvWriter = new CsvWriter(new OutputStreamWriter(out, charset), setting.fieldSeparator.charAt(0));
         csvWriter.setRecordDelimiter(setting.rowSeparator.charAt(0));
-        if(setting.setTextEnclosure) {
+        if (stream) {
+            csvWriter.setUseTextQualifier(true);
+            csvWriter.setForceQualifier(true);
+            csvWriter.setTextQualifier(BulkStream.getTextEnclosure(setting));
+        } else if(setting.setTextEnclosure) {
             if(setting.textEnclosure.length()>1) {
                 throw new RuntimeException("only support one char text enclosure");
             }
@@ -111,8 +171,7 @@ public class JDBCBulkFileWriter implements Writer<Result> {
             csvWriter.setForceQualifier(false);
         }
         csvWriter.setEscapeMode(com.csvreader.CsvWriter.ESCAPE_MODE_BACKSLASH);
-
-        fileIsEmpty = (file.length() == 0);
+        return csvWriter;
     }
 
     private boolean headerIsReady = false;
@@ -134,15 +193,30 @@ public class JDBCBulkFileWriter implements Writer<Result> {
                 currentSchema = CommonUtils.mergeRuntimeSchema2DesignSchema4Dynamic(this.designSchema, inputSchema);
             }
             
-            bulkFormatter = new BulkFormatter(inputSchema, currentSchema, setting.setTextEnclosure);
+            bulkFormatter = new BulkFormatter(inputSchema, currentSchema, setting.setTextEnclosure || streamLoader != null);
+
+            if (streamLoader != null) {
+                bulkStream = new BulkStream(streamLoader, conn, setting, Arrays.asList(getHeaders(currentSchema)),
+                        BulkStream.DEFAULT_PIPE_SIZE);
+                csvWriter = createCsvWriter(bulkStream.getOutputStream(), true);
+            }
         }
 
-        if (includeHeader && !headerIsReady && (!isAppend || fileIsEmpty)) {
+        // the header is only for the bulk file, the loaders get the columns apart
+        if (includeHeader && !headerIsReady && streamLoader == null && (!isAppend || fileIsEmpty)) {
             csvWriter.writeRecord(getHeaders(currentSchema));
             headerIsReady = true;
         }
 
-        writeValues(record);
+        try {
+            writeValues(record);
+        } catch (IOException e) {
+            // the pipe is closed when the load fails, throw the reason
+            if (bulkStream != null) {
+                bulkStream.checkFailure();
+            }
+            throw e;
+        }
         
         result.totalCount++;
     }
@@ -153,11 +227,58 @@ public class JDBCBulkFileWriter implements Writer<Result> {
 
     @Override
     public Result close() throws IOException {
+        if (streamLoader != null) {
+            return closeStreamLoader();
+        }
+
         flush();
         csvWriter.close();
         return result;
     }
 
+    private Result closeStreamLoader() throws IOException {
+        try {
+            if (bulkStream != null) {
+                try {
+                    flush();
+                    csvWriter.close();
+                } catch (IOException e) {
+                    // closing the pipe would end the stream and the rows not flushed would be missing from the load
+                    BulkStream aborted = bulkStream;
+                    bulkStream = null;
+                    aborted.abort(e);
+                    throw e;
+                }
+                long count = bulkStream.finish();
+                LOG.debug("{} rows loaded by stream.", count);
+                bulkStream = null;
+
+                if (!useExistedConnection && !conn.getAutoCommit()) {
+                    conn.commit();
+                }
+            }
+        } catch (SQLException e) {
+            throw CommonUtils.newComponentException(e);
+        } finally {
+            streamLoader = null;
+            closeConnection();
+        }
+        return result;
+    }
+
+    private void closeConnection() {
+        if (useExistedConnection || conn == null) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            throw CommonUtils.newComponentException(e);
+        } finally {
+            conn = null;
+        }
+    }
+
     @Override
     public WriteOperation<Result> getWriteOperation() {
         return writeOperation;
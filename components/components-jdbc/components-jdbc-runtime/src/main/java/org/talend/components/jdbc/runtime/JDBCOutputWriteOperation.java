@@ -17,9 +17,11 @@ import org.talend.components.api.component.runtime.Sink;
 import org.talend.components.api.component.runtime.Writer;
 import org.talend.components.api.container.RuntimeContainer;
 import org.talend.components.jdbc.RuntimeSettingProvider;
+import org.talend.components.jdbc.runtime.setting.AllSetting;
 import org.talend.components.jdbc.runtime.writer.JDBCOutputDeleteWriter;
 import org.talend.components.jdbc.runtime.writer.JDBCOutputInsertOrUpdateWriter;
 import org.talend.components.jdbc.runtime.writer.JDBCOutputInsertWriter;
+import org.talend.components.jdbc.runtime.writer.JDBCOutputParallelInsertWriter;
 import org.talend.components.jdbc.runtime.writer.JDBCOutputUpdateOrInsertWriter;
 import org.talend.components.jdbc.runtime.writer.JDBCOutputUpdateWriter;
 import org.talend.components.jdbc.tjdbcoutput.TJDBCOutputProperties.DataAction;
@@ -40,10 +42,16 @@ public class JDBCOutputWriteOperation extends DefaultWriteOperation {
     public Writer<Result> createWriter(RuntimeContainer runtimeContainer) {
         RuntimeSettingProvider properties = ((JDBCSink) this.getSink()).properties;
 
-        DataAction dataAction = properties.getRuntimeSetting().getDataAction();
+        AllSetting setting = properties.getRuntimeSetting();
+        DataAction dataAction = setting.getDataAction();
 
         switch (dataAction) {
         case INSERT:
+            // the lanes need their own connections, so not possible with an existed or a shared connection
+            if (setting.getParallelConnections() > 1 && setting.getReferencedComponentId() == null
+                    && !setting.getShareConnection()) {
+                return new JDBCOutputParallelInsertWriter(this, runtimeContainer);
+            }
             return new JDBCOutputInsertWriter(this, runtimeContainer);
         case UPDATE:
             return new JDBCOutputUpdateWriter(this, runtimeContainer);
@@ -12,15 +12,33 @@
 // ============================================================================
 package org.talend.components.jdbc.runtime;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.talend.components.api.component.runtime.BoundedReader;
 import org.talend.components.api.component.runtime.BoundedSource;
 import org.talend.components.api.container.RuntimeContainer;
+import org.talend.components.api.properties.ComponentProperties;
+import org.talend.components.jdbc.CommonUtils;
+import org.talend.components.jdbc.JdbcComponentErrorsCode;
 import org.talend.components.jdbc.runtime.reader.JDBCInputReader;
+import org.talend.daikon.avro.AvroUtils;
 
 /**
  * JDBC runtime execution object for input action
@@ -28,8 +46,22 @@ import org.talend.components.jdbc.runtime.reader.JDBCInputReader;
  */
 public class JDBCSource extends JDBCSourceOrSink implements BoundedSource {
 
+    private static final Logger LOG = LoggerFactory.getLogger(JDBCSource.class);
+
     private static final long serialVersionUID = 1L;
 
+    private static final String PARTITION_ALIAS = "TALEND_PARTITION";
+
+    // the bounds below are only set on the sources created by splitIntoBundles, the lower bound is inclusive and the upper
+    // bound is exclusive, a null upper bound means the last partition which is not bounded
+    private String partitionColumn;
+
+    private Object partitionLowerBound;
+
+    private Object partitionUpperBound;
+
+    private boolean firstPartition;
+
     @SuppressWarnings("rawtypes")
     @Override
     public BoundedReader createReader(RuntimeContainer container) {
@@ -44,13 +76,90 @@ public class JDBCSource extends JDBCSourceOrSink implements BoundedSource {
     public List<? extends BoundedSource> splitIntoBundles(long desiredBundleSizeBytes, RuntimeContainer adaptor)
             throws Exception {
         List<BoundedSource> list = new ArrayList<>();
-        list.add(this);
-        return list;
+        if (!setting.getUsePartitionedRead() || isPartition()) {
+            list.add(this);
+            return list;
+        }
+
+        Connection conn = connect(adaptor);
+        try {
+            String sql = removeOrderBy(setting.getSql());
+            String column = getPartitionColumn(conn, sql);
+            if (column == null) {
+                LOG.warn("No partition column is set and no single column primary key is found for table '{}', read without partition.",
+                        setting.getTablename());
+                list.add(this);
+                return list;
+            }
+
+            Object min = null;
+            Object max = null;
+            long rows = 0;
+            // the rows are counted by the same query, they give the number of partitions if it's not set
+            String probe = "SELECT MIN(" + column + "), MAX(" + column + "), COUNT(*) FROM (" + sql + ") " + PARTITION_ALIAS;
+            LOG.debug("Partition bounds query: '{}'", probe);
+            try (PreparedStatement statement = conn.prepareStatement(probe)) {
+                bindUserParameters(statement);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        min = resultSet.getObject(1);
+                        max = resultSet.getObject(2);
+                        rows = resultSet.getLong(3);
+                    }
+                }
+            }
+
+            if (min == null || max == null) {
+                // empty result or only null values in the partition column, nothing to split
+                list.add(this);
+                return list;
+            }
+
+            // round the bounds outwards so that a fractional MIN or MAX doesn't lose the rows at the edges
+            long lower = toLong(min, RoundingMode.FLOOR);
+            long upper = toLong(max, RoundingMode.CEILING);
+
+            int partitionNum = getPartitionNum(desiredBundleSizeBytes, rows);
+            for (long[] range : splitRange(lower, upper, partitionNum)) {
+                JDBCSource partition = new JDBCSource();
+                partition.initialize(adaptor, (ComponentProperties) properties);
+                partition.partitionColumn = column;
+                partition.partitionLowerBound = fromLong(range[0], min);
+                partition.partitionUpperBound = range.length == 1 ? null : fromLong(range[1], min);
+                partition.firstPartition = (range[0] == lower);
+                list.add(partition);
+            }
+            LOG.debug("Split the query into {} partitions on column '{}'.", list.size(), column);
+            return list;
+        } finally {
+            closeIfNotShared(conn);
+        }
     }
 
     @Override
     public long getEstimatedSizeBytes(RuntimeContainer adaptor) {
-        return 0;
+        // counting the rows is not free, so only do it when the user asked for a partitioned read
+        if (!setting.getUsePartitionedRead()) {
+            return 0;
+        }
+
+        String countQuery = "SELECT COUNT(*) FROM (" + getQuery() + ") " + PARTITION_ALIAS + "_COUNT";
+        Connection conn = null;
+        try {
+            conn = connect(adaptor);
+            try (PreparedStatement statement = conn.prepareStatement(countQuery)) {
+                bindParameters(statement);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    long rows = resultSet.next() ? resultSet.getLong(1) : 0;
+                    return rows * estimateRowSize(setting.getSchema());
+                }
+            }
+        } catch (Exception e) {
+            LOG.warn("Unable to estimate the size of the query result : {}", e.getMessage());
+            return 0;
+        } finally {
+            closeIfNotShared(conn);
+        }
     }
 
     @Override
@@ -69,4 +178,345 @@ public class JDBCSource extends JDBCSourceOrSink implements BoundedSource {
         }
     }
 
+    /**
+     * @return true if this source only reads one range of the partition column
+     */
+    public boolean isPartition() {
+        return partitionColumn != null;
+    }
+
+    /**
+     * @return the query to execute, restricted to the partition range if this source is a partition
+     */
+    public String getQuery() {
+        if (!isPartition()) {
+            return setting.getSql();
+        }
+
+        StringBuilder query = new StringBuilder("SELECT * FROM (").append(removeOrderBy(setting.getSql())).append(") ")
+                .append(PARTITION_ALIAS).append(" WHERE ");
+        if (firstPartition) {
+            query.append('(').append(partitionColumn).append(" IS NULL OR ");
+        }
+        query.append(partitionColumn).append(" >= ?");
+        if (partitionUpperBound != null) {
+            query.append(" AND ").append(partitionColumn).append(" < ?");
+        }
+        if (firstPartition) {
+            query.append(')');
+        }
+        return query.toString();
+    }
+
+    /**
+     * fill the parameters of the statement created from {@link #getQuery()} : the prepared statement parameters set by the
+     * user, then the partition bounds
+     */
+    public void bindParameters(PreparedStatement statement) throws SQLException {
+        int index = bindUserParameters(statement);
+        if (!isPartition()) {
+            return;
+        }
+
+        setBound(statement, ++index, partitionLowerBound);
+        if (partitionUpperBound != null) {
+            setBound(statement, ++index, partitionUpperBound);
+        }
+    }
+
+    private int bindUserParameters(PreparedStatement statement) throws SQLException {
+        if (!setting.getUsePreparedStatement()) {
+            return 0;
+        }
+
+        List<Integer> indexs = setting.getIndexs();
+        JdbcRuntimeUtils.setPreparedStatement(statement, indexs, setting.getTypes(), setting.getValues());
+
+        int max = 0;
+        for (Integer index : indexs) {
+            max = Math.max(max, index);
+        }
+        return max;
+    }
+
+    private void setBound(PreparedStatement statement, int index, Object bound) throws SQLException {
+        if (bound instanceof java.sql.Date) {
+            statement.setDate(index, (java.sql.Date) bound);
+        } else if (bound instanceof Time) {
+            statement.setTime(index, (Time) bound);
+        } else if (bound instanceof Timestamp) {
+            statement.setTimestamp(index, (Timestamp) bound);
+        } else {
+            statement.setLong(index, (Long) bound);
+        }
+    }
+
+    /**
+     * @return the partition column quoted with the identifier quote of the database, null if it's not set and no single
+     * column primary key is found
+     */
+    private String getPartitionColumn(Connection conn, String sql) throws SQLException {
+        DatabaseMetaData metadata = conn.getMetaData();
+        String column = setting.getPartitionColumn();
+        if (column != null && !column.trim().isEmpty()) {
+            column = column.trim();
+        } else {
+            String tablename = setting.getTablename();
+            if (tablename == null || tablename.isEmpty()) {
+                return null;
+            }
+
+            // some databases store the table name upper case, so try both
+            column = getSinglePrimaryKey(metadata, tablename);
+            if (column == null) {
+                column = getSinglePrimaryKey(metadata, tablename.toUpperCase());
+            }
+            if (column == null) {
+                return null;
+            }
+        }
+
+        String quote = metadata.getIdentifierQuoteString();
+        if (quote == null || quote.trim().isEmpty() || column.startsWith(quote)) {
+            // the database doesn't quote the identifiers, or the user already quoted the column
+            return column;
+        }
+        return quote + getColumnLabel(conn, sql, column).replace(quote, quote + quote) + quote;
+    }
+
+    /**
+     * @return the label of the column in the query result, with the case given by the database as a quoted name is case
+     * sensitive
+     */
+    private String getColumnLabel(Connection conn, String sql, String column) throws SQLException {
+        String query = "SELECT * FROM (" + sql + ") " + PARTITION_ALIAS + " WHERE 1 = 0";
+        try (PreparedStatement statement = conn.prepareStatement(query)) {
+            bindUserParameters(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                ResultSetMetaData metadata = resultSet.getMetaData();
+                String label = null;
+                for (int i = 1; i <= metadata.getColumnCount(); i++) {
+                    String candidate = metadata.getColumnLabel(i);
+                    if (candidate.equals(column)) {
+                        return candidate;
+                    } else if (label == null && candidate.equalsIgnoreCase(column)) {
+                        label = candidate;
+                    }
+                }
+
+                if (label == null) {
+                    throw CommonUtils.newComponentException(JdbcComponentErrorsCode.SQL_ERROR,
+                            new SQLException("The partition column '" + column + "' is not a column of the query"));
+                }
+                return label;
+            }
+        }
+    }
+
+    private String getSinglePrimaryKey(DatabaseMetaData metadata, String tablename) throws SQLException {
+        String primaryKey = null;
+        try (ResultSet resultSet = metadata.getPrimaryKeys(null, null, tablename)) {
+            while (resultSet.next()) {
+                if (primaryKey != null) {
+                    // composite key, can't be used to split
+                    return null;
+                }
+                primaryKey = resultSet.getString("COLUMN_NAME");
+            }
+        }
+        return primaryKey;
+    }
+
+    private int getPartitionNum(long desiredBundleSizeBytes, long rows) {
+        Integer partitionNum = setting.getPartitionNum();
+        if (partitionNum != null && partitionNum > 0) {
+            return partitionNum;
+        }
+
+        long estimatedSize = rows * estimateRowSize(setting.getSchema());
+        if (desiredBundleSizeBytes <= 0 || estimatedSize <= 0) {
+            return 1;
+        }
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, estimatedSize / desiredBundleSizeBytes));
+    }
+
+    /**
+     * split [lower, upper] into at most partitionNum ranges, each range is {start, end} with an exclusive end except the
+     * last one which is {start} and not bounded. The computation is done on big integers so that a range covering more
+     * than Long.MAX_VALUE doesn't overflow.
+     */
+    static List<long[]> splitRange(long lower, long upper, int partitionNum) {
+        BigInteger start = BigInteger.valueOf(lower);
+        BigInteger end = BigInteger.valueOf(upper);
+        BigInteger step = end.subtract(start).divide(BigInteger.valueOf(Math.max(1, partitionNum))).add(BigInteger.ONE);
+
+        List<long[]> ranges = new ArrayList<>();
+        while (end.subtract(start).compareTo(step) >= 0) {
+            BigInteger next = start.add(step);
+            ranges.add(new long[] { start.longValue(), next.longValue() });
+            start = next;
+        }
+        ranges.add(new long[] { start.longValue() });
+        return ranges;
+    }
+
+    /**
+     * convert a bound of the partition column to a long, rounding the fractional values with the given mode and clamping
+     * the values which don't fit in a long
+     */
+    static long toLong(Object value, RoundingMode mode) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        } else if (value instanceof Number) {
+            if ((value instanceof Double && !isFinite((Double) value)) || (value instanceof Float && !isFinite((Float) value))) {
+                throw CommonUtils.newComponentException(JdbcComponentErrorsCode.SQL_ERROR,
+                        new SQLException("The partition column bounds should be finite numbers, but found : " + value));
+            }
+            BigDecimal decimal = value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+            BigInteger integer = decimal.setScale(0, mode).toBigInteger();
+            if (integer.compareTo(BigInteger.valueOf(Long.MAX_VALUE)) > 0) {
+                return Long.MAX_VALUE;
+            } else if (integer.compareTo(BigInteger.valueOf(Long.MIN_VALUE)) < 0) {
+                return Long.MIN_VALUE;
+            }
+            return integer.longValue();
+        } else if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+
+        throw CommonUtils.newComponentException(JdbcComponentErrorsCode.SQL_ERROR,
+                new SQLException("The partition column should be a numeric or date column, but found : " + value.getClass()));
+    }
+
+    private static boolean isFinite(double value) {
+        return !Double.isNaN(value) && !Double.isInfinite(value);
+    }
+
+    /**
+     * convert a bound back to the type of the partition column given by the sample. A DATE bound is truncated to its day,
+     * the bound shared by two partitions is truncated the same way for both so no row is lost.
+     */
+    static Object fromLong(long value, Object sample) {
+        if (sample instanceof java.sql.Date) {
+            return java.sql.Date.valueOf(new java.sql.Date(value).toString());
+        } else if (sample instanceof Time) {
+            return new Time(value);
+        } else if (sample instanceof Date) {
+            return new Timestamp(value);
+        }
+        return Long.valueOf(value);
+    }
+
+    /**
+     * remove the ORDER BY at the end of the query, as some databases like SQL Server refuse it in the sub query which reads
+     * a partition, and the partitions are read in parallel anyway. It's kept when the query limits its rows (TOP, LIMIT,
+     * OFFSET or FETCH), as the rows depend on the order then and those databases accept it.
+     */
+    static String removeOrderBy(String sql) {
+        int orderBy = -1;
+        boolean limited = false;
+        int depth = 0;
+        int length = sql.length();
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"' || c == '`' || c == '[') {
+                // skip the literal or the quoted identifier
+                i = sql.indexOf(c == '[' ? ']' : c, i + 1);
+            } else if (sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end;
+            } else if (sql.startsWith("/*", i)) {
+                i = sql.indexOf("*/", i + 2);
+                i = i < 0 ? i : i + 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && Character.isLetter(c) && (i == 0 || !isIdentifierPart(sql.charAt(i - 1)))) {
+                int start = i;
+                while (i + 1 < length && isIdentifierPart(sql.charAt(i + 1))) {
+                    i++;
+                }
+                String word = sql.substring(start, i + 1).toUpperCase();
+                if ("ORDER".equals(word) && isNextWord(sql, i + 1, "BY")) {
+                    orderBy = start;
+                } else if ("TOP".equals(word) || "LIMIT".equals(word) || "OFFSET".equals(word) || "FETCH".equals(word)) {
+                    limited = true;
+                }
+            }
+
+            if (i < 0) {
+                // not closed, the database will tell what's wrong
+                return sql;
+            }
+        }
+
+        if (orderBy < 0 || limited) {
+            return sql;
+        }
+        LOG.debug("The ORDER BY of the query is removed to read it by partitions.");
+        return sql.substring(0, orderBy).trim();
+    }
+
+    private static boolean isNextWord(String sql, int from, String word) {
+        int i = from;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        int end = i + word.length();
+        return i > from && sql.regionMatches(true, i, word, 0, word.length())
+                && (end == sql.length() || !isIdentifierPart(sql.charAt(end)));
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * a rough estimation of the size of one record for the schema, only used to compute the size of the data to read
+     */
+    static long estimateRowSize(Schema schema) {
+        if (schema == null || schema.getFields().isEmpty()) {
+            return 64;
+        }
+
+        long size = 0;
+        for (Field field : schema.getFields()) {
+            Schema type = AvroUtils.unwrapIfNullable(field.schema());
+            switch (type.getType()) {
+            case BOOLEAN:
+                size += 1;
+                break;
+            case INT:
+            case FLOAT:
+                size += 4;
+                break;
+            case LONG:
+            case DOUBLE:
+                size += 8;
+                break;
+            case BYTES:
+            case FIXED:
+                size += 64;
+                break;
+            default:
+                size += 32;
+                break;
+            }
+        }
+        return size;
+    }
+
+    private void closeIfNotShared(Connection conn) {
+        if (conn == null || setting.getReferencedComponentId() != null) {
+            return;
+        }
+
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            LOG.debug("Fail to close the connection : {}", e.getMessage());
+        }
+    }
+
 }
@@ -15,6 +15,7 @@ package org.talend.components.jdbc.runtime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.talend.components.api.container.RuntimeContainer;
+import org.talend.components.common.runtime.PooledConnectionsPool;
 import org.talend.components.common.runtime.SharedConnectionsPool;
 import org.talend.components.jdbc.CommonUtils;
 import org.talend.components.jdbc.ComponentConstants;
@@ -43,7 +44,8 @@ public class JdbcRuntimeUtils {
     private static final Logger LOG = LoggerFactory.getLogger(JdbcRuntimeUtils.class);
 
     /**
-     * get the JDBC connection object by the runtime setting
+     * get the JDBC connection object by the runtime setting, it's leased from the pool of the JVM for the same url, driver
+     * and properties, closing it gives back the physical connection
      *
      * @param setting
      * @return
@@ -80,7 +82,9 @@ public class JdbcRuntimeUtils {
                 setProperty("allowLocalInfile", "false"); // MariaDB
             }
         }};
-        return java.sql.DriverManager.getConnection(setting.getJdbcUrl(), properties);
+        // the driver is found from here, the class loader of the pool may not see it
+        java.sql.Driver driver = java.sql.DriverManager.getDriver(setting.getJdbcUrl());
+        return PooledConnectionsPool.getInstance().getDataSource(driver, setting.getJdbcUrl(), properties).getConnection();
     }
     
     private static boolean isMysql(String driverClass) {
@@ -198,8 +202,12 @@ public class JdbcRuntimeUtils {
         LOG.debug("Connection attempt to '{}' with the username '{}'",setting.getJdbcUrl(),setting.getUsername());
 
         if (setting.getShareConnection()) {
-            SharedConnectionsPool sharedConnectionPool = (SharedConnectionsPool) runtime
-                    .getGlobalData(ComponentConstants.GLOBAL_CONNECTION_POOL_KEY);
+            SharedConnectionsPool sharedConnectionPool = runtime == null ? null
+                    : (SharedConnectionsPool) runtime.getGlobalData(ComponentConstants.GLOBAL_CONNECTION_POOL_KEY);
+            if (sharedConnectionPool == null) {
+                // the job doesn't give its pool, use the one of the JVM
+                sharedConnectionPool = PooledConnectionsPool.getInstance();
+            }
             LOG.debug("Uses shared connection with name: '{}'",setting.getSharedConnectionName());
             LOG.debug("Connection URL: '{}', User name: '{}'",setting.getJdbcUrl(),setting.getUsername());
             conn = sharedConnectionPool.getDBConnection(setting.getDriverClass(), setting.getJdbcUrl(), setting.getUsername(),
@@ -0,0 +1,176 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.runtime.bulk;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.sql.Connection;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.components.jdbc.runtime.setting.AllSetting;
+
+/**
+ * bounded in memory pipe between the bulk writer and a stream loader : the writer writes the rows in the output stream
+ * while a background thread loads them, so the rows are never written on the disk. The writer waits when the pipe is
+ * full.
+ *
+ */
+public class BulkStream {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkStream.class);
+
+    public static final int DEFAULT_PIPE_SIZE = 1024 * 1024;
+
+    private final PipedOutputStream output;
+
+    private final Thread loaderThread;
+
+    private volatile Exception failure;
+
+    private volatile long count;
+
+    private volatile IOException abortCause;
+
+    public BulkStream(final BulkStreamLoader loader, final Connection conn, final AllSetting setting, final List<String> columns,
+            int pipeSize) throws IOException {
+        final PipedInputStream pipe = new PipedInputStream(pipeSize);
+        output = new PipedOutputStream(pipe);
+        // once aborted, the loader gets an error instead of the end of the stream, so it never loads a partial stream
+        final InputStream input = new FilterInputStream(pipe) {
+
+            @Override
+            public int read() throws IOException {
+                checkAborted();
+                int b = super.read();
+                checkAborted();
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                checkAborted();
+                int n = super.read(b, off, len);
+                checkAborted();
+                return n;
+            }
+        };
+
+        loaderThread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    count = loader.load(conn, setting, columns, input);
+                } catch (Exception e) {
+                    failure = e;
+                } finally {
+                    // let the writer fail at once if the loader stops before the end
+                    try {
+                        input.close();
+                    } catch (IOException e) {
+                        LOG.debug("Unable to close the bulk stream.", e);
+                    }
+                }
+            }
+        }, "talend-jdbc-bulk-stream");
+        loaderThread.setDaemon(true);
+        loaderThread.start();
+    }
+
+    /**
+     * @return the text enclosure of the stream : the one of the setting if set, else the double quote. Unlike the bulk
+     * file, every non null value of the stream is enclosed, so the loaders can use a CSV format without ambiguity.
+     */
+    public static char getTextEnclosure(AllSetting setting) {
+        if (setting.setTextEnclosure && setting.textEnclosure != null && !setting.textEnclosure.isEmpty()) {
+            return setting.textEnclosure.charAt(0);
+        }
+        return '"';
+    }
+
+    public OutputStream getOutputStream() {
+        return output;
+    }
+
+    /**
+     * close the output stream and wait for the end of the load
+     *
+     * @return the number of rows loaded
+     */
+    public long finish() throws IOException {
+        try {
+            output.close();
+        } catch (IOException e) {
+            // the loader closed the stream, its failure is more useful
+            LOG.debug("Unable to close the bulk stream.", e);
+        }
+
+        try {
+            loaderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the end of the bulk load", e);
+        }
+
+        checkFailure();
+        return count;
+    }
+
+    /**
+     * stop the load when the rows can't all be written : the loader fails instead of loading the rows already written,
+     * the method returns once the loader is stopped
+     *
+     * @param cause the reason of the abort, the failure of the loader is added to it if the loader failed first
+     */
+    public void abort(IOException cause) {
+        Exception loaderFailure = failure;
+        abortCause = cause;
+        try {
+            output.close();
+        } catch (IOException e) {
+            LOG.debug("Unable to close the bulk stream.", e);
+        }
+
+        try {
+            loaderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (loaderFailure != null && loaderFailure != cause) {
+            cause.addSuppressed(loaderFailure);
+        }
+    }
+
+    private void checkAborted() throws IOException {
+        if (abortCause != null) {
+            throw new IOException("The bulk load is aborted", abortCause);
+        }
+    }
+
+    /**
+     * throw the failure of the loader if any, to call when writing in the output stream fails
+     */
+    public void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException(failure.getMessage(), failure);
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.runtime.bulk;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.talend.components.jdbc.runtime.setting.AllSetting;
+
+/**
+ * load the rows of the bulk format into a table by the bulk API of a driver, without writing the bulk file
+ *
+ */
+public interface BulkStreamLoader {
+
+    /**
+     * @return true if this loader supports the database of the connection and the bulk format of the setting
+     */
+    boolean accept(Connection conn, AllSetting setting);
+
+    /**
+     * read the data until its end and load it into the table of the setting. The data is CSV with the field and row
+     * separators of the setting, without header. Every non null value is enclosed by
+     * {@link BulkStream#getTextEnclosure(AllSetting)}, the enclosure and the backslash inside are escaped by a backslash.
+     * The null values are written without enclosure, as the null value of the setting (empty if not set).
+     *
+     * @param columns the database column names, in the order of the fields in the data
+     * @return the number of rows loaded
+     */
+    long load(Connection conn, AllSetting setting, List<String> columns, InputStream data) throws SQLException, IOException;
+
+}
@@ -0,0 +1,59 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.runtime.bulk;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.talend.components.jdbc.runtime.setting.AllSetting;
+
+/**
+ * the known stream loaders, the first one which accepts the connection is used
+ *
+ */
+public class BulkStreamLoaders {
+
+    private static final List<BulkStreamLoader> LOADERS = new CopyOnWriteArrayList<>();
+
+    static {
+        LOADERS.add(new PostgreSQLCopyLoader());
+    }
+
+    private BulkStreamLoaders() {
+    }
+
+    /**
+     * add a loader, it's tried before the ones already registered
+     */
+    public static void register(BulkStreamLoader loader) {
+        LOADERS.add(0, loader);
+    }
+
+    public static void unregister(BulkStreamLoader loader) {
+        LOADERS.remove(loader);
+    }
+
+    /**
+     * @return the loader to use, null if none supports the connection, then the bulk file is used
+     */
+    public static BulkStreamLoader find(Connection conn, AllSetting setting) {
+        for (BulkStreamLoader loader : LOADERS) {
+            if (loader.accept(conn, setting)) {
+                return loader;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,128 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.runtime.bulk;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.talend.components.jdbc.runtime.setting.AllSetting;
+
+/**
+ * load the rows by the COPY FROM STDIN of PostgreSQL. The driver is called by reflection, as it's given by the job and not
+ * a dependency of this module.
+ *
+ */
+public class PostgreSQLCopyLoader implements BulkStreamLoader {
+
+    private static final String PG_CONNECTION = "org.postgresql.PGConnection";
+
+    @Override
+    public boolean accept(Connection conn, AllSetting setting) {
+        if (!isSupportedFormat(setting)) {
+            return false;
+        }
+
+        try {
+            Class<?> pgConnection = Class.forName(PG_CONNECTION, false, conn.getClass().getClassLoader());
+            return conn.isWrapperFor(pgConnection);
+        } catch (ClassNotFoundException | SQLException | AbstractMethodError e) {
+            return false;
+        }
+    }
+
+    @Override
+    public long load(Connection conn, AllSetting setting, List<String> columns, InputStream data)
+            throws SQLException, IOException {
+        try {
+            Class<?> pgConnection = Class.forName(PG_CONNECTION, false, conn.getClass().getClassLoader());
+            Object copyManager = pgConnection.getMethod("getCopyAPI").invoke(conn.unwrap(pgConnection));
+            Method copyIn = copyManager.getClass().getMethod("copyIn", String.class, InputStream.class);
+            return (Long) copyIn.invoke(copyManager, createCopySQL(setting, columns), data);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new SQLException(cause);
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException("The PostgreSQL driver doesn't support the copy API", e);
+        }
+    }
+
+    /**
+     * @return true if COPY can read the stream written with the separators of the setting, else the bulk file is used
+     */
+    boolean isSupportedFormat(AllSetting setting) {
+        // COPY only supports the new line as row separator
+        if (!"\n".equals(setting.rowSeparator) && !"\r\n".equals(setting.rowSeparator)) {
+            return false;
+        }
+
+        // the delimiter of COPY is a single one byte character, which can't be the quote or the escape of the stream
+        String fieldSeparator = setting.fieldSeparator;
+        if (fieldSeparator == null || fieldSeparator.length() != 1) {
+            return false;
+        }
+        char delimiter = fieldSeparator.charAt(0);
+        return delimiter < 0x80 && delimiter != '\r' && delimiter != '\n' && delimiter != '\\'
+                && delimiter != BulkStream.getTextEnclosure(setting);
+    }
+
+    String createCopySQL(AllSetting setting, List<String> columns) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("COPY ").append(setting.getTablename());
+
+        if (columns != null && !columns.isEmpty()) {
+            sb.append(" (");
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(columns.get(i));
+            }
+            sb.append(')');
+        }
+
+        // the values of the stream are always enclosed and escaped by backslash, the null values are not enclosed and
+        // the CSV format compares them before removing the escapes, so the null string is escaped the same way
+        String enclosure = String.valueOf(BulkStream.getTextEnclosure(setting));
+        sb.append(" FROM STDIN WITH (FORMAT csv");
+        sb.append(", DELIMITER ").append(quote(setting.fieldSeparator));
+        sb.append(", QUOTE ").append(quote(enclosure)).append(", ESCAPE ").append(quote("\\"));
+        String nullValue = setting.setNullValue && setting.nullValue != null ? setting.nullValue : "";
+        sb.append(", NULL ").append(quote(escapeNotEnclosed(nullValue, setting)));
+        sb.append(')');
+        return sb.toString();
+    }
+
+    /**
+     * escape a value the way the bulk writer does when it writes it without enclosure
+     */
+    private String escapeNotEnclosed(String value, AllSetting setting) {
+        return value.replace("\\", "\\\\").replace(setting.fieldSeparator, "\\" + setting.fieldSeparator)
+                .replace(setting.rowSeparator, "\\" + setting.rowSeparator);
+    }
+
+    private String quote(String value) {
+        return "E'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+
+}
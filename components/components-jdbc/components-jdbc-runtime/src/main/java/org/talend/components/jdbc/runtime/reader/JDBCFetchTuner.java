@@ -0,0 +1,247 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.runtime.reader;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+
+import org.apache.avro.generic.IndexedRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * read a big query result without keeping it in memory : the statement is put in the streaming mode of the database, then
+ * the fetch size follows the size of the rows read so far, so the fetched rows which are not read yet take about the
+ * memory budget.
+ *
+ * The streaming mode depends on the driver :
+ * <ul>
+ * <li>MySQL and MariaDB return the rows one by one with the fetch size Integer.MIN_VALUE, the fetch size is not adapted.
+ * With useCursorFetch=true in the url they use a server cursor which respects the fetch size, so it's adapted as
+ * usual</li>
+ * <li>PostgreSQL only uses a cursor outside of the auto commit mode, so it's disabled until {@link #restore()}</li>
+ * <li>the other drivers use the fetch size as is</li>
+ * </ul>
+ *
+ * Not thread safe, one instance for one reader.
+ */
+public class JDBCFetchTuner implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(JDBCFetchTuner.class);
+
+    public enum Dialect {
+        MYSQL,
+        POSTGRESQL,
+        ORACLE,
+        OTHER;
+
+        public static Dialect detect(String driverClass, String jdbcUrl) {
+            String text = ((driverClass == null ? "" : driverClass) + " " + (jdbcUrl == null ? "" : jdbcUrl)).toLowerCase();
+            if (text.contains("mysql") || text.contains("mariadb")) {
+                return MYSQL;
+            } else if (text.contains("postgresql")) {
+                return POSTGRESQL;
+            } else if (text.contains("oracle")) {
+                return ORACLE;
+            }
+            return OTHER;
+        }
+    }
+
+    static final int DEFAULT_INITIAL_FETCH_SIZE = 100;
+
+    static final int MIN_FETCH_SIZE = 10;
+
+    static final int MAX_FETCH_SIZE = 100000;
+
+    // only one row of SAMPLE_INTERVAL is measured, the size of a row is a mean anyway
+    private static final int SAMPLE_INTERVAL = 16;
+
+    private final Dialect dialect;
+
+    private final boolean rowByRow;
+
+    private final long memoryBudget;
+
+    private final int initialFetchSize;
+
+    private transient ResultSet currentResultSet;
+
+    private transient int fetchSize;
+
+    private transient long rowCount;
+
+    private transient int rowsSinceAdjust;
+
+    private transient long sampledBytes;
+
+    private transient long sampledRows;
+
+    private transient boolean adaptive;
+
+    private transient Connection autoCommitConnection;
+
+    /**
+     * @param memoryBudgetMB the memory in MB for the fetched rows
+     * @param initialFetchSize the fetch size before the size of the rows is known, a default one is used if it's not positive
+     */
+    public JDBCFetchTuner(String driverClass, String jdbcUrl, int memoryBudgetMB, int initialFetchSize) {
+        this.dialect = Dialect.detect(driverClass, jdbcUrl);
+        this.rowByRow = dialect == Dialect.MYSQL && (jdbcUrl == null || !jdbcUrl.toLowerCase().contains("usecursorfetch=true"));
+        this.memoryBudget = Math.max(1, memoryBudgetMB) * 1024L * 1024L;
+        this.initialFetchSize = initialFetchSize > 0 ? initialFetchSize : DEFAULT_INITIAL_FETCH_SIZE;
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * set the streaming mode and the first fetch size, to call before the statement is executed
+     */
+    public void prepare(Statement statement) throws SQLException {
+        if (dialect == Dialect.POSTGRESQL) {
+            Connection connection = statement.getConnection();
+            if (connection.getAutoCommit()) {
+                LOG.debug("Disable the auto commit to read with a cursor.");
+                connection.setAutoCommit(false);
+                autoCommitConnection = connection;
+            }
+        }
+
+        if (rowByRow) {
+            LOG.debug("Fetch the rows one by one.");
+            statement.setFetchSize(Integer.MIN_VALUE);
+            adaptive = false;
+        } else {
+            LOG.debug("Initial fetch size: {}", initialFetchSize);
+            statement.setFetchSize(initialFetchSize);
+            adaptive = true;
+        }
+
+        currentResultSet = null;
+        fetchSize = initialFetchSize;
+    }
+
+    /**
+     * measure the row which has just been converted, and change the fetch size of the result set when a whole fetch has been
+     * read and the size of the rows asks for another fetch size
+     */
+    public void afterRow(ResultSet resultSet, IndexedRecord record) {
+        if (!adaptive) {
+            return;
+        }
+
+        if (resultSet != currentResultSet) {
+            currentResultSet = resultSet;
+            rowCount = 0;
+            rowsSinceAdjust = 0;
+            sampledBytes = 0;
+            sampledRows = 0;
+            fetchSize = initialFetchSize;
+        }
+
+        if (rowCount++ % SAMPLE_INTERVAL == 0) {
+            sampledBytes += estimateSize(record);
+            sampledRows++;
+        }
+
+        if (++rowsSinceAdjust < fetchSize) {
+            return;
+        }
+        rowsSinceAdjust = 0;
+
+        int target = computeFetchSize(sampledBytes / sampledRows, memoryBudget);
+        // no change for small differences, some drivers do a round trip for each change
+        if (Math.abs(target - fetchSize) <= fetchSize / 4) {
+            return;
+        }
+
+        try {
+            resultSet.setFetchSize(target);
+            LOG.debug("Fetch size changed from {} to {}.", fetchSize, target);
+            fetchSize = target;
+        } catch (SQLException e) {
+            LOG.debug("The driver refuses to change the fetch size of the result set, keep {} : {}", fetchSize, e.getMessage());
+            adaptive = false;
+        }
+    }
+
+    /**
+     * the last fetch size, or Integer.MIN_VALUE when the rows are fetched one by one
+     */
+    public int getFetchSize() {
+        return rowByRow ? Integer.MIN_VALUE : fetchSize;
+    }
+
+    /**
+     * set back the auto commit mode changed by {@link #prepare(Statement)}, to call before the connection is closed or given
+     * back
+     */
+    public void restore() {
+        if (autoCommitConnection == null) {
+            return;
+        }
+        try {
+            if (!autoCommitConnection.isClosed()) {
+                // nothing is written by the query, so this only ends the transaction of the cursor
+                autoCommitConnection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOG.warn("Can't set back the auto commit mode : " + e.getMessage());
+        } finally {
+            autoCommitConnection = null;
+        }
+    }
+
+    static int computeFetchSize(long rowBytes, long memoryBudget) {
+        long size = memoryBudget / Math.max(1, rowBytes);
+        return (int) Math.max(MIN_FETCH_SIZE, Math.min(MAX_FETCH_SIZE, size));
+    }
+
+    /**
+     * rough size in the heap of the values of a record, the driver keeps them in a similar form
+     */
+    static long estimateSize(IndexedRecord record) {
+        int fieldCount = record.getSchema().getFields().size();
+        long size = 16 + 8L * fieldCount;
+        for (int i = 0; i < fieldCount; i++) {
+            Object value = record.get(i);
+            if (value == null) {
+                continue;
+            } else if (value instanceof CharSequence) {
+                size += 40 + 2L * ((CharSequence) value).length();
+            } else if (value instanceof byte[]) {
+                size += 16 + ((byte[]) value).length;
+            } else if (value instanceof ByteBuffer) {
+                size += 48 + ((ByteBuffer) value).remaining();
+            } else if (value instanceof BigDecimal) {
+                size += 40 + ((BigDecimal) value).precision() / 2;
+            } else if (value instanceof Date) {
+                size += 32;
+            } else {
+                size += 16;
+            }
+        }
+        return size;
+    }
+
+}
@@ -27,7 +27,6 @@ import org.talend.components.jdbc.ComponentConstants;
 import org.talend.components.jdbc.JdbcComponentErrorsCode;
 import org.talend.components.jdbc.RuntimeSettingProvider;
 import org.talend.components.jdbc.runtime.JDBCSource;
-import org.talend.components.jdbc.runtime.JdbcRuntimeUtils;
 import org.talend.components.jdbc.runtime.setting.AllSetting;
 import org.talend.daikon.avro.AvroUtils;
 import org.talend.daikon.avro.converter.IndexedRecordConverter;
@@ -77,6 +76,10 @@ public class JDBCInputReader extends AbstractBoundedReader<IndexedRecord> {
 
     private int readLimit = -1;
 
+    private boolean reuseRecord;
+
+    private JDBCFetchTuner fetchTuner;
+
     /**
      * Current {@link IndexedRecord} read by this {@link Reader}
      * It is returned in {@link Reader#getCurrent()} method.
@@ -102,6 +105,15 @@ public class JDBCInputReader extends AbstractBoundedReader<IndexedRecord> {
         this.readLimit = readLimit;
     }
 
+    /**
+     * Let the reader return the same {@link IndexedRecord} instance for every row, with the values of the current row. Only
+     * for the consumers which copy or serialize the record before calling {@link #advance()}, it must be called before
+     * {@link #start()}.
+     */
+    public void setReuseRecord(boolean reuseRecord) {
+        this.reuseRecord = reuseRecord;
+    }
+
     private Schema getSchema() throws IOException, SQLException {
         if (querySchema == null) {
             // we can't use the method below as the reader also work for dataset topic which don't support that.
@@ -182,6 +194,7 @@ public class JDBCInputReader extends AbstractBoundedReader<IndexedRecord> {
 
             if (converter instanceof JDBCResultSetIndexedRecordConverter) {
                 ((JDBCResultSetIndexedRecordConverter) converter).setSizeInResultSet(sizeInResultSet);
+                ((JDBCResultSetIndexedRecordConverter) converter).setReuseRecord(reuseRecord);
             }
 
         }
@@ -191,23 +204,24 @@ public class JDBCInputReader extends AbstractBoundedReader<IndexedRecord> {
     @Override
     public boolean start() {
         LOG.debug("JDBCInputReader start.");
+        // the source restricts the query to its range of the partition column when it's a partition of a partitioned read
+        String sql = source.getQuery();
         if (container != null) {
             container.setComponentData(container.getCurrentComponentId(),
-                    CommonUtils.getStudioNameFromProperty(ComponentConstants.RETURN_QUERY), setting.getSql());
+                    CommonUtils.getStudioNameFromProperty(ComponentConstants.RETURN_QUERY), sql);
         }
 
         result = new Result();
-        boolean usePreparedStatement = setting.getUsePreparedStatement();
+        boolean usePreparedStatement = setting.getUsePreparedStatement() || source.isPartition();
         try {
             conn = source.getConnection(container);
 
             String driverClass = setting.getDriverClass();
             if (driverClass != null && driverClass.toLowerCase().contains("mysql")) {
                 if (usePreparedStatement) {
-                    LOG.debug("Prepared statement: "+setting.getSql());
-                    PreparedStatement prepared_statement = conn.prepareStatement(setting.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-                    JdbcRuntimeUtils.setPreparedStatement(prepared_statement, setting.getIndexs(), setting.getTypes(),
-                            setting.getValues());
+                    LOG.debug("Prepared statement: "+sql);
+                    PreparedStatement prepared_statement = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    source.bindParameters(prepared_statement);
                     statement = prepared_statement;
                 }else{
                     LOG.debug("Create statement.");
@@ -225,10 +239,9 @@ public class JDBCInputReader extends AbstractBoundedReader<IndexedRecord> {
                 }
             } else {
                 if (usePreparedStatement) {
-                    LOG.debug("Prepared statement: "+setting.getSql());
-                	PreparedStatement prepared_statement = conn.prepareStatement(setting.getSql());
-                    JdbcRuntimeUtils.setPreparedStatement(prepared_statement, setting.getIndexs(), setting.getTypes(),
-                            setting.getValues());
+                    LOG.debug("Prepared statement: "+sql);
+                	PreparedStatement prepared_statement = conn.prepareStatement(sql);
+                    source.bindParameters(prepared_statement);
                     statement = prepared_statement;
 
                 }else {
@@ -237,15 +250,20 @@ public class JDBCInputReader extends AbstractBoundedReader<IndexedRecord> {
             }
 
 
-            if (setting.getUseCursor()) {
+            if (setting.getUseAdaptiveFetch()) {
+                // the cursor, if set, is only the fetch size before the size of the rows is known
+                fetchTuner = new JDBCFetchTuner(driverClass, setting.getJdbcUrl(), setting.getFetchMemoryBudget(),
+                        setting.getUseCursor() ? setting.getCursor() : 0);
+                fetchTuner.prepare(statement);
+            } else if (setting.getUseCursor()) {
                 LOG.debug("Fetch size: " +setting.getCursor());
                 statement.setFetchSize(setting.getCursor());
             }
             if (usePreparedStatement) {
             	resultSet = ((PreparedStatement)statement).executeQuery();
             }else {
-                LOG.debug("Executing the query: '{}'",setting.getSql());
-            	resultSet = statement.executeQuery(setting.getSql());
+                LOG.debug("Executing the query: '{}'",sql);
+            	resultSet = statement.executeQuery(sql);
             }
             	
             
@@ -265,6 +283,9 @@ public class JDBCInputReader extends AbstractBoundedReader<IndexedRecord> {
             result.totalCount++;
             LOG.debug("Retrieving the record: " + result.totalCount);
             currentRecord = getConverter(resultSet).convertToAvro(resultSet);
+            if (fetchTuner != null) {
+                fetchTuner.afterRow(resultSet, currentRecord);
+            }
         }
 
         return haveNext;
@@ -301,6 +322,11 @@ public class JDBCInputReader extends AbstractBoundedReader<IndexedRecord> {
                 statement = null;
             }
 
+            if (fetchTuner != null) {
+                fetchTuner.restore();
+                fetchTuner = null;
+            }
+
             if (!useExistedConnection && conn != null) {
                 LOG.debug("Closing connection");
                 conn.close();
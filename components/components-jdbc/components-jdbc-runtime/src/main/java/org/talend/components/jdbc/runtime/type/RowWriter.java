@@ -84,7 +84,8 @@ public class RowWriter {
                 writer = new ObjectTypeWriter(statement, statementIndex, inputValueLocation);
             }
 
-            writers.add(writer);
+            // the debug mode is known here, so only the debug writers check it and the others only set the value
+            writers.add(debug ? new DebugTypeWriter(writer) : writer);
         }
 
         typeWriters = writers.toArray(new TypeWriter[0]);
@@ -107,9 +108,7 @@ public class RowWriter {
     }
 
     private void writeDebugColumnNullContent() {
-        if (debug) {
-            debugUtil.writeColumn(null, false);
-        }
+        debugUtil.writeColumn(null, false);
     }
 
     class TypeWriter {
@@ -130,6 +129,33 @@ public class RowWriter {
             // do nothing
         }
 
+        void debug(Object inputValue) {
+            if (inputValue == null) {
+                writeDebugColumnNullContent();
+            } else {
+                debugUtil.writeColumn(inputValue.toString(), false);
+            }
+        }
+
+    }
+
+    /**
+     * write the value with the wrapped writer, then the value of the debug sql
+     */
+    class DebugTypeWriter extends TypeWriter {
+
+        private final TypeWriter writer;
+
+        DebugTypeWriter(TypeWriter writer) {
+            super(writer.statement, writer.statementIndex, writer.inputValueLocation);
+            this.writer = writer;
+        }
+
+        void write(IndexedRecord input) throws SQLException {
+            writer.write(input);
+            writer.debug(input.get(inputValueLocation));
+        }
+
     }
 
     class StringTypeWriter extends TypeWriter {
@@ -142,12 +168,16 @@ public class RowWriter {
             Object inputValue = input.get(inputValueLocation);
             if (inputValue == null) {
                 statement.setNull(statementIndex, java.sql.Types.VARCHAR);
-                writeDebugColumnNullContent();
             } else {
                 statement.setString(statementIndex, inputValue.toString());
-                if (debug) {
-                    debugUtil.writeColumn(inputValue.toString(), true);
-                }
+            }
+        }
+
+        void debug(Object inputValue) {
+            if (inputValue == null) {
+                writeDebugColumnNullContent();
+            } else {
+                debugUtil.writeColumn(inputValue.toString(), true);
             }
         }
     }
@@ -162,12 +192,8 @@ public class RowWriter {
             Object inputValue = input.get(inputValueLocation);
             if (inputValue == null) {
                 statement.setNull(statementIndex, java.sql.Types.INTEGER);
-                writeDebugColumnNullContent();
             } else {
                 statement.setInt(statementIndex, (int) inputValue);
-                if (debug) {
-                    debugUtil.writeColumn(inputValue.toString(), false);
-                }
             }
         }
 
@@ -195,27 +221,24 @@ public class RowWriter {
                     Timestamp target = new Timestamp(source.getTime());
                     target.setNanos(source.getNanos());
                     statement.setTimestamp(statementIndex, target);
-                    debug(inputValue);
                 } else if (inputValue instanceof Date) {
                     statement.setTimestamp(statementIndex, new Timestamp(((Date) inputValue).getTime()));
-                    debug(inputValue);
                 } else {
                     statement.setTimestamp(statementIndex, new Timestamp((long) inputValue));
-                    if (debug) {
-                        debugUtil.writeColumn(new Timestamp((long) inputValue).toString(), false);
-                    }
                 }
             }
         }
 
-        private void debug(Object inputValue) {
-            if (debug) {
-                if (pattern.length() == 0 || pattern == null) {
-                    debugUtil.writeColumn(inputValue.toString(), false);
-                } else {
-                    SimpleDateFormat sdf = new SimpleDateFormat(pattern);
-                    debugUtil.writeColumn(sdf.format((Date) inputValue), false);
-                }
+        void debug(Object inputValue) {
+            if (inputValue == null) {
+                // nothing for a null date
+            } else if (!(inputValue instanceof Date)) {
+                debugUtil.writeColumn(new Timestamp((long) inputValue).toString(), false);
+            } else if (pattern.length() == 0 || pattern == null) {
+                debugUtil.writeColumn(inputValue.toString(), false);
+            } else {
+                SimpleDateFormat sdf = new SimpleDateFormat(pattern);
+                debugUtil.writeColumn(sdf.format((Date) inputValue), false);
             }
         }
 
@@ -231,13 +254,9 @@ public class RowWriter {
             Object inputValue = input.get(inputValueLocation);
             if (inputValue == null) {
                 statement.setNull(statementIndex, java.sql.Types.DECIMAL);
-                writeDebugColumnNullContent();
             } else {
                 // TODO check if it's right
                 statement.setBigDecimal(statementIndex, (BigDecimal) inputValue);
-                if (debug) {
-                    debugUtil.writeColumn(inputValue.toString(), false);
-                }
             }
         }
 
@@ -253,12 +272,8 @@ public class RowWriter {
             Object inputValue = input.get(inputValueLocation);
             if (inputValue == null) {
                 statement.setNull(statementIndex, java.sql.Types.INTEGER);
-                writeDebugColumnNullContent();
             } else {
                 statement.setLong(statementIndex, (long) inputValue);
-                if (debug) {
-                    debugUtil.writeColumn(inputValue.toString(), false);
-                }
             }
         }
 
@@ -274,12 +289,8 @@ public class RowWriter {
             Object inputValue = input.get(inputValueLocation);
             if (inputValue == null) {
                 statement.setNull(statementIndex, java.sql.Types.DOUBLE);
-                writeDebugColumnNullContent();
             } else {
                 statement.setDouble(statementIndex, (double) inputValue);
-                if (debug) {
-                    debugUtil.writeColumn(inputValue.toString(), false);
-                }
             }
         }
 
@@ -295,12 +306,8 @@ public class RowWriter {
             Object inputValue = input.get(inputValueLocation);
             if (inputValue == null) {
                 statement.setNull(statementIndex, java.sql.Types.FLOAT);
-                writeDebugColumnNullContent();
             } else {
                 statement.setFloat(statementIndex, (float) inputValue);
-                if (debug) {
-                    debugUtil.writeColumn(inputValue.toString(), false);
-                }
             }
         }
 
@@ -316,12 +323,8 @@ public class RowWriter {
             Object inputValue = input.get(inputValueLocation);
             if (inputValue == null) {
                 statement.setNull(statementIndex, java.sql.Types.BOOLEAN);
-                writeDebugColumnNullContent();
             } else {
                 statement.setBoolean(statementIndex, (boolean) inputValue);
-                if (debug) {
-                    debugUtil.writeColumn(inputValue.toString(), false);
-                }
             }
         }
 
@@ -337,12 +340,8 @@ public class RowWriter {
             Object inputValue = input.get(inputValueLocation);
             if (inputValue == null) {
                 statement.setNull(statementIndex, java.sql.Types.INTEGER);
-                writeDebugColumnNullContent();
             } else {
                 statement.setShort(statementIndex, ((Number) inputValue).shortValue());
-                if (debug) {
-                    debugUtil.writeColumn(inputValue.toString(), false);
-                }
             }
         }
 
@@ -358,15 +357,11 @@ public class RowWriter {
             Object inputValue = input.get(inputValueLocation);
             if (inputValue == null) {
                 statement.setNull(statementIndex, java.sql.Types.INTEGER);
-                writeDebugColumnNullContent();
             } else {
                 // please see org.talend.codegen.enforcer.IncomingSchemaEnforcer, it will convert byte(Byte) to int(Integer), not
                 // know why, so change here
                 // statement.setByte(statementIndex, (byte) inputValue);
                 statement.setByte(statementIndex, ((Number) inputValue).byteValue());
-                if (debug) {
-                    debugUtil.writeColumn(inputValue.toString(), false);
-                }
             }
         }
 
@@ -382,12 +377,16 @@ public class RowWriter {
             Object inputValue = input.get(inputValueLocation);
             if (inputValue == null) {
                 statement.setNull(statementIndex, java.sql.Types.CHAR);
-                writeDebugColumnNullContent();
             } else {
                 statement.setInt(statementIndex, (char) inputValue);
-                if (debug) {
-                    debugUtil.writeColumn(inputValue.toString(), true);
-                }
+            }
+        }
+
+        void debug(Object inputValue) {
+            if (inputValue == null) {
+                writeDebugColumnNullContent();
+            } else {
+                debugUtil.writeColumn(inputValue.toString(), true);
             }
         }
 
@@ -403,12 +402,8 @@ public class RowWriter {
             Object inputValue = input.get(inputValueLocation);
             if (inputValue == null) {
                 statement.setNull(statementIndex, java.sql.Types.ARRAY);
-                writeDebugColumnNullContent();
             } else {
                 statement.setBytes(statementIndex, (byte[]) inputValue);
-                if (debug) {
-                    debugUtil.writeColumn(inputValue.toString(), false);
-                }
             }
         }
 
@@ -424,12 +419,8 @@ public class RowWriter {
             Object inputValue = input.get(inputValueLocation);
             if (inputValue == null) {
                 statement.setNull(statementIndex, java.sql.Types.JAVA_OBJECT);
-                writeDebugColumnNullContent();
             } else {
                 statement.setObject(statementIndex, inputValue);
-                if (debug) {
-                    debugUtil.writeColumn(inputValue.toString(), false);
-                }
             }
         }
 
@@ -0,0 +1,182 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.runtime.writer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.avro.generic.IndexedRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.components.jdbc.runtime.type.RowWriter;
+
+/**
+ * Executes the batches of a {@link JDBCOutputWriter} on a dedicated thread, so the writer can convert and buffer the next
+ * records while the database processes the current batch.
+ *
+ * The batches are bound, executed and committed in the order they are submitted, by one thread which is the only user of the
+ * statement and the connection until {@link #finish()} returns. At most maxPendingBatches batches wait for the execution,
+ * {@link #submit(List, boolean)} blocks when the limit is reached.
+ *
+ * With die on error, the first failure stops the execution of the following batches and is thrown to the writer, else it's
+ * logged and the next batches are executed, like in the batch mode without pipeline.
+ */
+class JDBCBatchPipeline {
+
+    private transient static final Logger LOG = LoggerFactory.getLogger(JDBCBatchPipeline.class);
+
+    private final JDBCOutputWriter writer;
+
+    private final Connection conn;
+
+    private final PreparedStatement statement;
+
+    private final RowWriter rowWriter;
+
+    private final boolean dieOnError;
+
+    private final ExecutorService executor;
+
+    private final Semaphore permits;
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    private volatile Exception failure;
+
+    JDBCBatchPipeline(JDBCOutputWriter writer, Connection conn, PreparedStatement statement, RowWriter rowWriter,
+            int maxPendingBatches, boolean dieOnError) {
+        this.writer = writer;
+        this.conn = conn;
+        this.statement = statement;
+        this.rowWriter = rowWriter;
+        this.dieOnError = dieOnError;
+        // one more permit for the batch in execution
+        this.permits = new Semaphore(Math.max(1, maxPendingBatches) + 1);
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "JDBC batch pipeline");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * submit the records of one batch, commit after it if asked. Throw the failure of a previous batch if any.
+     */
+    void submit(final List<IndexedRecord> records, final boolean commit) throws SQLException {
+        checkFailure();
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the execution of the previous batches", e);
+        }
+
+        executor.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    // skip the following batches after a failure, it will be thrown to the writer
+                    if (failure != null) {
+                        return;
+                    }
+
+                    for (IndexedRecord record : records) {
+                        rowWriter.write(record);
+                        statement.addBatch();
+                    }
+                    count.addAndGet(writer.executeBatchAndGetCount(statement));
+
+                    if (commit) {
+                        LOG.debug("Committing the transaction.");
+                        conn.commit();
+                    }
+                } catch (Exception e) {
+                    if (dieOnError) {
+                        failure = e;
+                    } else {
+                        LOG.warn(e.getMessage());
+                        clearBatchQuietly();
+                    }
+                } finally {
+                    permits.release();
+                }
+            }
+        });
+    }
+
+    /**
+     * wait for the execution of all the submitted batches and stop the thread
+     *
+     * @return the sum of the update counts of the batches
+     */
+    int finish() throws SQLException {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                LOG.debug("Waiting for the execution of the last batches.");
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the execution of the last batches", e);
+        }
+
+        checkFailure();
+        return count.get();
+    }
+
+    /**
+     * stop the thread without waiting for the submitted batches, do nothing after {@link #finish()}
+     */
+    void abort() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * drop the records of a failed batch which are still bound, so they are not executed with the next batch
+     */
+    private void clearBatchQuietly() {
+        try {
+            statement.clearBatch();
+        } catch (SQLException e) {
+            // clear quietly
+        }
+    }
+
+    private void checkFailure() throws SQLException {
+        Exception e = failure;
+        if (e == null) {
+            return;
+        }
+
+        if (e instanceof SQLException) {
+            throw (SQLException) e;
+        }
+        throw new SQLException(e.getMessage(), e);
+    }
+
+}
@@ -93,6 +93,15 @@ public class JDBCOutputDeleteWriter extends JDBCOutputWriter {
 
         initRowWriterIfNot(inputSchema);
 
+        if (usePipelinedBatch) {
+            try {
+                executeByPipeline(input, statement, rowWriter);
+            } catch (SQLException e) {
+                throw CommonUtils.newComponentException(e);
+            }
+            return;
+        }
+
         try {
             String sql_fact = rowWriter.write(input);
             if (sql_fact != null) {
@@ -132,6 +141,7 @@ public class JDBCOutputDeleteWriter extends JDBCOutputWriter {
 
     @Override
     public Result close() throws IOException {
+        deleteCount += finishPipeline();
         deleteCount += executeBatchAtLast();
 
         closeStatementQuietly(statement);
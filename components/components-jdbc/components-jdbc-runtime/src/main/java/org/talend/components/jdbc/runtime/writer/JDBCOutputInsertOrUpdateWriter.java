@@ -171,6 +171,12 @@ public class JDBCOutputInsertOrUpdateWriter extends JDBCOutputWriter {
 
         initRowWriterIfNot(inputSchema);
 
+        if (useBatch) {
+            writeUpsertByBatch(input, statementQuery, rowWriter4Query, statementUpdate, rowWriter4Update, statementInsert,
+                    rowWriter4Insert);
+            return;
+        }
+
         boolean dataExists = false;
 
         try {
@@ -239,6 +245,10 @@ public class JDBCOutputInsertOrUpdateWriter extends JDBCOutputWriter {
 
     @Override
     public Result close() throws IOException {
+        // execute the batch to make everything is passed to the server side before release the resource
+        executeUpsertBatch(statementQuery, rowWriter4Query, statementUpdate, rowWriter4Update, statementInsert,
+                rowWriter4Insert);
+
         closeStatementQuietly(statementQuery);
         closeStatementQuietly(statementUpdate);
         closeStatementQuietly(statementInsert);
@@ -94,6 +94,15 @@ public class JDBCOutputInsertWriter extends JDBCOutputWriter {
 
         initRowWriterIfNot(inputSchema);
 
+        if (usePipelinedBatch) {
+            try {
+                executeByPipeline(input, statement, rowWriter);
+            } catch (SQLException e) {
+                throw CommonUtils.newComponentException(e);
+            }
+            return;
+        }
+
         try {
             String sql_fact = rowWriter.write(input);
             if (sql_fact != null) {
@@ -137,6 +146,7 @@ public class JDBCOutputInsertWriter extends JDBCOutputWriter {
     @Override
     public Result close() throws IOException {
         // execute the batch to make everything is passed to the server side before release the resource
+        insertCount += finishPipeline();
         insertCount += executeBatchAtLast();
 
         closeStatementQuietly(statement);
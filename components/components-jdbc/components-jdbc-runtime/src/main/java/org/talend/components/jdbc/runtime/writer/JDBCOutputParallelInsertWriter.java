@@ -0,0 +1,301 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.runtime.writer;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.components.api.component.runtime.Result;
+import org.talend.components.api.component.runtime.WriteOperation;
+import org.talend.components.api.container.RuntimeContainer;
+import org.talend.components.jdbc.CommonUtils;
+import org.talend.components.jdbc.runtime.JdbcRuntimeUtils;
+import org.talend.components.jdbc.runtime.setting.JDBCSQLBuilder;
+import org.talend.components.jdbc.runtime.type.RowWriter;
+
+/**
+ * insert writer which spreads the records over several lanes, every lane has its own connection, statement and background
+ * thread, so several batches are inserted at the same time.
+ *
+ * The records go to the lanes one after another, or by the hash of the value of a key column if it's set, so the records
+ * with the same key are always inserted by the same lane in their input order.
+ *
+ * Every lane is a separated transaction : it commits each time it has inserted "commit every" records, and at the end. So
+ * when a lane fails, the other lanes may have committed their records already, the job is not atomic even when "commit
+ * every" is bigger than the number of records.
+ */
+public class JDBCOutputParallelInsertWriter extends JDBCOutputWriter {
+
+    private transient static final Logger LOG = LoggerFactory.getLogger(JDBCOutputParallelInsertWriter.class);
+
+    private final int laneCount;
+
+    private final String laneKeyColumn;
+
+    private final List<Lane> lanes = new ArrayList<>();
+
+    private int nextLane;
+
+    private int laneKeyPosition = -1;
+
+    private String sql;
+
+    private Schema currentSchema;
+
+    private List<JDBCSQLBuilder.Column> columnList4Statement;
+
+    public JDBCOutputParallelInsertWriter(WriteOperation<Result> writeOperation, RuntimeContainer runtime) {
+        super(writeOperation, runtime);
+        laneCount = setting.getParallelConnections();
+        String keyColumn = setting.getParallelKeyColumn();
+        laneKeyColumn = (keyColumn == null || keyColumn.trim().isEmpty()) ? null : keyColumn.trim();
+    }
+
+    @Override
+    public void open(String uId) throws IOException {
+        super.open(uId);
+        try {
+            // the lanes don't use the sink connection, so commit the clear of the table now, or it would lock them
+            if (conn != null && useCommit) {
+                conn.commit();
+            }
+
+            for (int i = 0; i < laneCount; i++) {
+                Connection laneConnection = JdbcRuntimeUtils.createConnectionOrGetFromSharedConnectionPoolOrDataSource(runtime,
+                        setting, false);
+                if (useCommit) {
+                    laneConnection.setAutoCommit(false);
+                }
+                lanes.add(new Lane(laneConnection));
+            }
+
+            // if not dynamic, we can computer it now for "fail soon" way, not fail in main part if fail
+            if (!isDynamic) {
+                sql = JDBCSQLBuilder.getInstance().generateSQL4Insert(setting.getTablename(), columnList);
+                for (Lane lane : lanes) {
+                    lane.prepare();
+                }
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            throw CommonUtils.newComponentException(e);
+        }
+    }
+
+    private void initIfNot(Schema inputSchema) {
+        if (columnList4Statement != null) {
+            return;
+        }
+
+        currentSchema = componentSchema;
+        if (isDynamic) {
+            try {
+                currentSchema = CommonUtils.mergeRuntimeSchema2DesignSchema4Dynamic(componentSchema, inputSchema);
+                columnList = JDBCSQLBuilder.getInstance().createColumnList(setting, currentSchema);
+                sql = JDBCSQLBuilder.getInstance().generateSQL4Insert(setting.getTablename(), columnList);
+                for (Lane lane : lanes) {
+                    lane.prepare();
+                }
+            } catch (SQLException e) {
+                throw CommonUtils.newComponentException(e);
+            }
+        }
+
+        columnList4Statement = new ArrayList<>();
+        for (JDBCSQLBuilder.Column column : columnList) {
+            if (column.addCol || (column.isReplaced())) {
+                continue;
+            }
+
+            if (column.insertable) {
+                columnList4Statement.add(column);
+            }
+        }
+
+        if (laneKeyColumn != null) {
+            Schema.Field keyField = CommonUtils.getField(inputSchema, laneKeyColumn);
+            if (keyField == null) {
+                throw new RuntimeException("The column used to choose the connection doesn't exist : " + laneKeyColumn);
+            }
+            laneKeyPosition = keyField.pos();
+        }
+    }
+
+    @Override
+    public void write(Object datum) throws IOException {
+        super.write(datum);
+
+        IndexedRecord input = this.getFactory(datum).convertToAvro(datum);
+
+        initIfNot(input.getSchema());
+
+        Lane lane;
+        if (laneKeyPosition < 0) {
+            lane = lanes.get(nextLane);
+            nextLane = (nextLane + 1) % laneCount;
+        } else {
+            Object key = input.get(laneKeyPosition);
+            lane = lanes.get(key == null ? 0 : (key.hashCode() & Integer.MAX_VALUE) % laneCount);
+        }
+
+        try {
+            lane.add(input);
+        } catch (SQLException e) {
+            if (dieOnError) {
+                throw CommonUtils.newComponentException(e);
+            } else {
+                LOG.warn(e.getMessage());
+            }
+        }
+
+        result.totalCount++;
+        handleSuccess(input);
+    }
+
+    @Override
+    public Result close() throws IOException {
+        SQLException failure = null;
+        for (Lane lane : lanes) {
+            try {
+                insertCount += lane.finish();
+            } catch (SQLException e) {
+                // every lane is finished even if one fails, so all the connections are released
+                if (!dieOnError) {
+                    LOG.warn(e.getMessage());
+                } else if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        lanes.clear();
+
+        commitAndCloseAtLast();
+
+        constructResult();
+
+        if (failure != null) {
+            throw CommonUtils.newComponentException(failure);
+        }
+
+        return result;
+    }
+
+    /**
+     * one connection with its statement and the thread which executes its batches
+     */
+    private class Lane {
+
+        private final Connection connection;
+
+        private PreparedStatement statement;
+
+        private JDBCBatchPipeline pipeline;
+
+        private List<IndexedRecord> records = new ArrayList<>();
+
+        private int uncommittedCount;
+
+        Lane(Connection connection) {
+            this.connection = connection;
+        }
+
+        void prepare() throws SQLException {
+            statement = connection.prepareStatement(sql);
+        }
+
+        void add(IndexedRecord input) throws SQLException {
+            if (pipeline == null) {
+                RowWriter rowWriter = new RowWriter(columnList4Statement, input.getSchema(), currentSchema, statement);
+                pipeline = new JDBCBatchPipeline(JDBCOutputParallelInsertWriter.this, connection, statement, rowWriter, 1,
+                        dieOnError);
+            }
+
+            records.add(input);
+
+            boolean commit = false;
+            if (useCommit && ++uncommittedCount >= commitEvery) {
+                uncommittedCount = 0;
+                commit = true;
+            }
+
+            if (commit || !useBatch || records.size() >= batchSize) {
+                List<IndexedRecord> batch = records;
+                records = new ArrayList<>();
+                pipeline.submit(batch, commit);
+            }
+        }
+
+        /**
+         * insert the last records, commit and release the connection. The failures of the rollback and of the close are
+         * added to the first failure as suppressed exceptions, so they don't hide it.
+         */
+        int finish() throws SQLException {
+            SQLException failure = null;
+            int count = 0;
+            try {
+                if (pipeline != null) {
+                    try {
+                        if (!records.isEmpty()) {
+                            pipeline.submit(records, false);
+                        }
+                        count = pipeline.finish();
+                    } finally {
+                        pipeline.abort();
+                    }
+                }
+
+                if (useCommit && uncommittedCount > 0) {
+                    LOG.debug("Committing the transaction.");
+                    connection.commit();
+                }
+            } catch (SQLException e) {
+                failure = e;
+                if (useCommit) {
+                    // some drivers refuse to close a connection with an active transaction
+                    try {
+                        connection.rollback();
+                    } catch (SQLException rollbackFailure) {
+                        failure.addSuppressed(rollbackFailure);
+                    }
+                }
+            } finally {
+                closeStatementQuietly(statement);
+                try {
+                    connection.close();
+                } catch (SQLException closeFailure) {
+                    if (failure == null) {
+                        failure = closeFailure;
+                    } else {
+                        failure.addSuppressed(closeFailure);
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+            return count;
+        }
+
+    }
+
+}
@@ -33,10 +33,14 @@ public class JDBCOutputUpdateOrInsertWriter extends JDBCOutputWriter {
 
     private transient static final Logger LOG = LoggerFactory.getLogger(JDBCOutputUpdateOrInsertWriter.class);
 
+    private String sqlQuery;
+
     private String sqlInsert;
 
     private String sqlUpdate;
 
+    private PreparedStatement statementQuery;
+
     private PreparedStatement statementInsert;
 
     private PreparedStatement statementUpdate;
@@ -57,6 +61,8 @@ public class JDBCOutputUpdateOrInsertWriter extends JDBCOutputWriter {
         
                 sqlUpdate = JDBCSQLBuilder.getInstance().generateSQL4Update(setting.getTablename(), columnList);
                 statementUpdate = conn.prepareStatement(sqlUpdate);
+
+                prepareQueryIfBatch();
             }
         } catch (ClassNotFoundException | SQLException e) {
             throw CommonUtils.newComponentException(e);
@@ -64,6 +70,18 @@ public class JDBCOutputUpdateOrInsertWriter extends JDBCOutputWriter {
 
     }
 
+    /**
+     * the batch mode checks if a row exists when the driver doesn't return the update count of a batch row
+     */
+    private void prepareQueryIfBatch() throws SQLException {
+        if (useBatch) {
+            sqlQuery = JDBCSQLBuilder.getInstance().generateQuerySQL4InsertOrUpdate(setting.getTablename(), columnList);
+            statementQuery = conn.prepareStatement(sqlQuery);
+        }
+    }
+
+    private RowWriter rowWriter4Query = null;
+
     private RowWriter rowWriter4Update = null;
 
     private RowWriter rowWriter4Insert = null;
@@ -83,6 +101,8 @@ public class JDBCOutputUpdateOrInsertWriter extends JDBCOutputWriter {
             
                     sqlUpdate = JDBCSQLBuilder.getInstance().generateSQL4Update(setting.getTablename(), columnList);
                     statementUpdate = conn.prepareStatement(sqlUpdate);
+
+                    prepareQueryIfBatch();
                 } catch (SQLException e) {
                     throw CommonUtils.newComponentException(e);
                 }
@@ -90,6 +110,21 @@ public class JDBCOutputUpdateOrInsertWriter extends JDBCOutputWriter {
             
             initSchema = true;
         }
+
+        if (rowWriter4Query == null && statementQuery != null) {
+            List<JDBCSQLBuilder.Column> columnList4Statement = new ArrayList<>();
+            for (JDBCSQLBuilder.Column column : columnList) {
+                if (column.addCol || (column.isReplaced())) {
+                    continue;
+                }
+
+                if (column.updateKey) {
+                    columnList4Statement.add(column);
+                }
+            }
+
+            rowWriter4Query = new RowWriter(columnList4Statement, inputSchema, currentSchema, statementQuery);
+        }
     	
         if (rowWriter4Update == null) {
             List<JDBCSQLBuilder.Column> columnList4Statement = new ArrayList<>();
@@ -142,6 +177,12 @@ public class JDBCOutputUpdateOrInsertWriter extends JDBCOutputWriter {
 
         initRowWriterIfNot(inputSchema);
 
+        if (useBatch) {
+            writeUpsertByBatch(input, statementQuery, rowWriter4Query, statementUpdate, rowWriter4Update, statementInsert,
+                    rowWriter4Insert);
+            return;
+        }
+
         try {
             String updateSql_fact = rowWriter4Update.write(input);
             if (updateSql_fact != null) {
@@ -198,9 +239,15 @@ public class JDBCOutputUpdateOrInsertWriter extends JDBCOutputWriter {
 
     @Override
     public Result close() throws IOException {
+        // execute the batch to make everything is passed to the server side before release the resource
+        executeUpsertBatch(statementQuery, rowWriter4Query, statementUpdate, rowWriter4Update, statementInsert,
+                rowWriter4Insert);
+
+        closeStatementQuietly(statementQuery);
         closeStatementQuietly(statementUpdate);
         closeStatementQuietly(statementInsert);
 
+        statementQuery = null;
         statementUpdate = null;
         statementInsert = null;
 
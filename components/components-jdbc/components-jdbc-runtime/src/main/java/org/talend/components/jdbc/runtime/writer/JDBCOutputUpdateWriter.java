@@ -103,6 +103,15 @@ public class JDBCOutputUpdateWriter extends JDBCOutputWriter {
 
         initRowWriterIfNot(inputSchema);
 
+        if (usePipelinedBatch) {
+            try {
+                executeByPipeline(input, statement, rowWriter);
+            } catch (SQLException e) {
+                throw CommonUtils.newComponentException(e);
+            }
+            return;
+        }
+
         try {
             String sql_fact = rowWriter.write(input);
             if (sql_fact != null) {
@@ -141,6 +150,7 @@ public class JDBCOutputUpdateWriter extends JDBCOutputWriter {
 
     @Override
     public Result close() throws IOException {
+        updateCount += finishPipeline();
         updateCount += executeBatchAtLast();
 
         closeStatementQuietly(statement);
@@ -29,19 +29,24 @@ import org.talend.components.jdbc.RuntimeSettingProvider;
 import org.talend.components.jdbc.runtime.JDBCSink;
 import org.talend.components.jdbc.runtime.setting.AllSetting;
 import org.talend.components.jdbc.runtime.setting.JDBCSQLBuilder;
+import org.talend.components.jdbc.runtime.type.RowWriter;
 import org.talend.components.jdbc.tjdbcoutput.TJDBCOutputProperties.DataAction;
 import org.talend.daikon.avro.AvroUtils;
 import org.talend.daikon.avro.converter.IndexedRecordConverter;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * common JDBC writer
@@ -81,6 +86,14 @@ abstract public class JDBCOutputWriter implements WriterWithFeedback<Result, Ind
 
     protected int batchCount;
 
+    protected boolean usePipelinedBatch;
+
+    private int maxPendingBatches;
+
+    private JDBCBatchPipeline pipeline;
+
+    private List<IndexedRecord> pipelineBatch;
+
     protected int commitEvery;
 
     protected int commitCount;
@@ -123,10 +136,15 @@ abstract public class JDBCOutputWriter implements WriterWithFeedback<Result, Ind
         useBatch = setting.getUseBatch();
         DataAction dataAction = setting.getDataAction();
         if ((dataAction == DataAction.INSERT_OR_UPDATE) || (dataAction == DataAction.UPDATE_OR_INSERT)) {
-            useBatch = false;
+            useBatch = setting.getUseBatchUpsert();
         }
         if (useBatch) {
             batchSize = setting.getBatchSize();
+
+            usePipelinedBatch = setting.getUsePipelinedBatch();
+            if (usePipelinedBatch) {
+                maxPendingBatches = setting.getMaxPendingBatches() == null ? 1 : setting.getMaxPendingBatches();
+            }
         }
 
         useExistedConnection = setting.getReferencedComponentId() != null;
@@ -268,6 +286,10 @@ abstract public class JDBCOutputWriter implements WriterWithFeedback<Result, Ind
             return;
         }
 
+        addReject(input, e);
+    }
+
+    private void addReject(IndexedRecord input, SQLException e) {
         rejectCount++;
         IndexedRecord reject = new GenericData.Record(rejectSchema);
         for (Schema.Field rejectField : rejectSchema.getFields()) {
@@ -342,6 +364,67 @@ abstract public class JDBCOutputWriter implements WriterWithFeedback<Result, Ind
         return count;
     }
 
+    /**
+     * pipelined batch mode : buffer the record, and submit the buffer as one batch to the background thread which binds and
+     * executes it when it's full or a commit is needed.
+     */
+    protected void executeByPipeline(IndexedRecord input, PreparedStatement statement, RowWriter rowWriter)
+            throws SQLException {
+        if (pipeline == null) {
+            pipeline = new JDBCBatchPipeline(this, conn, statement, rowWriter, maxPendingBatches, dieOnError);
+            pipelineBatch = new ArrayList<>();
+        }
+
+        pipelineBatch.add(input);
+        result.totalCount++;
+
+        boolean commit = false;
+        if (useCommit) {
+            commitCount++;
+            if (commitCount >= commitEvery) {
+                commitCount = 0;
+                commit = true;
+            }
+        }
+
+        if (commit || pipelineBatch.size() >= batchSize) {
+            List<IndexedRecord> records = pipelineBatch;
+            pipelineBatch = new ArrayList<>();
+            pipeline.submit(records, commit);
+        }
+
+        handleSuccess(input);
+    }
+
+    /**
+     * submit the last records and wait for the execution of all the batches of the pipelined batch mode
+     *
+     * @return the sum of the update counts of all the batches
+     */
+    protected int finishPipeline() {
+        if (pipeline == null) {
+            return 0;
+        }
+
+        try {
+            if (!pipelineBatch.isEmpty()) {
+                pipeline.submit(pipelineBatch, false);
+            }
+            return pipeline.finish();
+        } catch (SQLException e) {
+            if (dieOnError) {
+                throw CommonUtils.newComponentException(e);
+            } else {
+                LOG.warn(e.getMessage());
+            }
+            return 0;
+        } finally {
+            pipeline.abort();
+            pipeline = null;
+            pipelineBatch = null;
+        }
+    }
+
     protected int executeBatchAndGetCount(PreparedStatement statement) throws SQLException {
         int result = 0;
 
@@ -367,6 +450,290 @@ abstract public class JDBCOutputWriter implements WriterWithFeedback<Result, Ind
         return result;
     }
 
+    private final List<IndexedRecord> pendingUpsertRecords = new ArrayList<>();
+
+    /**
+     * batch mode of the insert or update and update or insert actions : the records are buffered, then updated by batch
+     * first, and the ones which don't exist in the table are inserted by batch, so no need to do one round trip for every
+     * record. Like the insert action in batch mode, the record goes to the success flow when it's buffered.
+     */
+    protected void writeUpsertByBatch(IndexedRecord input, PreparedStatement statementQuery, RowWriter rowWriter4Query,
+            PreparedStatement statementUpdate, RowWriter rowWriter4Update, PreparedStatement statementInsert,
+            RowWriter rowWriter4Insert) {
+        pendingUpsertRecords.add(input);
+        handleSuccess(input);
+
+        // flush before the commit, so the commit contains all the records before it
+        boolean commitComing = useCommit && (commitCount + 1 >= commitEvery);
+        if (pendingUpsertRecords.size() >= batchSize || commitComing) {
+            executeUpsertBatch(statementQuery, rowWriter4Query, statementUpdate, rowWriter4Update, statementInsert,
+                    rowWriter4Insert);
+        }
+
+        try {
+            executeCommit(null);
+        } catch (SQLException e) {
+            if (dieOnError) {
+                throw CommonUtils.newComponentException(e);
+            } else {
+                LOG.warn(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * execute the records buffered by {@link #writeUpsertByBatch}, need to be called before closing the statements
+     */
+    protected void executeUpsertBatch(PreparedStatement statementQuery, RowWriter rowWriter4Query,
+            PreparedStatement statementUpdate, RowWriter rowWriter4Update, PreparedStatement statementInsert,
+            RowWriter rowWriter4Insert) {
+        if (pendingUpsertRecords.isEmpty()) {
+            return;
+        }
+
+        try {
+            UpsertStatements statements = new UpsertStatements(statementQuery, rowWriter4Query, statementUpdate,
+                    rowWriter4Update, statementInsert, rowWriter4Insert);
+            executeUpsertBatch(statements, pendingUpsertRecords);
+        } catch (SQLException e) {
+            if (dieOnError) {
+                throw CommonUtils.newComponentException(e);
+            } else {
+                LOG.warn(e.getMessage());
+            }
+        } finally {
+            pendingUpsertRecords.clear();
+        }
+    }
+
+    /**
+     * the statements of the insert or update and update or insert actions, the query one checks if a record exists in the
+     * table
+     */
+    private static class UpsertStatements {
+
+        private final PreparedStatement statementQuery;
+
+        private final RowWriter rowWriter4Query;
+
+        private final PreparedStatement statementUpdate;
+
+        private final RowWriter rowWriter4Update;
+
+        private final PreparedStatement statementInsert;
+
+        private final RowWriter rowWriter4Insert;
+
+        private UpsertStatements(PreparedStatement statementQuery, RowWriter rowWriter4Query,
+                PreparedStatement statementUpdate, RowWriter rowWriter4Update, PreparedStatement statementInsert,
+                RowWriter rowWriter4Insert) {
+            this.statementQuery = statementQuery;
+            this.rowWriter4Query = rowWriter4Query;
+            this.statementUpdate = statementUpdate;
+            this.rowWriter4Update = rowWriter4Update;
+            this.statementInsert = statementInsert;
+            this.rowWriter4Insert = rowWriter4Insert;
+        }
+    }
+
+    /**
+     * upsert the records by batch : update them by one batch, then insert the ones which don't match any row in the table by
+     * one batch. If some missing records have the same key, only the first one is inserted, the others are updated after it
+     * like in the record by record mode.
+     */
+    private void executeUpsertBatch(UpsertStatements statements, List<IndexedRecord> records) throws SQLException {
+        List<IndexedRecord> missedRecords = executeUpdateBatch(statements, records);
+
+        while (!missedRecords.isEmpty()) {
+            List<IndexedRecord> recordsToInsert = new ArrayList<>();
+            List<IndexedRecord> recordsToUpdate = new ArrayList<>();
+            Set<List<Object>> keys = new HashSet<>();
+            for (IndexedRecord record : missedRecords) {
+                if (keys.add(getUpdateKey(record))) {
+                    recordsToInsert.add(record);
+                } else {
+                    recordsToUpdate.add(record);
+                }
+            }
+
+            executeInsertBatch(statements, recordsToInsert);
+            missedRecords = executeUpdateBatch(statements, recordsToUpdate);
+        }
+    }
+
+    private List<Object> getUpdateKey(IndexedRecord record) {
+        List<Object> key = new ArrayList<>();
+        for (JDBCSQLBuilder.Column column : columnList) {
+            if (column.updateKey && !column.addCol && !column.isReplaced()) {
+                Object value = record.get(CommonUtils.getField(record.getSchema(), column.columnLabel).pos());
+                if (value instanceof byte[]) {
+                    // an array is equal to itself only, compare the bytes
+                    value = ByteBuffer.wrap((byte[]) value);
+                }
+                key.add(value);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * execute the update statement for the records by one batch, and return the records which don't match any row in the
+     * table, they need to be inserted. The records which are updated are counted.
+     */
+    private List<IndexedRecord> executeUpdateBatch(UpsertStatements statements, List<IndexedRecord> records)
+            throws SQLException {
+        List<IndexedRecord> missedRecords = new ArrayList<>();
+
+        List<IndexedRecord> batchRecords = addBatch(statements.statementUpdate, statements.rowWriter4Update, records);
+        if (batchRecords.isEmpty()) {
+            return missedRecords;
+        }
+
+        int[] counts = executeBatchForCounts(statements.statementUpdate);
+
+        boolean countsUnknown = false;
+        for (int i = 0; i < batchRecords.size(); i++) {
+            IndexedRecord record = batchRecords.get(i);
+
+            int count = (i < counts.length) ? counts[i] : Statement.EXECUTE_FAILED;
+            if (count == Statement.EXECUTE_FAILED) {
+                // the update of the row failed, or wasn't executed as the driver stopped at a previous failure
+                upsertAlone(statements, record);
+                continue;
+            }
+
+            if (count == Statement.SUCCESS_NO_INFO) {
+                // the row is updated, but the driver doesn't tell if it matched a row of the table. Don't update it again,
+                // the update isn't idempotent with an expression column, check if the row exists instead
+                countsUnknown = true;
+                count = existsInTable(statements, record) ? 1 : 0;
+            }
+
+            if (count == 0) {
+                missedRecords.add(record);
+                continue;
+            }
+
+            result.totalCount++;
+            updateCount += count;
+        }
+
+        if (countsUnknown && useBatch) {
+            // the batch mode costs one more query per row than the record by record mode with such a driver
+            LOG.warn("The driver doesn't return the update counts of a batch, the next records are written one by one");
+            useBatch = false;
+        }
+
+        return missedRecords;
+    }
+
+    /**
+     * execute the insert statement for the records by one batch
+     */
+    private void executeInsertBatch(UpsertStatements statements, List<IndexedRecord> records) throws SQLException {
+        List<IndexedRecord> batchRecords = addBatch(statements.statementInsert, statements.rowWriter4Insert, records);
+        if (batchRecords.isEmpty()) {
+            return;
+        }
+
+        int[] counts = executeBatchForCounts(statements.statementInsert);
+
+        for (int i = 0; i < batchRecords.size(); i++) {
+            int count = (i < counts.length) ? counts[i] : Statement.EXECUTE_FAILED;
+            if (count == Statement.EXECUTE_FAILED) {
+                upsertAlone(statements, batchRecords.get(i));
+                continue;
+            }
+
+            result.totalCount++;
+            insertCount += (count == Statement.SUCCESS_NO_INFO) ? 1 : count;
+        }
+    }
+
+    /**
+     * bind the records to the statement and add them to its batch, a record which can't be bound is rejected
+     *
+     * @return the records of the batch, in the batch order
+     */
+    private List<IndexedRecord> addBatch(PreparedStatement statement, RowWriter rowWriter, List<IndexedRecord> records)
+            throws SQLException {
+        List<IndexedRecord> batchRecords = new ArrayList<>();
+        for (IndexedRecord record : records) {
+            try {
+                rowWriter.write(record);
+                statement.addBatch();
+                batchRecords.add(record);
+            } catch (SQLException e) {
+                if (dieOnError) {
+                    throw e;
+                }
+                LOG.warn(e.getMessage());
+                result.totalCount++;
+                rejectBufferedRecord(record, e);
+            }
+        }
+        return batchRecords;
+    }
+
+    /**
+     * execute the batch of an upsert statement
+     *
+     * @return the update counts, shorter than the batch if the driver stopped at a failed row
+     */
+    private int[] executeBatchForCounts(PreparedStatement statement) throws SQLException {
+        try {
+            LOG.debug("Executing upsert batch");
+            return statement.executeBatch();
+        } catch (BatchUpdateException e) {
+            if (dieOnError) {
+                throw e;
+            }
+            LOG.warn(e.getMessage());
+            statement.clearBatch();
+
+            int[] counts = e.getUpdateCounts();
+            return counts == null ? new int[0] : counts;
+        }
+    }
+
+    /**
+     * upsert a record which failed in a batch by itself, like the record by record mode, and reject it if it fails again.
+     * Nothing was written for it by the batch, so the update can't be applied twice.
+     */
+    private void upsertAlone(UpsertStatements statements, IndexedRecord record) {
+        result.totalCount++;
+        try {
+            statements.rowWriter4Update.write(record);
+            int count = statements.statementUpdate.executeUpdate();
+            if (count > 0) {
+                updateCount += count;
+                return;
+            }
+
+            statements.rowWriter4Insert.write(record);
+            insertCount += statements.statementInsert.executeUpdate();
+        } catch (SQLException e) {
+            LOG.warn(e.getMessage());
+            rejectBufferedRecord(record, e);
+        }
+    }
+
+    private boolean existsInTable(UpsertStatements statements, IndexedRecord record) throws SQLException {
+        statements.rowWriter4Query.write(record);
+        try (ResultSet resultSet = statements.statementQuery.executeQuery()) {
+            return resultSet.next() && resultSet.getInt(1) > 0;
+        }
+    }
+
+    /**
+     * reject a record of the batch upsert mode, it went to the success flow when it was buffered
+     */
+    private void rejectBufferedRecord(IndexedRecord input, SQLException e) {
+        successCount--;
+        successfulWrites.remove(input);
+        addReject(input, e);
+    }
+
     private int sum(int[] batchResult) {
         int result = 0;
         for (int count : batchResult) {
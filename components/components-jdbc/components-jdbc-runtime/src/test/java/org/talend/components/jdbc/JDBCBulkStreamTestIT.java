@@ -0,0 +1,227 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.talend.components.api.component.runtime.Result;
+import org.talend.components.api.component.runtime.Writer;
+import org.talend.components.jdbc.common.DBTestUtils;
+import org.talend.components.jdbc.runtime.JDBCBulkExecRuntime;
+import org.talend.components.jdbc.runtime.JDBCBulkFileRuntime;
+import org.talend.components.jdbc.runtime.JdbcRuntimeUtils;
+import org.talend.components.jdbc.runtime.bulk.BulkStreamLoader;
+import org.talend.components.jdbc.runtime.bulk.BulkStreamLoaders;
+import org.talend.components.jdbc.runtime.setting.AllSetting;
+import org.talend.components.jdbc.tjdbcbulkexec.TJDBCBulkExecProperties;
+import org.talend.components.jdbc.tjdbcinput.TJDBCInputDefinition;
+import org.talend.components.jdbc.tjdbcinput.TJDBCInputProperties;
+import org.talend.components.jdbc.tjdbcoutputbulk.TJDBCOutputBulkDefinition;
+import org.talend.components.jdbc.tjdbcoutputbulk.TJDBCOutputBulkProperties;
+import org.talend.daikon.properties.ValidationResult;
+
+public class JDBCBulkStreamTestIT {
+
+    private static AllSetting allSetting;
+
+    private static final String tablename = "JDBCBULKSTREAM";
+
+    /**
+     * stand-in for a driver bulk API : inserts the rows of the stream one by one
+     */
+    private final BulkStreamLoader derbyLoader = new BulkStreamLoader() {
+
+        @Override
+        public boolean accept(Connection conn, AllSetting setting) {
+            try {
+                return conn.getMetaData().getDatabaseProductName().contains("Derby");
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public long load(Connection conn, AllSetting setting, List<String> columns, InputStream data)
+                throws SQLException, IOException {
+            Assert.assertEquals(2, columns.size());
+            long count = 0;
+            BufferedReader reader = new BufferedReader(new InputStreamReader(data, "UTF-8"));
+            String sql = "insert into " + setting.getTablename() + " (" + columns.get(0) + "," + columns.get(1)
+                    + ") values(?,?)";
+            try (PreparedStatement statement = conn.prepareStatement(sql)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // the values of the stream are always enclosed
+                    String[] values = line.split(setting.fieldSeparator);
+                    statement.setInt(1, Integer.parseInt(unquote(values[0])));
+                    statement.setString(2, unquote(values[1]));
+                    count += statement.executeUpdate();
+                }
+            }
+            return count;
+        }
+
+        private String unquote(String value) {
+            Assert.assertEquals('"', value.charAt(0));
+            Assert.assertEquals('"', value.charAt(value.length() - 1));
+            return value.substring(1, value.length() - 1);
+        }
+    };
+
+    private File bulkFile;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        allSetting = DBTestUtils.createAllSetting();
+
+        try (Connection conn = JdbcRuntimeUtils.createConnection(allSetting)) {
+            DBTestUtils.createTestTable(conn, tablename);
+        }
+    }
+
+    @AfterClass
+    public static void afterClass() throws ClassNotFoundException, SQLException {
+        try (Connection conn = JdbcRuntimeUtils.createConnection(allSetting)) {
+            DBTestUtils.dropTestTable(conn, tablename);
+        } finally {
+            DBTestUtils.shutdownDBIfNecessary();
+        }
+    }
+
+    @Before
+    public void before() throws Exception {
+        try (Connection conn = JdbcRuntimeUtils.createConnection(allSetting)) {
+            DBTestUtils.truncateTable(conn, tablename);
+        }
+        bulkFile = File.createTempFile("jdbcbulkstream", ".csv");
+        bulkFile.delete();
+    }
+
+    @After
+    public void after() {
+        BulkStreamLoaders.unregister(derbyLoader);
+        bulkFile.delete();
+    }
+
+    @Test
+    public void testStreamingLoad() throws Exception {
+        BulkStreamLoaders.register(derbyLoader);
+
+        Result result = writeRecords();
+
+        Assert.assertEquals(5, result.getTotalCount());
+        Assert.assertFalse(bulkFile.exists());
+        assertThat(readTable(), hasSize(5));
+    }
+
+    @Test
+    public void testFileUsedWithoutStreamLoader() throws Exception {
+        Result result = writeRecords();
+
+        Assert.assertEquals(5, result.getTotalCount());
+        Assert.assertTrue(bulkFile.exists());
+        assertThat(readTable(), hasSize(0));
+    }
+
+    @Test
+    public void testBulkExecSkippedWhenStreamed() throws Exception {
+        BulkStreamLoaders.register(derbyLoader);
+
+        // the bulk exec part would fail with the LOAD statement, unknown by Derby, and the missing file
+        ValidationResult result = createBulkExecRuntime().validate(null);
+        Assert.assertEquals(ValidationResult.Result.OK, result.getStatus());
+    }
+
+    @Test
+    public void testBulkExecRunWithoutStreamLoader() throws Exception {
+        ValidationResult result = createBulkExecRuntime().validate(null);
+        Assert.assertEquals(ValidationResult.Result.ERROR, result.getStatus());
+    }
+
+    private JDBCBulkExecRuntime createBulkExecRuntime() {
+        TJDBCBulkExecProperties properties = new TJDBCBulkExecProperties("bulkExec");
+        properties.init();
+
+        properties.connection.driverClass.setValue(allSetting.getDriverClass());
+        properties.connection.jdbcUrl.setValue(allSetting.getJdbcUrl());
+        properties.connection.userPassword.userId.setValue(allSetting.getUsername());
+        properties.connection.userPassword.password.setValue(allSetting.getPassword());
+        properties.tableSelection.tablename.setValue(tablename);
+        properties.main.schema.setValue(DBTestUtils.createTestSchema(tablename));
+        properties.bulkFilePath.setValue(bulkFile.getAbsolutePath());
+        properties.rowSeparator.setValue("\n");
+        properties.fieldSeparator.setValue(";");
+        properties.streamingLoad.setValue(true);
+
+        JDBCBulkExecRuntime runtime = new JDBCBulkExecRuntime();
+        runtime.initialize(null, properties);
+        return runtime;
+    }
+
+    private Result writeRecords() throws IOException {
+        TJDBCOutputBulkDefinition definition = new TJDBCOutputBulkDefinition();
+        TJDBCOutputBulkProperties properties = (TJDBCOutputBulkProperties) definition.createRuntimeProperties();
+
+        properties.connection.driverClass.setValue(allSetting.getDriverClass());
+        properties.connection.jdbcUrl.setValue(allSetting.getJdbcUrl());
+        properties.connection.userPassword.userId.setValue(allSetting.getUsername());
+        properties.connection.userPassword.password.setValue(allSetting.getPassword());
+        properties.tableSelection.tablename.setValue(tablename);
+
+        properties.main.schema.setValue(DBTestUtils.createTestSchema(tablename));
+        properties.bulkFilePath.setValue(bulkFile.getAbsolutePath());
+        properties.rowSeparator.setValue("\n");
+        properties.streamingLoad.setValue(true);
+
+        JDBCBulkFileRuntime sink = new JDBCBulkFileRuntime();
+        sink.initialize(null, properties);
+        Writer<Result> writer = (Writer<Result>) sink.createWriteOperation().createWriter(null);
+
+        writer.open("wid");
+        for (int i = 1; i < 6; i++) {
+            IndexedRecord r = new GenericData.Record(properties.main.schema.getValue());
+            r.put(0, i);
+            r.put(1, "name" + i);
+            writer.write(r);
+        }
+        return writer.close();
+    }
+
+    private List<IndexedRecord> readTable() throws Exception {
+        Schema schema = DBTestUtils.createTestSchema(tablename);
+        TJDBCInputDefinition definition = new TJDBCInputDefinition();
+        TJDBCInputProperties properties = DBTestUtils.createCommonJDBCInputProperties(allSetting, definition);
+        return DBTestUtils.fetchDataByReaderFromTable(tablename, schema, definition, properties);
+    }
+
+}
@@ -14,6 +14,7 @@ package org.talend.components.jdbc;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -24,8 +25,10 @@ import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
@@ -36,6 +39,7 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.talend.components.api.component.ComponentDefinition;
+import org.talend.components.api.component.runtime.BoundedSource;
 import org.talend.components.api.component.runtime.Reader;
 import org.talend.components.api.container.DefaultComponentRuntimeContainerImpl;
 import org.talend.components.api.container.RuntimeContainer;
@@ -295,6 +299,100 @@ public class JDBCInputTestIT {
 
     }
     
+    @Test
+    public void testReaderWithReusedRecord() throws Exception {
+        TJDBCInputDefinition definition = new TJDBCInputDefinition();
+        TJDBCInputProperties properties = DBTestUtils.createCommonJDBCInputProperties(allSetting, definition);
+
+        properties.main.schema.setValue(DBTestUtils.createTestSchema(tablename));
+        properties.tableSelection.tablename.setValue(tablename);
+        properties.sql.setValue(DBTestUtils.getSQL(tablename));
+
+        JDBCInputReader reader = (JDBCInputReader) DBTestUtils.createCommonJDBCInputReader(properties);
+        reader.setReuseRecord(true);
+
+        try {
+            reader.start();
+            IndexedRecord first = reader.getCurrent();
+            assertEquals(1, first.get(0));
+            assertEquals("wangwei", first.get(1));
+
+            reader.advance();
+            IndexedRecord second = reader.getCurrent();
+            Assert.assertSame(first, second);
+            assertEquals(2, second.get(0));
+            assertEquals(" gaoyan ", second.get(1));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Test
+    public void testPartitionedReader() throws Exception {
+        TJDBCInputDefinition definition = new TJDBCInputDefinition();
+        TJDBCInputProperties properties = DBTestUtils.createCommonJDBCInputProperties(allSetting, definition);
+
+        properties.main.schema.setValue(DBTestUtils.createTestSchema(tablename));
+        properties.tableSelection.tablename.setValue(tablename);
+        properties.sql.setValue(DBTestUtils.getSQL(tablename));
+        properties.usePartitionedRead.setValue(true);
+        properties.partitionColumn.setValue("ID");
+        properties.partitionNum.setValue(2);
+
+        JDBCSource source = DBTestUtils.createCommonJDBCSource(properties);
+
+        assertTrue(source.getEstimatedSizeBytes(null) > 0);
+
+        List<? extends BoundedSource> partitions = source.splitIntoBundles(0, null);
+        assertEquals(2, partitions.size());
+
+        Set<Integer> ids = new HashSet<>();
+        for (BoundedSource partition : partitions) {
+            try (Reader reader = partition.createReader(null)) {
+                for (boolean available = reader.start(); available; available = reader.advance()) {
+                    IndexedRecord row = (IndexedRecord) reader.getCurrent();
+                    assertTrue(ids.add((Integer) row.get(0)));
+                }
+            }
+        }
+
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), ids);
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Test
+    public void testPartitionedReaderWithOrderByAndLowerCaseColumn() throws Exception {
+        TJDBCInputDefinition definition = new TJDBCInputDefinition();
+        TJDBCInputProperties properties = DBTestUtils.createCommonJDBCInputProperties(allSetting, definition);
+
+        properties.main.schema.setValue(DBTestUtils.createTestSchema(tablename));
+        properties.tableSelection.tablename.setValue(tablename);
+        properties.sql.setValue(DBTestUtils.getSQL(tablename) + " order by NAME");
+        properties.usePartitionedRead.setValue(true);
+        // the column is quoted with the case of the database
+        properties.partitionColumn.setValue("id");
+        properties.partitionNum.setValue(2);
+
+        JDBCSource source = DBTestUtils.createCommonJDBCSource(properties);
+
+        List<? extends BoundedSource> partitions = source.splitIntoBundles(0, null);
+        assertEquals(2, partitions.size());
+
+        Set<Integer> ids = new HashSet<>();
+        for (BoundedSource partition : partitions) {
+            assertFalse(((JDBCSource) partition).getQuery().toUpperCase().contains("ORDER BY"));
+            try (Reader reader = partition.createReader(null)) {
+                for (boolean available = reader.start(); available; available = reader.advance()) {
+                    IndexedRecord row = (IndexedRecord) reader.getCurrent();
+                    assertTrue(ids.add((Integer) row.get(0)));
+                }
+            }
+        }
+
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), ids);
+    }
+
     @SuppressWarnings({ "rawtypes", "unchecked" })
     @Test
     public void testTrimAll() {
@@ -12,12 +12,15 @@
 // ============================================================================
 package org.talend.components.jdbc;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertThat;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
@@ -27,6 +30,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.talend.components.api.component.runtime.Result;
 import org.talend.components.api.component.runtime.WriteOperation;
 import org.talend.components.api.component.runtime.WriterDataSupplier;
 import org.talend.components.api.exception.ComponentException;
@@ -34,6 +38,7 @@ import org.talend.components.jdbc.common.DBTestUtils;
 import org.talend.components.jdbc.runtime.JDBCSink;
 import org.talend.components.jdbc.runtime.JdbcRuntimeUtils;
 import org.talend.components.jdbc.runtime.setting.AllSetting;
+import org.talend.components.jdbc.runtime.writer.JDBCOutputParallelInsertWriter;
 import org.talend.components.jdbc.runtime.writer.JDBCOutputWriter;
 import org.talend.components.jdbc.tjdbcinput.TJDBCInputDefinition;
 import org.talend.components.jdbc.tjdbcinput.TJDBCInputProperties;
@@ -322,6 +327,121 @@ public class JDBCOutputTestIT {
         Assert.assertEquals("xiaohei", records.get(7).get(1));
     }
 
+    @Test
+    public void testPipelinedBatch() throws Exception {
+        TJDBCOutputDefinition definition = new TJDBCOutputDefinition();
+        TJDBCOutputProperties properties = DBTestUtils.createCommonJDBCOutputProperties(allSetting, definition);
+
+        Schema schema = DBTestUtils.createTestSchema(tablename);
+        properties.main.schema.setValue(schema);
+        properties.updateOutputSchemas();
+
+        properties.tableSelection.tablename.setValue(tablename);
+        properties.dataAction.setValue(DataAction.INSERT);
+        properties.dieOnError.setValue(true);
+
+        properties.useBatch.setValue(true);
+        properties.batchSize.setValue(2);
+        properties.commitEvery.setValue(3);
+        properties.usePipelinedBatch.setValue(true);
+        properties.maxPendingBatches.setValue(1);
+
+        JDBCOutputWriter writer = DBTestUtils.createCommonJDBCOutputWriter(definition, properties);
+
+        Result result = null;
+        try {
+            writer.open("wid");
+
+            for (int i = 4; i < 9; i++) {
+                IndexedRecord r = new GenericData.Record(properties.main.schema.getValue());
+                r.put(0, i);
+                r.put(1, "name" + i);
+                writer.write(r);
+
+                DBTestUtils.assertSuccessRecord(writer, r);
+            }
+
+            result = writer.close();
+        } finally {
+            writer.close();
+        }
+
+        Assert.assertEquals(5, result.getTotalCount());
+        Assert.assertEquals(5, result.getSuccessCount());
+
+        TJDBCInputDefinition definition1 = new TJDBCInputDefinition();
+        TJDBCInputProperties properties1 = DBTestUtils.createCommonJDBCInputProperties(allSetting, definition1);
+        List<IndexedRecord> records = DBTestUtils.fetchDataByReaderFromTable(tablename, schema, definition1, properties1);
+
+        assertThat(records, hasSize(8));
+        for (int i = 4; i < 9; i++) {
+            Assert.assertEquals(new Integer(i), records.get(i - 1).get(0));
+            Assert.assertEquals("name" + i, records.get(i - 1).get(1));
+        }
+    }
+
+    @Test
+    public void testParallelInsert() throws Exception {
+        TJDBCOutputDefinition definition = new TJDBCOutputDefinition();
+        TJDBCOutputProperties properties = DBTestUtils.createCommonJDBCOutputProperties(allSetting, definition);
+
+        Schema schema = DBTestUtils.createTestSchema(tablename);
+        properties.main.schema.setValue(schema);
+        properties.updateOutputSchemas();
+
+        properties.tableSelection.tablename.setValue(tablename);
+        properties.dataAction.setValue(DataAction.INSERT);
+        properties.dieOnError.setValue(true);
+
+        properties.useBatch.setValue(true);
+        properties.batchSize.setValue(2);
+        properties.commitEvery.setValue(3);
+        properties.parallelConnections.setValue(3);
+        properties.parallelKeyColumn.setValue("ID");
+
+        JDBCOutputWriter writer = DBTestUtils.createCommonJDBCOutputWriter(definition, properties);
+        Assert.assertTrue(writer instanceof JDBCOutputParallelInsertWriter);
+
+        Result result = null;
+        try {
+            writer.open("wid");
+
+            for (int i = 4; i < 14; i++) {
+                IndexedRecord r = new GenericData.Record(properties.main.schema.getValue());
+                r.put(0, i);
+                r.put(1, "name" + i);
+                writer.write(r);
+
+                DBTestUtils.assertSuccessRecord(writer, r);
+            }
+
+            result = writer.close();
+        } finally {
+            writer.close();
+        }
+
+        Assert.assertEquals(10, result.getTotalCount());
+        Assert.assertEquals(10, result.getSuccessCount());
+
+        TJDBCInputDefinition definition1 = new TJDBCInputDefinition();
+        TJDBCInputProperties properties1 = DBTestUtils.createCommonJDBCInputProperties(allSetting, definition1);
+        List<IndexedRecord> records = DBTestUtils.fetchDataByReaderFromTable(tablename, schema, definition1, properties1);
+
+        // the lanes insert at the same time, so the order of the rows is not known
+        assertThat(records, hasSize(13));
+        Set<Integer> ids = new HashSet<>();
+        for (IndexedRecord record : records) {
+            Integer id = (Integer) record.get(0);
+            ids.add(id);
+            if (id > 3) {
+                Assert.assertEquals("name" + id, record.get(1));
+            }
+        }
+        for (int i = 1; i < 14; i++) {
+            Assert.assertTrue(ids.contains(i));
+        }
+    }
+
     @Test
     public void testInsertReject() throws Exception {
         TJDBCOutputDefinition definition = new TJDBCOutputDefinition();
@@ -982,6 +1102,180 @@ public class JDBCOutputTestIT {
         Assert.assertEquals("new one", records.get(3).get(1));
     }
 
+    @Test
+    public void testUpdateOrInsertByBatch() throws Exception {
+        TJDBCOutputDefinition definition = new TJDBCOutputDefinition();
+        TJDBCOutputProperties properties = DBTestUtils.createCommonJDBCOutputProperties(allSetting, definition);
+
+        Schema schema = DBTestUtils.createTestSchema2(tablename);
+
+        properties.main.schema.setValue(schema);
+        properties.updateOutputSchemas();
+
+        properties.tableSelection.tablename.setValue(tablename);
+        properties.dataAction.setValue(DataAction.UPDATE_OR_INSERT);
+        properties.dieOnError.setValue(true);
+        properties.useBatchUpsert.setValue(true);
+        properties.batchSize.setValue(3);
+
+        properties.commitEvery.setValue(DBTestUtils.randomInt());
+
+        JDBCOutputWriter writer = DBTestUtils.createCommonJDBCOutputWriter(definition, properties);
+
+        try {
+            writer.open("wid");
+
+            Object[][] rows = { { 1, "wangwei1" }, { 2, "gaoyan1" }, { 4, "new one" }, { 5, "new two" }, { 5, "new three" } };
+            for (Object[] row : rows) {
+                IndexedRecord r = new GenericData.Record(properties.main.schema.getValue());
+                r.put(0, row[0]);
+                r.put(1, row[1]);
+                writer.write(r);
+
+                // the buffered record goes to the success flow at once, in the input order
+                DBTestUtils.assertSuccessRecord(writer, r);
+            }
+
+            writer.close();
+        } finally {
+            writer.close();
+        }
+
+        TJDBCInputDefinition definition1 = new TJDBCInputDefinition();
+        TJDBCInputProperties properties1 = DBTestUtils.createCommonJDBCInputProperties(allSetting, definition1);
+        List<IndexedRecord> records = DBTestUtils.fetchDataByReaderFromTable(tablename, schema, definition1, properties1);
+
+        assertThat(records, hasSize(5));
+        Assert.assertEquals(new Integer(1), records.get(0).get(0));
+        Assert.assertEquals("wangwei1", records.get(0).get(1));
+        Assert.assertEquals(new Integer(2), records.get(1).get(0));
+        Assert.assertEquals("gaoyan1", records.get(1).get(1));
+        Assert.assertEquals(new Integer(3), records.get(2).get(0));
+        Assert.assertEquals("dabao", records.get(2).get(1));
+        Assert.assertEquals(new Integer(4), records.get(3).get(0));
+        Assert.assertEquals("new one", records.get(3).get(1));
+        Assert.assertEquals(new Integer(5), records.get(4).get(0));
+        Assert.assertEquals("new three", records.get(4).get(1));
+    }
+
+    @Test
+    public void testInsertOrUpdateByBatch() throws Exception {
+        TJDBCOutputDefinition definition = new TJDBCOutputDefinition();
+        TJDBCOutputProperties properties = DBTestUtils.createCommonJDBCOutputProperties(allSetting, definition);
+
+        Schema schema = DBTestUtils.createTestSchema2(tablename);
+
+        properties.main.schema.setValue(schema);
+        properties.updateOutputSchemas();
+
+        properties.tableSelection.tablename.setValue(tablename);
+        properties.dataAction.setValue(DataAction.INSERT_OR_UPDATE);
+        properties.dieOnError.setValue(true);
+        properties.useBatchUpsert.setValue(true);
+        properties.batchSize.setValue(3);
+
+        properties.commitEvery.setValue(DBTestUtils.randomInt());
+
+        JDBCOutputWriter writer = DBTestUtils.createCommonJDBCOutputWriter(definition, properties);
+
+        try {
+            writer.open("wid");
+
+            Object[][] rows = { { 1, "wangwei1" }, { 2, "gaoyan1" }, { 4, "new one" }, { 5, "new two" }, { 5, "new three" } };
+            for (Object[] row : rows) {
+                IndexedRecord r = new GenericData.Record(properties.main.schema.getValue());
+                r.put(0, row[0]);
+                r.put(1, row[1]);
+                writer.write(r);
+
+                // the buffered record goes to the success flow at once, in the input order
+                DBTestUtils.assertSuccessRecord(writer, r);
+            }
+
+            writer.close();
+        } finally {
+            writer.close();
+        }
+
+        TJDBCInputDefinition definition1 = new TJDBCInputDefinition();
+        TJDBCInputProperties properties1 = DBTestUtils.createCommonJDBCInputProperties(allSetting, definition1);
+        List<IndexedRecord> records = DBTestUtils.fetchDataByReaderFromTable(tablename, schema, definition1, properties1);
+
+        assertThat(records, hasSize(5));
+        Assert.assertEquals(new Integer(1), records.get(0).get(0));
+        Assert.assertEquals("wangwei1", records.get(0).get(1));
+        Assert.assertEquals(new Integer(2), records.get(1).get(0));
+        Assert.assertEquals("gaoyan1", records.get(1).get(1));
+        Assert.assertEquals(new Integer(3), records.get(2).get(0));
+        Assert.assertEquals("dabao", records.get(2).get(1));
+        Assert.assertEquals(new Integer(4), records.get(3).get(0));
+        Assert.assertEquals("new one", records.get(3).get(1));
+        Assert.assertEquals(new Integer(5), records.get(4).get(0));
+        Assert.assertEquals("new three", records.get(4).get(1));
+    }
+
+    @Test
+    public void testUpdateOrInsertByBatchReject() throws Exception {
+        TJDBCOutputDefinition definition = new TJDBCOutputDefinition();
+        TJDBCOutputProperties properties = DBTestUtils.createCommonJDBCOutputProperties(allSetting, definition);
+
+        Schema schema = DBTestUtils.createTestSchema2(tablename);
+
+        properties.main.schema.setValue(schema);
+        properties.updateOutputSchemas();
+
+        properties.tableSelection.tablename.setValue(tablename);
+        properties.dataAction.setValue(DataAction.UPDATE_OR_INSERT);
+        properties.dieOnError.setValue(false);
+        properties.useBatchUpsert.setValue(true);
+        properties.batchSize.setValue(3);
+
+        JDBCOutputWriter writer = DBTestUtils.createCommonJDBCOutputWriter(definition, properties);
+
+        try {
+            writer.open("wid");
+
+            IndexedRecord r1 = new GenericData.Record(properties.main.schema.getValue());
+            r1.put(0, 1);
+            r1.put(1, "wangwei1");
+            writer.write(r1);
+
+            IndexedRecord r2 = new GenericData.Record(properties.main.schema.getValue());
+            r2.put(0, 4);
+            r2.put(1, "the line should be rejected as it's too long");
+            writer.write(r2);
+
+            IndexedRecord r3 = new GenericData.Record(properties.main.schema.getValue());
+            r3.put(0, 5);
+            r3.put(1, "new one");
+            writer.write(r3);
+
+            // the batch is executed with the third record, the failed record of the batch goes to the reject flow
+            assertThat(writer.getSuccessfulWrites(), contains(r3));
+            List<IndexedRecord> rejectRecords = writer.getRejectedWrites();
+            assertThat(rejectRecords, hasSize(1));
+            Assert.assertEquals(new Integer(4), rejectRecords.get(0).get(0));
+            Assert.assertNotNull(rejectRecords.get(0).get(2));
+            Assert.assertNotNull(rejectRecords.get(0).get(3));
+
+            Result result = writer.close();
+            Assert.assertEquals(2, result.getSuccessCount());
+            Assert.assertEquals(1, result.getRejectCount());
+        } finally {
+            writer.close();
+        }
+
+        TJDBCInputDefinition definition1 = new TJDBCInputDefinition();
+        TJDBCInputProperties properties1 = DBTestUtils.createCommonJDBCInputProperties(allSetting, definition1);
+        List<IndexedRecord> records = DBTestUtils.fetchDataByReaderFromTable(tablename, schema, definition1, properties1);
+
+        assertThat(records, hasSize(4));
+        Assert.assertEquals(new Integer(1), records.get(0).get(0));
+        Assert.assertEquals("wangwei1", records.get(0).get(1));
+        Assert.assertEquals(new Integer(5), records.get(3).get(0));
+        Assert.assertEquals("new one", records.get(3).get(1));
+    }
+
     @Test
     public void testClearDataInTable() throws Exception {
         TJDBCOutputDefinition definition = new TJDBCOutputDefinition();
@@ -0,0 +1,93 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.junit.Test;
+
+public class JDBCSourceTest {
+
+    @Test
+    public void testToLongRoundsOutwards() {
+        assertEquals(-3L, JDBCSource.toLong(new BigDecimal("-2.5"), RoundingMode.FLOOR));
+        assertEquals(3L, JDBCSource.toLong(new BigDecimal("2.5"), RoundingMode.CEILING));
+        assertEquals(-1L, JDBCSource.toLong(-0.1d, RoundingMode.FLOOR));
+        assertEquals(1L, JDBCSource.toLong(0.1f, RoundingMode.CEILING));
+        assertEquals(7L, JDBCSource.toLong(7, RoundingMode.FLOOR));
+    }
+
+    @Test
+    public void testToLongClamps() {
+        assertEquals(Long.MAX_VALUE, JDBCSource.toLong(new BigDecimal("1e30"), RoundingMode.CEILING));
+        assertEquals(Long.MIN_VALUE, JDBCSource.toLong(new BigDecimal("-1e30"), RoundingMode.FLOOR));
+    }
+
+    @Test
+    public void testSplitRange() {
+        List<long[]> ranges = JDBCSource.splitRange(0, 9, 2);
+        assertEquals(2, ranges.size());
+        assertArrayEquals(new long[] { 0, 5 }, ranges.get(0));
+        assertArrayEquals(new long[] { 5 }, ranges.get(1));
+
+        ranges = JDBCSource.splitRange(4, 4, 3);
+        assertEquals(1, ranges.size());
+        assertArrayEquals(new long[] { 4 }, ranges.get(0));
+    }
+
+    @Test
+    public void testSplitRangeDoesNotOverflow() {
+        List<long[]> ranges = JDBCSource.splitRange(Long.MIN_VALUE, Long.MAX_VALUE, 4);
+        assertEquals(4, ranges.size());
+        assertEquals(Long.MIN_VALUE, ranges.get(0)[0]);
+        for (int i = 1; i < ranges.size(); i++) {
+            // each range starts where the previous one ends
+            assertEquals(ranges.get(i - 1)[1], ranges.get(i)[0]);
+            assertEquals(true, ranges.get(i)[0] > ranges.get(i - 1)[0]);
+        }
+        assertEquals(1, ranges.get(3).length);
+    }
+
+    @Test
+    public void testRemoveOrderBy() {
+        assertEquals("SELECT * FROM T", JDBCSource.removeOrderBy("SELECT * FROM T ORDER BY ID"));
+        assertEquals("select id from t", JDBCSource.removeOrderBy("select id from t order  by id desc, name"));
+        assertEquals("SELECT * FROM T /* ORDER BY */ WHERE A = 1",
+                JDBCSource.removeOrderBy("SELECT * FROM T /* ORDER BY */ WHERE A = 1 ORDER BY A"));
+
+        // kept when the rows depend on the order, or when it's not the ORDER BY of the query
+        String[] kept = { "SELECT TOP 10 * FROM T ORDER BY ID", "SELECT * FROM T ORDER BY ID OFFSET 5 ROWS",
+                "SELECT ROW_NUMBER() OVER (ORDER BY ID) R FROM T", "SELECT 'ORDER BY' FROM T",
+                "SELECT \"ORDER\" FROM T -- ORDER BY ID", "SELECT BORDER BY FROM T" };
+        for (String sql : kept) {
+            assertEquals(sql, JDBCSource.removeOrderBy(sql));
+        }
+    }
+
+    @Test
+    public void testDateBoundTruncatedToDay() {
+        long afternoon = Date.valueOf("2020-03-05").getTime() + 13 * 3600 * 1000L;
+        Object bound = JDBCSource.fromLong(afternoon, Date.valueOf("2020-01-01"));
+        assertEquals(Date.valueOf("2020-03-05"), bound);
+
+        assertEquals(new Timestamp(afternoon), JDBCSource.fromLong(afternoon, new Timestamp(0)));
+        assertEquals(42L, JDBCSource.fromLong(42, 1));
+    }
+}
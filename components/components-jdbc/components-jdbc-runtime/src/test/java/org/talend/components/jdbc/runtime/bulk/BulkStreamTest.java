@@ -0,0 +1,89 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2020 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.runtime.bulk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.talend.components.jdbc.runtime.setting.AllSetting;
+
+public class BulkStreamTest {
+
+    /**
+     * reads the whole stream, the rows are only kept when the end of the stream is reached, like a committed load
+     */
+    private static class ReadAllLoader implements BulkStreamLoader {
+
+        private volatile String loaded;
+
+        @Override
+        public boolean accept(Connection conn, AllSetting setting) {
+            return true;
+        }
+
+        @Override
+        public long load(Connection conn, AllSetting setting, List<String> columns, InputStream data) throws IOException {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[16];
+            int n;
+            while ((n = data.read(buffer)) != -1) {
+                content.write(buffer, 0, n);
+            }
+            loaded = new String(content.toByteArray(), StandardCharsets.UTF_8);
+            return loaded.split("\n").length;
+        }
+    }
+
+    private final List<String> columns = Arrays.asList("id");
+
+    @Test
+    public void testFinish() throws IOException {
+        ReadAllLoader loader = new ReadAllLoader();
+        BulkStream stream = new BulkStream(loader, null, new AllSetting(), columns, 1024);
+        stream.getOutputStream().write("1\n2\n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(2, stream.finish());
+        assertEquals("1\n2\n", loader.loaded);
+    }
+
+    @Test
+    public void testAbortDoesNotLoadThePartialStream() throws IOException {
+        ReadAllLoader loader = new ReadAllLoader();
+        BulkStream stream = new BulkStream(loader, null, new AllSetting(), columns, 1024);
+        stream.getOutputStream().write("1\n".getBytes(StandardCharsets.UTF_8));
+
+        IOException cause = new IOException("flush failed");
+        stream.abort(cause);
+
+        // the loader thread is stopped on return, and it got an error instead of the end of the stream
+        assertNull(loader.loaded);
+        try {
+            stream.checkFailure();
+            fail("the aborted load must fail");
+        } catch (IOException e) {
+            assertSame(cause, e.getCause().getCause());
+        }
+    }
+
+}
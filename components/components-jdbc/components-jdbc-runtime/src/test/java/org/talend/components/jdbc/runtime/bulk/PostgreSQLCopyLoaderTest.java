@@ -0,0 +1,97 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.runtime.bulk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.talend.components.jdbc.runtime.setting.AllSetting;
+
+public class PostgreSQLCopyLoaderTest {
+
+    private AllSetting setting;
+
+    @Before
+    public void setUp() {
+        setting = new AllSetting();
+        setting.setTablename("test");
+        setting.fieldSeparator = ";";
+        setting.rowSeparator = "\n";
+    }
+
+    @Test
+    public void testCopySQLWithoutTextEnclosure() {
+        // the stream is always enclosed, by the double quote when no enclosure is set
+        assertEquals("COPY test (id,name) FROM STDIN WITH (FORMAT csv, DELIMITER E';', QUOTE E'\"', ESCAPE E'\\\\', NULL E'')",
+                new PostgreSQLCopyLoader().createCopySQL(setting, Arrays.asList("id", "name")));
+    }
+
+    @Test
+    public void testCopySQLWithTextEnclosure() {
+        setting.setTextEnclosure = true;
+        setting.textEnclosure = "'";
+        assertEquals("COPY test FROM STDIN WITH (FORMAT csv, DELIMITER E';', QUOTE E'\\'', ESCAPE E'\\\\', NULL E'')",
+                new PostgreSQLCopyLoader().createCopySQL(setting, null));
+    }
+
+    @Test
+    public void testCopySQLNullValueEscaped() {
+        setting.setNullValue = true;
+        setting.nullValue = "\\N";
+        // the null value is written without enclosure, so its backslash is escaped by the bulk writer
+        assertEquals("COPY test (id) FROM STDIN WITH (FORMAT csv, DELIMITER E';', QUOTE E'\"', ESCAPE E'\\\\', NULL E'\\\\\\\\N')",
+                new PostgreSQLCopyLoader().createCopySQL(setting, Arrays.asList("id")));
+    }
+
+    @Test
+    public void testSupportedFormat() {
+        PostgreSQLCopyLoader loader = new PostgreSQLCopyLoader();
+        assertTrue(loader.isSupportedFormat(setting));
+
+        setting.fieldSeparator = "\t";
+        setting.rowSeparator = "\r\n";
+        assertTrue(loader.isSupportedFormat(setting));
+    }
+
+    @Test
+    public void testFallbackToBulkFileForUnsupportedFieldSeparator() {
+        PostgreSQLCopyLoader loader = new PostgreSQLCopyLoader();
+        // the separators are checked before the connection, so none is needed
+        for (String fieldSeparator : Arrays.asList("", ";;", "\u00a7", "\"", "\\", "\n")) {
+            setting.fieldSeparator = fieldSeparator;
+            assertFalse(fieldSeparator, loader.isSupportedFormat(setting));
+            assertFalse(fieldSeparator, loader.accept(null, setting));
+            assertNull(fieldSeparator, BulkStreamLoaders.find(null, setting));
+        }
+
+        // the separator can't be the text enclosure either
+        setting.fieldSeparator = "'";
+        setting.setTextEnclosure = true;
+        setting.textEnclosure = "'";
+        assertFalse(loader.accept(null, setting));
+        assertNull(BulkStreamLoaders.find(null, setting));
+    }
+
+    @Test
+    public void testFallbackToBulkFileForUnsupportedRowSeparator() {
+        setting.rowSeparator = ";";
+        assertFalse(new PostgreSQLCopyLoader().accept(null, setting));
+        assertNull(BulkStreamLoaders.find(null, setting));
+    }
+}
@@ -0,0 +1,132 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.runtime.reader;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.junit.Assert;
+import org.junit.Test;
+import org.talend.components.jdbc.runtime.reader.JDBCFetchTuner.Dialect;
+
+public class JDBCFetchTunerTest {
+
+    @Test
+    public void testDetectDialect() {
+        Assert.assertEquals(Dialect.MYSQL, Dialect.detect("com.mysql.jdbc.Driver", "jdbc:mysql://localhost/db"));
+        Assert.assertEquals(Dialect.MYSQL, Dialect.detect(null, "jdbc:mariadb://localhost/db"));
+        Assert.assertEquals(Dialect.POSTGRESQL, Dialect.detect("org.postgresql.Driver", null));
+        Assert.assertEquals(Dialect.ORACLE, Dialect.detect("oracle.jdbc.OracleDriver", "jdbc:oracle:thin:@host:1521:db"));
+        Assert.assertEquals(Dialect.OTHER, Dialect.detect("org.apache.derby.jdbc.EmbeddedDriver", "jdbc:derby:memory:db"));
+    }
+
+    @Test
+    public void testComputeFetchSize() {
+        Assert.assertEquals(1024, JDBCFetchTuner.computeFetchSize(1024, 1024 * 1024));
+        Assert.assertEquals(JDBCFetchTuner.MIN_FETCH_SIZE, JDBCFetchTuner.computeFetchSize(1024 * 1024, 1024 * 1024));
+        Assert.assertEquals(JDBCFetchTuner.MAX_FETCH_SIZE, JDBCFetchTuner.computeFetchSize(1, 1024 * 1024));
+    }
+
+    @Test
+    public void testMySQLStreamsRowByRow() throws Exception {
+        List<String> calls = new ArrayList<>();
+        JDBCFetchTuner tuner = new JDBCFetchTuner("com.mysql.jdbc.Driver", "jdbc:mysql://localhost/db", 64, 0);
+        tuner.prepare(createStatement(calls, true));
+
+        Assert.assertEquals("setFetchSize:" + Integer.MIN_VALUE, calls.get(0));
+        Assert.assertEquals(Integer.MIN_VALUE, tuner.getFetchSize());
+
+        // with a server cursor the fetch size is used as usual
+        calls.clear();
+        tuner = new JDBCFetchTuner("com.mysql.jdbc.Driver", "jdbc:mysql://localhost/db?useCursorFetch=true", 64, 500);
+        tuner.prepare(createStatement(calls, true));
+        Assert.assertEquals("setFetchSize:500", calls.get(0));
+    }
+
+    @Test
+    public void testPostgreSQLDisablesAutoCommitUntilRestore() throws Exception {
+        List<String> calls = new ArrayList<>();
+        JDBCFetchTuner tuner = new JDBCFetchTuner("org.postgresql.Driver", "jdbc:postgresql://localhost/db", 64, 0);
+        tuner.prepare(createStatement(calls, true));
+
+        Assert.assertEquals("setAutoCommit:false", calls.get(0));
+        Assert.assertEquals("setFetchSize:" + JDBCFetchTuner.DEFAULT_INITIAL_FETCH_SIZE, calls.get(1));
+
+        tuner.restore();
+        Assert.assertEquals("setAutoCommit:true", calls.get(calls.size() - 1));
+    }
+
+    @Test
+    public void testFetchSizeFollowsTheRowSize() throws Exception {
+        List<String> calls = new ArrayList<>();
+        JDBCFetchTuner tuner = new JDBCFetchTuner("org.apache.derby.jdbc.EmbeddedDriver", "jdbc:derby:memory:db", 1, 100);
+        tuner.prepare(createStatement(calls, false));
+        calls.clear();
+
+        Schema schema = SchemaBuilder.record("TEST").fields().requiredString("VALUE").endRecord();
+        IndexedRecord record = new GenericData.Record(schema);
+        // about 100KB by row, so about 10 rows fit in 1MB
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 50000; i++) {
+            value.append('x');
+        }
+        record.put(0, value.toString());
+
+        ResultSet resultSet = (ResultSet) createProxy(ResultSet.class, calls, false);
+        for (int i = 0; i < 99; i++) {
+            tuner.afterRow(resultSet, record);
+        }
+        Assert.assertTrue(calls.isEmpty());
+
+        // the first fetch is read
+        tuner.afterRow(resultSet, record);
+        Assert.assertEquals("setFetchSize:" + JDBCFetchTuner.MIN_FETCH_SIZE, calls.get(0));
+        Assert.assertEquals(JDBCFetchTuner.MIN_FETCH_SIZE, tuner.getFetchSize());
+    }
+
+    private static Statement createStatement(List<String> calls, boolean autoCommit) {
+        return (Statement) createProxy(Statement.class, calls, autoCommit);
+    }
+
+    private static Object createProxy(final Class<?> type, final List<String> calls, final boolean autoCommit) {
+        return Proxy.newProxyInstance(JDBCFetchTunerTest.class.getClassLoader(), new Class<?>[] { type },
+                new InvocationHandler() {
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        String name = method.getName();
+                        if ("getConnection".equals(name)) {
+                            return createProxy(Connection.class, calls, autoCommit);
+                        } else if ("getAutoCommit".equals(name)) {
+                            return autoCommit;
+                        } else if ("isClosed".equals(name)) {
+                            return false;
+                        } else if (name.startsWith("set")) {
+                            calls.add(name + ":" + args[0]);
+                        }
+                        return null;
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,148 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.runtime.type;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.SchemaBuilder.FieldAssembler;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.junit.Assert;
+import org.junit.Test;
+import org.talend.components.jdbc.runtime.setting.JDBCSQLBuilder;
+import org.talend.daikon.avro.AvroUtils;
+import org.talend.daikon.avro.SchemaConstants;
+
+public class RowWriterTest {
+
+    @Test
+    public void testDebugSetsSameValues() throws Exception {
+        Schema schema = createSchema(21);
+        List<JDBCSQLBuilder.Column> columnList = createColumnList(schema);
+        IndexedRecord record = createRecord(schema);
+
+        List<String> calls = new ArrayList<>();
+        RowWriter rowWriter = new RowWriter(columnList, schema, schema, createRecordingStatement(calls));
+        Assert.assertNull(rowWriter.write(record));
+
+        List<String> debugCalls = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("insert into BENCH values (?");
+        for (int i = 1; i < 21; i++) {
+            sql.append(",?");
+        }
+        sql.append(")");
+        RowWriter debugRowWriter = new RowWriter(columnList, schema, schema, createRecordingStatement(debugCalls), true,
+                sql.toString());
+        Assert.assertNotNull(debugRowWriter.write(record));
+
+        Assert.assertEquals(21, calls.size());
+        Assert.assertEquals(calls, debugCalls);
+    }
+
+    @Test
+    public void testDebugSQL() throws Exception {
+        Schema schema = SchemaBuilder.builder().record("DEBUG").fields() //
+                .name("NAME").type(AvroUtils.wrapAsNullable(AvroUtils._string())).noDefault() //
+                .name("ID").type(AvroUtils.wrapAsNullable(AvroUtils._int())).noDefault() //
+                .name("CITY").type(AvroUtils.wrapAsNullable(AvroUtils._string())).noDefault() //
+                .endRecord();
+        IndexedRecord record = new GenericData.Record(schema);
+        record.put(0, "wang");
+        record.put(1, 1);
+        record.put(2, null);
+
+        List<String> calls = new ArrayList<>();
+        RowWriter rowWriter = new RowWriter(createColumnList(schema), schema, schema, createRecordingStatement(calls), true,
+                "insert into DEBUG values (?,?,?)");
+
+        Assert.assertEquals("insert into DEBUG values ('wang',1,null) ", rowWriter.write(record));
+        // the sql is built again for each record
+        record.put(0, "gao");
+        Assert.assertEquals("insert into DEBUG values ('gao',1,null) ", rowWriter.write(record));
+        Assert.assertEquals(6, calls.size());
+    }
+
+    private static Schema createSchema(int columns) {
+        Schema[] types = { AvroUtils._int(), AvroUtils._string(), AvroUtils._long(), AvroUtils._double(), AvroUtils._date(),
+                AvroUtils._decimal(), AvroUtils._boolean() };
+
+        FieldAssembler<Schema> builder = SchemaBuilder.builder().record("BENCH").fields();
+        for (int i = 0; i < columns; i++) {
+            String name = "COL" + i;
+            builder = builder.name(name).prop(SchemaConstants.TALEND_COLUMN_DB_COLUMN_NAME, name)
+                    .prop(SchemaConstants.TALEND_COLUMN_PATTERN, "yyyy-MM-dd HH:mm:ss")
+                    .type(AvroUtils.wrapAsNullable(types[i % types.length])).noDefault();
+        }
+        return builder.endRecord();
+    }
+
+    private static List<JDBCSQLBuilder.Column> createColumnList(Schema schema) {
+        List<JDBCSQLBuilder.Column> columnList = new ArrayList<>();
+        for (Schema.Field field : schema.getFields()) {
+            JDBCSQLBuilder.Column column = JDBCSQLBuilder.getInstance().new Column();
+            column.columnLabel = field.name();
+            column.dbColumnName = field.name();
+            columnList.add(column);
+        }
+        return columnList;
+    }
+
+    private static IndexedRecord createRecord(Schema schema) {
+        IndexedRecord record = new GenericData.Record(schema);
+        for (Schema.Field field : schema.getFields()) {
+            Schema type = AvroUtils.unwrapIfNullable(field.schema());
+            Object value;
+            if (AvroUtils.isSameType(type, AvroUtils._int())) {
+                value = field.pos();
+            } else if (AvroUtils.isSameType(type, AvroUtils._string())) {
+                value = "value" + field.pos();
+            } else if (AvroUtils.isSameType(type, AvroUtils._long())) {
+                value = (long) field.pos();
+            } else if (AvroUtils.isSameType(type, AvroUtils._double())) {
+                value = field.pos() / 3d;
+            } else if (AvroUtils.isSameType(type, AvroUtils._date())) {
+                value = new Date(1500000000000L + field.pos());
+            } else if (AvroUtils.isSameType(type, AvroUtils._decimal())) {
+                value = new BigDecimal("12.34");
+            } else {
+                value = field.pos() % 2 == 0;
+            }
+            // some nulls too
+            record.put(field.pos(), field.pos() % 5 == 4 ? null : value);
+        }
+        return record;
+    }
+
+    private static PreparedStatement createRecordingStatement(final List<String> calls) {
+        return (PreparedStatement) Proxy.newProxyInstance(RowWriterTest.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        calls.add(method.getName() + Arrays.deepToString(args));
+                        return null;
+                    }
+                });
+    }
+
+}
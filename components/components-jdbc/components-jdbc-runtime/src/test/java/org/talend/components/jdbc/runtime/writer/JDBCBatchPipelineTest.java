@@ -0,0 +1,97 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.jdbc.runtime.writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.junit.Before;
+import org.junit.Test;
+import org.talend.components.jdbc.runtime.type.RowWriter;
+
+public class JDBCBatchPipelineTest {
+
+    private JDBCOutputWriter writer;
+
+    private Connection conn;
+
+    private PreparedStatement statement;
+
+    private RowWriter rowWriter;
+
+    private IndexedRecord bad;
+
+    private IndexedRecord good;
+
+    @Before
+    public void setUp() throws SQLException {
+        writer = mock(JDBCOutputWriter.class);
+        conn = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        rowWriter = mock(RowWriter.class);
+
+        bad = new GenericData.Record(SchemaBuilder.record("row").fields().requiredInt("id").endRecord());
+        bad.put(0, 1);
+        good = new GenericData.Record(bad.getSchema());
+        good.put(0, 2);
+
+        doThrow(new SQLException("can't bind")).when(rowWriter).write(bad);
+        when(writer.executeBatchAndGetCount(statement)).thenReturn(1);
+    }
+
+    @Test
+    public void testContinueAfterFailureWithoutDieOnError() throws SQLException {
+        JDBCBatchPipeline pipeline = new JDBCBatchPipeline(writer, conn, statement, rowWriter, 1, false);
+
+        pipeline.submit(Collections.singletonList(bad), false);
+        pipeline.submit(Collections.singletonList(good), true);
+        assertEquals(1, pipeline.finish());
+
+        verify(statement).clearBatch();
+        verify(writer, times(1)).executeBatchAndGetCount(statement);
+        verify(conn).commit();
+    }
+
+    @Test
+    public void testStopAfterFailureWithDieOnError() throws SQLException {
+        JDBCBatchPipeline pipeline = new JDBCBatchPipeline(writer, conn, statement, rowWriter, 1, true);
+
+        pipeline.submit(Collections.singletonList(bad), false);
+        try {
+            pipeline.submit(Collections.singletonList(good), true);
+            pipeline.finish();
+            fail("the failure of the first batch should be thrown");
+        } catch (SQLException e) {
+            assertEquals("can't bind", e.getMessage());
+        } finally {
+            pipeline.abort();
+        }
+
+        verify(writer, never()).executeBatchAndGetCount(statement);
+        verify(conn, never()).commit();
+    }
+}
@@ -28,6 +28,8 @@ public class SalesforceBulkProperties extends ComponentPropertiesImpl {
 
     public Property<Integer> rowsToCommit = newInteger("rowsToCommit", "10000");
 
+    public Property<Integer> batchUploads = newInteger("batchUploads", "1");
+
     public Property<Integer> waitTimeCheckBatchState = newInteger("waitTimeCheckBatchState");
 
     public Property<Boolean> bulkApiV2 = newBoolean("bulkApiV2");
@@ -61,6 +63,7 @@ public class SalesforceBulkProperties extends ComponentPropertiesImpl {
         mainForm.addRow(concurrencyMode);
         mainForm.addRow(rowsToCommit);
         mainForm.addColumn(bytesToCommit);
+        mainForm.addRow(batchUploads);
         mainForm.addRow(waitTimeCheckBatchState);
         mainForm.addRow(safetySwitch);
     }
@@ -73,6 +76,7 @@ public class SalesforceBulkProperties extends ComponentPropertiesImpl {
             boolean useBulkApiV2 = bulkApiV2.getValue();
             form.getWidget(rowsToCommit.getName()).setVisible(!useBulkApiV2);
             form.getWidget(bytesToCommit.getName()).setVisible(!useBulkApiV2);
+            form.getWidget(batchUploads.getName()).setVisible(!useBulkApiV2);
             form.getWidget(concurrencyMode.getName()).setVisible(!useBulkApiV2);
             form.getWidget(columnDelimiter.getName()).setVisible(useBulkApiV2);
             form.getWidget(lineEnding.getName()).setVisible(useBulkApiV2);
@@ -79,6 +79,12 @@ public class TSalesforceInputProperties extends SalesforceConnectionModuleProper
     // Advanced
     public Property<Integer> batchSize = newInteger("batchSize"); //$NON-NLS-1$
 
+    /**
+     * Number of query pages fetched with queryMore while the current page is read, 0 (default) to fetch them on demand.
+     * The pages are fetched by a background thread, on a connection which may be shared with other components.
+     */
+    public Property<Integer> prefetchPages = newInteger("prefetchPages", 0); //$NON-NLS-1$
+
     public Property<String> normalizeDelimiter = newProperty("normalizeDelimiter"); //$NON-NLS-1$
 
     public Property<String> columnNameDelimiter = newProperty("columnNameDelimiter"); //$NON-NLS-1$
@@ -96,10 +102,16 @@ public class TSalesforceInputProperties extends SalesforceConnectionModuleProper
 
     public Property<Integer> chunkSleepTime = newInteger("chunkSleepTime", DEFAULT_CHUNK_SLEEP_TIME);
 
+    public Property<Boolean> readCompletedChunks = newBoolean("readCompletedChunks", false);
+
     public Property<Boolean> useResultLocator = newBoolean("useResultLocator", false);
 
     public Property<Integer> maxRecords = newInteger("maxRecords", 50000);
 
+    public Property<Integer> resultDownloads = newInteger("resultDownloads", 1);
+
+    public Property<Boolean> keepResultOrder = newBoolean("keepResultOrder", true);
+
     public TSalesforceInputProperties(@JsonProperty("name") String name) {
         super(name);
     }
@@ -165,11 +177,15 @@ public class TSalesforceInputProperties extends SalesforceConnectionModuleProper
         advancedForm.addRow(pkChunking);
         advancedForm.addRow(chunkSize);
         advancedForm.addRow(chunkSleepTime);
+        advancedForm.addRow(readCompletedChunks);
         advancedForm.addRow(batchSize);
+        advancedForm.addRow(prefetchPages);
         advancedForm.addRow(normalizeDelimiter);
         advancedForm.addRow(columnNameDelimiter);
         advancedForm.addRow(useResultLocator);
         advancedForm.addRow(maxRecords);
+        advancedForm.addRow(resultDownloads);
+        advancedForm.addRow(keepResultOrder);
     }
 
     public ValidationResult validateGuessSchema() {
@@ -280,11 +296,15 @@ public class TSalesforceInputProperties extends SalesforceConnectionModuleProper
             form.getWidget(pkChunking.getName()).setVisible(isBulkQueryV1);
             form.getWidget(chunkSize.getName()).setVisible(isBulkQueryV1 && pkChunking.getValue());
             form.getWidget(chunkSleepTime.getName()).setVisible(isBulkQueryV1 && pkChunking.getValue());
+            form.getWidget(readCompletedChunks.getName()).setVisible(isBulkQueryV1 && pkChunking.getValue());
             form.getWidget(normalizeDelimiter.getName()).setHidden(isBulkQueryV1 || isBulkQueryV2);
             form.getWidget(columnNameDelimiter.getName()).setHidden(isBulkQueryV1 || isBulkQueryV2);
             form.getWidget(batchSize.getName()).setHidden(isBulkQueryV1 || isBulkQueryV2);
+            form.getWidget(prefetchPages.getName()).setHidden(isBulkQueryV1 || isBulkQueryV2);
             form.getWidget(useResultLocator.getName()).setVisible(isBulkQueryV2);
             form.getWidget(maxRecords.getName()).setVisible(isBulkQueryV2 && useResultLocator.getValue());
+            form.getWidget(resultDownloads.getName()).setVisible(isBulkQueryV1 || isBulkQueryV2);
+            form.getWidget(keepResultOrder.getName()).setVisible(isBulkQueryV1);
             connection.bulkConnection.setValue(isBulkQueryV1 || isBulkQueryV2);
             connection.afterBulkConnection();
             form.getChildForm(connection.getName()).getWidget(connection.bulkConnection.getName()).setHidden(true);
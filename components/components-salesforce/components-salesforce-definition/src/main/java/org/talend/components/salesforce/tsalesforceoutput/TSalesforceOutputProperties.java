@@ -54,6 +54,14 @@ public class TSalesforceOutputProperties extends SalesforceOutputProperties {
 
     public Property<Integer> commitLevel = newInteger("commitLevel", 200); //$NON-NLS-1$
 
+    /** Number of SOAP calls which may be in progress at the same time, 1 keeps the calls synchronous. */
+    public Property<Integer> concurrentCalls = newInteger("concurrentCalls", 1); //$NON-NLS-1$
+
+    /** Send the rows after {@link #bulkSwitchRows} with Bulk API v2 jobs instead of SOAP calls. */
+    public Property<Boolean> switchToBulk = newBoolean("switchToBulk"); //$NON-NLS-1$
+
+    public Property<Integer> bulkSwitchRows = newInteger("bulkSwitchRows", 10000); //$NON-NLS-1$
+
     // FIXME - should be file
     public Property<String> logFileName = newString("logFileName"); //$NON-NLS-1$
 
@@ -163,6 +171,9 @@ public class TSalesforceOutputProperties extends SalesforceOutputProperties {
         advancedForm.addRow(ignoreNull);
         advancedForm.addRow(retrieveInsertId);
         advancedForm.addRow(commitLevel);
+        advancedForm.addRow(concurrentCalls);
+        advancedForm.addRow(switchToBulk);
+        advancedForm.addColumn(bulkSwitchRows);
         advancedForm.addRow(widget(logFileName).setWidgetType(Widget.FILE_WIDGET_TYPE));
     }
 
@@ -171,6 +182,10 @@ public class TSalesforceOutputProperties extends SalesforceOutputProperties {
         updateOutputSchemas();
     }
 
+    public void afterSwitchToBulk() {
+        refreshLayout(getForm(Form.ADVANCED));
+    }
+
     public void afterRetrieveInsertId() {
         refreshLayout(getForm(Form.ADVANCED));
         updateOutputSchemas();
@@ -190,6 +205,8 @@ public class TSalesforceOutputProperties extends SalesforceOutputProperties {
             form.getChildForm(connection.getName()).getWidget(connection.bulkConnection.getName()).setHidden(true);
             form.getChildForm(connection.getName()).getWidget(connection.httpTraceMessage.getName()).setHidden(true);
             form.getWidget("commitLevel").setHidden(!extendInsert.getValue());
+            form.getWidget("concurrentCalls").setHidden(!extendInsert.getValue());
+            form.getWidget(bulkSwitchRows.getName()).setHidden(!switchToBulk.getValue());
             form.getWidget("retrieveInsertId")
                     .setHidden(extendInsert.getValue() || !(OutputAction.INSERT.equals(outputAction.getValue())
                             || OutputAction.UPSERT.equals(outputAction.getValue())));
@@ -211,6 +211,7 @@ public class TSalesforceBulkExecPropertiesTest extends SalesforceTestBase {
         assertFalse(bulkForm.getWidget(properties.bulkProperties.bulkApiV2.getName()).isVisible());
         assertTrue(bulkForm.getWidget(properties.bulkProperties.rowsToCommit.getName()).isVisible());
         assertTrue(bulkForm.getWidget(properties.bulkProperties.bytesToCommit.getName()).isVisible());
+        assertTrue(bulkForm.getWidget(properties.bulkProperties.batchUploads.getName()).isVisible());
         assertTrue(bulkForm.getWidget(properties.bulkProperties.concurrencyMode.getName()).isVisible());
         assertTrue(bulkForm.getWidget(properties.bulkProperties.waitTimeCheckBatchState.getName()).isVisible());
         assertFalse(bulkForm.getWidget(properties.bulkProperties.columnDelimiter.getName()).isVisible());
@@ -227,6 +228,7 @@ public class TSalesforceBulkExecPropertiesTest extends SalesforceTestBase {
 
         assertFalse(bulkForm.getWidget(properties.bulkProperties.rowsToCommit.getName()).isVisible());
         assertFalse(bulkForm.getWidget(properties.bulkProperties.bytesToCommit.getName()).isVisible());
+        assertFalse(bulkForm.getWidget(properties.bulkProperties.batchUploads.getName()).isVisible());
         assertFalse(bulkForm.getWidget(properties.bulkProperties.concurrencyMode.getName()).isVisible());
         assertTrue(bulkForm.getWidget(properties.bulkProperties.waitTimeCheckBatchState.getName()).isVisible());
         assertTrue(bulkForm.getWidget(properties.bulkProperties.columnDelimiter.getName()).isVisible());
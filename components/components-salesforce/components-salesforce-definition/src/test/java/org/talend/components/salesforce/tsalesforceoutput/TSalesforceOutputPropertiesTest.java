@@ -105,6 +105,18 @@ public class TSalesforceOutputPropertiesTest extends SalesforceTestBase {
         assertTrue(properties.ceaseForError.getValue());
         assertTrue(advancedForm.getWidget(properties.commitLevel.getName()).isVisible());
         assertEquals(200, properties.commitLevel.getValue().intValue());
+        assertTrue(advancedForm.getWidget(properties.concurrentCalls.getName()).isVisible());
+        assertEquals(1, properties.concurrentCalls.getValue().intValue());
+        assertTrue(advancedForm.getWidget(properties.switchToBulk.getName()).isVisible());
+        assertFalse(properties.switchToBulk.getValue());
+        assertFalse(advancedForm.getWidget(properties.bulkSwitchRows.getName()).isVisible());
+        properties.switchToBulk.setValue(true);
+        assertTrue(advancedForm.getWidget(properties.switchToBulk.getName()).isCallAfter());
+        PropertiesDynamicMethodHelper.afterProperty(properties, properties.switchToBulk.getName());
+        assertTrue(advancedForm.getWidget(properties.bulkSwitchRows.getName()).isVisible());
+        assertEquals(10000, properties.bulkSwitchRows.getValue().intValue());
+        properties.switchToBulk.setValue(false);
+        PropertiesDynamicMethodHelper.afterProperty(properties, properties.switchToBulk.getName());
         assertTrue(advancedForm.getWidget(properties.logFileName.getName()).isVisible());
         assertNull(properties.logFileName.getValue());
 
@@ -124,6 +136,7 @@ public class TSalesforceOutputPropertiesTest extends SalesforceTestBase {
         assertTrue(advancedForm.getWidget(properties.extendInsert.getName()).isCallAfter());
         PropertiesDynamicMethodHelper.afterProperty(properties, properties.extendInsert.getName());
         assertTrue(advancedForm.getWidget(properties.retrieveInsertId.getName()).isVisible());
+        assertFalse(advancedForm.getWidget(properties.concurrentCalls.getName()).isVisible());
         assertFalse(properties.retrieveInsertId.getValue());
 
         // 3.After retrieveInsertId checked
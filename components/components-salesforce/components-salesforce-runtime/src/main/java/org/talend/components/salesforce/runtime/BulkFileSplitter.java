@@ -0,0 +1,147 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Splits a CSV bulk file into batches, working directly on the bytes : a record ends at a line feed which is not between
+ * double quotes, so the lines are never decoded and encoded again. Every batch starts with the header of the file.
+ */
+public class BulkFileSplitter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream input;
+
+    private final int maxBytesPerBatch;
+
+    private final int maxRowsPerBatch;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+
+    private byte[] header;
+
+    private byte[] nextRecord;
+
+    public BulkFileSplitter(InputStream input, int maxBytesPerBatch, int maxRowsPerBatch) {
+        this.input = input;
+        this.maxBytesPerBatch = maxBytesPerBatch;
+        this.maxRowsPerBatch = maxRowsPerBatch;
+    }
+
+    /**
+     * @return the next batch, or null if no record is left.
+     */
+    public Batch nextBatch() throws IOException {
+        if (header == null) {
+            header = readRecord();
+            if (header == null) {
+                return null;
+            }
+            nextRecord = readRecord();
+        }
+        if (nextRecord == null) {
+            return null;
+        }
+
+        Batch batch = new Batch(Math.min(maxBytesPerBatch, BUFFER_SIZE));
+        batch.write(header);
+        int rows = 0;
+        // a record bigger than the limit still makes a batch on its own
+        while (nextRecord != null
+                && (rows == 0 || (batch.size() + nextRecord.length <= maxBytesPerBatch && rows < maxRowsPerBatch))) {
+            batch.write(nextRecord);
+            rows++;
+            nextRecord = readRecord();
+        }
+        batch.rows = rows;
+        return batch;
+    }
+
+    /**
+     * @return the next record with its line end, or null at the end of the file.
+     */
+    private byte[] readRecord() throws IOException {
+        record.reset();
+        boolean quoted = false;
+        while (true) {
+            if (position == limit) {
+                limit = input.read(buffer);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    if (record.size() == 0) {
+                        return null;
+                    }
+                    // the last line of the file may have no line end
+                    record.write('\n');
+                    return record.toByteArray();
+                }
+            }
+            int start = position;
+            while (position < limit) {
+                byte b = buffer[position++];
+                if (b == '"') {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted) {
+                    record.write(buffer, start, position - start);
+                    return record.toByteArray();
+                }
+            }
+            record.write(buffer, start, position - start);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Content of a batch, kept in memory.
+     */
+    public static class Batch extends ByteArrayOutputStream {
+
+        private int rows;
+
+        Batch(int size) {
+            super(size);
+        }
+
+        /**
+         * @return the number of records of the batch, without the header.
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * @return a new stream on the content, without copying it.
+         */
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Computes the delays between the polls of the state of a bulk job.
+ *
+ * The first polls are fast, then the delay follows the progress of the job : when the number of expected records is
+ * known, it's half the estimated remaining time, otherwise it grows while the job doesn't progress. A random jitter keeps
+ * the jobs started together from polling together, and all the pollers of the JVM share a minimum spacing between their
+ * polls, so many jobs running at the same time don't exceed the API limits.
+ */
+public class BulkJobPoller {
+
+    static final long INITIAL_DELAY = 500L;
+
+    static final long MIN_DELAY = 200L;
+
+    /** Minimum time between two polls of any job of the JVM. */
+    static final long GLOBAL_POLL_SPACING = 50L;
+
+    private static final double BACKOFF_FACTOR = 1.5;
+
+    private static final double JITTER = 0.2;
+
+    private static final AtomicLong NEXT_GLOBAL_POLL = new AtomicLong();
+
+    private final long maxDelay;
+
+    private final long startTime;
+
+    private long delay = INITIAL_DELAY;
+
+    private long lastPollTime;
+
+    private long lastProcessedRecords;
+
+    private int pollCount;
+
+    private long timeToFirstResult = -1;
+
+    /**
+     * @param maxDelay - maximum delay between two polls, in milliseconds.
+     */
+    public BulkJobPoller(long maxDelay) {
+        this.maxDelay = Math.max(MIN_DELAY, maxDelay);
+        this.startTime = System.currentTimeMillis();
+        this.lastPollTime = startTime;
+    }
+
+    /**
+     * Waits till the next poll.
+     */
+    public void await() throws InterruptedException {
+        Thread.sleep(jitter(delay));
+        // the slot is reserved when the poll is due, so a long delay of a job doesn't hold back the others
+        long now = System.currentTimeMillis();
+        long pollTime = reservePollTime(now);
+        if (pollTime > now) {
+            Thread.sleep(pollTime - now);
+        }
+        pollCount++;
+    }
+
+    /**
+     * Computes the next delay from the state returned by the last poll.
+     *
+     * @param processedRecords - number of records processed by the job.
+     * @param expectedRecords - number of records the job will process, or a negative value if it's unknown.
+     */
+    public void update(long processedRecords, long expectedRecords) {
+        long now = System.currentTimeMillis();
+        if (timeToFirstResult < 0 && processedRecords > 0) {
+            timeToFirstResult = now - startTime;
+        }
+
+        long progress = processedRecords - lastProcessedRecords;
+        long elapsed = now - lastPollTime;
+        if (progress > 0 && expectedRecords > processedRecords && elapsed > 0) {
+            // half the estimated remaining time, so the end is not overslept much
+            double rate = (double) progress / elapsed;
+            delay = (long) ((expectedRecords - processedRecords) / rate / 2);
+        } else if (progress <= 0) {
+            delay = (long) (delay * BACKOFF_FACTOR);
+        }
+        delay = Math.max(MIN_DELAY, Math.min(maxDelay, delay));
+
+        lastPollTime = now;
+        lastProcessedRecords = Math.max(lastProcessedRecords, processedRecords);
+    }
+
+    /**
+     * Marks the job as finished, for the statistics.
+     */
+    public void finish() {
+        if (timeToFirstResult < 0) {
+            timeToFirstResult = System.currentTimeMillis() - startTime;
+        }
+    }
+
+    long getDelay() {
+        return delay;
+    }
+
+    public int getPollCount() {
+        return pollCount;
+    }
+
+    /**
+     * @return the time from the creation of the poller to the first processed record, in milliseconds, or -1.
+     */
+    public long getTimeToFirstResult() {
+        return timeToFirstResult;
+    }
+
+    @Override
+    public String toString() {
+        return "polls: " + pollCount + ", time to first result: " + timeToFirstResult + " ms, total time: "
+                + (System.currentTimeMillis() - startTime) + " ms";
+    }
+
+    private static long jitter(long value) {
+        return (long) (value * (1 + JITTER * (2 * ThreadLocalRandom.current().nextDouble() - 1)));
+    }
+
+    /**
+     * @return the wanted time, or later if another job polls around this time.
+     */
+    private static long reservePollTime(long wantedTime) {
+        while (true) {
+            long next = NEXT_GLOBAL_POLL.get();
+            long pollTime = Math.max(wantedTime, next);
+            if (NEXT_GLOBAL_POLL.compareAndSet(next, pollTime + GLOBAL_POLL_SPACING)) {
+                return pollTime;
+            }
+        }
+    }
+
+}
@@ -1,42 +1,108 @@
 package org.talend.components.salesforce.runtime;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 
+/**
+ * Row of a bulk result. The rows read from a query result keep the values in an array, in the order of the header they
+ * share, the values are only copied to a map if they are changed.
+ */
 public class BulkResult {
 
     Map<String, Object> values;
 
+    private BulkResultHeader header;
+
+    private String[] row;
+
     public BulkResult() {
         values = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
     }
 
+    public BulkResult(BulkResultHeader header, String[] row) {
+        if (header == null) {
+            values = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        } else {
+            this.header = header;
+            this.row = row;
+        }
+    }
+
     public void setValue(String field, Object vlaue) {
-        values.put(field, vlaue);
+        getValues().put(field, vlaue);
     }
 
     public Object getValue(String fieldName) {
+        if (header != null) {
+            return getValue(header.indexOf(fieldName));
+        }
         return values.get(fieldName);
     }
 
+    /**
+     * @return the value at this position of the header, null if the result is not read from a query result.
+     */
+    public Object getValue(int position) {
+        if (header == null || position < 0 || position >= row.length) {
+            return null;
+        }
+        return row[position];
+    }
+
+    /**
+     * @return the header of the query result which contains this row, or null if the values are kept in a map.
+     */
+    public BulkResultHeader getHeader() {
+        return header;
+    }
+
+    public Set<String> getFieldNames() {
+        if (header != null) {
+            // same names and order as the keys of the map
+            Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 0; i < header.size(); i++) {
+                names.add(header.getName(i));
+            }
+            return names;
+        }
+        return values.keySet();
+    }
+
     public void copyValues(BulkResult result) {
         if (result == null) {
             return;
         } else {
-            for (String key : result.values.keySet()) {
-                Object value = result.values.get(key);
+            for (String key : result.getFieldNames()) {
+                Object value = result.getValue(key);
                 if ("#N/A".equals(value)) {
                     value = null;
                 }
-                values.put(key, value);
+                getValues().put(key, value);
             }
         }
     }
 
     public boolean containField(String fieldName) {
+        if (header != null) {
+            return header.indexOf(fieldName) >= 0;
+        }
         if (values != null && values.containsKey(fieldName)) {
             return true;
         }
         return false;
     }
+
+    private Map<String, Object> getValues() {
+        if (header != null) {
+            values = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 0; i < header.size(); i++) {
+                values.put(header.getName(i), getValue(i));
+            }
+            header = null;
+            row = null;
+        }
+        return values;
+    }
 }
\ No newline at end of file
@@ -33,6 +33,12 @@ public class BulkResultAdapterFactory implements IndexedRecordConverter<BulkResu
 
     private boolean returnNullForEmpty;
 
+    /** The header for which the positions of the fields were computed. */
+    private transient BulkResultHeader positionHeader;
+
+    /** The position of every field of the schema in the header, or -1. */
+    private transient int[] positions;
+
     /** The cached AvroConverter objects for the fields of this record. */
     @SuppressWarnings("rawtypes")
     protected transient AvroConverter[] fieldConverter;
@@ -56,7 +62,7 @@ public class BulkResultAdapterFactory implements IndexedRecordConverter<BulkResu
     public IndexedRecord convertToAvro(BulkResult result) {
         if (AvroUtils.isIncludeAllFields(schema)) {
             List<Field> fields = new ArrayList<>();
-            Set<String> resultFieldNames = result.values.keySet();
+            Set<String> resultFieldNames = result.getFieldNames();
             for (String fieldName : resultFieldNames) {
                 // skip field which set in design schema or duplicate value
                 if (schema.getField(fieldName) != null || "Created".equals(fieldName) || "Error".equals(fieldName)
@@ -118,10 +124,20 @@ public class BulkResultAdapterFactory implements IndexedRecordConverter<BulkResu
                     fieldConverter[j] = SalesforceAvroRegistry.get().getConverterFromString(f);
                 }
             }
-            Object resultValue = value.getValue(names[i]);
-            if (resultValue == null) {
-                String columnName = names[i].substring(names[i].indexOf("_") + 1);
-                resultValue = value.getValue(columnName);
+            Object resultValue;
+            BulkResultHeader header = value.getHeader();
+            if (header != null) {
+                if (header != positionHeader) {
+                    positions = computePositions(header);
+                    positionHeader = header;
+                }
+                resultValue = value.getValue(positions[i]);
+            } else {
+                resultValue = value.getValue(names[i]);
+                if (resultValue == null) {
+                    String columnName = names[i].substring(names[i].indexOf("_") + 1);
+                    resultValue = value.getValue(columnName);
+                }
             }
             if (returnNullForEmpty && resultValue != null && "".equals(resultValue)) {
                 resultValue = null;
@@ -129,6 +145,20 @@ public class BulkResultAdapterFactory implements IndexedRecordConverter<BulkResu
             return fieldConverter[i].convertToAvro(resultValue);
         }
 
+        /**
+         * Same lookup as by name : the field name, or the part after the first "_" if the header doesn't contain it.
+         */
+        private int[] computePositions(BulkResultHeader header) {
+            int[] fieldPositions = new int[names.length];
+            for (int j = 0; j < names.length; j++) {
+                fieldPositions[j] = header.indexOf(names[j]);
+                if (fieldPositions[j] < 0) {
+                    fieldPositions[j] = header.indexOf(names[j].substring(names[j].indexOf("_") + 1));
+                }
+            }
+            return fieldPositions;
+        }
+
         @Override
         public Schema getSchema() {
             return BulkResultAdapterFactory.this.getSchema();
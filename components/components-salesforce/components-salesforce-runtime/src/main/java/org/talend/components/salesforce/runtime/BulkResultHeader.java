@@ -0,0 +1,65 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Header of a bulk query result, shared by all its rows. The names are normalized once, and a name gives the position of
+ * its value in the rows.
+ */
+public class BulkResultHeader {
+
+    private final String[] names;
+
+    private final Map<String, Integer> positions = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * @param header - column names of the result, as returned by Salesforce.
+     */
+    public BulkResultHeader(List<String> header) {
+        names = new String[header.size()];
+        for (int i = 0; i < names.length; i++) {
+            // We replace the . with _ to add support of relationShip Queries
+            // The relationShip Queries Use . in Salesforce and we use _ in Talend (Studio)
+            // So Account.Name in SF will be Account_Name in Talend
+            names[i] = header.get(i).replace('.', '_');
+            positions.put(names[i], i);
+        }
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int position) {
+        return names[position];
+    }
+
+    public List<String> getNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * @return the position of the column, without considering the case, or -1 if the result has no such column.
+     */
+    public int indexOf(String name) {
+        Integer position = positions.get(name);
+        return position == null ? -1 : position;
+    }
+
+}
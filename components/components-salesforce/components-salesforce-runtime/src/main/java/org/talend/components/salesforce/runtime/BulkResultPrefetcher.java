@@ -0,0 +1,238 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Downloads the bulk query results in background threads to temporary files, so the next results are downloaded while
+ * the current one is read.
+ *
+ * The downloaded results are delivered in the order they were submitted, or as soon as their download is finished when
+ * the order is not kept. A temporary file is deleted when its stream is closed.
+ */
+public class BulkResultPrefetcher implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkResultPrefetcher.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    /**
+     * One result to download.
+     */
+    public interface ResultDownload {
+
+        /**
+         * @return the content of the result, or null if there is no result to download any more.
+         */
+        InputStream open() throws IOException;
+    }
+
+    private final int maxPending;
+
+    private final boolean ordered;
+
+    private final ExecutorService executor;
+
+    private final CompletionService<File> completionService;
+
+    private final Deque<Future<File>> pending = new ArrayDeque<>();
+
+    private volatile boolean closed;
+
+    /**
+     * @param downloadCount - number of results downloaded at the same time, and maximum number of results downloaded in
+     * advance.
+     * @param ordered - true to deliver the results in the order they were submitted.
+     */
+    public BulkResultPrefetcher(int downloadCount, boolean ordered) {
+        this(downloadCount, downloadCount, ordered);
+    }
+
+    /**
+     * @param threadCount - number of results downloaded at the same time.
+     * @param maxPending - maximum number of results downloaded in advance.
+     * @param ordered - true to deliver the results in the order they were submitted.
+     */
+    public BulkResultPrefetcher(int threadCount, int maxPending, boolean ordered) {
+        this.maxPending = Math.max(1, maxPending);
+        this.ordered = ordered;
+        executor = Executors.newFixedThreadPool(Math.max(1, threadCount), new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "salesforce-bulk-result-" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        completionService = new ExecutorCompletionService<>(executor);
+    }
+
+    /**
+     * @return true if no more result can be submitted till the next one is taken.
+     */
+    public boolean isFull() {
+        return pending.size() >= maxPending;
+    }
+
+    /**
+     * @return true if no submitted result is left to take.
+     */
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    public void submit(final ResultDownload download) {
+        Callable<File> task = new Callable<File>() {
+
+            @Override
+            public File call() throws Exception {
+                return spill(download);
+            }
+        };
+        pending.add(ordered ? executor.submit(task) : completionService.submit(task));
+    }
+
+    /**
+     * Waits for the next downloaded result.
+     *
+     * @return the content of the result, or null if there is nothing to take or the download had no result.
+     */
+    public InputStream take() throws IOException, InterruptedException {
+        if (pending.isEmpty()) {
+            return null;
+        }
+        Future<File> future;
+        if (ordered) {
+            future = pending.poll();
+        } else {
+            future = completionService.take();
+            pending.remove(future);
+        }
+        try {
+            File file = future.get();
+            return file == null ? null : new SpillInputStream(file);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+        for (Future<File> future : pending) {
+            if (future.cancel(true) || !future.isDone()) {
+                continue;
+            }
+            try {
+                File file = future.get();
+                if (file != null) {
+                    delete(file);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // the result is not read any more
+                LOGGER.debug(e.getMessage());
+            }
+        }
+        pending.clear();
+    }
+
+    private File spill(ResultDownload download) throws IOException {
+        InputStream input = download.open();
+        if (input == null) {
+            return null;
+        }
+        File file = File.createTempFile("salesforce-bulk-result", ".csv");
+        try (InputStream in = input; OutputStream out = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+        } catch (IOException | RuntimeException e) {
+            delete(file);
+            throw e;
+        }
+        if (closed) {
+            // the prefetcher was closed during the download, nobody will take this result
+            delete(file);
+            return null;
+        }
+        return file;
+    }
+
+    private static void delete(File file) {
+        if (!file.delete()) {
+            LOGGER.warn("Cannot delete the temporary file " + file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Stream of a downloaded result, which deletes its file when it's closed.
+     */
+    private static class SpillInputStream extends FileInputStream {
+
+        private final File file;
+
+        private boolean deleted;
+
+        SpillInputStream(File file) throws IOException {
+            super(file);
+            this.file = file;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!deleted) {
+                    deleted = true;
+                    delete(file);
+                }
+            }
+        }
+    }
+
+}
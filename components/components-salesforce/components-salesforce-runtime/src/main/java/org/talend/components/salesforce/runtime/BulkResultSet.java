@@ -9,9 +9,13 @@ public class BulkResultSet {
 
     List<String> header;
 
+    private final BulkResultHeader resultHeader;
+
     public BulkResultSet(com.csvreader.CsvReader reader, List<String> header) {
         this.reader = reader;
         this.header = header;
+        // the names are normalized once for all the rows
+        this.resultHeader = header == null ? null : new BulkResultHeader(header);
     }
 
     public BulkResult next() throws IOException {
@@ -26,19 +30,12 @@ public class BulkResultSet {
             throw e;
         }
 
-        BulkResult result = null;
         String[] row;
 
         if (hasNext) {
             if ((row = reader.getValues()) != null) {
-                result = new BulkResult();
-                for (int i = 0; i < this.header.size(); i++) {
-                    //We replace the . with _ to add support of relationShip Queries
-                    //The relationShip Queries Use . in Salesforce and we use _ in Talend (Studio)
-                    //So Account.Name in SF will be Account_Name in Talend
-                    result.setValue(header.get(i).replace('.', '_'), row[i]);
-                }
-                return result;
+                // the values of the row are used as they are, getValues returns a new array for every row
+                return new BulkResult(resultHeader, row);
             } else {
                 return next();
             }
@@ -0,0 +1,166 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.avro.generic.IndexedRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.csvreader.CsvWriter;
+
+/**
+ * Rows of tSalesforceOutput sent with a Bulk API v2 job once the writer switched from SOAP calls.
+ *
+ * The rows are written to a temporary CSV file, while their input records are kept until the results of the job are
+ * mapped back to them. The results of a job echo the uploaded values, so a result is matched with a spooled row having
+ * the same values.
+ */
+final class BulkV2OutputSpool implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkV2OutputSpool.class);
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    /**
+     * Handles the results of a job. The input is null when no spooled row has the values of the result.
+     */
+    interface ResultHandler {
+
+        void handleSuccess(IndexedRecord input, BulkResult result) throws IOException;
+
+        void handleFailure(IndexedRecord input, BulkResult result) throws IOException;
+    }
+
+    private final String[] header;
+
+    private final Map<String, Deque<IndexedRecord>> records = new HashMap<>();
+
+    private File file;
+
+    private CsvWriter writer;
+
+    private int rows;
+
+    BulkV2OutputSpool(String[] header) {
+        this.header = header;
+    }
+
+    String[] getHeader() {
+        return header;
+    }
+
+    /**
+     * @return the number of rows spooled since the last {@link #reset()}.
+     */
+    int getRows() {
+        return rows;
+    }
+
+    void add(IndexedRecord input, String[] values) throws IOException {
+        if (writer == null) {
+            file = File.createTempFile("salesforce-output-", ".csv");
+            writer = new CsvWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), ',');
+            writer.setRecordDelimiter('\n');
+            writer.writeRecord(header);
+        }
+        writer.writeRecord(values);
+        String key = getKey(values);
+        Deque<IndexedRecord> sameRecords = records.get(key);
+        if (sameRecords == null) {
+            sameRecords = new ArrayDeque<>(1);
+            records.put(key, sameRecords);
+        }
+        sameRecords.add(input);
+        rows++;
+    }
+
+    /**
+     * Close the CSV file to upload it.
+     *
+     * @return the spooled file, or null if no row was spooled.
+     */
+    File finish() {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+        return file;
+    }
+
+    /**
+     * Map the successful results, then the failed ones, back to the spooled records.
+     */
+    void handleResults(BulkResultSet successResults, BulkResultSet failedResults, ResultHandler handler)
+            throws IOException {
+        BulkResult result;
+        while ((result = successResults.next()) != null) {
+            handler.handleSuccess(takeRecord(result), result);
+        }
+        while ((result = failedResults.next()) != null) {
+            handler.handleFailure(takeRecord(result), result);
+        }
+    }
+
+    /**
+     * Forget the spooled rows and delete the file, so that the spool can be used for the next job.
+     */
+    void reset() {
+        finish();
+        if (file != null && !file.delete()) {
+            LOGGER.debug("Can't delete " + file);
+        }
+        file = null;
+        records.clear();
+        rows = 0;
+    }
+
+    @Override
+    public void close() {
+        reset();
+    }
+
+    private IndexedRecord takeRecord(BulkResult result) {
+        String[] values = new String[header.length];
+        for (int i = 0; i < header.length; i++) {
+            Object value = result.getValue(header[i]);
+            values[i] = value == null ? "" : value.toString();
+        }
+        Deque<IndexedRecord> sameRecords = records.get(getKey(values));
+        if (sameRecords == null || sameRecords.isEmpty()) {
+            return null;
+        }
+        return sameRecords.poll();
+    }
+
+    private static String getKey(String[] values) {
+        StringBuilder key = new StringBuilder();
+        for (String value : values) {
+            if (value != null) {
+                key.append(value);
+            }
+            key.append(KEY_SEPARATOR);
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,119 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sforce.soap.partner.PartnerConnection;
+import com.sforce.soap.partner.QueryResult;
+import com.sforce.ws.ConnectionException;
+
+/**
+ * Fetches the next pages of a SOQL query with queryMore in a background thread, while the current page is read.
+ *
+ * A page needs the locator of the previous one, so the pages are fetched one after the other, and at most a given number
+ * of fetched pages are buffered.
+ */
+public class QueryMorePrefetcher implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryMorePrefetcher.class);
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    /** Put in the buffer after the last page. */
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> pages;
+
+    private final Thread fetcher;
+
+    private boolean finished;
+
+    /**
+     * @param connection connection which is not used by the caller while the pages are fetched.
+     * @param firstPage the page returned by the query.
+     * @param maxPages maximum number of fetched pages which are not read yet.
+     */
+    public QueryMorePrefetcher(final PartnerConnection connection, final QueryResult firstPage, int maxPages) {
+        pages = new ArrayBlockingQueue<>(Math.max(1, maxPages));
+        fetcher = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                Object last = END;
+                try {
+                    QueryResult page = firstPage;
+                    while (!page.isDone()) {
+                        page = connection.queryMore(page.getQueryLocator());
+                        pages.put(page);
+                    }
+                } catch (InterruptedException e) {
+                    // closed before the last page
+                    return;
+                } catch (ConnectionException | RuntimeException e) {
+                    last = e;
+                }
+                try {
+                    pages.put(last);
+                } catch (InterruptedException e) {
+                    LOGGER.debug("Closed before the end of the query");
+                }
+            }
+        }, "salesforce-query-more-" + THREAD_COUNT.incrementAndGet());
+        fetcher.setDaemon(true);
+        fetcher.start();
+    }
+
+    /**
+     * @return the next page, waiting for it if it is not fetched yet, or null after the last page.
+     */
+    public QueryResult next() throws IOException, ConnectionException {
+        if (finished) {
+            return null;
+        }
+        Object page;
+        try {
+            page = pages.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        if (page == END) {
+            finished = true;
+            return null;
+        }
+        if (page instanceof ConnectionException) {
+            finished = true;
+            throw (ConnectionException) page;
+        }
+        if (page instanceof RuntimeException) {
+            finished = true;
+            throw (RuntimeException) page;
+        }
+        return (QueryResult) page;
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        fetcher.interrupt();
+        pages.clear();
+    }
+}
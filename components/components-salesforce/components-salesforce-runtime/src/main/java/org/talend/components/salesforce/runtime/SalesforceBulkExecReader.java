@@ -58,6 +58,7 @@ final class SalesforceBulkExecReader extends SalesforceReader {
         bulkRuntime =
                 new SalesforceBulkRuntime(((SalesforceSource) getCurrentSource()).connect(container).bulkConnection);
         bulkRuntime.setConcurrencyMode(sprops.bulkProperties.concurrencyMode.getValue());
+        bulkRuntime.setBatchUploads(sprops.bulkProperties.batchUploads.getValue());
         bulkRuntime.setAwaitTime(sprops.bulkProperties.waitTimeCheckBatchState.getValue());
         bulkRuntime.setSafetySwitch(sprops.bulkProperties.safetySwitch.getValue());
 
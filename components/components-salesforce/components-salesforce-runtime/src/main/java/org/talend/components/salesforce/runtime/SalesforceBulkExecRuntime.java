@@ -75,6 +75,7 @@ public class SalesforceBulkExecRuntime extends SalesforceSourceOrSink
         try {
             SalesforceBulkRuntime bulkRuntime = new SalesforceBulkRuntime(connect(container).bulkConnection);
             bulkRuntime.setConcurrencyMode(sprops.bulkProperties.concurrencyMode.getValue());
+            bulkRuntime.setBatchUploads(sprops.bulkProperties.batchUploads.getValue());
             bulkRuntime.setAwaitTime(sprops.bulkProperties.waitTimeCheckBatchState.getValue());
             // We only support CSV file for bulk output
             bulkRuntime
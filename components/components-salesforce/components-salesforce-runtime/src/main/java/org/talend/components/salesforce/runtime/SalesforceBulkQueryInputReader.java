@@ -54,6 +54,7 @@ public class SalesforceBulkQueryInputReader extends SalesforceReader<IndexedReco
             }
             bulkRuntime.setSafetySwitch(((TSalesforceInputProperties) properties).safetySwitch.getValue());
             bulkRuntime.setJobTimeout((TSalesforceInputProperties) properties);
+            bulkRuntime.setResultDownloads((TSalesforceInputProperties) properties);
         }
         try {
             executeSalesforceBulkQuery();
@@ -81,24 +82,18 @@ public class SalesforceBulkQueryInputReader extends SalesforceReader<IndexedReco
     }
 
     private boolean retrieveNextResultSet() throws IOException {
-        while (bulkRuntime.hasNextResultId()) {
-            String resultId = bulkRuntime.nextResultId();
-            if (null != resultId) {
-                try {
-                    // Get a new result set
-                    bulkResultSet = bulkRuntime.getQueryResultSet(resultId);
-                } catch (AsyncApiException | ConnectionException e) {
-                    throw new IOException(e);
-                }
-
+        try {
+            while ((bulkResultSet = bulkRuntime.nextQueryResultSet()) != null) {
                 currentRecord = bulkResultSet.next();
-                // If currentRecord is null, we need to check if resultId set has more entries.
+                // If currentRecord is null, we need to check if there are more results.
                 if (null != currentRecord) {
                     // New result set available to retrieve
                     dataCount++;
                     return true;
                 }
             }
+        } catch (AsyncApiException | ConnectionException | InterruptedException e) {
+            throw new IOException(e);
         }
         return false;
     }
@@ -106,6 +101,7 @@ public class SalesforceBulkQueryInputReader extends SalesforceReader<IndexedReco
     @Override
     public void close() throws IOException {
         try {
+            bulkRuntime.close();
             bulkRuntime.closeJob();
         } catch (AsyncApiException | ConnectionException e) {
             throw new IOException(e);
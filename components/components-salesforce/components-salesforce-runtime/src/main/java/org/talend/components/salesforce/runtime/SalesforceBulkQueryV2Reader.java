@@ -82,7 +82,9 @@ final class SalesforceBulkQueryV2Reader extends SalesforceReader {
 
     @Override
     public void close() {
-        // do nothing
+        if (bulkRuntime != null) {
+            bulkRuntime.close();
+        }
     }
 
     private boolean retrieveResultSet() throws IOException {
@@ -14,22 +14,31 @@ package org.talend.components.salesforce.runtime;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
-import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.talend.components.api.exception.ComponentException;
@@ -113,12 +122,44 @@ public class SalesforceBulkRuntime {
 
     private long jobTimeOut;
 
+    private boolean readCompletedChunks;
+
+    /**
+     * Query batch of the pk chunking job which is still read, when the chunks are read as soon as they are completed.
+     */
+    private BatchInfo chunkedQueryBatch;
+
+    private Set<String> consumedBatchIds;
+
+    private Deque<String> pendingResultIds;
+
+    private Map<String, String> resultBatchIds;
+
+    private long lastChunkTime;
+
+    private int resultDownloads = 1;
+
+    private boolean keepResultOrder = true;
+
+    private BulkResultPrefetcher resultPrefetcher;
+
+    private int batchUploads = 1;
+
+    private long uploadedRecords;
+
+    private BulkJobPoller jobPoller;
+
+    /** Renews the session once when the parallel uploads find it expired at the same time. */
+    private final Object sessionRenewalLock = new Object();
+
     private static final String PK_CHUNKING_HEADER_NAME = "Sforce-Enable-PKChunking";
 
     private static final String CHUNK_SIZE_PROPERTY_NAME = "chunkSize=";
 
     private static final int MAX_BATCH_EXECUTION_TIME = 600 * 1000;
 
+    private static final long MAX_QUERY_POLL_DELAY = 120 * 1000L;
+
     public SalesforceBulkRuntime(BulkConnection bulkConnection) throws IOException {
         this.bulkConnection = bulkConnection;
         if (this.bulkConnection == null) {
@@ -143,6 +184,7 @@ public class SalesforceBulkRuntime {
                 : properties.chunkSize.getValue();
         this.chunkSleepTime = properties.chunkSleepTime.getValue() > 0 ? properties.chunkSleepTime.getValue() * 1000
                 : TSalesforceInputProperties.DEFAULT_CHUNK_SLEEP_TIME * 1000;
+        this.readCompletedChunks = Boolean.TRUE.equals(properties.readCompletedChunks.getValue());
     }
 
     public int getChunkSize() {
@@ -153,6 +195,14 @@ public class SalesforceBulkRuntime {
         return chunkSleepTime;
     }
 
+    public void setReadCompletedChunks(boolean readCompletedChunks) {
+        this.readCompletedChunks = readCompletedChunks;
+    }
+
+    public boolean isReadCompletedChunks() {
+        return readCompletedChunks;
+    }
+
     public void setSafetySwitch(boolean safetySwitch) {
         this.safetySwitch = safetySwitch;
     }
@@ -170,6 +220,21 @@ public class SalesforceBulkRuntime {
         this.jobTimeOut = timeout * 1000; // from seconds to milliseconds
     }
 
+    /**
+     * Sets up the number of query results downloaded at the same time, and whether they are read in their order.
+     *
+     * @param properties - Salesforce input properties.
+     */
+    public void setResultDownloads(TSalesforceInputProperties properties) {
+        Integer downloads = properties.resultDownloads.getValue();
+        this.resultDownloads = downloads == null || downloads < 1 ? 1 : downloads;
+        this.keepResultOrder = !Boolean.FALSE.equals(properties.keepResultOrder.getValue());
+    }
+
+    public int getResultDownloads() {
+        return resultDownloads;
+    }
+
     private void setBulkOperation(String sObjectType, OutputAction userOperation, boolean hardDelete, String externalIdFieldName,
             String contentTypeStr, String bulkFileName, int maxBytes, int maxRows) {
         this.sObjectType = sObjectType;
@@ -247,6 +312,17 @@ public class SalesforceBulkRuntime {
         return concurrencyMode;
     }
 
+    /**
+     * Sets up the number of batches uploaded at the same time, when the job is not in serial mode.
+     */
+    public void setBatchUploads(Integer batchUploads) {
+        this.batchUploads = batchUploads == null || batchUploads < 1 ? 1 : batchUploads;
+    }
+
+    public int getBatchUploads() {
+        return batchUploads;
+    }
+
     /**
      * Create a new job using the Bulk API.
      *
@@ -269,24 +345,9 @@ public class SalesforceBulkRuntime {
         return job;
     }
 
-    private int countQuotes(String value) {
-        if (value == null || "".equals(value)) {
-            return 0;
-        } else {
-            char c = '\"';
-            int num = 0;
-            char[] chars = value.toCharArray();
-            for (char d : chars) {
-                if (c == d) {
-                    num++;
-                }
-            }
-            return num;
-        }
-    }
-
     /**
-     * Create and upload batches using a CSV file. The file into the appropriate size batch files.
+     * Create and upload batches using a CSV file. The file is split into batches of the appropriate size, which are
+     * uploaded at the same time unless the job is in serial mode.
      *
      * @return
      * @throws IOException
@@ -295,91 +356,64 @@ public class SalesforceBulkRuntime {
      */
     private List<BatchInfo> createBatchesFromCSVFile() throws IOException, AsyncApiException, ConnectionException {
         List<BatchInfo> batchInfos = new ArrayList<BatchInfo>();
-        BufferedReader rdr = new BufferedReader(new InputStreamReader(new FileInputStream(bulkFileName), FILE_ENCODING));
-        // read the CSV header row
-        byte[] headerBytes = (rdr.readLine() + "\n").getBytes("UTF-8");
-        int headerBytesLength = headerBytes.length;
-        File tmpFile = File.createTempFile("sforceBulkAPI", ".csv");
-        // Split the CSV file into multiple batches
-        try {
-            FileOutputStream tmpOut = new FileOutputStream(tmpFile);
-            int currentBytes = 0;
-            int currentLines = 0;
-            String nextLine;
-            boolean needStart = true;
-            boolean needEnds = true;
-            while ((nextLine = rdr.readLine()) != null) {
-                int num = countQuotes(nextLine);
-                // nextLine is header or footer of the record
-                if (num % 2 == 1) {
-                    if (!needStart) {
-                        needEnds = false;
-                    } else {
-                        needStart = false;
-                    }
-                } else {
-                    // nextLine is a whole record or middle of the record
-                    if (needEnds && needStart) {
-                        needEnds = false;
-                        needStart = false;
-                    }
+        uploadedRecords = 0;
+        // in serial mode the batches are processed in their creation order, so they are created one after another
+        int uploads = ConcurrencyMode.Serial.equals(concurrencyMode) ? 1 : batchUploads;
+        try (BulkFileSplitter splitter =
+                new BulkFileSplitter(new FileInputStream(bulkFileName), maxBytesPerBatch, maxRowsPerBatch)) {
+            BulkFileSplitter.Batch batch;
+            if (uploads <= 1) {
+                while ((batch = splitter.nextBatch()) != null) {
+                    uploadedRecords += batch.getRows();
+                    batchInfos.add(createBatchFromStream(job, batch.getInputStream()));
                 }
+                return batchInfos;
+            }
 
-                byte[] bytes = (nextLine + "\n").getBytes("UTF-8");
-
-                // Create a new batch when our batch size limit is reached
-                if (currentBytes + bytes.length > maxBytesPerBatch || currentLines > maxRowsPerBatch) {
-                    createBatch(tmpOut, tmpFile, batchInfos);
-                    currentBytes = 0;
-                    currentLines = 0;
-                }
-                if (currentBytes == 0) {
-                    tmpOut = new FileOutputStream(tmpFile);
-                    tmpOut.write(headerBytes);
-                    currentBytes = headerBytesLength;
-                    currentLines = 1;
+            ExecutorService executor = Executors.newFixedThreadPool(uploads);
+            try {
+                // the batch infos keep the order of the file, the batch logs are matched with its records
+                Deque<Future<BatchInfo>> inProgress = new ArrayDeque<>();
+                while ((batch = splitter.nextBatch()) != null) {
+                    uploadedRecords += batch.getRows();
+                    if (inProgress.size() >= uploads) {
+                        batchInfos.add(getUploadedBatch(inProgress.poll()));
+                    }
+                    final BulkFileSplitter.Batch content = batch;
+                    inProgress.add(executor.submit(new Callable<BatchInfo>() {
+
+                        @Override
+                        public BatchInfo call() throws Exception {
+                            return createBatchFromStream(job, content.getInputStream());
+                        }
+                    }));
                 }
-                tmpOut.write(bytes);
-                currentBytes += bytes.length;
-                if (!needStart && !needEnds) {
-                    currentLines++;
-                    needStart = true;
-                    needEnds = true;
+                while (!inProgress.isEmpty()) {
+                    batchInfos.add(getUploadedBatch(inProgress.poll()));
                 }
+            } finally {
+                executor.shutdownNow();
             }
-            // Finished processing all rows
-            // Create a final batch for any remaining data
-            rdr.close();
-            if (currentLines > 1) {
-                createBatch(tmpOut, tmpFile, batchInfos);
-            }
-        } finally {
-            tmpFile.delete();
         }
         return batchInfos;
     }
 
-    /**
-     * Create a batch by uploading the contents of the file. This closes the output stream.
-     *
-     * @param tmpOut The output stream used to write the CSV data for a single batch.
-     * @param tmpFile The file associated with the above stream.
-     * @param batchInfos The batch info for the newly created batch is added to this list.
-     *
-     * @throws IOException
-     * @throws AsyncApiException
-     * @throws ConnectionException
-     */
-    private void createBatch(FileOutputStream tmpOut, File tmpFile, List<BatchInfo> batchInfos)
-            throws IOException, AsyncApiException, ConnectionException {
-        tmpOut.flush();
-        tmpOut.close();
-        FileInputStream tmpInputStream = new FileInputStream(tmpFile);
+    private BatchInfo getUploadedBatch(Future<BatchInfo> upload) throws IOException, AsyncApiException, ConnectionException {
         try {
-            BatchInfo batchInfo = createBatchFromStream(job, tmpInputStream);
-            batchInfos.add(batchInfo);
-        } finally {
-            tmpInputStream.close();
+            return upload.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof AsyncApiException) {
+                throw (AsyncApiException) cause;
+            } else if (cause instanceof ConnectionException) {
+                throw (ConnectionException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
         }
     }
 
@@ -414,6 +448,13 @@ public class SalesforceBulkRuntime {
         this.awaitTime = awaitTime;
     }
 
+    /**
+     * @return the poller of the last awaited job or query batch, with its statistics, or null.
+     */
+    public BulkJobPoller getJobPoller() {
+        return jobPoller;
+    }
+
     /**
      * Wait for a job to complete by polling the Bulk API.
      *
@@ -421,24 +462,29 @@ public class SalesforceBulkRuntime {
      * @throws ConnectionException
      */
     private void awaitCompletion() throws AsyncApiException, ConnectionException {
-        long sleepTime = 0L;
+        // the await time is the longest delay between two polls
+        jobPoller = new BulkJobPoller(awaitTime);
         Set<String> incomplete = new HashSet<String>();
         for (BatchInfo bi : batchInfoList) {
             incomplete.add(bi.getId());
         }
         while (!incomplete.isEmpty()) {
             try {
-                Thread.sleep(sleepTime);
+                jobPoller.await();
             } catch (InterruptedException e) {
             }
-            sleepTime = awaitTime;
             BatchInfo[] statusList = getBatchInfoList(job.getId()).getBatchInfo();
+            long processedRecords = 0;
             for (BatchInfo b : statusList) {
+                processedRecords += b.getNumberRecordsProcessed();
                 if (b.getState() == BatchStateEnum.Completed || b.getState() == BatchStateEnum.Failed) {
                     incomplete.remove(b.getId());
                 }
             }
+            jobPoller.update(processedRecords, uploadedRecords);
         }
+        jobPoller.finish();
+        LOGGER.debug("Job " + job.getId() + " completed, " + jobPoller);
     }
 
     /**
@@ -549,12 +595,12 @@ public class SalesforceBulkRuntime {
 
         ByteArrayInputStream bout = new ByteArrayInputStream(queryStatement.getBytes());
         BatchInfo info = createBatchFromStream(job, bout);
-        int secToWait = 1;
-        int tryCount = 0;
+        jobPoller = new BulkJobPoller(MAX_QUERY_POLL_DELAY);
         while (true) {
-            LOGGER.debug("Awaiting " + secToWait + " seconds for results ...\n" + info);
-            Thread.sleep(secToWait * 1000);
+            LOGGER.debug("Awaiting results ...\n" + info);
+            jobPoller.await();
             info = getBatchInfo(job.getId(), info.getId());
+            jobPoller.update(info.getNumberRecordsProcessed(), -1);
 
             if (info.getState() == BatchStateEnum.Completed
                     || (BatchStateEnum.NotProcessed == info.getState() && 0 < chunkSize)) {
@@ -563,11 +609,6 @@ public class SalesforceBulkRuntime {
                 throw new ComponentException(new DefaultErrorCode(HttpServletResponse.SC_BAD_REQUEST, "failedBatch"),
                         ExceptionContext.build().put("failedBatch", info));
             }
-            tryCount++;
-            if (tryCount % 3 == 0 && secToWait < 120) {// after 3 attempt to get the result we multiply the time to wait by 2
-                secToWait = secToWait * 2; // if secToWait < 120 : don't increase exponentially, no need to sleep more than 128 seconds
-            }
-
             // The user can specify a global timeout for the job processing to suites some bulk limits :
             // https://developer.salesforce.com/docs/atlas.en-us.api_asynch.meta/api_asynch/asynch_api_concepts_limits.htm
             if(jobTimeOut > 0) { // if 0, timeout is disabled
@@ -580,13 +621,71 @@ public class SalesforceBulkRuntime {
             }
         }
 
+        jobPoller.finish();
+        LOGGER.debug("Query batch " + info.getId() + " completed, " + jobPoller);
+
         retrieveResultsOfQuery(info);
     }
 
     public BulkResultSet getQueryResultSet(String resultId) throws AsyncApiException, IOException, ConnectionException {
-        baseFileReader = new com.csvreader.CsvReader(new BufferedReader(
-                new InputStreamReader(getQueryResultStream(job.getId(), batchInfoList.get(0).getId(), resultId), FILE_ENCODING)),
-                ',');
+        return createResultSet(getQueryResultStream(job.getId(), getResultBatchId(resultId), resultId));
+    }
+
+    /**
+     * Returns the result set of the next query result. When several results are downloaded at the same time, the next
+     * ones are downloaded in background while this one is read.
+     *
+     * @return null if all the results were read.
+     * @throws AsyncApiException
+     * @throws IOException
+     * @throws ConnectionException
+     * @throws InterruptedException
+     */
+    public BulkResultSet nextQueryResultSet()
+            throws AsyncApiException, IOException, ConnectionException, InterruptedException {
+        if (resultDownloads <= 1) {
+            while (hasNextResultId() || awaitCompletedChunks()) {
+                String resultId = nextResultId();
+                if (resultId != null) {
+                    return getQueryResultSet(resultId);
+                }
+            }
+            return null;
+        }
+
+        if (resultPrefetcher == null) {
+            resultPrefetcher = new BulkResultPrefetcher(resultDownloads, keepResultOrder);
+        }
+        final String jobId = job.getId();
+        while (true) {
+            while (!resultPrefetcher.isFull() && hasNextResultId()) {
+                final String resultId = nextResultId();
+                final String batchId = getResultBatchId(resultId);
+                resultPrefetcher.submit(new BulkResultPrefetcher.ResultDownload() {
+
+                    @Override
+                    public InputStream open() throws IOException {
+                        try {
+                            return getQueryResultStream(jobId, batchId, resultId);
+                        } catch (AsyncApiException | ConnectionException e) {
+                            throw new IOException(e);
+                        }
+                    }
+                });
+            }
+            if (!resultPrefetcher.isEmpty()) {
+                InputStream input = resultPrefetcher.take();
+                if (input != null) {
+                    return createResultSet(input);
+                }
+            } else if (!awaitCompletedChunks()) {
+                return null;
+            }
+        }
+    }
+
+    private BulkResultSet createResultSet(InputStream input) throws IOException {
+        baseFileReader = new com.csvreader.CsvReader(new BufferedReader(new InputStreamReader(input, FILE_ENCODING)), ',');
 
         baseFileReader.setSafetySwitch(safetySwitch);
         if (baseFileReader.readRecord()) {
@@ -616,18 +715,36 @@ public class SalesforceBulkRuntime {
         }
     }
 
+    /**
+     * Called by several threads when the batches are uploaded in parallel, they share the bulk connection.
+     */
     protected BatchInfo createBatchFromStream(JobInfo job, InputStream input) throws AsyncApiException, ConnectionException {
+        String sessionId = bulkConnection.getConfig().getSessionId();
         try {
             return bulkConnection.createBatchFromStream(job, input);
         } catch (AsyncApiException sfException) {
             if (AsyncExceptionCode.InvalidSessionId.equals(sfException.getExceptionCode())) {
-                SalesforceRuntimeCommon.renewSession(bulkConnection.getConfig());
+                renewSession(sessionId);
                 return createBatchFromStream(job, input);
             }
             throw sfException;
         }
     }
 
+    /**
+     * Renew the expired session unless another thread already did, the renewal logs in again and the other threads
+     * would send a session id being replaced.
+     *
+     * @param expiredSessionId the session id which was used by the failed call
+     */
+    private void renewSession(String expiredSessionId) throws ConnectionException {
+        synchronized (sessionRenewalLock) {
+            if (StringUtils.equals(expiredSessionId, bulkConnection.getConfig().getSessionId())) {
+                SalesforceRuntimeCommon.renewSession(bulkConnection.getConfig());
+            }
+        }
+    }
+
     protected JobInfo updateJob(JobInfo job) throws AsyncApiException, ConnectionException {
         try {
             return bulkConnection.updateJob(job);
@@ -692,6 +809,13 @@ public class SalesforceBulkRuntime {
         if (br != null) {
             br.close();
         }
+        if (baseFileReader != null) {
+            baseFileReader.close();
+        }
+        if (resultPrefetcher != null) {
+            resultPrefetcher.close();
+            resultPrefetcher = null;
+        }
     }
 
     protected QueryResultList getQueryResultList(String jobID, String batchID) throws AsyncApiException, ConnectionException {
@@ -745,6 +869,17 @@ public class SalesforceBulkRuntime {
             this.batchInfoList = Collections.singletonList(info);
             return;
         }
+        if (readCompletedChunks) {
+            // results are queued by awaitCompletedChunks, chunk after chunk
+            chunkedQueryBatch = info;
+            consumedBatchIds = new HashSet<>();
+            pendingResultIds = new ArrayDeque<>();
+            resultBatchIds = new HashMap<>();
+            lastChunkTime = System.currentTimeMillis();
+            queryResultIDs = null;
+            this.batchInfoList = Collections.singletonList(info);
+            return;
+        }
         BatchInfoList batchInfoList = null;
         Set<String> resultSet = new HashSet<>();
         boolean isInProgress = true;
@@ -810,7 +945,73 @@ public class SalesforceBulkRuntime {
         return false;
     }
 
+    /**
+     * Waits till at least one more chunk of the pk chunking job is completed and queues its results.
+     * Does nothing if the chunks are not read as soon as they are completed.
+     *
+     * @return true - if new results were queued, false - if all chunks were read or the processing time is over.
+     * @throws AsyncApiException
+     * @throws ConnectionException
+     * @throws InterruptedException
+     */
+    public boolean awaitCompletedChunks() throws AsyncApiException, ConnectionException, InterruptedException {
+        if (chunkedQueryBatch == null) {
+            return false;
+        }
+        while (true) {
+            boolean isInProgress = false;
+            for (BatchInfo batch : getBatchInfoList(job.getId()).getBatchInfo()) {
+                if (batch.getId().equals(chunkedQueryBatch.getId()) || consumedBatchIds.contains(batch.getId())) {
+                    continue;
+                }
+                switch (batch.getState()) {
+                case Completed:
+                    for (String resultId : getQueryResultList(job.getId(), batch.getId()).getResult()) {
+                        if (resultBatchIds.put(resultId, batch.getId()) == null) {
+                            pendingResultIds.add(resultId);
+                        }
+                    }
+                    consumedBatchIds.add(batch.getId());
+                    LOGGER.debug("Finished batch info: " + batch.toString().replaceAll("\n", ","));
+                    break;
+                case NotProcessed:
+                case Failed:
+                    TalendRuntimeException.build(SalesforceErrorCodes.ERROR_IN_BULK_QUERY_PROCESSING)
+                            .put(ExceptionContext.KEY_MESSAGE, batch.getStateMessage()).throwIt();
+                case Queued:
+                case InProgress:
+                    isInProgress = true;
+                }
+            }
+            if (!pendingResultIds.isEmpty()) {
+                lastChunkTime = System.currentTimeMillis();
+                return true;
+            }
+            if (!isInProgress) {
+                chunkedQueryBatch = null;
+                return false;
+            }
+            // the chunks are read while the others are processed, so the time is counted from the last completed chunk
+            if (System.currentTimeMillis() - lastChunkTime > MAX_BATCH_EXECUTION_TIME) {
+                LOGGER.warn(MESSAGES.getMessage("warn.batch.timeout"));
+                chunkedQueryBatch = null;
+                return false;
+            }
+            Thread.sleep(chunkSleepTime);
+        }
+    }
+
+    private String getResultBatchId(String resultId) {
+        if (resultBatchIds != null && resultBatchIds.containsKey(resultId)) {
+            return resultBatchIds.get(resultId);
+        }
+        return batchInfoList.get(0).getId();
+    }
+
     public String nextResultId() {
+        if (pendingResultIds != null && !pendingResultIds.isEmpty()) {
+            return pendingResultIds.poll();
+        }
         String resultId = null;
         if (queryResultIDs != null && queryResultIDs.hasNext()) {
             resultId = queryResultIDs.next();
@@ -819,7 +1020,8 @@ public class SalesforceBulkRuntime {
     }
 
     public boolean hasNextResultId() {
-        return queryResultIDs != null && queryResultIDs.hasNext();
+        return (pendingResultIds != null && !pendingResultIds.isEmpty())
+                || (queryResultIDs != null && queryResultIDs.hasNext());
     }
 
 }
@@ -43,6 +43,8 @@ public class SalesforceInputReader extends SalesforceReader<IndexedRecord> {
 
     private transient int inputRecordsIndex;
 
+    private transient QueryMorePrefetcher prefetcher;
+
     public SalesforceInputReader(RuntimeContainer container, SalesforceSource source, TSalesforceInputProperties props) {
         super(container, source);
         properties = props;
@@ -106,6 +108,11 @@ public class SalesforceInputReader extends SalesforceReader<IndexedRecord> {
             if (inputResult.getSize() == 0) {
                 return false;
             }
+            Integer prefetchPages = ((TSalesforceInputProperties) properties).prefetchPages.getValue();
+            if (prefetchPages != null && prefetchPages > 0 && !inputResult.isDone()) {
+                // The next pages are fetched while this one is read
+                prefetcher = new QueryMorePrefetcher(getConnection(), inputResult, prefetchPages);
+            }
             inputRecords = inputResult.getRecords();
             inputRecordsIndex = 0;
             boolean start = inputRecords.length > 0;
@@ -114,6 +121,8 @@ public class SalesforceInputReader extends SalesforceReader<IndexedRecord> {
             }
             return start;
         } catch (ConnectionException e) {
+            ((SalesforceSource) getCurrentSource()).invalidateSchema(getConnection(),
+                    properties.module.moduleName.getStringValue(), e);
             // Wrap the exception in an IOException.
             throw new IOException(e);
         }
@@ -134,7 +143,14 @@ public class SalesforceInputReader extends SalesforceReader<IndexedRecord> {
 
         try {
             // Get a new result set based on batch size
-            inputResult = getConnection().queryMore(inputResult.getQueryLocator());
+            if (prefetcher != null) {
+                inputResult = prefetcher.next();
+                if (inputResult == null) {
+                    return false;
+                }
+            } else {
+                inputResult = getConnection().queryMore(inputResult.getQueryLocator());
+            }
             inputRecords = inputResult.getRecords();
             inputRecordsIndex = 0;
             boolean advance = inputRecords != null && inputRecords.length > 0;
@@ -150,6 +166,15 @@ public class SalesforceInputReader extends SalesforceReader<IndexedRecord> {
 
     }
 
+    @Override
+    public void close() throws IOException {
+        if (prefetcher != null) {
+            prefetcher.close();
+            prefetcher = null;
+        }
+        super.close();
+    }
+
     public SObject getCurrentSObject() throws NoSuchElementException {
         return inputRecords[inputRecordsIndex];
     }
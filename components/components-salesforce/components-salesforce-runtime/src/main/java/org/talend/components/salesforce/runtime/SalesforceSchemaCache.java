@@ -0,0 +1,195 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.components.salesforce.runtime.common.SalesforceConstant;
+
+/**
+ * Cache of the module schemas inferred from describeSObjects, shared by all the components of the JVM. A schema is kept
+ * for a limited time, and can also be stored in a directory, as the session file, so that the next runs of a job don't
+ * describe the module again.
+ *
+ * The schemas are kept as JSON, so every caller gets its own instance and can add properties to it.
+ */
+public final class SalesforceSchemaCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SalesforceSchemaCache.class);
+
+    /** Default time to live of a cached schema, in milliseconds. */
+    public static final long DEFAULT_TIME_TO_LIVE = 10 * 60 * 1000L;
+
+    private static final SalesforceSchemaCache INSTANCE = new SalesforceSchemaCache(DEFAULT_TIME_TO_LIVE);
+
+    /** Maximum number of session users kept, the old sessions are expired and not used any more. */
+    private static final int MAX_SESSION_USERS = 1000;
+
+    private final ConcurrentMap<String, CachedSchema> schemas = new ConcurrentHashMap<>();
+
+    /** User ids of the sessions, so they are read once per session and not once per component. */
+    private final ConcurrentMap<String, String> sessionUsers = new ConcurrentHashMap<>();
+
+    private volatile long timeToLive;
+
+    SalesforceSchemaCache(long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public static SalesforceSchemaCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the key of the schema of a module, for a user of the organization of the service endpoint.
+     */
+    public static String getKey(String serviceEndpoint, String user, String module) {
+        return serviceEndpoint + "|" + (user == null ? "" : user) + "|" + module;
+    }
+
+    /**
+     * @return the user id of a session, or null if it is not known yet.
+     */
+    public String getSessionUser(String serviceEndpoint, String sessionId) {
+        return sessionUsers.get(serviceEndpoint + "|" + sessionId);
+    }
+
+    public void putSessionUser(String serviceEndpoint, String sessionId, String user) {
+        if (sessionUsers.size() >= MAX_SESSION_USERS) {
+            sessionUsers.clear();
+        }
+        sessionUsers.put(serviceEndpoint + "|" + sessionId, user);
+    }
+
+    public void setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * @param directory directory where the schemas are stored, or null if they are only kept in memory.
+     * @return a copy of the cached schema, or null if it is not cached or expired.
+     */
+    public Schema get(String key, File directory) {
+        CachedSchema cached = schemas.get(key);
+        if (cached == null || isExpired(cached.time)) {
+            cached = directory == null ? null : read(key, directory);
+            if (cached == null) {
+                return null;
+            }
+            schemas.put(key, cached);
+        }
+        try {
+            return new Schema.Parser().parse(cached.json);
+        } catch (RuntimeException e) {
+            // a schema file written at the same time by another job
+            LOG.debug("Can't parse the cached schema " + key, e);
+            schemas.remove(key);
+            return null;
+        }
+    }
+
+    public void put(String key, Schema schema, File directory) {
+        CachedSchema cached = new CachedSchema(schema.toString(), System.currentTimeMillis());
+        schemas.put(key, cached);
+        if (directory != null) {
+            write(key, cached, directory);
+        }
+    }
+
+    /**
+     * Forget a schema, for instance because a call failed on a field which is not in the module any more.
+     */
+    public void invalidate(String key, File directory) {
+        schemas.remove(key);
+        if (directory != null) {
+            File schemaFile = getFile(key, directory);
+            if (schemaFile.exists() && !schemaFile.delete()) {
+                LOG.debug("Can't delete " + schemaFile);
+            }
+        }
+    }
+
+    public void clear() {
+        schemas.clear();
+        sessionUsers.clear();
+    }
+
+    private boolean isExpired(long time) {
+        return System.currentTimeMillis() - time >= timeToLive;
+    }
+
+    private File getFile(String key, File directory) {
+        return new File(directory,
+                SalesforceConstant.SCHEMA_FILE_PREFIX + UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private CachedSchema read(String key, File directory) {
+        File schemaFile = getFile(key, directory);
+        if (!schemaFile.exists() || isExpired(schemaFile.lastModified())) {
+            return null;
+        }
+        try (InputStream schemaInput = new FileInputStream(schemaFile)) {
+            Properties schemaProp = new Properties();
+            schemaProp.load(schemaInput);
+            // Check that the file isn't the one of another key with the same name
+            if (!key.equals(schemaProp.getProperty(SalesforceConstant.SCHEMA_KEY))
+                    || schemaProp.getProperty(SalesforceConstant.SCHEMA) == null) {
+                return null;
+            }
+            return new CachedSchema(schemaProp.getProperty(SalesforceConstant.SCHEMA), schemaFile.lastModified());
+        } catch (IOException e) {
+            LOG.debug("Can't read the schema file " + schemaFile, e);
+            return null;
+        }
+    }
+
+    private void write(String key, CachedSchema cached, File directory) {
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        File schemaFile = getFile(key, directory);
+        try (OutputStream schemaOutput = new FileOutputStream(schemaFile)) {
+            Properties schemaProp = new Properties();
+            schemaProp.setProperty(SalesforceConstant.SCHEMA_KEY, key);
+            schemaProp.setProperty(SalesforceConstant.SCHEMA, cached.json);
+            schemaProp.store(schemaOutput, null);
+        } catch (IOException e) {
+            LOG.debug("Can't write the schema file " + schemaFile, e);
+        }
+    }
+
+    private static class CachedSchema {
+
+        private final String json;
+
+        private final long time;
+
+        CachedSchema(String json, long time) {
+            this.json = json;
+            this.time = time;
+        }
+    }
+}
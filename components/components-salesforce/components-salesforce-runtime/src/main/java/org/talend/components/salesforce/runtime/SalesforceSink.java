@@ -17,10 +17,14 @@ import org.slf4j.LoggerFactory;
 import org.talend.components.api.component.runtime.Sink;
 import org.talend.components.api.container.RuntimeContainer;
 import org.talend.components.salesforce.SalesforceOutputProperties;
+import org.talend.components.salesforce.runtime.bulk.v2.BulkV2Connection;
+import org.talend.components.salesforce.runtime.bulk.v2.SalesforceBulkV2Runtime;
 import org.talend.components.salesforce.tsalesforceoutput.TSalesforceOutputProperties;
 import org.talend.daikon.properties.ValidationResult;
 import org.talend.daikon.properties.ValidationResult.Result;
 
+import com.sforce.soap.partner.PartnerConnection;
+
 public class SalesforceSink extends SalesforceSourceOrSink implements Sink {
 
     /** Default serial version UID. */
@@ -58,4 +62,16 @@ public class SalesforceSink extends SalesforceSourceOrSink implements Sink {
     public TSalesforceOutputProperties getSalesforceOutputProperties() {
         return (TSalesforceOutputProperties) properties;
     }
+
+    /**
+     * Create the runtime of the Bulk API v2 jobs of a writer which switched from SOAP calls, on the session of its
+     * connection.
+     */
+    protected SalesforceBulkV2Runtime createBulkV2Runtime(PartnerConnection connection, String upsertKeyColumn) {
+        BulkV2Connection bulkV2Conn = new BulkV2Connection(connectBulk(connection.getConfig()).getConfig(),
+                BulkV2Connection.OperationType.LOAD);
+        TSalesforceOutputProperties sprops = getSalesforceOutputProperties();
+        return new SalesforceBulkV2Runtime(bulkV2Conn, sprops.module.moduleName.getStringValue(),
+                sprops.outputAction.getValue(), upsertKeyColumn);
+    }
 }
@@ -70,6 +70,8 @@ import com.sforce.soap.partner.DescribeSObjectResult;
 import com.sforce.soap.partner.GetUserInfoResult;
 import com.sforce.soap.partner.LoginResult;
 import com.sforce.soap.partner.PartnerConnection;
+import com.sforce.soap.partner.fault.InvalidFieldFault;
+import com.sforce.soap.partner.fault.InvalidSObjectFault;
 import com.sforce.ws.ConnectionException;
 import com.sforce.ws.ConnectorConfig;
 import com.sforce.ws.SessionRenewer;
@@ -157,6 +159,40 @@ public class SalesforceSourceOrSink implements SalesforceRuntimeSourceOrSink, Sa
         }
     }
 
+    /**
+     * Create another {@link PartnerConnection} using the session of the given connection, so that several SOAP calls
+     * can be in progress at the same time without a new login.
+     *
+     * @param connection connection whose session is shared
+     * @return PartnerConnection with the same session id and service endpoint
+     * @throws ConnectionException create connection fails
+     */
+    protected PartnerConnection connectSession(PartnerConnection connection) throws ConnectionException {
+        ConnectorConfig config = connection.getConfig();
+        ConnectorConfig sessionConfig = new ConnectorConfig();
+        setProxy(sessionConfig);
+        sessionConfig.setSessionId(config.getSessionId());
+        sessionConfig.setServiceEndpoint(config.getServiceEndpoint());
+        sessionConfig.setAuthEndpoint(config.getAuthEndpoint());
+        // For session renew
+        sessionConfig.setSessionRenewer(config.getSessionRenewer());
+        sessionConfig.setUsername(config.getUsername());
+        sessionConfig.setPassword(config.getPassword());
+        sessionConfig.setConnectionTimeout(config.getConnectionTimeout());
+        sessionConfig.setCompression(config.isCompression());
+        sessionConfig.setUseChunkedPost(config.useChunkedPost());
+        sessionConfig.setValidateSchema(false);
+        sessionConfig.setManualLogin(true);
+        PartnerConnection sessionConnection = new PartnerConnection(sessionConfig);
+        sessionConfig.setManualLogin(false);
+        sessionConnection.setSessionHeader(config.getSessionId());
+        if (connection.getCallOptions() != null) {
+            sessionConnection.setCallOptions(connection.getCallOptions().getClient(),
+                    connection.getCallOptions().getDefaultNamespace());
+        }
+        return sessionConnection;
+    }
+
     /**
      * Create a connection with specified connector configuration
      *
@@ -393,7 +429,7 @@ public class SalesforceSourceOrSink implements SalesforceRuntimeSourceOrSink, Sa
             } catch (IOException ex) {
                 throw new ComponentException(SalesforceRuntimeCommon.exceptionToValidationResult(ex));
             }
-            return ss.getSchema(connection, module);
+            return ss.getSchema(connection, module, container != null);
         }
     }
 
@@ -420,19 +456,103 @@ public class SalesforceSourceOrSink implements SalesforceRuntimeSourceOrSink, Sa
 
     @Override
     public Schema getEndpointSchema(RuntimeContainer container, String schemaName) throws IOException {
-        return getSchema(connect(container).connection, schemaName);
+        // Without container, the schema is retrieved at design time and must be up to date
+        return getSchema(connect(container).connection, schemaName, container != null);
     }
 
     protected Schema getSchema(PartnerConnection connection, String module) throws IOException {
+        return getSchema(connection, module, true);
+    }
+
+    /**
+     * Get the schema of a module, from {@link SalesforceSchemaCache} or by describing the module.
+     *
+     * @param useCache whether a cached schema can be returned, a described schema is cached in any case
+     */
+    protected Schema getSchema(PartnerConnection connection, String module, boolean useCache) throws IOException {
+        String cacheKey = getSchemaCacheKey(connection, module);
+        File cacheDirectory = getSchemaCacheDirectory();
+        if (useCache && cacheKey != null) {
+            Schema schema = SalesforceSchemaCache.get().get(cacheKey, cacheDirectory);
+            if (schema != null) {
+                return schema;
+            }
+        }
         try {
             DescribeSObjectResult[] describeSObjectResults = new DescribeSObjectResult[0];
             describeSObjectResults = connection.describeSObjects(new String[] { module });
-            return SalesforceAvroRegistry.get().inferSchema(describeSObjectResults[0]);
+            Schema schema = SalesforceAvroRegistry.get().inferSchema(describeSObjectResults[0]);
+            if (cacheKey != null) {
+                SalesforceSchemaCache.get().put(cacheKey, schema, cacheDirectory);
+            }
+            return schema;
         } catch (ConnectionException e) {
             throw new IOException(e);
         }
     }
 
+    /**
+     * Forget the cached schema of the module when the error shows that it doesn't match the module any more.
+     */
+    protected void invalidateSchema(PartnerConnection connection, String module, Throwable error) {
+        if (error instanceof InvalidFieldFault || error instanceof InvalidSObjectFault) {
+            String cacheKey = getSchemaCacheKey(connection, module);
+            if (cacheKey != null) {
+                LOG.debug("Invalidate the cached schema of " + module);
+                SalesforceSchemaCache.get().invalidate(cacheKey, getSchemaCacheDirectory());
+            }
+        }
+    }
+
+    /**
+     * The schemas are cached for the user of the session, as the fields of a module depend on the field-level security
+     * of the user. No key is returned, so the schema is not cached, when the user is not known.
+     */
+    private String getSchemaCacheKey(PartnerConnection connection, String module) {
+        if (connection == null || connection.getConfig() == null || module == null) {
+            return null;
+        }
+        String userId = getSessionUserId(connection);
+        if (StringUtils.isEmpty(userId)) {
+            return null;
+        }
+        return SalesforceSchemaCache.getKey(connection.getConfig().getServiceEndpoint(), userId, module);
+    }
+
+    /**
+     * Get the user id of the session from its user info, for OAuth and referenced connections too, where the user id of
+     * the connection properties is empty. It is read once per session and shared by all the components using it.
+     */
+    private String getSessionUserId(PartnerConnection connection) {
+        String serviceEndpoint = connection.getConfig().getServiceEndpoint();
+        String currentSessionId = connection.getConfig().getSessionId();
+        String userId = currentSessionId == null ? null
+                : SalesforceSchemaCache.get().getSessionUser(serviceEndpoint, currentSessionId);
+        if (userId == null) {
+            try {
+                GetUserInfoResult userInfo = connection.getUserInfo();
+                userId = userInfo == null ? null : userInfo.getUserId();
+            } catch (ConnectionException e) {
+                LOG.debug("Can't get the user of the session, the schemas are not cached : " + e.getMessage());
+                return null;
+            }
+            if (userId != null && currentSessionId != null) {
+                SalesforceSchemaCache.get().putSessionUser(serviceEndpoint, currentSessionId, userId);
+            }
+        }
+        return userId;
+    }
+
+    /**
+     * The schemas are stored with the session file when the session is reused.
+     */
+    private File getSchemaCacheDirectory() {
+        if (isReuseSession()) {
+            return new File(getConnectionProperties().sessionDirectory.getValue());
+        }
+        return null;
+    }
+
     private synchronized void setProxy(ConnectorConfig config) {
         final ProxyPropertiesRuntimeHelper proxyHelper = new ProxyPropertiesRuntimeHelper(
                 properties.getConnectionProperties().proxy);
@@ -17,12 +17,28 @@ import static org.talend.components.salesforce.SalesforceOutputProperties.Output
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -39,6 +55,7 @@ import org.talend.components.api.container.RuntimeContainer;
 import org.talend.components.api.exception.ComponentException;
 import org.talend.components.salesforce.SalesforceOutputProperties;
 import org.talend.components.salesforce.SalesforceOutputProperties.OutputAction;
+import org.talend.components.salesforce.runtime.bulk.v2.SalesforceBulkV2Runtime;
 import org.talend.components.salesforce.runtime.common.ConnectionHolder;
 import org.talend.components.salesforce.tsalesforceoutput.TSalesforceOutputProperties;
 import org.talend.daikon.avro.AvroUtils;
@@ -54,6 +71,8 @@ import com.sforce.soap.partner.DeleteResult;
 import com.sforce.soap.partner.Error;
 import com.sforce.soap.partner.PartnerConnection;
 import com.sforce.soap.partner.SaveResult;
+import com.sforce.soap.partner.SessionHeader_element;
+import com.sforce.soap.partner.StatusCode;
 import com.sforce.soap.partner.UpsertResult;
 import com.sforce.soap.partner.sobject.SObject;
 import com.sforce.ws.ConnectionException;
@@ -65,6 +84,11 @@ import com.sforce.ws.util.Base64;
 
 final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord, IndexedRecord> {
 
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    /** Rows of a Bulk API v2 job, their records are kept until the results of the job are handled. */
+    private static final int BULK_JOB_ROWS = 50000;
+
     private transient final Logger LOGGER = LoggerFactory.getLogger(SalesforceWriter.class);
 
     private static final I18nMessages MESSAGES = GlobalI18N.getI18nMessageProvider().getI18nMessages(SalesforceWriter.class);
@@ -93,6 +117,8 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
 
     protected final int commitLevel;
 
+    protected final int concurrentCalls;
+
     protected boolean exceptionForErrors;
 
     private int dataCount;
@@ -121,6 +147,31 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
 
     private BufferedWriter logWriter;
 
+    private ExecutorService callExecutor;
+
+    /** Calls in progress, their results are handled in submission order. */
+    private final Deque<WriteCall<?>> pendingCalls = new ArrayDeque<>();
+
+    /** Connections sharing the session of {@link #connection}, used by the pipelined calls. */
+    private final Queue<PartnerConnection> sessionConnections = new ConcurrentLinkedQueue<>();
+
+    /** Number of rows sent with SOAP calls before switching to Bulk API v2, 0 when the writer doesn't switch. */
+    private int bulkSwitchRows;
+
+    private BulkV2OutputSpool bulkSpool;
+
+    private SalesforceBulkV2Runtime bulkRuntime;
+
+    /** Fields of the input schema which are sent as the columns of the bulk jobs. */
+    private List<Schema.Field> bulkFields;
+
+    /** Schema of the input records, used for the results of the bulk jobs which match no spooled row. */
+    private Schema bulkSchema;
+
+    private DateFormat bulkDateFormat;
+
+    private DateFormat bulkDateTimeFormat;
+
     public SalesforceWriter(SalesforceWriteOperation salesforceWriteOperation, RuntimeContainer container) {
         this.salesforceWriteOperation = salesforceWriteOperation;
         this.container = container;
@@ -128,8 +179,11 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
         sprops = sink.getSalesforceOutputProperties();
         if (sprops.extendInsert.getValue()) {
             commitLevel = sprops.commitLevel.getValue();
+            Integer calls = sprops.concurrentCalls.getValue();
+            concurrentCalls = calls == null ? 1 : Math.max(1, calls);
         } else {
             commitLevel = 1;
+            concurrentCalls = 1;
         }
         int arraySize = commitLevel * 2;
         deleteItems = new ArrayList<>(arraySize);
@@ -138,6 +192,11 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
         upsertItems = new ArrayList<>(arraySize);
         upsertKeyColumn = "";
         exceptionForErrors = sprops.ceaseForError.getValue();
+        if (sprops.switchToBulk.getValue() && sprops.bulkSwitchRows.getValue() != null) {
+            bulkSwitchRows = Math.max(1, sprops.bulkSwitchRows.getValue());
+        } else {
+            bulkSwitchRows = 0;
+        }
     }
 
     @Override
@@ -160,6 +219,17 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
         if (!StringUtils.isEmpty(sprops.logFileName.getValue())) {
             logWriter = new BufferedWriter(new FileWriter(sprops.logFileName.getValue()));
         }
+        if (concurrentCalls > 1) {
+            callExecutor = Executors.newFixedThreadPool(concurrentCalls, new ThreadFactory() {
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "salesforce-output-" + THREAD_COUNT.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -177,6 +247,10 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
                     .createIndexedRecordConverter(datum.getClass());
         }
         IndexedRecord input = factory.convertToAvro(datum);
+        if (bulkSpool != null || (bulkSwitchRows > 0 && dataCount > bulkSwitchRows && switchToBulk(input))) {
+            spool(input);
+            return;
+        }
         Property<OutputAction> outputAction = sprops.outputAction;
         LOGGER.info(MESSAGES.getMessage("info.startMessage",
                 sprops.outputAction.getPossibleValuesDisplayName(outputAction.getValue()).toLowerCase(), dataCount));
@@ -322,60 +396,55 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
         }
     }
 
-    private SaveResult[] insert(IndexedRecord input) throws IOException {
+    private void insert(IndexedRecord input) throws IOException {
         insertItems.add(input);
         if (insertItems.size() >= commitLevel) {
-            return doInsert();
+            doInsert();
         }
-        return null;
     }
 
-    private SaveResult[] doInsert() throws IOException {
+    private void doInsert() throws IOException {
         if (insertItems.size() > 0) {
             // Clean the feedback records at each batch write.
             cleanWrites();
-            SObject[] accs = new SObject[insertItems.size()];
+            final SObject[] accs = new SObject[insertItems.size()];
             for (int i = 0; i < insertItems.size(); i++) {
                 accs[i] = createSObject(insertItems.get(i));
             }
 
             String[] changedItemKeys = new String[accs.length];
-            SaveResult[] saveResults;
-            try {
-                saveResults = connection.create(accs);
-                if (saveResults != null && saveResults.length != 0) {
-                    int batch_idx = -1;
-                    for (int i = 0; i < saveResults.length; i++) {
-                        ++batch_idx;
-                        if (saveResults[i].getSuccess()) {
-                            handleSuccess(insertItems.get(i), saveResults[i].getId(), null);
-                        } else {
-                            handleReject(insertItems.get(i), saveResults[i].getErrors(), changedItemKeys, batch_idx);
-                        }
+            submit(new WriteCall<SaveResult>(insertItems, changedItemKeys) {
+
+                @Override
+                protected SaveResult[] invoke(PartnerConnection callConnection) throws ConnectionException {
+                    return callConnection.create(accs);
+                }
+
+                @Override
+                protected void handleResult(int batchIdx, SaveResult result) throws IOException {
+                    if (result.getSuccess()) {
+                        handleSuccess(items.get(batchIdx), result.getId(), null);
+                    } else {
+                        handleReject(items.get(batchIdx), result.getErrors(), changedItemKeys, batchIdx);
                     }
                 }
-                insertItems.clear();
-                return saveResults;
-            } catch (ConnectionException e) {
-                throw new IOException(e);
-            }
+            });
+            insertItems.clear();
         }
-        return null;
     }
 
-    private SaveResult[] update(IndexedRecord input) throws IOException {
+    private void update(IndexedRecord input) throws IOException {
         updateItems.add(input);
         if (updateItems.size() >= commitLevel) {
-            return doUpdate();
+            doUpdate();
         }
-        return null;
     }
 
-    private SaveResult[] doUpdate() throws IOException {
+    private void doUpdate() throws IOException {
         if (updateItems.size() > 0) {
             // Clean the feedback records at each batch write.
             cleanWrites();
-            SObject[] upds = new SObject[updateItems.size()];
+            final SObject[] upds = new SObject[updateItems.size()];
             for (int i = 0; i < updateItems.size(); i++) {
                 upds[i] = createSObject(updateItems.get(i));
             }
@@ -384,43 +453,38 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
             for (int ix = 0; ix < upds.length; ++ix) {
                 changedItemKeys[ix] = upds[ix].getId();
             }
-            SaveResult[] saveResults;
-            try {
-                saveResults = connection.update(upds);
-                upds = null;
-                if (saveResults != null && saveResults.length != 0) {
-                    int batch_idx = -1;
-                    for (int i = 0; i < saveResults.length; i++) {
-                        ++batch_idx;
-                        if (saveResults[i].getSuccess()) {
-                            handleSuccess(updateItems.get(i), saveResults[i].getId(), null);
-                        } else {
-                            handleReject(updateItems.get(i), saveResults[i].getErrors(), changedItemKeys, batch_idx);
-                        }
+            submit(new WriteCall<SaveResult>(updateItems, changedItemKeys) {
+
+                @Override
+                protected SaveResult[] invoke(PartnerConnection callConnection) throws ConnectionException {
+                    return callConnection.update(upds);
+                }
+
+                @Override
+                protected void handleResult(int batchIdx, SaveResult result) throws IOException {
+                    if (result.getSuccess()) {
+                        handleSuccess(items.get(batchIdx), result.getId(), null);
+                    } else {
+                        handleReject(items.get(batchIdx), result.getErrors(), changedItemKeys, batchIdx);
                     }
                 }
-                updateItems.clear();
-                return saveResults;
-            } catch (ConnectionException e) {
-                throw new IOException(e);
-            }
+            });
+            updateItems.clear();
         }
-        return null;
     }
 
-    private UpsertResult[] upsert(IndexedRecord input) throws IOException {
+    private void upsert(IndexedRecord input) throws IOException {
         upsertItems.add(input);
         if (upsertItems.size() >= commitLevel) {
-            return doUpsert();
+            doUpsert();
         }
-        return null;
     }
 
-    private UpsertResult[] doUpsert() throws IOException {
+    private void doUpsert() throws IOException {
         if (upsertItems.size() > 0) {
             // Clean the feedback records at each batch write.
             cleanWrites();
-            SObject[] upds = new SObject[upsertItems.size()];
+            final SObject[] upds = new SObject[upsertItems.size()];
             for (int i = 0; i < upsertItems.size(); i++) {
                 upds[i] = createSObjectForUpsert(upsertItems.get(i));
             }
@@ -432,33 +496,29 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
                     changedItemKeys[ix] = String.valueOf(value);
                 }
             }
-            UpsertResult[] upsertResults;
-            try {
-                upsertResults = connection.upsert(upsertKeyColumn, upds);
-                upds = null;
-                if (upsertResults != null && upsertResults.length != 0) {
-                    int batch_idx = -1;
-                    for (int i = 0; i < upsertResults.length; i++) {
-                        ++batch_idx;
-                        if (upsertResults[i].getSuccess()) {
-                            if (upsertResults[i].getCreated()) {
-                                handleSuccess(upsertItems.get(i), upsertResults[i].getId(), "created");
-                            } else {
-                                handleSuccess(upsertItems.get(i), upsertResults[i].getId(), "updated");
-                            }
+            final String keyColumn = upsertKeyColumn;
+            submit(new WriteCall<UpsertResult>(upsertItems, changedItemKeys) {
+
+                @Override
+                protected UpsertResult[] invoke(PartnerConnection callConnection) throws ConnectionException {
+                    return callConnection.upsert(keyColumn, upds);
+                }
+
+                @Override
+                protected void handleResult(int batchIdx, UpsertResult result) throws IOException {
+                    if (result.getSuccess()) {
+                        if (result.getCreated()) {
+                            handleSuccess(items.get(batchIdx), result.getId(), "created");
                         } else {
-                            handleReject(upsertItems.get(i), upsertResults[i].getErrors(), changedItemKeys, batch_idx);
+                            handleSuccess(items.get(batchIdx), result.getId(), "updated");
                         }
+                    } else {
+                        handleReject(items.get(batchIdx), result.getErrors(), changedItemKeys, batchIdx);
                     }
                 }
-                upsertItems.clear();
-                return upsertResults;
-            } catch (ConnectionException e) {
-                throw new IOException(e);
-            }
+            });
+            upsertItems.clear();
         }
-        return null;
-
     }
 
     private void handleSuccess(IndexedRecord input, String id, String status) {
@@ -602,7 +662,7 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
         }
     }
 
-    private DeleteResult[] delete(IndexedRecord input) throws IOException {
+    private void delete(IndexedRecord input) throws IOException {
         // Calculate the field position of the Id the first time that it is used. The Id field must be present in the
         // schema to delete rows.
         if (deleteFieldId == -1) {
@@ -618,48 +678,276 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
         if (id != null) {
             deleteItems.add(input);
             if (deleteItems.size() >= commitLevel) {
-                return doDelete();
+                doDelete();
             }
         }
-        return null;
     }
 
-    private DeleteResult[] doDelete() throws IOException {
+    private void doDelete() throws IOException {
         if (deleteItems.size() > 0) {
             // Clean the feedback records at each batch write.
             cleanWrites();
-            String[] delIDs = new String[deleteItems.size()];
+            final String[] delIDs = new String[deleteItems.size()];
             String[] changedItemKeys = new String[delIDs.length];
             for (int ix = 0; ix < delIDs.length; ++ix) {
                 delIDs[ix] = (String) deleteItems.get(ix).get(deleteFieldId);
                 changedItemKeys[ix] = delIDs[ix];
             }
-            DeleteResult[] dr;
+            submit(new WriteCall<DeleteResult>(deleteItems, changedItemKeys) {
+
+                @Override
+                protected DeleteResult[] invoke(PartnerConnection callConnection) throws ConnectionException {
+                    return callConnection.delete(delIDs);
+                }
+
+                @Override
+                protected void handleResult(int batchIdx, DeleteResult result) throws IOException {
+                    if (result.getSuccess()) {
+                        handleSuccess(items.get(batchIdx), result.getId(), null);
+                    } else {
+                        handleReject(items.get(batchIdx), result.getErrors(), changedItemKeys, batchIdx);
+                    }
+                }
+            });
+            deleteItems.clear();
+        }
+    }
+
+    /**
+     * Run the call on the writer connection, or hand it over to the call executor when several calls may be in progress.
+     * In the latter case, it first waits for the oldest call when the pipeline is full and handles the calls already
+     * completed, so that the feedback records keep the input order.
+     */
+    private void submit(WriteCall<?> call) throws IOException {
+        if (callExecutor == null) {
+            call.handleResults(connection);
+            return;
+        }
+        while (pendingCalls.size() >= concurrentCalls) {
+            awaitOldestCall();
+        }
+        call.start(callExecutor);
+        pendingCalls.add(call);
+        while (!pendingCalls.isEmpty() && pendingCalls.peek().isDone()) {
+            awaitOldestCall();
+        }
+    }
+
+    /**
+     * Handle the results of the oldest pending call. When they stop the writer, with a reject and "die on error" or a
+     * failed call, the calls still pending are cancelled so that they don't keep on writing rows.
+     */
+    private void awaitOldestCall() throws IOException {
+        try {
+            pendingCalls.poll().awaitResults();
+        } catch (IOException | RuntimeException e) {
+            cancelCalls();
+            throw e;
+        }
+    }
+
+    private void cancelCalls() {
+        for (WriteCall<?> call : pendingCalls) {
+            call.cancel();
+        }
+        pendingCalls.clear();
+    }
+
+    /**
+     * Send the SOAP batch in progress and wait for the pending calls, so that the next rows are spooled for Bulk API v2
+     * jobs. The rows are not switched when the upsert uses relationship fields, which are not mapped to bulk columns.
+     *
+     * @return true if the writer switched to Bulk API v2.
+     */
+    private boolean switchToBulk(IndexedRecord input) throws IOException {
+        Map<String, Map<String, String>> referenceFieldsMap = getReferenceFieldsMap();
+        if (referenceFieldsMap != null && !referenceFieldsMap.isEmpty()) {
+            LOGGER.debug("Relationship fields are used, the records are not switched to Bulk API v2.");
+            bulkSwitchRows = 0;
+            return false;
+        }
+        doInsert();
+        doDelete();
+        doUpdate();
+        doUpsert();
+        while (!pendingCalls.isEmpty()) {
+            awaitOldestCall();
+        }
+        bulkSchema = input.getSchema();
+        bulkFields = new ArrayList<>();
+        bulkDateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        bulkDateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+        bulkDateTimeFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        bulkDateTimeFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+        List<String> header = new ArrayList<>();
+        OutputAction action = sprops.outputAction.getValue();
+        for (Schema.Field f : input.getSchema().getFields()) {
+            boolean isId = "Id".equals(f.name());
+            if (moduleSchema.getField(f.name()) == null || (OutputAction.DELETE.equals(action) && !isId)
+                    || (OutputAction.INSERT.equals(action) && isId)
+                    || (OutputAction.UPSERT.equals(action) && isId && !f.name().equals(upsertKeyColumn))) {
+                continue;
+            }
+            bulkFields.add(f);
+            header.add(f.name());
+        }
+        bulkSpool = new BulkV2OutputSpool(header.toArray(new String[header.size()]));
+        LOGGER.info(MESSAGES.getMessage("info.switchToBulk", dataCount - 1));
+        return true;
+    }
+
+    private void spool(IndexedRecord input) throws IOException {
+        String[] values = new String[bulkFields.size()];
+        for (int i = 0; i < values.length; i++) {
+            Schema.Field f = bulkFields.get(i);
+            values[i] = toBulkValue(f.name(), input.get(f.pos()));
+        }
+        bulkSpool.add(input, values);
+        if (bulkSpool.getRows() >= BULK_JOB_ROWS) {
+            doBulk();
+        }
+    }
+
+    /**
+     * Format a value as the SOAP calls send it, null values are set to null by "#N/A" unless they are ignored.
+     */
+    private String toBulkValue(String fieldName, Object value) {
+        if (value == null || value.toString().isEmpty()) {
+            OutputAction action = sprops.outputAction.getValue();
+            if (!sprops.ignoreNull.getValue() && (UPDATE.equals(action) || OutputAction.UPSERT.equals(action))) {
+                return "#N/A";
+            }
+            return "";
+        }
+        if (value instanceof Date) {
+            return getBulkDateFormat(fieldName).format((Date) value);
+        }
+        if (value instanceof byte[]) {
+            return new String((byte[]) value, StandardCharsets.UTF_8);
+        }
+        return String.valueOf(value);
+    }
+
+    private DateFormat getBulkDateFormat(String fieldName) {
+        Schema.Field se = moduleSchema.getField(fieldName);
+        String datePattern = se == null ? null : se.getProp(SchemaConstants.TALEND_COLUMN_PATTERN);
+        return "yyyy-MM-dd".equals(datePattern) ? bulkDateFormat : bulkDateTimeFormat;
+    }
+
+    /**
+     * Build a record from the values echoed by a bulk result which matches no spooled row, so that the result still
+     * goes to the success or reject flow. The values which can't be converted back are left null.
+     */
+    private IndexedRecord toBulkRecord(BulkResult result) {
+        IndexedRecord record = new GenericData.Record(bulkSchema);
+        for (Schema.Field f : bulkFields) {
+            Object value = result.getValue(f.name());
+            if (value == null || "".equals(value) || "#N/A".equals(value)) {
+                continue;
+            }
+            String text = value.toString();
+            Schema fieldSchema = AvroUtils.unwrapIfNullable(f.schema());
             try {
-                dr = connection.delete(delIDs);
-                if (dr != null && dr.length != 0) {
-                    int batch_idx = -1;
-                    for (int i = 0; i < dr.length; i++) {
-                        ++batch_idx;
-                        if (dr[i].getSuccess()) {
-                            handleSuccess(deleteItems.get(i), dr[i].getId(), null);
-                        } else {
-                            handleReject(deleteItems.get(i), dr[i].getErrors(), changedItemKeys, batch_idx);
+                if (AvroUtils.isSameType(fieldSchema, AvroUtils._date())) {
+                    record.put(f.pos(), getBulkDateFormat(f.name()).parse(text));
+                } else if (AvroUtils.isSameType(fieldSchema, AvroUtils._bytes())) {
+                    record.put(f.pos(), text.getBytes(StandardCharsets.UTF_8));
+                } else {
+                    record.put(f.pos(), SalesforceAvroRegistry.get().getConverterFromString(f).convertToAvro(text));
+                }
+            } catch (ParseException | RuntimeException e) {
+                LOGGER.debug("Can't convert the value of " + f.name() + " in the bulk result : " + e.getMessage());
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Run a Bulk API v2 job for the spooled rows, and handle its results as the results of a SOAP batch.
+     */
+    private void doBulk() throws IOException {
+        if (bulkSpool == null || bulkSpool.getRows() == 0) {
+            return;
+        }
+        // Clean the feedback records at each batch write.
+        cleanWrites();
+        if (bulkRuntime == null) {
+            bulkRuntime = sink.createBulkV2Runtime(connection, upsertKeyColumn);
+        }
+        try {
+            bulkRuntime.setBulkFileName(bulkSpool.finish().getAbsolutePath());
+            bulkRuntime.executeBulk();
+            bulkSpool.handleResults(bulkRuntime.getSuccessResultSet(), bulkRuntime.getFailedResultSet(),
+                    new BulkV2OutputSpool.ResultHandler() {
+
+                        @Override
+                        public void handleSuccess(IndexedRecord input, BulkResult result) {
+                            String id = (String) result.getValue("salesforce_id");
+                            String status = null;
+                            if (OutputAction.UPSERT.equals(sprops.outputAction.getValue())) {
+                                status = "true".equalsIgnoreCase((String) result.getValue("salesforce_created")) ? "created"
+                                        : "updated";
+                            }
+                            SalesforceWriter.this.handleSuccess(input != null ? input : toBulkRecord(result), id,
+                                    status);
                         }
-                    }
+
+                        @Override
+                        public void handleFailure(IndexedRecord input, BulkResult result) throws IOException {
+                            String id = (String) result.getValue("salesforce_id");
+                            Error[] errors = new Error[] { toError((String) result.getValue("sf__Error")) };
+                            handleReject(input != null ? input : toBulkRecord(result), errors,
+                                    new String[] { StringUtils.isEmpty(id) ? null : id }, 0);
+                        }
+                    });
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        } finally {
+            bulkSpool.reset();
+        }
+    }
+
+    /**
+     * Convert an error of a Bulk API v2 result, "STATUS_CODE:message", to a SOAP error.
+     */
+    private static Error toError(String bulkError) {
+        Error error = new Error();
+        error.setStatusCode(StatusCode.UNKNOWN_EXCEPTION);
+        error.setFields(new String[0]);
+        error.setMessage(bulkError);
+        if (bulkError != null) {
+            int separator = bulkError.indexOf(':');
+            if (separator > 0) {
+                try {
+                    error.setStatusCode(StatusCode.valueOf(bulkError.substring(0, separator)));
+                    error.setMessage(bulkError.substring(separator + 1));
+                } catch (IllegalArgumentException e) {
+                    // keep the whole error as the message
                 }
-                deleteItems.clear();
-                return dr;
-            } catch (ConnectionException e) {
-                throw new IOException(e);
             }
         }
-        return null;
+        return error;
+    }
+
+    private void closeCalls() {
+        if (callExecutor != null) {
+            cancelCalls();
+            callExecutor.shutdownNow();
+            callExecutor = null;
+        }
+        sessionConnections.clear();
+        if (bulkSpool != null) {
+            bulkSpool.close();
+        }
     }
 
     @Override
     public Result close() throws IOException {
-        logout();
+        try {
+            logout();
+        } finally {
+            closeCalls();
+        }
         LOGGER.info(MESSAGES.getMessage("info.seccessfulRecords", getPastForm(sprops.outputAction.getValue()), successCount));
         LOGGER.info(MESSAGES.getMessage("info.rejectedRecords", rejectCount));
         LOGGER.info(MESSAGES.getMessage("info.finishMessage"));
@@ -676,6 +964,11 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
         doDelete();
         doUpdate();
         doUpsert();
+        // Wait for the calls still in progress
+        while (!pendingCalls.isEmpty()) {
+            awaitOldestCall();
+        }
+        doBulk();
     }
 
     @Override
@@ -738,6 +1031,107 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
         return MESSAGES.getMessage(String.format("outputAction.%s.pastForm", outputAction.name()));
     }
 
+    /**
+     * SOAP call for one batch of records. The call may run on another thread with its own connection sharing the writer
+     * session, while its results are always handled on the writer thread.
+     */
+    private abstract class WriteCall<T> implements Callable<T[]> {
+
+        protected final List<IndexedRecord> items;
+
+        protected final String[] changedItemKeys;
+
+        private Future<T[]> future;
+
+        WriteCall(List<IndexedRecord> items, String[] changedItemKeys) {
+            this.items = new ArrayList<>(items);
+            this.changedItemKeys = changedItemKeys;
+        }
+
+        protected abstract T[] invoke(PartnerConnection callConnection) throws ConnectionException;
+
+        protected abstract void handleResult(int batchIdx, T result) throws IOException;
+
+        @Override
+        public T[] call() throws ConnectionException {
+            PartnerConnection callConnection = sessionConnections.poll();
+            if (callConnection == null) {
+                callConnection = sink.connectSession(connection);
+            } else {
+                useWriterSession(callConnection);
+            }
+            try {
+                return invoke(callConnection);
+            } finally {
+                sessionConnections.offer(callConnection);
+            }
+        }
+
+        void start(ExecutorService executor) {
+            future = executor.submit(this);
+        }
+
+        boolean isDone() {
+            return future.isDone();
+        }
+
+        void cancel() {
+            future.cancel(true);
+        }
+
+        /**
+         * Run the call on the given connection and handle its results.
+         */
+        void handleResults(PartnerConnection callConnection) throws IOException {
+            try {
+                handleResultArray(invoke(callConnection));
+            } catch (ConnectionException e) {
+                sink.invalidateSchema(connection, sprops.module.moduleName.getStringValue(), e);
+                throw new IOException(e);
+            }
+        }
+
+        /**
+         * Wait for the call started by {@link #start(ExecutorService)} and handle its results.
+         */
+        void awaitResults() throws IOException {
+            try {
+                handleResultArray(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            } catch (ExecutionException e) {
+                sink.invalidateSchema(connection, sprops.module.moduleName.getStringValue(), e.getCause());
+                throw new IOException(e.getCause());
+            }
+        }
+
+        private void handleResultArray(T[] results) throws IOException {
+            if (results != null) {
+                for (int i = 0; i < results.length; i++) {
+                    handleResult(i, results[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Give the call connection the session of the writer connection. When a call connection renews the session, the
+     * session renewer sets the new session on the writer connection, so the other call connections take it from there
+     * instead of renewing it again.
+     */
+    private void useWriterSession(PartnerConnection callConnection) {
+        SessionHeader_element writerSession = connection.getSessionHeader();
+        if (writerSession == null || writerSession.getSessionId() == null) {
+            return;
+        }
+        SessionHeader_element callSession = callConnection.getSessionHeader();
+        if (callSession == null || !writerSession.getSessionId().equals(callSession.getSessionId())) {
+            callConnection.setSessionHeader(writerSession.getSessionId());
+            callConnection.getConfig().setSessionId(writerSession.getSessionId());
+        }
+    }
+
     private boolean isValidBase64String(String isValidString){
         try {
            return Base64.isBase64(isValidString);
@@ -23,6 +23,8 @@ import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.talend.components.api.exception.ComponentException;
+import org.talend.components.salesforce.runtime.BulkJobPoller;
+import org.talend.components.salesforce.runtime.BulkResultPrefetcher;
 import org.talend.components.salesforce.runtime.BulkResultSet;
 import org.talend.components.salesforce.runtime.bulk.v2.error.BulkV2ClientException;
 import org.talend.components.salesforce.runtime.bulk.v2.request.CreateQueryJobRequest;
@@ -63,10 +65,18 @@ public class SalesforceBulkQueryV2Runtime {
 
     private Integer maxRecords;
 
-    private boolean hasMoreResult = true;
+    private volatile boolean hasMoreResult = true;
 
     private GetQueryJobResultRequest resultRequest;
 
+    private int resultDownloads = 1;
+
+    private BulkResultPrefetcher resultPrefetcher;
+
+    private BulkJobPoller jobPoller;
+
+    private static final long MAX_POLL_DELAY = 120 * 1000L;
+
     public SalesforceBulkQueryV2Runtime(BulkV2Connection bulkV2Connection, TSalesforceInputProperties sprops) {
         this.bulkV2Connection = bulkV2Connection;
         if (this.bulkV2Connection == null) {
@@ -79,6 +89,8 @@ public class SalesforceBulkQueryV2Runtime {
         setIncludeDeleted(sprops.includeDeleted.getValue());
         this.useResultLocator = sprops.useResultLocator.getValue();
         this.maxRecords =  sprops.maxRecords.getValue();
+        Integer downloads = sprops.resultDownloads.getValue();
+        this.resultDownloads = downloads == null || downloads < 1 ? 1 : downloads;
         // The content type for the job. The only valid value (and the default) is CSV
         if (true) {
             contentType = ContentType.CSV;
@@ -104,16 +116,12 @@ public class SalesforceBulkQueryV2Runtime {
         LOGGER.info(MESSAGES.getMessage("info.job.create", job.toString()));
 
         // 2. check whether the job complete progress
-        int secToWait = 1;
-        int tryCount = 0;
+        jobPoller = new BulkJobPoller(MAX_POLL_DELAY);
         while (job.getState() == JobStateEnum.UploadComplete || job.getState() == JobStateEnum.InProgress) {
-            LOGGER.debug("Awaiting " + secToWait + " seconds for results ...\n" + job.getId());
-            Thread.sleep(secToWait * 1000);
+            LOGGER.debug("Awaiting results ...\n" + job.getId());
+            jobPoller.await();
             job = bulkV2Connection.getJobStatus(job.getId());
-            tryCount++;
-            if (tryCount % 3 == 0 && secToWait < 120) {
-                secToWait = secToWait * 2;
-            }
+            jobPoller.update(job.getNumberRecordsProcessed(), -1);
             if (jobTimeOut > 0) { // if 0, timeout is disabled
                 long processingTime = System.currentTimeMillis() - job.getSystemModstamp().getTime();
                 if (processingTime > jobTimeOut) {
@@ -123,6 +131,8 @@ public class SalesforceBulkQueryV2Runtime {
                 }
             }
         }
+        jobPoller.finish();
+        LOGGER.debug("Job " + job.getId() + " completed, " + jobPoller);
         // 5. check the success and failed records.
         if (job.getState() == JobStateEnum.JobComplete) {
             LOGGER.info(MESSAGES.getMessage("info.result.success", job.getNumberRecordsProcessed()));
@@ -155,6 +165,39 @@ public class SalesforceBulkQueryV2Runtime {
 
 
     public BulkResultSet getResultSet() throws IOException {
+        if (resultDownloads > 1) {
+            return getPrefetchedResultSet();
+        }
+        InputStream inputStream = getNextResultStream();
+        return inputStream == null ? null : getResultSet(inputStream);
+    }
+
+    /**
+     * The next set is only known when the previous one is downloaded, so the sets are downloaded one after another in
+     * background, till "result downloads" sets are waiting to be read.
+     */
+    private BulkResultSet getPrefetchedResultSet() throws IOException {
+        if (resultPrefetcher == null) {
+            resultPrefetcher = new BulkResultPrefetcher(1, resultDownloads, true);
+        }
+        while (!resultPrefetcher.isFull() && hasMoreResult) {
+            resultPrefetcher.submit(new BulkResultPrefetcher.ResultDownload() {
+
+                @Override
+                public InputStream open() throws IOException {
+                    return getNextResultStream();
+                }
+            });
+        }
+        try {
+            InputStream inputStream = resultPrefetcher.take();
+            return inputStream == null ? null : getResultSet(inputStream);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private InputStream getNextResultStream() throws IOException {
         if (hasMoreResult) {
             if (this.useResultLocator) {
                 if (resultRequest == null) {
@@ -166,16 +209,30 @@ public class SalesforceBulkQueryV2Runtime {
                 if (resultRequest.getLocator() == null) {
                     hasMoreResult = false;
                 }
-                return getResultSet(inputStream);
+                return inputStream;
             }else{
                 hasMoreResult = false;
-                return getResultSet(bulkV2Connection.getResult(job.getId()));
+                return bulkV2Connection.getResult(job.getId());
             }
         }else{
             return null;
         }
     }
 
+    public void close() {
+        if (resultPrefetcher != null) {
+            resultPrefetcher.close();
+            resultPrefetcher = null;
+        }
+    }
+
+    /**
+     * @return the poller of the job, with its statistics, or null if the job was not awaited.
+     */
+    public BulkJobPoller getJobPoller() {
+        return jobPoller;
+    }
+
     public void setSafetySwitch(boolean safetySwitch) {
         this.safetySwitch = safetySwitch;
     }
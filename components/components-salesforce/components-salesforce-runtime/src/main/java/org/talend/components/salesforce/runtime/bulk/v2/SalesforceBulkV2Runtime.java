@@ -17,6 +17,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -25,6 +26,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.talend.components.salesforce.SalesforceBulkProperties;
 import org.talend.components.salesforce.SalesforceOutputProperties.OutputAction;
+import org.talend.components.salesforce.runtime.BulkJobPoller;
 import org.talend.components.salesforce.runtime.BulkResultSet;
 import org.talend.components.salesforce.runtime.bulk.v2.error.BulkV2ClientException;
 import org.talend.components.salesforce.runtime.bulk.v2.request.CreateLoadJobRequest;
@@ -56,6 +58,8 @@ public class SalesforceBulkV2Runtime {
 
     private long awaitTime = 10000L;
 
+    private BulkJobPoller jobPoller;
+
     private BulkV2Connection bulkConnection;
 
     private SalesforceBulkProperties.ColumnDelimiter columnDelimiter;
@@ -84,6 +88,22 @@ public class SalesforceBulkV2Runtime {
         intBulkOperation(sprops.outputAction.getValue());
     }
 
+    /**
+     * Runtime for a CSV file using comma delimiters and LF line endings, as the files spooled by tSalesforceOutput.
+     */
+    public SalesforceBulkV2Runtime(BulkV2Connection bulkConnection, String objectType, OutputAction outputAction,
+            String externalIdFieldName) throws BulkV2ClientException {
+        this.bulkConnection = bulkConnection;
+        if (this.bulkConnection == null) {
+            throw new RuntimeException(MESSAGES.getMessage("error.bulk.conn"));
+        }
+        setColumnDelimiter(SalesforceBulkProperties.ColumnDelimiter.COMMA);
+        setLineEnding(SalesforceBulkProperties.LineEnding.LF);
+        setExternalIdFieldName(externalIdFieldName);
+        setObjectType(objectType);
+        intBulkOperation(outputAction);
+    }
+
     private void intBulkOperation(OutputAction userOperation) throws BulkV2ClientException {
         switch (userOperation) {
         case INSERT:
@@ -121,11 +141,16 @@ public class SalesforceBulkV2Runtime {
         job = bulkConnection.closeJob(job.getId());
 
         // 4. check whether the job complete progress
+        // the await time is the longest delay between two polls
+        jobPoller = new BulkJobPoller(awaitTime);
         while (job.getState() == JobStateEnum.UploadComplete || job.getState() == JobStateEnum.InProgress) {
-            Thread.sleep(awaitTime);
+            jobPoller.await();
             LOGGER.info(MESSAGES.getMessage("info.job.process", job.getId()));
             job = bulkConnection.getJobStatus(job.getId());
+            jobPoller.update(job.getNumberRecordsProcessed(), -1);
         }
+        jobPoller.finish();
+        LOGGER.debug("Job " + job.getId() + " completed, " + jobPoller);
         // 5. check the success and failed records.
         if (job.getState() == JobStateEnum.JobComplete) {
             LOGGER.info(MESSAGES.getMessage("info.result.success", job.getNumberRecordsProcessed()));
@@ -153,7 +178,8 @@ public class SalesforceBulkV2Runtime {
     }
 
     public BulkResultSet getResultSet(InputStream input) throws IOException {
-        CsvReader reader = new CsvReader(new InputStreamReader(input), getDelimitedChar(columnDelimiter));
+        CsvReader reader = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8),
+                getDelimitedChar(columnDelimiter));
         reader.setSafetySwitch(safetySwitch);
         List<String> baseFileHeader = null;
         if (reader.readRecord()) {
@@ -180,6 +206,13 @@ public class SalesforceBulkV2Runtime {
         this.awaitTime = awaitTime;
     }
 
+    /**
+     * @return the poller of the job, with its statistics, or null if the job was not awaited.
+     */
+    public BulkJobPoller getJobPoller() {
+        return jobPoller;
+    }
+
     public SalesforceBulkProperties.LineEnding getLineEnding() {
         return lineEnding;
     }
@@ -10,4 +10,10 @@ public interface SalesforceConstant {
 
     String SESSION_FILE_PREFX = "sessionIDFile_";
 
+    String SCHEMA_KEY = "SCHEMA_KEY";
+
+    String SCHEMA = "SCHEMA";
+
+    String SCHEMA_FILE_PREFIX = "schemaFile_";
+
 }
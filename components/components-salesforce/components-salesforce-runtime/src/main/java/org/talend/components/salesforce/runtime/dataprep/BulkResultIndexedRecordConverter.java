@@ -16,6 +16,7 @@ import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
 import org.apache.avro.generic.IndexedRecord;
 import org.talend.components.salesforce.runtime.BulkResult;
+import org.talend.components.salesforce.runtime.BulkResultHeader;
 import org.talend.daikon.avro.converter.AvroConverter;
 import org.talend.daikon.avro.converter.IndexedRecordConverter;
 
@@ -30,6 +31,12 @@ public class BulkResultIndexedRecordConverter implements IndexedRecordConverter<
     @SuppressWarnings("rawtypes")
     protected transient AvroConverter[] fieldConverter;
 
+    /** The header for which the positions of the fields were computed. */
+    private transient BulkResultHeader positionHeader;
+
+    /** The position of every field of the schema in the header, or -1. */
+    private transient int[] positions;
+
     @Override
     public Schema getSchema() {
         return schema;
@@ -81,7 +88,18 @@ public class BulkResultIndexedRecordConverter implements IndexedRecordConverter<
                     fieldConverter[j] = SalesforceAvroRegistryString.get().getConverterFromString(f);
                 }
             }
-            return fieldConverter[i].convertToAvro(value.getValue(names[i]));
+            BulkResultHeader header = value.getHeader();
+            if (header == null) {
+                return fieldConverter[i].convertToAvro(value.getValue(names[i]));
+            }
+            if (header != positionHeader) {
+                positions = new int[names.length];
+                for (int j = 0; j < names.length; j++) {
+                    positions[j] = header.indexOf(names[j]);
+                }
+                positionHeader = header;
+            }
+            return fieldConverter[i].convertToAvro(value.getValue(positions[i]));
         }
 
         @Override
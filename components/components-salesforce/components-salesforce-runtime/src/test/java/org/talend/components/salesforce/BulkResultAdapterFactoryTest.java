@@ -17,6 +17,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
@@ -27,6 +28,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.talend.components.salesforce.runtime.BulkResult;
 import org.talend.components.salesforce.runtime.BulkResultAdapterFactory;
+import org.talend.components.salesforce.runtime.BulkResultHeader;
 import org.talend.daikon.avro.SchemaConstants;
 import org.talend.daikon.avro.converter.IndexedRecordConverter;
 
@@ -73,6 +75,30 @@ public class BulkResultAdapterFactoryTest {
         assertEquals(Boolean.TRUE, indexedRecord.get(3));
     }
 
+    @Test
+    public void testConvertHeaderRowsToAvro() throws IOException {
+        converter.setSchema(SCHEMA);
+
+        // the columns are not in the order of the schema, and their case differs
+        BulkResultHeader header = new BulkResultHeader(Arrays.asList("fieldy", "NAME", "Id", "Unknown"));
+        for (int i = 0; i < 3; i++) {
+            IndexedRecord indexedRecord = converter
+                    .convertToAvro(new BulkResult(header, new String[] { "false", "Qwerty" + i, "1234" + i, "x" }));
+
+            assertEquals("1234" + i, indexedRecord.get(0));
+            assertEquals("Qwerty" + i, indexedRecord.get(1));
+            Assert.assertNull(indexedRecord.get(2));
+            assertEquals(Boolean.FALSE, indexedRecord.get(3));
+        }
+
+        // another result with another header
+        header = new BulkResultHeader(Arrays.asList("Id", "FieldX"));
+        IndexedRecord indexedRecord = converter.convertToAvro(new BulkResult(header, new String[] { "1", "42" }));
+        assertEquals("1", indexedRecord.get(0));
+        Assert.assertNull(indexedRecord.get(1));
+        assertEquals(Integer.valueOf(42), indexedRecord.get(2));
+    }
+
     @Test(expected = IndexedRecordConverter.UnmodifiableAdapterException.class)
     public void testConvertToDatum() throws IOException {
         converter.setSchema(SCHEMA);
@@ -78,6 +78,31 @@ public class BulkResultSetTest {
         assertEquals(recordCount, count);
     }
 
+    @Test
+    public void testRelationshipHeader() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvWriter csvWriter = new CsvWriter(new BufferedOutputStream(out), ',', Charset.forName("UTF-8"));
+        csvWriter.writeRecord(new String[] { "1", "Account A" });
+        csvWriter.writeRecord(new String[] { "2", "Account B" });
+        csvWriter.close();
+
+        CsvReader csvReader = new CsvReader(new BufferedInputStream(new ByteArrayInputStream(out.toByteArray())), ',',
+                Charset.forName("UTF-8"));
+        BulkResultSet resultSet = new BulkResultSet(csvReader, Arrays.asList("Id", "Account.Name"));
+
+        BulkResult first = resultSet.next();
+        BulkResult second = resultSet.next();
+        Assert.assertNull(resultSet.next());
+
+        // the rows share the same header
+        Assert.assertSame(first.getHeader(), second.getHeader());
+        assertEquals("1", first.getValue("id"));
+        assertEquals("Account A", first.getValue("Account_Name"));
+        assertEquals("2", second.getValue("Id"));
+        assertEquals("Account B", second.getValue(1));
+        Assert.assertNull(second.getValue("Account.Name"));
+    }
+
     @Test
     public void testSafetySwitchTrueFailure() throws IOException {
         try {
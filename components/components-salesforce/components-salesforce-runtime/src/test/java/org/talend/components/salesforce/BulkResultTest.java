@@ -14,12 +14,17 @@
 package org.talend.components.salesforce;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.junit.Test;
 import org.talend.components.salesforce.runtime.BulkResult;
+import org.talend.components.salesforce.runtime.BulkResultHeader;
 
 /**
  *
@@ -48,4 +53,25 @@ public class BulkResultTest {
         assertNull(result3.getValue("fieldA"));
         assertNull(result3.getValue("fieldB"));
     }
+
+    @Test
+    public void testHeaderRow() throws IOException {
+        BulkResult result = new BulkResult(new BulkResultHeader(Arrays.asList("fieldA", "fieldB")),
+                new String[] { "fieldValueA", "#N/A" });
+        assertTrue(result.containField("FIELDA"));
+        assertFalse(result.containField("fieldC"));
+        assertEquals(Arrays.asList("fieldA", "fieldB"), new ArrayList<>(result.getFieldNames()));
+
+        BulkResult result2 = new BulkResult();
+        result2.copyValues(result);
+        assertEquals("fieldValueA", result2.getValue("fieldA"));
+        assertNull(result2.getValue("fieldB"));
+
+        // a changed row keeps its values
+        result.setValue("fieldC", "fieldValueC");
+        assertNull(result.getHeader());
+        assertEquals("fieldValueA", result.getValue("fieldA"));
+        assertEquals("#N/A", result.getValue("fieldB"));
+        assertEquals("fieldValueC", result.getValue("fieldC"));
+    }
 }
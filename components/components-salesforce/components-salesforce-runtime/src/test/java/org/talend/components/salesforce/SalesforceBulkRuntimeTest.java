@@ -14,18 +14,35 @@
 package org.talend.components.salesforce;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.talend.components.salesforce.runtime.SalesforceBulkRuntime;
 import org.talend.components.salesforce.tsalesforceinput.TSalesforceInputProperties;
 
+import com.sforce.async.BatchInfo;
+import com.sforce.async.BatchInfoList;
+import com.sforce.async.BatchStateEnum;
 import com.sforce.async.BulkConnection;
 import com.sforce.async.ConcurrencyMode;
+import com.sforce.async.JobInfo;
+import com.sforce.async.QueryResultList;
 
 /**
  *
@@ -79,6 +96,95 @@ public class SalesforceBulkRuntimeTest {
         assertEquals(TSalesforceInputProperties.MAX_CHUNK_SIZE, runtime.getChunkSize());
     }
 
+    @Test
+    public void testSetReadCompletedChunks() throws Exception {
+        runtime.setChunkProperties(inputProperties);
+        assertFalse(runtime.isReadCompletedChunks());
+
+        inputProperties.readCompletedChunks.setValue(true);
+        runtime.setChunkProperties(inputProperties);
+        assertTrue(runtime.isReadCompletedChunks());
+
+        // no pk chunking query is read
+        assertFalse(runtime.awaitCompletedChunks());
+        assertFalse(runtime.hasNextResultId());
+    }
+
+    @Test
+    public void testReadCompletedChunks() throws Exception {
+        inputProperties.readCompletedChunks.setValue(true);
+        runtime.setChunkProperties(inputProperties);
+
+        JobInfo job = new JobInfo();
+        job.setId("job");
+        when(conn.createJob(any(JobInfo.class))).thenReturn(job);
+        when(conn.createBatchFromStream(any(JobInfo.class), any(InputStream.class)))
+                .thenReturn(batch("query", BatchStateEnum.Queued));
+        // the original batch of a pk chunking job is not processed, the chunks are
+        when(conn.getBatchInfo("job", "query")).thenReturn(batch("query", BatchStateEnum.NotProcessed));
+        when(conn.getBatchInfoList("job")).thenReturn(
+                batchList(batch("query", BatchStateEnum.NotProcessed), batch("chunk1", BatchStateEnum.Completed),
+                        batch("chunk2", BatchStateEnum.Queued)),
+                batchList(batch("query", BatchStateEnum.NotProcessed), batch("chunk1", BatchStateEnum.Completed),
+                        batch("chunk2", BatchStateEnum.Completed)));
+        when(conn.getQueryResultList("job", "chunk1")).thenReturn(resultList("result1"));
+        when(conn.getQueryResultList("job", "chunk2")).thenReturn(resultList("result2", "result3"));
+        when(conn.getQueryResultStream(anyString(), anyString(), anyString())).thenAnswer(new Answer<InputStream>() {
+
+            @Override
+            public InputStream answer(InvocationOnMock invocation) throws Throwable {
+                // one row with the id of the result
+                return new ByteArrayInputStream(("Id\n" + invocation.getArguments()[2] + "\n").getBytes("UTF-8"));
+            }
+        });
+
+        runtime.doBulkQuery("Account", "SELECT Id FROM Account");
+        // nothing is read before the first chunk is awaited
+        verify(conn, never()).getQueryResultList(anyString(), anyString());
+
+        assertTrue(runtime.awaitCompletedChunks());
+        verify(conn).getQueryResultList("job", "chunk1");
+        verify(conn, never()).getQueryResultList("job", "chunk2");
+        assertEquals("result1", runtime.nextResultId());
+        assertFalse(runtime.hasNextResultId());
+        assertEquals("result1", runtime.getQueryResultSet("result1").next().getValue("Id"));
+        verify(conn).getQueryResultStream("job", "chunk1", "result1");
+
+        assertTrue(runtime.awaitCompletedChunks());
+        assertEquals("result2", runtime.nextResultId());
+        assertEquals("result3", runtime.nextResultId());
+        runtime.getQueryResultSet("result3");
+        verify(conn).getQueryResultStream("job", "chunk2", "result3");
+
+        // all the chunks are read
+        assertFalse(runtime.awaitCompletedChunks());
+        assertFalse(runtime.hasNextResultId());
+        assertNull(runtime.nextResultId());
+        // the results of a chunk are only read once
+        verify(conn, times(1)).getQueryResultList("job", "chunk1");
+        verify(conn, times(1)).getQueryResultList("job", "chunk2");
+        verify(conn, never()).getQueryResultList("job", "query");
+    }
+
+    private static BatchInfo batch(String id, BatchStateEnum state) {
+        BatchInfo batch = new BatchInfo();
+        batch.setId(id);
+        batch.setState(state);
+        return batch;
+    }
+
+    private static BatchInfoList batchList(BatchInfo... batches) {
+        BatchInfoList list = new BatchInfoList();
+        list.setBatchInfo(batches);
+        return list;
+    }
+
+    private static QueryResultList resultList(String... resultIds) {
+        QueryResultList list = new QueryResultList();
+        list.setResult(resultIds);
+        return list;
+    }
+
     @Test
     public void testSetConcurrencyMode() throws IOException {
         runtime.setConcurrencyMode(SalesforceBulkProperties.Concurrency.Serial);
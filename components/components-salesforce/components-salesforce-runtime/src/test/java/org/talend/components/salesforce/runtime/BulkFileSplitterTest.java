@@ -0,0 +1,96 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for BulkFileSplitter class
+ */
+public class BulkFileSplitterTest {
+
+    private static final String HEADER = "Id,Name\n";
+
+    @Test
+    public void testSplitByRows() throws IOException {
+        BulkFileSplitter splitter = createSplitter(HEADER + "1,a\n2,b\n3,c\n", 1000, 2);
+
+        BulkFileSplitter.Batch batch = splitter.nextBatch();
+        Assert.assertEquals(2, batch.getRows());
+        Assert.assertEquals(HEADER + "1,a\n2,b\n", read(batch));
+        batch = splitter.nextBatch();
+        Assert.assertEquals(1, batch.getRows());
+        Assert.assertEquals(HEADER + "3,c\n", read(batch));
+        Assert.assertNull(splitter.nextBatch());
+    }
+
+    @Test
+    public void testSplitByBytes() throws IOException {
+        BulkFileSplitter splitter = createSplitter(HEADER + "1,aaaa\n2,bbbb\n3,cccccccccccccccccccccccc\n", 20, 100);
+
+        Assert.assertEquals(HEADER + "1,aaaa\n", read(splitter.nextBatch()));
+        Assert.assertEquals(HEADER + "2,bbbb\n", read(splitter.nextBatch()));
+        // a record bigger than the limit is alone in its batch
+        Assert.assertEquals(HEADER + "3,cccccccccccccccccccccccc\n", read(splitter.nextBatch()));
+        Assert.assertNull(splitter.nextBatch());
+    }
+
+    @Test
+    public void testQuotedLineFeeds() throws IOException {
+        String multiline = "1,\"first line\nsecond \"\"quoted\"\" line\n\"\n";
+        BulkFileSplitter splitter = createSplitter(HEADER + multiline + "2,b\n", 1000, 1);
+
+        Assert.assertEquals(HEADER + multiline, read(splitter.nextBatch()));
+        Assert.assertEquals(HEADER + "2,b\n", read(splitter.nextBatch()));
+        Assert.assertNull(splitter.nextBatch());
+    }
+
+    @Test
+    public void testLastLineWithoutLineFeed() throws IOException {
+        BulkFileSplitter splitter = createSplitter(HEADER + "1,\u00e9t\u00e9\r\n2,b", 1000, 100);
+
+        BulkFileSplitter.Batch batch = splitter.nextBatch();
+        Assert.assertEquals(2, batch.getRows());
+        Assert.assertEquals(HEADER + "1,\u00e9t\u00e9\r\n2,b\n", read(batch));
+        Assert.assertNull(splitter.nextBatch());
+    }
+
+    @Test
+    public void testNoRecord() throws IOException {
+        Assert.assertNull(createSplitter("", 1000, 100).nextBatch());
+        Assert.assertNull(createSplitter(HEADER, 1000, 100).nextBatch());
+    }
+
+    private static BulkFileSplitter createSplitter(String content, int maxBytes, int maxRows) {
+        return new BulkFileSplitter(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), maxBytes, maxRows);
+    }
+
+    private static String read(BulkFileSplitter.Batch batch) throws IOException {
+        InputStream input = batch.getInputStream();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int count;
+        while ((count = input.read(buffer)) != -1) {
+            output.write(buffer, 0, count);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+}
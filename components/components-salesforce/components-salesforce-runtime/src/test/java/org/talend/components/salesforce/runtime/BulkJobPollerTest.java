@@ -0,0 +1,81 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for BulkJobPoller class
+ */
+public class BulkJobPollerTest {
+
+    @Test
+    public void testBackoffWithoutProgress() {
+        BulkJobPoller poller = new BulkJobPoller(2000L);
+        Assert.assertEquals(BulkJobPoller.INITIAL_DELAY, poller.getDelay());
+
+        long previous = poller.getDelay();
+        for (int i = 0; i < 10; i++) {
+            poller.update(0, -1);
+            Assert.assertTrue(poller.getDelay() >= previous);
+            previous = poller.getDelay();
+        }
+        Assert.assertEquals(2000L, poller.getDelay());
+        Assert.assertEquals(-1, poller.getTimeToFirstResult());
+    }
+
+    @Test
+    public void testDelayFollowsProgress() throws InterruptedException {
+        BulkJobPoller poller = new BulkJobPoller(60 * 1000L);
+        Thread.sleep(20);
+        // a few records out of many : the estimated remaining time is long
+        poller.update(1, 1000000);
+        Assert.assertEquals(60 * 1000L, poller.getDelay());
+        Assert.assertTrue(poller.getTimeToFirstResult() >= 0);
+
+        Thread.sleep(20);
+        // almost all the records are processed : poll again soon
+        poller.update(999999, 1000000);
+        Assert.assertEquals(BulkJobPoller.MIN_DELAY, poller.getDelay());
+    }
+
+    @Test
+    public void testProgressWithoutExpectedRecordsKeepsDelay() {
+        BulkJobPoller poller = new BulkJobPoller(60 * 1000L);
+        poller.update(0, -1);
+        long delay = poller.getDelay();
+        poller.update(100, -1);
+        Assert.assertEquals(delay, poller.getDelay());
+        poller.update(100, -1);
+        Assert.assertTrue(poller.getDelay() > delay);
+    }
+
+    @Test
+    public void testAwait() throws InterruptedException {
+        BulkJobPoller poller = new BulkJobPoller(BulkJobPoller.MIN_DELAY);
+        poller.update(0, -1);
+        long start = System.currentTimeMillis();
+        poller.await();
+        poller.await();
+        long elapsed = System.currentTimeMillis() - start;
+
+        Assert.assertEquals(2, poller.getPollCount());
+        // the delay is the minimum one, with at most 20% of jitter
+        Assert.assertTrue(elapsed >= 2 * BulkJobPoller.MIN_DELAY * 0.8);
+
+        poller.finish();
+        Assert.assertTrue(poller.getTimeToFirstResult() >= 0);
+    }
+
+}
@@ -0,0 +1,168 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for BulkResultPrefetcher class
+ */
+public class BulkResultPrefetcherTest {
+
+    @Test
+    public void testOrderedResults() throws Exception {
+        BulkResultPrefetcher prefetcher = new BulkResultPrefetcher(3, true);
+        try {
+            final CountDownLatch firstCanFinish = new CountDownLatch(1);
+            prefetcher.submit(new BulkResultPrefetcher.ResultDownload() {
+
+                @Override
+                public InputStream open() throws IOException {
+                    try {
+                        firstCanFinish.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                    return content("result1");
+                }
+            });
+            prefetcher.submit(download("result2"));
+            prefetcher.submit(download("result3"));
+            Assert.assertTrue(prefetcher.isFull());
+
+            firstCanFinish.countDown();
+            Assert.assertEquals("result1", read(prefetcher.take()));
+            Assert.assertFalse(prefetcher.isFull());
+            Assert.assertEquals("result2", read(prefetcher.take()));
+            Assert.assertEquals("result3", read(prefetcher.take()));
+            Assert.assertTrue(prefetcher.isEmpty());
+            Assert.assertNull(prefetcher.take());
+        } finally {
+            prefetcher.close();
+        }
+    }
+
+    @Test
+    public void testUnorderedResults() throws Exception {
+        BulkResultPrefetcher prefetcher = new BulkResultPrefetcher(2, false);
+        try {
+            final CountDownLatch firstCanFinish = new CountDownLatch(1);
+            prefetcher.submit(new BulkResultPrefetcher.ResultDownload() {
+
+                @Override
+                public InputStream open() throws IOException {
+                    try {
+                        firstCanFinish.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                    return content("result1");
+                }
+            });
+            prefetcher.submit(download("result2"));
+
+            // the second result doesn't wait for the first one
+            Assert.assertEquals("result2", read(prefetcher.take()));
+            firstCanFinish.countDown();
+            Assert.assertEquals("result1", read(prefetcher.take()));
+            Assert.assertTrue(prefetcher.isEmpty());
+        } finally {
+            prefetcher.close();
+        }
+    }
+
+    @Test
+    public void testNoResult() throws Exception {
+        BulkResultPrefetcher prefetcher = new BulkResultPrefetcher(1, 2, true);
+        try {
+            prefetcher.submit(download("result1"));
+            prefetcher.submit(new BulkResultPrefetcher.ResultDownload() {
+
+                @Override
+                public InputStream open() throws IOException {
+                    return null;
+                }
+            });
+            Assert.assertTrue(prefetcher.isFull());
+
+            Assert.assertEquals("result1", read(prefetcher.take()));
+            Assert.assertNull(prefetcher.take());
+        } finally {
+            prefetcher.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailedDownload() throws Exception {
+        BulkResultPrefetcher prefetcher = new BulkResultPrefetcher(2, true);
+        try {
+            prefetcher.submit(new BulkResultPrefetcher.ResultDownload() {
+
+                @Override
+                public InputStream open() throws IOException {
+                    throw new IOException("download failed");
+                }
+            });
+            prefetcher.take();
+        } finally {
+            prefetcher.close();
+        }
+    }
+
+    @Test
+    public void testCloseWithPendingResults() throws Exception {
+        BulkResultPrefetcher prefetcher = new BulkResultPrefetcher(2, true);
+        prefetcher.submit(download("result1"));
+        prefetcher.submit(download("result2"));
+        prefetcher.close();
+        Assert.assertTrue(prefetcher.isEmpty());
+        Assert.assertNull(prefetcher.take());
+    }
+
+    private static BulkResultPrefetcher.ResultDownload download(final String value) {
+        return new BulkResultPrefetcher.ResultDownload() {
+
+            @Override
+            public InputStream open() throws IOException {
+                return content(value);
+            }
+        };
+    }
+
+    private static InputStream content(String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(InputStream input) throws IOException {
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int count;
+            while ((count = input.read(buffer)) != -1) {
+                output.write(buffer, 0, count);
+            }
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        } finally {
+            input.close();
+        }
+    }
+
+}
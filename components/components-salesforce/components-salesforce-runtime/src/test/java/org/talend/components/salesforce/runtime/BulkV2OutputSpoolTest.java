@@ -0,0 +1,132 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.csvreader.CsvReader;
+
+/**
+ * Tests for BulkV2OutputSpool class
+ */
+public class BulkV2OutputSpoolTest {
+
+    private static final Schema SCHEMA = SchemaBuilder.record("Account").fields() //
+            .name("Name").type().stringType().noDefault() //
+            .name("City").type().stringType().noDefault() //
+            .endRecord();
+
+    @Test
+    public void testSpooledFile() throws IOException {
+        BulkV2OutputSpool spool = new BulkV2OutputSpool(new String[] { "Name", "City" });
+        try {
+            Assert.assertNull(spool.finish());
+            spool.add(createRecord("Talend", "Nantes"), new String[] { "Talend", "Nantes" });
+            spool.add(createRecord("A, \"B\"", "Paris"), new String[] { "A, \"B\"", "Paris" });
+            Assert.assertEquals(2, spool.getRows());
+
+            File file = spool.finish();
+            Assert.assertEquals("Name,City\nTalend,Nantes\n\"A, \"\"B\"\"\",Paris\n", read(file));
+
+            spool.reset();
+            Assert.assertFalse(file.exists());
+            Assert.assertEquals(0, spool.getRows());
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    public void testResultsMappedToRecords() throws IOException {
+        BulkV2OutputSpool spool = new BulkV2OutputSpool(new String[] { "Name", "City" });
+        try {
+            IndexedRecord first = createRecord("Talend", "Nantes");
+            IndexedRecord second = createRecord("Talend", "Nantes");
+            IndexedRecord third = createRecord("Talend", "Paris");
+            spool.add(first, new String[] { "Talend", "Nantes" });
+            spool.add(second, new String[] { "Talend", "Nantes" });
+            spool.add(third, new String[] { "Talend", "Paris" });
+            spool.finish();
+
+            BulkResultSet success = createResultSet(Arrays.asList("salesforce_id", "salesforce_created", "Name", "City"),
+                    "001,true,Talend,Nantes\n002,true,Talend,Nantes\n003,true,Unknown,Lyon\n");
+            BulkResultSet failed = createResultSet(Arrays.asList("sf__Id", "sf__Error", "Name", "City"),
+                    ",REQUIRED_FIELD_MISSING:Required fields are missing,Talend,Paris\n");
+
+            final List<IndexedRecord> successful = new ArrayList<>();
+            final List<IndexedRecord> rejected = new ArrayList<>();
+            spool.handleResults(success, failed, new BulkV2OutputSpool.ResultHandler() {
+
+                @Override
+                public void handleSuccess(IndexedRecord input, BulkResult result) {
+                    successful.add(input);
+                }
+
+                @Override
+                public void handleFailure(IndexedRecord input, BulkResult result) {
+                    rejected.add(input);
+                }
+            });
+
+            Assert.assertEquals(3, successful.size());
+            Assert.assertSame(first, successful.get(0));
+            Assert.assertSame(second, successful.get(1));
+            // no spooled row has the values of this result
+            Assert.assertNull(successful.get(2));
+            Assert.assertEquals(1, rejected.size());
+            Assert.assertSame(third, rejected.get(0));
+        } finally {
+            spool.close();
+        }
+    }
+
+    private static IndexedRecord createRecord(String name, String city) {
+        IndexedRecord record = new GenericData.Record(SCHEMA);
+        record.put(0, name);
+        record.put(1, city);
+        return record;
+    }
+
+    private static BulkResultSet createResultSet(List<String> header, String rows) {
+        CsvReader reader = new CsvReader(new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8)), ',',
+                StandardCharsets.UTF_8);
+        return new BulkResultSet(reader, header);
+    }
+
+    private static String read(File file) throws IOException {
+        StringBuilder content = new StringBuilder();
+        try (InputStream input = new FileInputStream(file)) {
+            byte[] buffer = new byte[1024];
+            int count;
+            while ((count = input.read(buffer)) > 0) {
+                content.append(new String(buffer, 0, count, StandardCharsets.UTF_8));
+            }
+        }
+        return content.toString();
+    }
+}
@@ -0,0 +1,73 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sforce.soap.partner.PartnerConnection;
+import com.sforce.soap.partner.QueryResult;
+import com.sforce.ws.ConnectionException;
+
+/**
+ * Tests for QueryMorePrefetcher class
+ */
+public class QueryMorePrefetcherTest {
+
+    @Test
+    public void testPagesInOrder() throws Exception {
+        PartnerConnection connection = mock(PartnerConnection.class);
+        QueryResult first = createPage("locator1", false);
+        QueryResult second = createPage("locator2", false);
+        QueryResult third = createPage(null, true);
+        when(connection.queryMore("locator1")).thenReturn(second);
+        when(connection.queryMore("locator2")).thenReturn(third);
+
+        QueryMorePrefetcher prefetcher = new QueryMorePrefetcher(connection, first, 1);
+        try {
+            Assert.assertSame(second, prefetcher.next());
+            Assert.assertSame(third, prefetcher.next());
+            Assert.assertNull(prefetcher.next());
+            Assert.assertNull(prefetcher.next());
+        } finally {
+            prefetcher.close();
+        }
+    }
+
+    @Test(expected = ConnectionException.class)
+    public void testQueryMoreFailure() throws Exception {
+        PartnerConnection connection = mock(PartnerConnection.class);
+        QueryResult first = createPage("locator1", false);
+        QueryResult second = createPage("locator2", false);
+        when(connection.queryMore("locator1")).thenReturn(second);
+        when(connection.queryMore("locator2")).thenThrow(new ConnectionException("expired locator"));
+
+        QueryMorePrefetcher prefetcher = new QueryMorePrefetcher(connection, first, 2);
+        try {
+            Assert.assertSame(second, prefetcher.next());
+            prefetcher.next();
+        } finally {
+            prefetcher.close();
+        }
+    }
+
+    private static QueryResult createPage(String locator, boolean done) {
+        QueryResult page = new QueryResult();
+        page.setQueryLocator(locator);
+        page.setDone(done);
+        return page;
+    }
+}
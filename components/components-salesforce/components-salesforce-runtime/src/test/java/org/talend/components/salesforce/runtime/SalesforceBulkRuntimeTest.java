@@ -0,0 +1,109 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.sforce.async.AsyncApiException;
+import com.sforce.async.AsyncExceptionCode;
+import com.sforce.async.BatchInfo;
+import com.sforce.async.BulkConnection;
+import com.sforce.async.JobInfo;
+import com.sforce.ws.ConnectionException;
+import com.sforce.ws.ConnectorConfig;
+import com.sforce.ws.SessionRenewer;
+
+/**
+ * Tests for SalesforceBulkRuntime class
+ */
+public class SalesforceBulkRuntimeTest {
+
+    private static final int UPLOADS = 4;
+
+    /**
+     * The parallel uploads which find the session expired at the same time renew it once, then retry with the new one
+     */
+    @Test
+    public void testExpiredSessionRenewedOnceByParallelUploads() throws Exception {
+        final ConnectorConfig config = new ConnectorConfig();
+        config.setSessionId("expired");
+        final AtomicInteger renewals = new AtomicInteger();
+        config.setSessionRenewer(new SessionRenewer() {
+
+            @Override
+            public SessionRenewalHeader renewSession(ConnectorConfig connectorConfig) throws ConnectionException {
+                renewals.incrementAndGet();
+                connectorConfig.setSessionId("renewed-" + renewals.get());
+                return null;
+            }
+        });
+
+        final CountDownLatch allExpired = new CountDownLatch(UPLOADS);
+        BulkConnection bulkConnection = Mockito.mock(BulkConnection.class);
+        Mockito.when(bulkConnection.getConfig()).thenReturn(config);
+        Mockito.when(bulkConnection.createBatchFromStream(Mockito.any(JobInfo.class), Mockito.any(InputStream.class)))
+                .thenAnswer(new Answer<BatchInfo>() {
+
+                    @Override
+                    public BatchInfo answer(InvocationOnMock invocation) throws Throwable {
+                        if ("expired".equals(config.getSessionId())) {
+                            // every upload fails before the session is renewed
+                            allExpired.countDown();
+                            allExpired.await(10, TimeUnit.SECONDS);
+                            throw new AsyncApiException("Invalid session id", AsyncExceptionCode.InvalidSessionId);
+                        }
+                        return new BatchInfo();
+                    }
+                });
+
+        final SalesforceBulkRuntime runtime = new SalesforceBulkRuntime(bulkConnection);
+        final JobInfo job = new JobInfo();
+        ExecutorService executor = Executors.newFixedThreadPool(UPLOADS);
+        try {
+            List<Future<BatchInfo>> uploads = new ArrayList<>();
+            for (int i = 0; i < UPLOADS; i++) {
+                uploads.add(executor.submit(new Callable<BatchInfo>() {
+
+                    @Override
+                    public BatchInfo call() throws Exception {
+                        return runtime.createBatchFromStream(job, new ByteArrayInputStream(new byte[0]));
+                    }
+                }));
+            }
+            for (Future<BatchInfo> upload : uploads) {
+                Assert.assertNotNull(upload.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(1, renewals.get());
+        Assert.assertEquals("renewed-1", config.getSessionId());
+    }
+}
@@ -0,0 +1,79 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for SalesforceSchemaCache class
+ */
+public class SalesforceSchemaCacheTest {
+
+    private static final String KEY = SalesforceSchemaCache.getKey("https://test.salesforce.com/services/Soap/u/42.0/00D",
+            "user", "Account");
+
+    private static final Schema SCHEMA = SchemaBuilder.record("Account").prop("talend.is.locked", "true").fields() //
+            .name("Id").type().stringType().noDefault() //
+            .name("Name").type().stringType().noDefault() //
+            .endRecord();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCachedInMemory() {
+        SalesforceSchemaCache cache = new SalesforceSchemaCache(SalesforceSchemaCache.DEFAULT_TIME_TO_LIVE);
+        Assert.assertNull(cache.get(KEY, null));
+
+        cache.put(KEY, SCHEMA, null);
+        Schema cached = cache.get(KEY, null);
+        Assert.assertEquals(SCHEMA, cached);
+        // every caller gets its own instance
+        Assert.assertNotSame(cached, cache.get(KEY, null));
+        Assert.assertNull(cache.get(SalesforceSchemaCache.getKey("https://test.salesforce.com/services/Soap/u/42.0/00D",
+                "other", "Account"), null));
+
+        cache.invalidate(KEY, null);
+        Assert.assertNull(cache.get(KEY, null));
+    }
+
+    @Test
+    public void testExpired() {
+        SalesforceSchemaCache cache = new SalesforceSchemaCache(0);
+        cache.put(KEY, SCHEMA, null);
+        Assert.assertNull(cache.get(KEY, null));
+    }
+
+    @Test
+    public void testStoredInDirectory() throws IOException {
+        File directory = folder.newFolder();
+        new SalesforceSchemaCache(SalesforceSchemaCache.DEFAULT_TIME_TO_LIVE).put(KEY, SCHEMA, directory);
+        Assert.assertEquals(1, directory.listFiles().length);
+
+        // the cache of the next run reads the stored schema
+        SalesforceSchemaCache cache = new SalesforceSchemaCache(SalesforceSchemaCache.DEFAULT_TIME_TO_LIVE);
+        Assert.assertEquals(SCHEMA, cache.get(KEY, directory));
+
+        cache.invalidate(KEY, directory);
+        Assert.assertEquals(0, directory.listFiles().length);
+        Assert.assertNull(new SalesforceSchemaCache(SalesforceSchemaCache.DEFAULT_TIME_TO_LIVE).get(KEY, directory));
+    }
+}
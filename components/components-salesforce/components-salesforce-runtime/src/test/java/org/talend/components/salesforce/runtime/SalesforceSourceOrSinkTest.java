@@ -3,7 +3,10 @@ package org.talend.components.salesforce.runtime;
 import com.sforce.soap.partner.DescribeSObjectResult;
 import com.sforce.soap.partner.Field;
 import com.sforce.soap.partner.FieldType;
+import com.sforce.soap.partner.GetUserInfoResult;
 import com.sforce.soap.partner.PartnerConnection;
+import com.sforce.ws.ConnectionException;
+import com.sforce.ws.ConnectorConfig;
 import org.apache.avro.Schema;
 import org.junit.Assert;
 import org.junit.Before;
@@ -113,4 +116,80 @@ public class SalesforceSourceOrSinkTest {
         Assert.assertEquals("yyyy-MM-dd",
                 resultSchema.getFields().get(2).getProp(SchemaConstants.TALEND_COLUMN_PATTERN));
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks the schemas cached by {@link SalesforceSourceOrSink#getSchema(PartnerConnection, String)} are not shared
+     * by the users of an organization, when the user id of the connection properties is empty as with OAuth, and are not
+     * cached when the user of the session is not known
+     */
+    @Test
+    public void testSchemaCachedForSessionUser() throws Exception {
+        String endpoint = "https://test.salesforce.com/services/Soap/u/42.0/00D" + System.nanoTime();
+        PartnerConnection user1Connection = createDescribeConnection(endpoint, "005000000000001");
+        PartnerConnection user2Connection = createDescribeConnection(endpoint, "005000000000002");
+        PartnerConnection unknownUserConnection = createDescribeConnection(endpoint, null);
+        Mockito.when(unknownUserConnection.getUserInfo()).thenThrow(new ConnectionException("no user"));
+
+        SalesforceSourceOrSink sourceOrSink = new SalesforceSourceOrSink();
+        sourceOrSink.initialize(runtimeContainerMock, properties);
+        sourceOrSink.getSchema(user1Connection, "Account");
+        sourceOrSink.getSchema(user1Connection, "Account");
+        Mockito.verify(user1Connection, Mockito.times(1)).describeSObjects(Mockito.any(String[].class));
+        Mockito.verify(user1Connection, Mockito.times(1)).getUserInfo();
+
+        SalesforceSourceOrSink otherSourceOrSink = new SalesforceSourceOrSink();
+        otherSourceOrSink.initialize(runtimeContainerMock, properties);
+        otherSourceOrSink.getSchema(user2Connection, "Account");
+        Mockito.verify(user2Connection, Mockito.times(1)).describeSObjects(Mockito.any(String[].class));
+
+        SalesforceSourceOrSink unknownUserSourceOrSink = new SalesforceSourceOrSink();
+        unknownUserSourceOrSink.initialize(runtimeContainerMock, properties);
+        unknownUserSourceOrSink.getSchema(unknownUserConnection, "Account");
+        unknownUserSourceOrSink.getSchema(unknownUserConnection, "Account");
+        Mockito.verify(unknownUserConnection, Mockito.times(2)).describeSObjects(Mockito.any(String[].class));
+    }
+
+    /**
+     * Checks the user of a session is read once, and not once per component using the session
+     */
+    @Test
+    public void testSessionUserSharedByComponents() throws Exception {
+        String endpoint = "https://test.salesforce.com/services/Soap/u/42.0/00D" + System.nanoTime();
+        PartnerConnection connection = createDescribeConnection(endpoint, "005000000000001");
+
+        for (String module : new String[] { "Account", "Contact" }) {
+            SalesforceSourceOrSink sourceOrSink = new SalesforceSourceOrSink();
+            sourceOrSink.initialize(runtimeContainerMock, properties);
+            sourceOrSink.getSchema(connection, module);
+        }
+        Mockito.verify(connection, Mockito.times(1)).getUserInfo();
+
+        // a new session may be another user
+        connection.getConfig().setSessionId("other-session");
+        SalesforceSourceOrSink sourceOrSink = new SalesforceSourceOrSink();
+        sourceOrSink.initialize(runtimeContainerMock, properties);
+        sourceOrSink.getSchema(connection, "Account");
+        Mockito.verify(connection, Mockito.times(2)).getUserInfo();
+    }
+
+    private static PartnerConnection createDescribeConnection(String endpoint, String userId) throws Exception {
+        PartnerConnection connection = Mockito.mock(PartnerConnection.class);
+        ConnectorConfig config = new ConnectorConfig();
+        config.setServiceEndpoint(endpoint);
+        config.setSessionId("session-" + userId);
+        Mockito.when(connection.getConfig()).thenReturn(config);
+        GetUserInfoResult userInfo = new GetUserInfoResult();
+        userInfo.setUserId(userId);
+        Mockito.when(connection.getUserInfo()).thenReturn(userInfo);
+
+        Field field = new Field();
+        field.setName("Name");
+        field.setType(FieldType.string);
+        DescribeSObjectResult describeSObjectResult = new DescribeSObjectResult();
+        describeSObjectResult.setName("Account");
+        describeSObjectResult.setFields(new Field[] { field });
+        Mockito.when(connection.describeSObjects(Mockito.any(String[].class)))
+                .thenReturn(new DescribeSObjectResult[] { describeSObjectResult });
+        return connection;
+    }
+}
@@ -0,0 +1,388 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.salesforce.runtime;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.talend.components.api.component.runtime.Result;
+import org.talend.components.api.container.RuntimeContainer;
+import org.talend.components.salesforce.SalesforceOutputProperties.OutputAction;
+import org.talend.components.salesforce.runtime.bulk.v2.SalesforceBulkV2Runtime;
+import org.talend.components.salesforce.runtime.common.ConnectionHolder;
+import org.talend.components.salesforce.tsalesforceoutput.TSalesforceOutputProperties;
+
+import com.csvreader.CsvReader;
+import com.sforce.soap.partner.Error;
+import com.sforce.soap.partner.PartnerConnection;
+import com.sforce.soap.partner.SaveResult;
+import com.sforce.soap.partner.SessionHeader_element;
+import com.sforce.soap.partner.StatusCode;
+import com.sforce.soap.partner.sobject.SObject;
+import com.sforce.ws.ConnectorConfig;
+
+/**
+ * Tests for the SOAP calls of {@link SalesforceWriter} running on several connections at the same time, and for the
+ * switch from SOAP calls to Bulk API v2 jobs.
+ */
+public class SalesforceWriterTest {
+
+    private static final Schema SCHEMA = SchemaBuilder.record("Account").fields() //
+            .name("Name").type().stringType().noDefault() //
+            .endRecord();
+
+    private TSalesforceOutputProperties properties;
+
+    private PartnerConnection connection;
+
+    private PartnerConnection callConnection;
+
+    private AtomicInteger sessionConnections;
+
+    private SalesforceBulkV2Runtime bulkRuntime;
+
+    private SalesforceSink sink;
+
+    @Before
+    public void setUp() throws Exception {
+        properties = (TSalesforceOutputProperties) new TSalesforceOutputProperties("output").init();
+        properties.module.moduleName.setValue("Account");
+        properties.module.main.schema.setValue(SCHEMA);
+        properties.outputAction.setValue(OutputAction.INSERT);
+        properties.extendInsert.setValue(true);
+        properties.afterExtendInsert();
+
+        connection = mock(PartnerConnection.class);
+        callConnection = mock(PartnerConnection.class);
+        sessionConnections = new AtomicInteger();
+        bulkRuntime = mock(SalesforceBulkV2Runtime.class);
+
+        sink = new SalesforceSink() {
+
+            @Override
+            protected ConnectionHolder connect(RuntimeContainer container) throws IOException {
+                ConnectionHolder holder = new ConnectionHolder();
+                holder.connection = connection;
+                return holder;
+            }
+
+            @Override
+            protected Schema getSchema(PartnerConnection connection, String module) throws IOException {
+                return SCHEMA;
+            }
+
+            @Override
+            protected PartnerConnection connectSession(PartnerConnection connection) {
+                sessionConnections.incrementAndGet();
+                return callConnection;
+            }
+
+            @Override
+            protected SalesforceBulkV2Runtime createBulkV2Runtime(PartnerConnection connection, String upsertKeyColumn) {
+                return bulkRuntime;
+            }
+        };
+        sink.initialize(null, properties);
+    }
+
+    /**
+     * The calls don't end in submission order, the feedback records keep the input order anyway.
+     */
+    @Test
+    public void testConcurrentCallsKeepInputOrder() throws Exception {
+        properties.commitLevel.setValue(2);
+        properties.concurrentCalls.setValue(3);
+        properties.ceaseForError.setValue(false);
+        when(callConnection.create(any(SObject[].class))).thenAnswer(new Answer<SaveResult[]>() {
+
+            @Override
+            public SaveResult[] answer(InvocationOnMock invocation) throws Throwable {
+                SObject[] objects = (SObject[]) invocation.getArguments()[0];
+                if ("r0".equals(objects[0].getField("Name"))) {
+                    // the first call is the last one to end
+                    Thread.sleep(300);
+                }
+                return createResults(objects);
+            }
+        });
+
+        SalesforceWriter writer = createWriter();
+        List<String> successes = new ArrayList<>();
+        List<String> rejects = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            writer.write(createRecord("r" + i));
+            collectFeedback(writer, successes, rejects);
+        }
+        Result result = writer.close();
+        collectFeedback(writer, successes, rejects);
+
+        Assert.assertEquals(Arrays.asList("r0", "r1", "r2", "r3", "r4", "r6", "r7", "r8", "r9"), successes);
+        Assert.assertEquals(Arrays.asList("r5"), rejects);
+        Assert.assertEquals(10, result.getTotalCount());
+        Assert.assertEquals(9, result.getSuccessCount());
+        Assert.assertEquals(1, result.getRejectCount());
+        verify(callConnection, times(5)).create(any(SObject[].class));
+        verify(connection, never()).create(any(SObject[].class));
+    }
+
+    /**
+     * A reject with "die on error" stops the writer, and cancels the calls still in progress.
+     */
+    @Test
+    public void testDieOnErrorCancelsPendingCalls() throws Exception {
+        properties.commitLevel.setValue(1);
+        properties.concurrentCalls.setValue(3);
+        properties.ceaseForError.setValue(true);
+        final CountDownLatch blockedStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger blocked = new AtomicInteger();
+        final AtomicInteger interrupted = new AtomicInteger();
+        when(callConnection.create(any(SObject[].class))).thenAnswer(new Answer<SaveResult[]>() {
+
+            @Override
+            public SaveResult[] answer(InvocationOnMock invocation) throws Throwable {
+                SObject[] objects = (SObject[]) invocation.getArguments()[0];
+                if ("r5".equals(objects[0].getField("Name"))) {
+                    // the reject is only handled once the next call is in progress
+                    blockedStarted.await(5, TimeUnit.SECONDS);
+                    return createResults(objects);
+                }
+                blocked.incrementAndGet();
+                blockedStarted.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    interrupted.incrementAndGet();
+                    throw e;
+                }
+                return createResults(objects);
+            }
+        });
+
+        SalesforceWriter writer = createWriter();
+        IOException failure = null;
+        try {
+            for (int i = 5; i < 10; i++) {
+                writer.write(createRecord("r" + i));
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            release.countDown();
+        }
+
+        Assert.assertNotNull(failure);
+        Assert.assertTrue(blocked.get() > 0);
+        // the pending calls were interrupted, not released
+        long deadline = System.currentTimeMillis() + 5000;
+        while (interrupted.get() < blocked.get() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(blocked.get(), interrupted.get());
+        Assert.assertTrue(writer.getSuccessfulWrites().isEmpty());
+    }
+
+    /**
+     * close waits for the calls still in progress and handles their results.
+     */
+    @Test
+    public void testCloseDrainsPendingCalls() throws Exception {
+        properties.commitLevel.setValue(1);
+        properties.concurrentCalls.setValue(4);
+        properties.ceaseForError.setValue(false);
+        when(callConnection.create(any(SObject[].class))).thenAnswer(new Answer<SaveResult[]>() {
+
+            @Override
+            public SaveResult[] answer(InvocationOnMock invocation) throws Throwable {
+                Thread.sleep(100);
+                return createResults((SObject[]) invocation.getArguments()[0]);
+            }
+        });
+
+        SalesforceWriter writer = createWriter();
+        List<String> successes = new ArrayList<>();
+        List<String> rejects = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            writer.write(createRecord("r" + i));
+            collectFeedback(writer, successes, rejects);
+        }
+        // the pipeline is not full, nothing was waited for
+        Assert.assertTrue(successes.size() < 3);
+
+        Result result = writer.close();
+        collectFeedback(writer, successes, rejects);
+
+        Assert.assertEquals(Arrays.asList("r0", "r1", "r2"), successes);
+        Assert.assertTrue(rejects.isEmpty());
+        Assert.assertEquals(3, result.getSuccessCount());
+        verify(callConnection, times(3)).create(any(SObject[].class));
+    }
+
+    /**
+     * A call connection taken back from the idle ones gets the session of the writer connection, where the session
+     * renewer sets the renewed session.
+     */
+    @Test
+    public void testCallConnectionsUseRenewedSession() throws Exception {
+        properties.commitLevel.setValue(1);
+        properties.concurrentCalls.setValue(2);
+        properties.ceaseForError.setValue(false);
+        SessionHeader_element renewedSession = new SessionHeader_element();
+        renewedSession.setSessionId("renewed");
+        when(connection.getSessionHeader()).thenReturn(renewedSession);
+        SessionHeader_element expiredSession = new SessionHeader_element();
+        expiredSession.setSessionId("expired");
+        when(callConnection.getSessionHeader()).thenReturn(expiredSession);
+        ConnectorConfig callConfig = new ConnectorConfig();
+        callConfig.setSessionId("expired");
+        when(callConnection.getConfig()).thenReturn(callConfig);
+        when(callConnection.create(any(SObject[].class))).thenAnswer(new Answer<SaveResult[]>() {
+
+            @Override
+            public SaveResult[] answer(InvocationOnMock invocation) throws Throwable {
+                return createResults((SObject[]) invocation.getArguments()[0]);
+            }
+        });
+
+        SalesforceWriter writer = createWriter();
+        // the third call waits for the first one, whose connection is idle again
+        for (int i = 0; i < 3; i++) {
+            writer.write(createRecord("r" + i));
+        }
+        writer.close();
+
+        Assert.assertTrue(sessionConnections.get() <= 2);
+        verify(callConnection, atLeastOnce()).setSessionHeader("renewed");
+        Assert.assertEquals("renewed", callConfig.getSessionId());
+    }
+
+    /**
+     * The rows after the switch are sent with a bulk job, and its results go to the success and reject flows, the
+     * ones which match no spooled row too.
+     */
+    @Test
+    public void testSwitchToBulkHandlesAllResults() throws Exception {
+        properties.commitLevel.setValue(1);
+        properties.concurrentCalls.setValue(1);
+        properties.ceaseForError.setValue(false);
+        properties.switchToBulk.setValue(true);
+        properties.bulkSwitchRows.setValue(2);
+        when(connection.create(any(SObject[].class))).thenAnswer(new Answer<SaveResult[]>() {
+
+            @Override
+            public SaveResult[] answer(InvocationOnMock invocation) throws Throwable {
+                return createResults((SObject[]) invocation.getArguments()[0]);
+            }
+        });
+        when(bulkRuntime.getSuccessResultSet()).thenReturn(createResultSet("sf__Id,sf__Created,Name\n" //
+                + "id-r2,false,r2\n" //
+                + "id-r4x,false,r4x\n"));
+        when(bulkRuntime.getFailedResultSet()).thenReturn(createResultSet("sf__Id,sf__Error,Name\n" //
+                + ",REQUIRED_FIELD_MISSING:missing,r3\n" //
+                + ",REQUIRED_FIELD_MISSING:missing,r9\n"));
+
+        SalesforceWriter writer = createWriter();
+        List<String> successes = new ArrayList<>();
+        List<String> rejects = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            writer.write(createRecord("r" + i));
+            collectFeedback(writer, successes, rejects);
+        }
+        Result result = writer.close();
+        collectFeedback(writer, successes, rejects);
+
+        Assert.assertEquals(Arrays.asList("r0", "r1", "r2", "r4x"), successes);
+        Assert.assertEquals(Arrays.asList("r3", "r9"), rejects);
+        Assert.assertEquals(4, result.getSuccessCount());
+        Assert.assertEquals(2, result.getRejectCount());
+        verify(connection, times(2)).create(any(SObject[].class));
+        verify(bulkRuntime, times(1)).executeBulk();
+    }
+
+    private SalesforceWriter createWriter() throws IOException {
+        SalesforceWriter writer = sink.createWriteOperation().createWriter(null);
+        writer.open("test");
+        return writer;
+    }
+
+    private static IndexedRecord createRecord(String name) {
+        IndexedRecord record = new GenericData.Record(SCHEMA);
+        record.put(0, name);
+        return record;
+    }
+
+    /**
+     * The records named "r5" are rejected.
+     */
+    private static SaveResult[] createResults(SObject[] objects) {
+        SaveResult[] results = new SaveResult[objects.length];
+        for (int i = 0; i < objects.length; i++) {
+            results[i] = new SaveResult();
+            if ("r5".equals(objects[i].getField("Name"))) {
+                Error error = new Error();
+                error.setStatusCode(StatusCode.FIELD_CUSTOM_VALIDATION_EXCEPTION);
+                error.setMessage("rejected");
+                error.setFields(new String[] { "Name" });
+                results[i].setSuccess(false);
+                results[i].setErrors(new Error[] { error });
+            } else {
+                results[i].setSuccess(true);
+                results[i].setId("id-" + objects[i].getField("Name"));
+            }
+        }
+        return results;
+    }
+
+    private static BulkResultSet createResultSet(String csv) throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(csv), ',');
+        reader.readRecord();
+        List<String> header = new ArrayList<>(Arrays.asList(reader.getValues()));
+        Collections.replaceAll(header, "sf__Id", "salesforce_id");
+        Collections.replaceAll(header, "sf__Created", "salesforce_created");
+        return new BulkResultSet(reader, header);
+    }
+
+    private static void collectFeedback(SalesforceWriter writer, List<String> successes, List<String> rejects) {
+        for (IndexedRecord record : writer.getSuccessfulWrites()) {
+            successes.add((String) record.get(0));
+        }
+        for (IndexedRecord record : writer.getRejectedWrites()) {
+            rejects.add((String) record.get(0));
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.snowflake.runtime;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * compare the {@link Formatter} with the SimpleDateFormat and Calendar way it used to format every value, on the same
+ * timestamps, dates and times.
+ *
+ * Not run by the build, run it with the benchmarks.jar of this module. It is in the package of {@link Formatter} to call
+ * its package-private methods.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatterBenchmark {
+
+    private static final int VALUES = 1024;
+
+    private Formatter formatter;
+
+    private SimpleDateFormat dateFormat;
+
+    private SimpleDateFormat timeFormat;
+
+    private SimpleDateFormat timestampFormat;
+
+    private Date[] timestamps;
+
+    private Integer[] days;
+
+    @Setup
+    public void setup() {
+        formatter = new Formatter();
+        dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        timeFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+        timeFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+        timestampFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSSXXX");
+
+        // about 30 years around 2000
+        Random random = new Random(0);
+        timestamps = new Date[VALUES];
+        days = new Integer[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            timestamps[i] = new Date(946_684_800_000L + (long) (random.nextGaussian() * 473_040_000_000L));
+            days[i] = 10_957 + (int) (random.nextGaussian() * 5475);
+        }
+    }
+
+    @Benchmark
+    public void timestampSimpleDateFormat(Blackhole blackhole) {
+        for (Date timestamp : timestamps) {
+            blackhole.consume(timestampFormat.format(timestamp));
+        }
+    }
+
+    @Benchmark
+    public void timestampFormatter(Blackhole blackhole) {
+        for (Date timestamp : timestamps) {
+            blackhole.consume(formatter.formatTimestampMillis(timestamp));
+        }
+    }
+
+    @Benchmark
+    public void dateSimpleDateFormat(Blackhole blackhole) {
+        for (Date timestamp : timestamps) {
+            blackhole.consume(dateFormat.format(timestamp));
+        }
+    }
+
+    @Benchmark
+    public void dateFormatter(Blackhole blackhole) {
+        for (Date timestamp : timestamps) {
+            blackhole.consume(formatter.formatDate(timestamp));
+        }
+    }
+
+    @Benchmark
+    public void epochDayLocalDate(Blackhole blackhole) {
+        for (Integer day : days) {
+            blackhole.consume(LocalDate.ofEpochDay(day).format(DateTimeFormatter.ISO_LOCAL_DATE));
+        }
+    }
+
+    @Benchmark
+    public void epochDayFormatter(Blackhole blackhole) {
+        for (Integer day : days) {
+            blackhole.consume(formatter.formatDate(day));
+        }
+    }
+
+    @Benchmark
+    public void timeCalendar(Blackhole blackhole) {
+        for (Date timestamp : timestamps) {
+            Calendar c = Calendar.getInstance();
+            c.setTime(timestamp);
+            Calendar c1 = Calendar.getInstance();
+            c1.setTimeInMillis(0);
+            c1.set(Calendar.HOUR_OF_DAY, c.get(Calendar.HOUR_OF_DAY));
+            c1.set(Calendar.MINUTE, c.get(Calendar.MINUTE));
+            c1.set(Calendar.SECOND, c.get(Calendar.SECOND));
+            c1.set(Calendar.MILLISECOND, c.get(Calendar.MILLISECOND));
+            blackhole.consume(timeFormat.format(c1.getTime()));
+        }
+    }
+
+    @Benchmark
+    public void timeFormatter(Blackhole blackhole) {
+        for (Date timestamp : timestamps) {
+            blackhole.consume(formatter.formatTimeMillis(timestamp));
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.talend.components.snowflake.tsnowflakeinput;
 
 import static org.talend.daikon.properties.presentation.Widget.widget;
 import static org.talend.daikon.properties.property.PropertyFactory.newBoolean;
+import static org.talend.daikon.properties.property.PropertyFactory.newInteger;
 import static org.talend.daikon.properties.property.PropertyFactory.newProperty;
 
 import java.util.Collections;
@@ -45,6 +46,11 @@ public class TSnowflakeInputProperties extends SnowflakeGuessSchemaProperties {
 
     public Property<Boolean> convertColumnsAndTableToUppercase = newBoolean("convertColumnsAndTableToUppercase", true);
 
+    /**
+     * Number of threads the driver uses to download the result chunks of the query, 0 keeps the session setting.
+     */
+    public Property<Integer> downloadThreads = newInteger("downloadThreads", 0);
+
     public TSnowflakeInputProperties(@JsonProperty("name") String name) {
         super(name);
     }
@@ -76,6 +82,7 @@ public class TSnowflakeInputProperties extends SnowflakeGuessSchemaProperties {
 
         Form advancedForm = getForm(Form.ADVANCED);
         advancedForm.addRow(convertColumnsAndTableToUppercase);
+        advancedForm.addRow(downloadThreads);
     }
 
     @Override
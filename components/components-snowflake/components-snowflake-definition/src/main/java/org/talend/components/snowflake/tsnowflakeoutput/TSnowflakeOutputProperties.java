@@ -14,6 +14,7 @@ package org.talend.components.snowflake.tsnowflakeoutput;
 
 import static org.talend.daikon.properties.presentation.Widget.widget;
 import static org.talend.daikon.properties.property.PropertyFactory.newEnum;
+import static org.talend.daikon.properties.property.PropertyFactory.newInteger;
 import static org.talend.daikon.properties.property.PropertyFactory.newString;
 import static org.talend.daikon.properties.property.PropertyFactory.newBoolean;
 
@@ -92,6 +93,39 @@ public class TSnowflakeOutputProperties extends SnowflakeConnectionTableProperti
      */
     public Property<Boolean> useSchemaDatePattern = newBoolean("useSchemaDatePattern");
 
+    /**
+     * Advanced property which sets the number of Snowflake loaders the rows are spread across.
+     * Each loader stages and copies its own files, so several loads run concurrently.
+     */
+    public Property<Integer> loaderCount = newInteger("loaderCount");
+
+    /**
+     * Advanced property which enables the staging settings below instead of the loader defaults.
+     */
+    public Property<Boolean> customStaging = newBoolean("customStaging");
+
+    /**
+     * Stage the files are uploaded to, ~ is the user stage.
+     */
+    public Property<String> stageName = newString("stageName");
+
+    /**
+     * Size in MB of the CSV files spooled locally before they are uploaded.
+     */
+    public Property<Integer> stageFileSize = newInteger("stageFileSize");
+
+    /**
+     * Number of CSV files filled and uploaded in parallel.
+     */
+    public Property<Integer> stageFileCount = newInteger("stageFileCount");
+
+    public Property<Boolean> compressStageFiles = newBoolean("compressStageFiles");
+
+    /**
+     * Copies all the staged files with one COPY or MERGE when the loader finishes, instead of one per batch.
+     */
+    public Property<Boolean> singleCopy = newBoolean("singleCopy");
+
     // Have to use an explicit class to get the override of afterTableName(), an anonymous
     // class cannot be public and thus cannot be called.
     public class TableSubclass extends SnowflakeTableProperties {
@@ -160,6 +194,14 @@ public class TSnowflakeOutputProperties extends SnowflakeConnectionTableProperti
         dateMapping.setValue(DateMapping.DATE);
 
         useSchemaDatePattern.setValue(false);
+        loaderCount.setValue(1);
+
+        customStaging.setValue(false);
+        stageName.setValue("~");
+        stageFileSize.setValue(50);
+        stageFileCount.setValue(64);
+        compressStageFiles.setValue(true);
+        singleCopy.setValue(false);
     }
 
     @Override
@@ -193,6 +235,15 @@ public class TSnowflakeOutputProperties extends SnowflakeConnectionTableProperti
         Widget dateMappingWidget = new Widget(dateMapping);
         dateMappingWidget.setVisible(false);
         advancedForm.addColumn(dateMappingWidget);
+
+        advancedForm.addRow(loaderCount);
+
+        advancedForm.addRow(customStaging);
+        advancedForm.addRow(stageName);
+        advancedForm.addRow(stageFileSize);
+        advancedForm.addColumn(stageFileCount);
+        advancedForm.addRow(compressStageFiles);
+        advancedForm.addColumn(singleCopy);
     }
 
     public void afterOutputAction() {
@@ -207,6 +258,10 @@ public class TSnowflakeOutputProperties extends SnowflakeConnectionTableProperti
         refreshLayout(getForm(Form.MAIN));
     }
 
+    public void afterCustomStaging() {
+        refreshLayout(getForm(Form.MAIN));
+    }
+
     @Override
     public void refreshLayout(Form form) {
         super.refreshLayout(form);
@@ -223,6 +278,13 @@ public class TSnowflakeOutputProperties extends SnowflakeConnectionTableProperti
                 advForm.getWidget(dateMapping.getName()).setVisible(useDateMapping.getValue() && isCreateTableAction
                         && isDesignSchemaDynamic());
 
+                boolean isCustomStaging = customStaging.getValue();
+                advForm.getWidget(stageName.getName()).setHidden(!isCustomStaging);
+                advForm.getWidget(stageFileSize.getName()).setHidden(!isCustomStaging);
+                advForm.getWidget(stageFileCount.getName()).setHidden(!isCustomStaging);
+                advForm.getWidget(compressStageFiles.getName()).setHidden(!isCustomStaging);
+                advForm.getWidget(singleCopy.getName()).setHidden(!isCustomStaging);
+
                 boolean isUpsert = OutputAction.UPSERT.equals(outputAction.getValue());
                 boolean isUseSchemaKeysForUpsert = useSchemaKeysForUpsert.getValue();
                 advForm.getWidget(useSchemaKeysForUpsert.getName()).setHidden(!isUpsert);
@@ -82,6 +82,7 @@ public class TSnowflakeInputPropertiesTest {
         assertTrue(isQueryPropertyHidden);
         assertFalse(isConditionPropertyHidden);
         assertTrue(defaultConvertColumnsAndTableToUppercase);
+        assertEquals(Integer.valueOf(0), inputProperties.downloadThreads.getValue());
 
     }
 
@@ -113,6 +113,26 @@ public class TSnowflakeOutputPropertiesTest {
         assertEquals(Collections.emptyList(), defaultDBTypeType);
         assertFalse(useSchemaDatePattern);
         assertTrue(outputProperties.useSchemaKeysForUpsert.getValue());
+        assertEquals(Integer.valueOf(1), outputProperties.loaderCount.getValue());
+        assertFalse(outputProperties.customStaging.getValue());
+        assertEquals("~", outputProperties.stageName.getValue());
+    }
+
+    @Test
+    public void testLayoutOnCustomStagingChange() {
+        Form advanced = outputProperties.getForm(Form.ADVANCED);
+        outputProperties.refreshLayout(outputProperties.getForm(Form.MAIN));
+        assertFalse(advanced.getWidget(outputProperties.stageName).isVisible());
+        assertFalse(advanced.getWidget(outputProperties.stageFileSize).isVisible());
+
+        outputProperties.customStaging.setValue(true);
+        outputProperties.afterCustomStaging();
+
+        assertTrue(advanced.getWidget(outputProperties.stageName).isVisible());
+        assertTrue(advanced.getWidget(outputProperties.stageFileSize).isVisible());
+        assertTrue(advanced.getWidget(outputProperties.stageFileCount).isVisible());
+        assertTrue(advanced.getWidget(outputProperties.compressStageFiles).isVisible());
+        assertTrue(advanced.getWidget(outputProperties.singleCopy).isVisible());
     }
 
     @Test
@@ -28,11 +28,27 @@ import java.util.TimeZone;
  * the class help format the date type to string, the inner SimpleDateFormat object is thread local, then avoid the thread
  * share issue
  *
+ * the dates of the years 1583 to 9999 are written directly from the epoch day and the millis of day in a reused char
+ * buffer, the SimpleDateFormat objects are only used for the other years and for the patterns of the schema. So one
+ * Formatter instance should not be shared by several threads.
+ *
  * @author wangwei
  */
 public class Formatter {
 
-    private static Map<String, DateFormat> dateFormats = new HashMap<>();
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // SimpleDateFormat uses the julian calendar before the gregorian cutover of 1582 and doesn't pad the years over 9999
+    // like java.time, so these dates are left to it
+    private static final int MIN_FAST_YEAR = 1583;
+
+    private static final int MAX_FAST_YEAR = 9999;
+
+    // one formatter by date pattern of the schema columns
+    private final Map<String, DateFormat> dateFormats = new HashMap<>();
+
+    // large enough for yyyy-MM-dd HH:mm:ss.SSS+hh:mm
+    private final char[] buffer = new char[29];
 
     private static final ThreadLocal<SimpleDateFormat> DATEFORMATTER_LOCAL = new ThreadLocal<SimpleDateFormat>() {
 
@@ -81,14 +97,29 @@ public class Formatter {
      */
     Object formatTimestampMillis(Object inputValue) {
         if (inputValue instanceof Date) {
-            return getTimestampFormatter().format(inputValue);
+            return formatTimestamp(((Date) inputValue).getTime());
         } else if (inputValue instanceof Long) {
-            return getTimestampFormatter().format(new Date((Long) inputValue));
+            return formatTimestamp((Long) inputValue);
         } else {
             return inputValue;
         }
     }
 
+    private String formatTimestamp(long millis) {
+        SimpleDateFormat formatter = getTimestampFormatter();
+        int offset = formatter.getTimeZone().getOffset(millis);
+        // XXX only shows the hours and minutes of the offset
+        if (offset % 60_000 == 0) {
+            long localMillis = millis + offset;
+            if (writeDate(Math.floorDiv(localMillis, MILLIS_PER_DAY), MIN_FAST_YEAR)) {
+                buffer[10] = ' ';
+                writeTime(11, Math.floorMod(localMillis, MILLIS_PER_DAY));
+                return new String(buffer, 0, writeOffset(23, offset));
+            }
+        }
+        return formatter.format(new Date(millis));
+    }
+
     private Date inputValueAsDate(Object inputValue) {
         Date date = null;
         if (inputValue instanceof Date) {
@@ -127,11 +158,19 @@ public class Formatter {
             // If the date is int, it represents amount of days from 1970(no timezone). So if the date is
             // 14.01.2017 it shouldn't be influenced by timezones time differences. It should be the same date
             // in any timezone.
+            if (writeDate(((Integer) inputValue).longValue(), 0)) {
+                return new String(buffer, 0, 10);
+            }
             return LocalDate.ofEpochDay(((Integer) inputValue).longValue()).format(DateTimeFormatter.ISO_LOCAL_DATE);
         }
 
-        Date date = inputValueAsDate(inputValue);
-        return getDateFormatter().format(date);
+        long millis = inputValue instanceof Date ? ((Date) inputValue).getTime() : (Long) inputValue;
+        SimpleDateFormat formatter = getDateFormatter();
+        long localMillis = millis + formatter.getTimeZone().getOffset(millis);
+        if (writeDate(Math.floorDiv(localMillis, MILLIS_PER_DAY), MIN_FAST_YEAR)) {
+            return new String(buffer, 0, 10);
+        }
+        return formatter.format(new Date(millis));
     }
 
     String formatDateWithPattern(final String datePattern, final Object inputValue) {
@@ -155,6 +194,17 @@ public class Formatter {
             date = new Date((int) inputValue);
         }
 
+        // the time of day is moved to 01-01-1970 in the default time zone then written in GMT, when the offset doesn't
+        // change around that day it is only a shift by the offset of the epoch
+        TimeZone zone = TimeZone.getDefault();
+        int epochOffset = zone.getOffset(0);
+        if (zone.getOffset(-MILLIS_PER_DAY) == epochOffset && zone.getOffset(MILLIS_PER_DAY) == epochOffset) {
+            long millis = date.getTime();
+            long localTime = Math.floorMod(millis + zone.getOffset(millis), MILLIS_PER_DAY);
+            writeTime(0, Math.floorMod(localTime - epochOffset, MILLIS_PER_DAY));
+            return new String(buffer, 0, 12);
+        }
+
         Calendar c = Calendar.getInstance();
         c.setTime(date);
 
@@ -169,6 +219,75 @@ public class Formatter {
         return getTimeFormatter().format(c1.getTime());
     }
 
+    /**
+     * write yyyy-MM-dd of the epoch day at the start of the buffer
+     *
+     * @return false if the year is out of the range written here
+     */
+    private boolean writeDate(long epochDay, int minYear) {
+        // civil date from the days since 0000-03-01, the years starting in march put the leap day at their end
+        long days = epochDay + 719_468;
+        long era = Math.floorDiv(days, 146_097);
+        int dayOfEra = (int) (days - era * 146_097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = era * 400 + yearOfEra + (month <= 2 ? 1 : 0);
+        if (year < minYear || year > MAX_FAST_YEAR) {
+            return false;
+        }
+
+        write2Digits(0, (int) year / 100);
+        write2Digits(2, (int) year % 100);
+        buffer[4] = '-';
+        write2Digits(5, month);
+        buffer[7] = '-';
+        write2Digits(8, day);
+        return true;
+    }
+
+    /**
+     * write HH:mm:ss.SSS of the millis of day in the buffer
+     */
+    private void writeTime(int pos, long millisOfDay) {
+        int millis = (int) millisOfDay;
+        write2Digits(pos, millis / 3_600_000);
+        buffer[pos + 2] = ':';
+        write2Digits(pos + 3, millis / 60_000 % 60);
+        buffer[pos + 5] = ':';
+        write2Digits(pos + 6, millis / 1000 % 60);
+        buffer[pos + 8] = '.';
+        int fraction = millis % 1000;
+        buffer[pos + 9] = (char) ('0' + fraction / 100);
+        write2Digits(pos + 10, fraction % 100);
+    }
+
+    /**
+     * write the offset like the XXX pattern of SimpleDateFormat
+     *
+     * @return the end position
+     */
+    private int writeOffset(int pos, int offset) {
+        if (offset == 0) {
+            buffer[pos] = 'Z';
+            return pos + 1;
+        }
+        int minutes = offset / 60_000;
+        buffer[pos] = minutes < 0 ? '-' : '+';
+        minutes = Math.abs(minutes);
+        write2Digits(pos + 1, minutes / 60);
+        buffer[pos + 3] = ':';
+        write2Digits(pos + 4, minutes % 60);
+        return pos + 6;
+    }
+
+    private void write2Digits(int pos, int value) {
+        buffer[pos] = (char) ('0' + value / 10);
+        buffer[pos + 1] = (char) ('0' + value % 10);
+    }
+
     public SimpleDateFormat getDateFormatter() {
         return dateFormatter;
     }
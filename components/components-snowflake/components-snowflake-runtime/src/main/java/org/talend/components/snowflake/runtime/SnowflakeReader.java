@@ -59,6 +59,12 @@ public class SnowflakeReader extends AbstractBoundedReader<IndexedRecord> {
 
     private Result result;
 
+    /** Whether CLIENT_PREFETCH_THREADS was changed, the session may be shared through tSnowflakeConnection. */
+    private boolean downloadThreadsSet;
+
+    /** Value of CLIENT_PREFETCH_THREADS in the session before it was changed, null to unset it. */
+    private String sessionDownloadThreads;
+
     public SnowflakeReader(RuntimeContainer container, BoundedSource source, TSnowflakeInputProperties props) {
         super(source);
         this.container = container;
@@ -132,6 +138,7 @@ public class SnowflakeReader extends AbstractBoundedReader<IndexedRecord> {
         result = new Result();
         try {
             statement = getConnection().createStatement();
+            setDownloadThreads(statement);
             resultSet = statement.executeQuery(getQueryString());
             return haveNext();
         } catch (Exception e) {
@@ -140,6 +147,37 @@ public class SnowflakeReader extends AbstractBoundedReader<IndexedRecord> {
         }
     }
 
+    /**
+     * The driver downloads the chunks of big results from the cloud storage in parallel while the rows are read,
+     * CLIENT_PREFETCH_THREADS sets how many chunks are downloaded at the same time. The value of the session is kept to
+     * be restored by {@link #close()}.
+     */
+    private void setDownloadThreads(Statement statement) throws SQLException {
+        Integer downloadThreads = properties.downloadThreads.getValue();
+        if (downloadThreads != null && downloadThreads > 0) {
+            try (ResultSet parameters = statement
+                    .executeQuery("SHOW PARAMETERS LIKE 'CLIENT_PREFETCH_THREADS' IN SESSION")) {
+                // a value of the account or user level is restored by unsetting the one of the session
+                if (parameters != null && parameters.next() && "SESSION".equalsIgnoreCase(parameters.getString("level"))) {
+                    sessionDownloadThreads = parameters.getString("value");
+                }
+            }
+            statement.execute("ALTER SESSION SET CLIENT_PREFETCH_THREADS = " + downloadThreads);
+            downloadThreadsSet = true;
+        }
+    }
+
+    private void restoreDownloadThreads(Statement statement) throws SQLException {
+        if (downloadThreadsSet) {
+            downloadThreadsSet = false;
+            if (sessionDownloadThreads == null) {
+                statement.execute("ALTER SESSION UNSET CLIENT_PREFETCH_THREADS");
+            } else {
+                statement.execute("ALTER SESSION SET CLIENT_PREFETCH_THREADS = " + sessionDownloadThreads);
+            }
+        }
+    }
+
     private boolean haveNext() throws SQLException {
         boolean haveNext = resultSet.next();
 
@@ -173,22 +211,38 @@ public class SnowflakeReader extends AbstractBoundedReader<IndexedRecord> {
 
     @Override
     public void close() throws IOException {
+        try {
+            try {
+                closeStatement();
+            } finally {
+                if (connection != null) {
+                    ((SnowflakeSource) getCurrentSource()).closeConnection(container, connection);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * close the result set and the statement, even if restoring the download threads of the session fails
+     */
+    private void closeStatement() throws SQLException {
         try {
             if (resultSet != null) {
                 resultSet.close();
-                resultSet = null;
             }
-
+        } finally {
+            resultSet = null;
             if (statement != null) {
-                statement.close();
+                Statement closing = statement;
                 statement = null;
+                try {
+                    restoreDownloadThreads(closing);
+                } finally {
+                    closing.close();
+                }
             }
-
-            if (connection != null) {
-                ((SnowflakeSource) getCurrentSource()).closeConnection(container, connection);
-            }
-        } catch (SQLException e) {
-            throw new IOException(e);
         }
     }
 
@@ -26,10 +26,17 @@ public class SnowflakeResultSetIndexedRecordConverter extends JDBCResultSetIndex
         return SnowflakeAvroRegistry.get();
     }
 
+    private transient ResultSet sizedResultSet;
+
     @Override
     protected void resetSizeByResultSet(ResultSet resultSet) {
+        // the column count doesn't change between the rows of a result set, only read the metadata once
+        if (resultSet == sizedResultSet) {
+            return;
+        }
         try {
             this.setSizeInResultSet(resultSet.getMetaData().getColumnCount());
+            sizedResultSet = resultSet;
         } catch (SQLException e) {
             throw new ComponentException(e);
         }
@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -62,6 +63,20 @@ public class SnowflakeWriter implements WriterWithFeedback<Result, IndexedRecord
 
     protected Loader loader;
 
+    /**
+     * Loaders the rows are spread across, {@link #loader} being the first one.
+     */
+    protected final List<Loader> loaders = new ArrayList<>();
+
+    private final List<SnowflakeResultListener> listeners = new ArrayList<>();
+
+    /**
+     * Positions of the key columns in {@link #row}, used to send rows with the same key to the same loader.
+     */
+    private transient int[] keyIndexes = new int[0];
+
+    private transient int nextLoader;
+
     private final SnowflakeWriteOperation snowflakeWriteOperation;
 
     private Connection uploadConnection;
@@ -113,7 +128,14 @@ public class SnowflakeWriter implements WriterWithFeedback<Result, IndexedRecord
 
     @Override
     public Iterable<IndexedRecord> getRejectedWrites() {
-        return listener.getErrors();
+        if (listeners.size() == 1) {
+            return listener.getErrors();
+        }
+        List<IndexedRecord> errors = new ArrayList<>();
+        for (SnowflakeResultListener loaderListener : listeners) {
+            errors.addAll(loaderListener.getErrors());
+        }
+        return errors;
     }
 
     @Override
@@ -128,6 +150,7 @@ public class SnowflakeWriter implements WriterWithFeedback<Result, IndexedRecord
         sink = snowflakeWriteOperation.getSink();
         sprops = sink.getSnowflakeOutputProperties();
         listener = getResultListener();
+        listeners.add(listener);
     }
 
     @Override
@@ -142,6 +165,25 @@ public class SnowflakeWriter implements WriterWithFeedback<Result, IndexedRecord
         loader = getLoader();
         loader.setListener(listener);
         loader.start();
+        loaders.add(loader);
+
+        // Additional loaders stage their own files and run their own COPY, only the first one truncates the table.
+        int loaderCount = getLoaderCount();
+        for (int i = 1; i < loaderCount; i++) {
+            Map<LoaderProperty, Object> loaderProps = getLoaderProps();
+            loaderProps.remove(LoaderProperty.truncateTable);
+            Loader additionalLoader = LoaderFactory.createLoader(loaderProps, uploadConnection, processingConnection);
+            SnowflakeResultListener additionalListener = getResultListener();
+            additionalLoader.setListener(additionalListener);
+            additionalLoader.start();
+            loaders.add(additionalLoader);
+            listeners.add(additionalListener);
+        }
+    }
+
+    private int getLoaderCount() {
+        Integer loaderCount = sprops.loaderCount.getValue();
+        return loaderCount == null || loaderCount < 1 ? 1 : loaderCount;
     }
 
     private boolean needCorrectColumnOrderByRuntimeSchema() {
@@ -229,6 +271,10 @@ public class SnowflakeWriter implements WriterWithFeedback<Result, IndexedRecord
         StringSchemaInfo ssi = getStringSchemaInfo(sprops, mainSchema, columns, orderIsAdjusted, remoteColumns, sprops.tableAction.getValue(), useRuntimeSchemaForMainSchema);
 
         row = new Object[ssi.columnsStr.size()];
+        keyIndexes = new int[ssi.keyStr.size()];
+        for (int i = 0; i < keyIndexes.length; i++) {
+            keyIndexes[i] = ssi.columnsStr.indexOf(ssi.keyStr.get(i));
+        }
 
         //TODO remove the condition, now add it only for more safe for old job
         if(orderIsAdjusted || (sprops.tableAction.getValue()!=TableAction.TableActionEnum.NONE)) {
@@ -380,7 +426,9 @@ public class SnowflakeWriter implements WriterWithFeedback<Result, IndexedRecord
             }
 
             // Set Columns, KeyColumns to Loader in all modes.
-            setLoaderColumnsPropertyAtRuntime(loader, collectedFields, remoteTableFields, orderIsAdjusted);
+            for (Loader l : loaders) {
+                setLoaderColumnsPropertyAtRuntime(l, collectedFields, remoteTableFields, orderIsAdjusted);
+            }
 
             isFirst = false;
         }
@@ -405,7 +453,30 @@ public class SnowflakeWriter implements WriterWithFeedback<Result, IndexedRecord
             i++;
         }
 
-        loader.submitRow(row);
+        nextLoader().submitRow(row);
+    }
+
+    /**
+     * Picks the loader for the current {@link #row}: rows are hashed on their key columns when there are some, so
+     * that all changes of a key go through the same loader, and sent round-robin otherwise.
+     */
+    private Loader nextLoader() {
+        int loaderCount = loaders.size();
+        if (loaderCount <= 1) {
+            return loader;
+        }
+        int index;
+        if (keyIndexes.length > 0) {
+            int hash = 1;
+            for (int keyIndex : keyIndexes) {
+                hash = 31 * hash + (keyIndex < 0 ? 0 : Objects.hashCode(row[keyIndex]));
+            }
+            index = (hash & Integer.MAX_VALUE) % loaderCount;
+        } else {
+            index = nextLoader;
+            nextLoader = (nextLoader + 1) % loaderCount;
+        }
+        return loaders.get(index);
     }
 
     protected IndexedRecord getInputRecord(Object datum) {
@@ -496,10 +567,18 @@ public class SnowflakeWriter implements WriterWithFeedback<Result, IndexedRecord
 
     @Override
     public Result close() throws IOException {
-        try {
-            loader.finish();
-        } catch (Exception ex) {
-            throw new IOException(ex);
+        Exception finishException = null;
+        for (Loader l : loaders) {
+            try {
+                l.finish();
+            } catch (Exception ex) {
+                if (finishException == null) {
+                    finishException = ex;
+                }
+            }
+        }
+        if (finishException != null) {
+            throw new IOException(finishException);
         }
 
         try {
@@ -507,7 +586,16 @@ public class SnowflakeWriter implements WriterWithFeedback<Result, IndexedRecord
         } catch (SQLException e) {
             throw new IOException(e);
         }
-        return new Result(uId, listener.getSubmittedRowCount(), listener.counter.get(), listener.getErrorRecordCount());
+
+        int submitted = 0;
+        int succeeded = 0;
+        int rejected = 0;
+        for (SnowflakeResultListener loaderListener : listeners) {
+            submitted += loaderListener.getSubmittedRowCount();
+            succeeded += loaderListener.counter.get();
+            rejected += loaderListener.getErrorRecordCount();
+        }
+        return new Result(uId, submitted, succeeded, rejected);
     }
 
     @Override
@@ -599,6 +687,9 @@ public class SnowflakeWriter implements WriterWithFeedback<Result, IndexedRecord
         }
 
         prop.put(LoaderProperty.remoteStage, "~");
+        if (outputProperties.customStaging.getValue()) {
+            putStagingProps(outputProperties, prop);
+        }
 
         TableActionEnum selectedTableAction = outputProperties.tableAction.getValue();
         if (TableActionEnum.TRUNCATE.equals(selectedTableAction)) {
@@ -608,6 +699,27 @@ public class SnowflakeWriter implements WriterWithFeedback<Result, IndexedRecord
         return prop;
     }
 
+    /**
+     * The loader spools the rows to local CSV files of the given size, compresses and uploads them in parallel from its
+     * own threads, then copies them in the table, once at the end when single copy is set.
+     */
+    private static void putStagingProps(TSnowflakeOutputProperties outputProperties, Map<LoaderProperty, Object> prop) {
+        String stageName = StringUtils.removeStart(StringUtils.trimToEmpty(outputProperties.stageName.getValue()), "@");
+        if (!stageName.isEmpty()) {
+            prop.put(LoaderProperty.remoteStage, stageName);
+        }
+        Integer fileSize = outputProperties.stageFileSize.getValue();
+        if (fileSize != null && fileSize > 0) {
+            prop.put(LoaderProperty.csvFileSize, String.valueOf(fileSize * 1024L * 1024L));
+        }
+        Integer fileCount = outputProperties.stageFileCount.getValue();
+        if (fileCount != null && fileCount > 0) {
+            prop.put(LoaderProperty.csvFileBucketSize, String.valueOf(fileCount));
+        }
+        prop.put(LoaderProperty.compressDataBeforePut, String.valueOf(outputProperties.compressStageFiles.getValue()));
+        prop.put(LoaderProperty.oneBatch, String.valueOf(outputProperties.singleCopy.getValue()));
+    }
+
     protected Loader getLoader() {
         return LoaderFactory.createLoader(getLoaderProps(), uploadConnection, processingConnection);
     }
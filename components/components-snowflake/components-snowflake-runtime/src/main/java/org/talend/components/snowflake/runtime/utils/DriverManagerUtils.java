@@ -17,6 +17,7 @@ import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
 
+import org.talend.components.common.runtime.PooledConnectionsPool;
 import org.talend.components.snowflake.SnowflakeConnectionProperties;
 import org.talend.components.snowflake.runtime.SnowflakeConstants;
 import org.talend.components.snowflake.tsnowflakeconnection.AuthenticationType;
@@ -32,11 +33,15 @@ public class DriverManagerUtils {
             Driver driver = (Driver) Class.forName(SnowflakeConstants.SNOWFLAKE_DRIVER).newInstance();
 
             DriverManager.registerDriver(driver);
-            return DriverManager
-                    .getConnection(properties.getConnectionUrl(),
-                            AuthenticationType.OAUTH == properties.authenticationType.getValue()
-                                    ? properties.getJdbcProperties(OauthTokenUtils.getToken(properties.getOauthProperties()))
-                                    : properties.getJdbcProperties());
+            if (AuthenticationType.OAUTH == properties.authenticationType.getValue()) {
+                // a new token is asked for each connection, so the connections can't be pooled by their properties
+                return DriverManager.getConnection(properties.getConnectionUrl(),
+                        properties.getJdbcProperties(OauthTokenUtils.getToken(properties.getOauthProperties())));
+            }
+            // the login to Snowflake is slow, reuse the physical connections of the same url and user
+            return PooledConnectionsPool.getInstance()
+                    .getDataSource(driver, properties.getConnectionUrl(), properties.getJdbcProperties())
+                    .getConnection();
         } catch (Exception e) {
             if (e instanceof IllegalArgumentException) {
                 throw IllegalArgumentException.class.cast(e);
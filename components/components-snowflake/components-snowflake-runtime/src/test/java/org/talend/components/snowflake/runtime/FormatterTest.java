@@ -22,9 +22,15 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class FormatterTest {
 
+    // with DST in both hemispheres, negative, half-hour and 45 minutes offsets, and an offset in seconds before 1937
+    private static final String[] TIME_ZONES = { "UTC", "Europe/Paris", "Europe/Amsterdam", "America/New_York",
+            "America/Sao_Paulo", "America/St_Johns", "Pacific/Honolulu", "Asia/Kolkata", "Asia/Kathmandu",
+            "Australia/Lord_Howe", "Pacific/Chatham", "Pacific/Kiritimati" };
+
     @Test
     public void testFormatter4SafeThread() {
         final Formatter f1 = new Formatter();
@@ -94,4 +100,98 @@ public class FormatterTest {
         c.set(Calendar.SECOND, 30);
         Assert.assertEquals("2010|10|06 10,25,30", formatter.formatDateWithPattern("yyyy|dd|MM hh,mm,ss", c.getTime()));
     }
+
+    @Test
+    public void testFormatSameAsSimpleDateFormat() throws Exception {
+        for (String zone : TIME_ZONES) {
+            runInTimeZone(zone, new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        assertFormatSameAsSimpleDateFormat();
+                    } catch (ParseException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        }
+    }
+
+    private void assertFormatSameAsSimpleDateFormat() throws ParseException {
+        Formatter formatter = new Formatter();
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+        timeFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+        SimpleDateFormat timestampFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSSXXX");
+
+        // the first years are before the gregorian calendar and the last one is too large, both are left to SimpleDateFormat
+        // the others are around the DST changes of the time zones, some of them in the skipped or repeated hour
+        for (String value : new String[] { "1500-03-01 10:00:00.000", "1582-12-31 23:59:59.999", "1900-02-28 00:00:00.001",
+                "1969-12-31 23:30:00.000", "1970-01-01 00:00:00.000", "2000-02-29 12:30:45.123", "2017-10-29 02:30:00.000",
+                "2018-02-17 23:30:00.000", "2018-03-11 02:30:00.000", "2018-04-01 01:45:00.000", "2018-04-01 02:45:00.000",
+                "2018-09-30 02:45:00.000", "2018-11-04 01:30:00.000", "2018-11-04 00:30:00.000", "9999-12-31 23:59:59.999",
+                "10000-01-01 00:00:00.000" }) {
+            Date date = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").parse(value);
+            Assert.assertEquals(value, dateFormat.format(date), formatter.formatDate(date));
+            Assert.assertEquals(value, dateFormat.format(date), formatter.formatDate(date.getTime()));
+            Assert.assertEquals(value, timestampFormat.format(date), formatter.formatTimestampMillis(date));
+            Assert.assertEquals(value, timestampFormat.format(date), formatter.formatTimestampMillis(date.getTime()));
+            Assert.assertEquals(value, formatTimeWithCalendar(timeFormat, date), formatter.formatTimeMillis(date));
+        }
+    }
+
+    /**
+     * the way the time was formatted before, the time of day moved to 01-01-1970 in the default time zone
+     */
+    private static String formatTimeWithCalendar(SimpleDateFormat timeFormat, Date date) {
+        Calendar c = Calendar.getInstance();
+        c.setTime(date);
+        Calendar c1 = Calendar.getInstance();
+        c1.setTimeInMillis(0);
+        c1.set(Calendar.HOUR_OF_DAY, c.get(Calendar.HOUR_OF_DAY));
+        c1.set(Calendar.MINUTE, c.get(Calendar.MINUTE));
+        c1.set(Calendar.SECOND, c.get(Calendar.SECOND));
+        c1.set(Calendar.MILLISECOND, c.get(Calendar.MILLISECOND));
+        return timeFormat.format(c1.getTime());
+    }
+
+    /**
+     * run the test with this default time zone, in a new thread as the formatters of {@link Formatter} are kept by
+     * thread and get the default time zone when they are created
+     */
+    private static void runInTimeZone(String zone, final Runnable test) throws InterruptedException {
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        TimeZone defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone(zone));
+        try {
+            Thread thread = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        test.run();
+                    } catch (Throwable e) {
+                        failure.set(e);
+                    }
+                }
+            });
+            thread.start();
+            thread.join();
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+        if (failure.get() != null) {
+            throw new AssertionError("In the time zone " + zone + " : " + failure.get().getMessage(), failure.get());
+        }
+    }
+
+    @Test
+    public void testFormatDateFromIntegerOutOfRange() {
+        Formatter formatter = new Formatter();
+
+        Assert.assertEquals("0000-01-01", formatter.formatDate(-719528));
+        Assert.assertEquals("9999-12-31", formatter.formatDate(2932896));
+        Assert.assertEquals("+10000-01-01", formatter.formatDate(2932897));
+    }
 }
@@ -24,6 +24,7 @@ import org.apache.avro.SchemaBuilder;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.talend.components.api.component.ComponentDefinition;
@@ -97,6 +98,118 @@ public class SnowflakeReaderTest {
         Assert.assertEquals(expectedRecords, snowflakeReader.getReturnValues().get("totalRecordCount"));
     }
 
+    @Test
+    public void testStartSetsDownloadThreads() throws Exception {
+        Statement statementMock = Mockito.mock(Statement.class);
+        Connection connectionMock = Mockito.mock(Connection.class);
+        ResultSet resultSetMock = Mockito.mock(ResultSet.class);
+
+        Mockito.when((snowflakeSourceMock).createConnection(runtimeContainerMock)).thenReturn(connectionMock);
+        Mockito.when(connectionMock.createStatement()).thenReturn(statementMock);
+        Mockito.when(statementMock.executeQuery(TEST_QUERY)).thenReturn(resultSetMock);
+        snowflakeReader.properties.downloadThreads.setValue(8);
+
+        snowflakeReader.start();
+
+        Mockito.verify(statementMock).execute("ALTER SESSION SET CLIENT_PREFETCH_THREADS = 8");
+    }
+
+    /**
+     * The session may be shared through tSnowflakeConnection, the value it had before is set back when the reader is
+     * closed
+     */
+    @Test
+    public void testCloseRestoresDownloadThreads() throws Exception {
+        Statement statementMock = Mockito.mock(Statement.class);
+        Connection connectionMock = Mockito.mock(Connection.class);
+        ResultSet resultSetMock = Mockito.mock(ResultSet.class);
+        ResultSet parametersMock = Mockito.mock(ResultSet.class);
+
+        Mockito.when((snowflakeSourceMock).createConnection(runtimeContainerMock)).thenReturn(connectionMock);
+        Mockito.when(connectionMock.createStatement()).thenReturn(statementMock);
+        Mockito.when(statementMock.executeQuery(TEST_QUERY)).thenReturn(resultSetMock);
+        Mockito.when(statementMock.executeQuery("SHOW PARAMETERS LIKE 'CLIENT_PREFETCH_THREADS' IN SESSION"))
+                .thenReturn(parametersMock);
+        Mockito.when(parametersMock.next()).thenReturn(true);
+        Mockito.when(parametersMock.getString("level")).thenReturn("SESSION");
+        Mockito.when(parametersMock.getString("value")).thenReturn("2");
+        snowflakeReader.properties.downloadThreads.setValue(8);
+
+        snowflakeReader.start();
+        snowflakeReader.close();
+
+        InOrder inOrder = Mockito.inOrder(statementMock, snowflakeSourceMock);
+        inOrder.verify(statementMock).execute("ALTER SESSION SET CLIENT_PREFETCH_THREADS = 8");
+        inOrder.verify(statementMock).execute("ALTER SESSION SET CLIENT_PREFETCH_THREADS = 2");
+        inOrder.verify(statementMock).close();
+        inOrder.verify(snowflakeSourceMock).closeConnection(runtimeContainerMock, connectionMock);
+    }
+
+    @Test
+    public void testCloseUnsetsDefaultDownloadThreads() throws Exception {
+        Statement statementMock = Mockito.mock(Statement.class);
+        Connection connectionMock = Mockito.mock(Connection.class);
+        ResultSet resultSetMock = Mockito.mock(ResultSet.class);
+        ResultSet parametersMock = Mockito.mock(ResultSet.class);
+
+        Mockito.when((snowflakeSourceMock).createConnection(runtimeContainerMock)).thenReturn(connectionMock);
+        Mockito.when(connectionMock.createStatement()).thenReturn(statementMock);
+        Mockito.when(statementMock.executeQuery(TEST_QUERY)).thenReturn(resultSetMock);
+        Mockito.when(statementMock.executeQuery("SHOW PARAMETERS LIKE 'CLIENT_PREFETCH_THREADS' IN SESSION"))
+                .thenReturn(parametersMock);
+        Mockito.when(parametersMock.next()).thenReturn(true);
+        Mockito.when(parametersMock.getString("level")).thenReturn("");
+        Mockito.when(parametersMock.getString("value")).thenReturn("4");
+        snowflakeReader.properties.downloadThreads.setValue(8);
+
+        snowflakeReader.start();
+        snowflakeReader.close();
+
+        Mockito.verify(statementMock).execute("ALTER SESSION UNSET CLIENT_PREFETCH_THREADS");
+        Mockito.verify(statementMock, Mockito.never()).execute("ALTER SESSION SET CLIENT_PREFETCH_THREADS = 4");
+    }
+
+    @Test
+    public void testCloseReleasesStatementWhenRestoreFails() throws Exception {
+        Statement statementMock = Mockito.mock(Statement.class);
+        Connection connectionMock = Mockito.mock(Connection.class);
+        ResultSet resultSetMock = Mockito.mock(ResultSet.class);
+
+        Mockito.when((snowflakeSourceMock).createConnection(runtimeContainerMock)).thenReturn(connectionMock);
+        Mockito.when(connectionMock.createStatement()).thenReturn(statementMock);
+        Mockito.when(statementMock.executeQuery(TEST_QUERY)).thenReturn(resultSetMock);
+        Mockito.when(statementMock.execute("ALTER SESSION UNSET CLIENT_PREFETCH_THREADS"))
+                .thenThrow(new SQLException("Session expired"));
+        snowflakeReader.properties.downloadThreads.setValue(8);
+
+        snowflakeReader.start();
+        try {
+            snowflakeReader.close();
+            Assert.fail("The failure of the restore must be thrown");
+        } catch (IOException e) {
+            Assert.assertEquals("Session expired", e.getCause().getMessage());
+        }
+
+        Mockito.verify(statementMock).close();
+        Mockito.verify(snowflakeSourceMock).closeConnection(runtimeContainerMock, connectionMock);
+    }
+
+    @Test
+    public void testCloseKeepsDownloadThreadsWhenNotSet() throws Exception {
+        Statement statementMock = Mockito.mock(Statement.class);
+        Connection connectionMock = Mockito.mock(Connection.class);
+        ResultSet resultSetMock = Mockito.mock(ResultSet.class);
+
+        Mockito.when((snowflakeSourceMock).createConnection(runtimeContainerMock)).thenReturn(connectionMock);
+        Mockito.when(connectionMock.createStatement()).thenReturn(statementMock);
+        Mockito.when(statementMock.executeQuery(TEST_QUERY)).thenReturn(resultSetMock);
+
+        snowflakeReader.start();
+        snowflakeReader.close();
+
+        Mockito.verify(statementMock, Mockito.never()).execute(Mockito.anyString());
+    }
+
     @Test(expected = IOException.class)
     public void testStartErrorInStatement() throws Exception {
         Connection connectionMock = Mockito.mock(Connection.class);
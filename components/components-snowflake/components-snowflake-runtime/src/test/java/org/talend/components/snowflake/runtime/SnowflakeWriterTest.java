@@ -24,6 +24,7 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
 
 import org.apache.avro.Schema;
@@ -35,6 +36,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -138,6 +140,52 @@ public class SnowflakeWriterTest {
         Assert.assertEquals(0, result.rejectCount);
     }
 
+    @Test
+    public void testGetLoaderPropsCustomStaging() {
+        Map<LoaderProperty, Object> defaultProps = SnowflakeWriter.getLoaderProps(properties, properties.table.main.schema.getValue());
+        Assert.assertEquals("~", defaultProps.get(LoaderProperty.remoteStage));
+        Assert.assertFalse(defaultProps.containsKey(LoaderProperty.csvFileSize));
+
+        properties.customStaging.setValue(true);
+        properties.stageName.setValue("@LOAD_STAGE");
+        properties.stageFileSize.setValue(10);
+        properties.stageFileCount.setValue(4);
+        properties.singleCopy.setValue(true);
+        Map<LoaderProperty, Object> props = SnowflakeWriter.getLoaderProps(properties, properties.table.main.schema.getValue());
+
+        Assert.assertEquals("LOAD_STAGE", props.get(LoaderProperty.remoteStage));
+        Assert.assertEquals("10485760", props.get(LoaderProperty.csvFileSize));
+        Assert.assertEquals("4", props.get(LoaderProperty.csvFileBucketSize));
+        Assert.assertEquals("true", props.get(LoaderProperty.compressDataBeforePut));
+        Assert.assertEquals("true", props.get(LoaderProperty.oneBatch));
+    }
+
+    @Test
+    public void testSeveralLoaders() throws Exception {
+        StreamLoader secondLoader = Mockito.mock(StreamLoader.class);
+        Mockito.when(LoaderFactory.createLoader(Mockito.anyMapOf(LoaderProperty.class, Object.class),
+                Mockito.any(Connection.class), Mockito.any(Connection.class))).thenReturn(loader, secondLoader);
+        properties.loaderCount.setValue(2);
+        Schema schema = properties.table.main.schema.getValue();
+
+        writer.open("uId");
+        for (int i = 0; i < 10; i++) {
+            writer.write(new GenericRecordBuilder(schema).set("id", "key").set("column", "value" + i).set("field", "field")
+                    .build());
+        }
+        Result result = writer.close();
+
+        Mockito.verify(loader, Mockito.times(1)).start();
+        Mockito.verify(secondLoader, Mockito.times(1)).start();
+        Mockito.verify(loader, Mockito.times(1)).finish();
+        Mockito.verify(secondLoader, Mockito.times(1)).finish();
+        // Rows sharing a key are always sent to the same loader
+        ArgumentCaptor<Object[]> firstRows = ArgumentCaptor.forClass(Object[].class);
+        Mockito.verify(loader, Mockito.atLeast(0)).submitRow(firstRows.capture());
+        Assert.assertTrue(firstRows.getAllValues().size() == 0 || firstRows.getAllValues().size() == 10);
+        Assert.assertEquals(0, result.totalCount);
+    }
+
     @Test
     public void testWrite() throws Exception {
         int daysFrom1970 = 17337;
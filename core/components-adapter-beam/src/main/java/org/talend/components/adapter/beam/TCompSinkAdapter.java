@@ -13,20 +13,129 @@
 
 package org.talend.components.adapter.beam;
 
+import java.io.Serializable;
+
 import org.apache.avro.generic.IndexedRecord;
+import org.apache.beam.sdk.Pipeline;
+import org.apache.beam.sdk.coders.SerializableCoder;
+import org.apache.beam.sdk.coders.VoidCoder;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.PTransform;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.View;
+import org.apache.beam.sdk.transforms.windowing.GlobalWindows;
+import org.apache.beam.sdk.transforms.windowing.Window;
 import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionView;
 import org.apache.beam.sdk.values.PDone;
+import org.talend.components.adapter.beam.transform.BatchWriterFn;
+import org.talend.components.api.component.runtime.Sink;
+import org.talend.components.api.component.runtime.WriteOperation;
 
 /**
  * Make the TCOMP Sink work on Beam runtime, wrapper it with relate beam interface
  * TCOMP Sink must be serializable
+ *
+ * As Beam's Write, the {@link WriteOperation} is created and initialized by a step of the pipeline on a singleton, so
+ * that its side effects only happen when the pipeline runs. Then every bundle is written by one or more writers (see
+ * {@link BatchWriterFn}). On a bounded input, the writer results are finally passed to {@link WriteOperation#finalize}
+ * by another step on a singleton, which runs even if the input is empty.
  */
 public class TCompSinkAdapter extends PTransform<PCollection<IndexedRecord>, PDone> {
 
-    //TODO(bchen) implement this SinkAdapter by PTransform/ParDo/DoFn
+    @SuppressWarnings("unchecked")
+    private static final Class<WriteOperation<?>> WRITE_OPERATION_CLASS =
+            (Class<WriteOperation<?>>) (Class<?>) WriteOperation.class;
+
+    private final Sink tCompSink;
+
+    private int maxBatchSize;
+
+    private long maxBatchLatency;
+
+    public TCompSinkAdapter(Sink tCompSink) {
+        this.tCompSink = tCompSink;
+    }
+
+    /**
+     * See {@link BatchWriterFn#withMaxBatchSize(int)}.
+     */
+    public TCompSinkAdapter withMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    /**
+     * See {@link BatchWriterFn#withMaxBatchLatency(long)}.
+     */
+    public TCompSinkAdapter withMaxBatchLatency(long maxBatchLatency) {
+        this.maxBatchLatency = maxBatchLatency;
+        return this;
+    }
+
     @Override
     public PDone expand(PCollection<IndexedRecord> input) {
-        return null;
+        Pipeline pipeline = input.getPipeline();
+        PCollectionView<WriteOperation<?>> writeOperationView = pipeline
+                .apply("CreateWriteOperation", Create.of((Void) null).withCoder(VoidCoder.of())) //
+                .apply("InitializeWriteOperation", ParDo.of(new InitializeFn(tCompSink))) //
+                .setCoder(SerializableCoder.of(WRITE_OPERATION_CLASS)) //
+                .apply(View.<WriteOperation<?>> asSingleton());
+
+        BatchWriterFn writerFn = new BatchWriterFn(writeOperationView) //
+                .withMaxBatchSize(maxBatchSize) //
+                .withMaxBatchLatency(maxBatchLatency);
+        PCollection<Serializable> results = input
+                .apply("WriteBundles", ParDo.of(writerFn).withSideInputs(writeOperationView)) //
+                .setCoder(SerializableCoder.of(Serializable.class));
+
+        // There is no final pane on an unbounded input, so the write operation can only be finalized on a bounded one.
+        if (input.isBounded() == PCollection.IsBounded.BOUNDED) {
+            // The results are emitted in the global window, whatever the windows of the input.
+            PCollectionView<Iterable<Serializable>> resultsView = results
+                    .apply(Window.<Serializable> into(new GlobalWindows())) //
+                    .apply(View.<Serializable> asIterable());
+            pipeline.apply("CreateFinalize", Create.of((Void) null).withCoder(VoidCoder.of())) //
+                    .apply("Finalize", ParDo.of(new FinalizeFn(writeOperationView, resultsView))
+                            .withSideInputs(writeOperationView, resultsView));
+        }
+        return PDone.in(pipeline);
+    }
+
+    private static class InitializeFn extends DoFn<Void, WriteOperation<?>> {
+
+        private final Sink tCompSink;
+
+        private InitializeFn(Sink tCompSink) {
+            this.tCompSink = tCompSink;
+        }
+
+        @ProcessElement
+        public void processElement(ProcessContext c) {
+            WriteOperation<?> writeOperation = tCompSink.createWriteOperation();
+            writeOperation.initialize(new BeamJobRuntimeContainer(c.getPipelineOptions()));
+            c.output(writeOperation);
+        }
+    }
+
+    private static class FinalizeFn extends DoFn<Void, Void> {
+
+        private final PCollectionView<WriteOperation<?>> writeOperationView;
+
+        private final PCollectionView<Iterable<Serializable>> resultsView;
+
+        private FinalizeFn(PCollectionView<WriteOperation<?>> writeOperationView,
+                PCollectionView<Iterable<Serializable>> resultsView) {
+            this.writeOperationView = writeOperationView;
+            this.resultsView = resultsView;
+        }
+
+        @ProcessElement
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public void processElement(ProcessContext c) {
+            WriteOperation writeOperation = c.sideInput(writeOperationView);
+            writeOperation.finalize(c.sideInput(resultsView), new BeamJobRuntimeContainer(c.getPipelineOptions()));
+        }
     }
 }
@@ -0,0 +1,119 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.adapter.beam.coders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+
+/**
+ * JVM wide registry of the Avro schemas used by the {@link FingerprintAvroCoder}, keyed by their 64-bit fingerprint.
+ *
+ * The fingerprint is computed on the full JSON of the schema and not on its parsing canonical form, so that schemas which
+ * only differ by their properties (like the Talend column properties) are not mixed up.
+ *
+ * Lookups and registrations don't lock, and the {@link DatumReader} and {@link DatumWriter} of a schema are created once
+ * and shared by all the coders using it.
+ */
+public final class AvroSchemaRegistry {
+
+    private static final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private AvroSchemaRegistry() {
+    }
+
+    /**
+     * @param s The schema to register.
+     * @return The entry of the schema, which is only created the first time the schema is registered.
+     */
+    public static Entry register(Schema s) {
+        long fingerprint = fingerprint(s);
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            Entry created = new Entry(fingerprint, s);
+            entry = entries.putIfAbsent(fingerprint, created);
+            if (entry == null) {
+                entry = created;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * @param s A schema.
+     * @return The 64-bit Rabin fingerprint of its JSON.
+     */
+    public static long fingerprint(Schema s) {
+        return SchemaNormalization.fingerprint64(s.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param fingerprint The fingerprint of a schema.
+     * @return The entry of the schema, or null if no schema with this fingerprint was registered in this JVM.
+     */
+    public static Entry get(long fingerprint) {
+        return entries.get(fingerprint);
+    }
+
+    /**
+     * This must only be called when there are no running Pipelines using a {@link FingerprintAvroCoder}.
+     */
+    public static void clear() {
+        entries.clear();
+    }
+
+    /**
+     * A registered schema with its reader and writer, which are thread-safe.
+     */
+    public static final class Entry {
+
+        private final long fingerprint;
+
+        private final Schema schema;
+
+        private final DatumWriter<IndexedRecord> writer;
+
+        private final DatumReader<IndexedRecord> reader;
+
+        private Entry(long fingerprint, Schema schema) {
+            this.fingerprint = fingerprint;
+            this.schema = schema;
+            this.writer = new GenericDatumWriter<>(schema);
+            this.reader = new GenericDatumReader<>(schema);
+        }
+
+        public long getFingerprint() {
+            return fingerprint;
+        }
+
+        public Schema getSchema() {
+            return schema;
+        }
+
+        public DatumWriter<IndexedRecord> getWriter() {
+            return writer;
+        }
+
+        public DatumReader<IndexedRecord> getReader() {
+            return reader;
+        }
+    }
+}
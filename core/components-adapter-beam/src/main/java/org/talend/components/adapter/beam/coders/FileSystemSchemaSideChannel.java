@@ -0,0 +1,117 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.adapter.beam.coders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.apache.avro.Schema;
+import org.apache.beam.sdk.io.FileSystems;
+import org.apache.beam.sdk.io.fs.MatchResult;
+import org.apache.beam.sdk.io.fs.MoveOptions;
+import org.apache.beam.sdk.io.fs.ResolveOptions.StandardResolveOptions;
+import org.apache.beam.sdk.io.fs.ResourceId;
+import org.apache.beam.sdk.util.MimeTypes;
+
+/**
+ * A {@link SchemaSideChannel} that stores one .avsc file per schema in a directory of any Beam {@link FileSystems}
+ * (local, hdfs://, gs://...) shared by all the nodes.
+ */
+public class FileSystemSchemaSideChannel implements SchemaSideChannel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String directory;
+
+    /**
+     * @param directory The shared directory, created when the first schema is published.
+     */
+    public FileSystemSchemaSideChannel(String directory) {
+        this.directory = directory;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void publish(long fingerprint, Schema s) throws IOException {
+        ResourceId file = getFile(fingerprint);
+        if (exists(file)) {
+            return;
+        }
+        // Written under a temporary name then renamed, so that the other nodes never read a partial schema.
+        ResourceId tmp = getDirectoryResource().resolve(file.getFilename() + "." + UUID.randomUUID() + ".tmp",
+                StandardResolveOptions.RESOLVE_FILE);
+        try (OutputStream out = Channels.newOutputStream(FileSystems.create(tmp, MimeTypes.TEXT))) {
+            out.write(s.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        IOException renameFailure = null;
+        try {
+            FileSystems.rename(Collections.singletonList(tmp), Collections.singletonList(file));
+        } catch (IOException e) {
+            renameFailure = e;
+        }
+        // The rename fails, or leaves the temporary file, when another node published the same schema since the check.
+        if (exists(tmp)) {
+            FileSystems.delete(Collections.singletonList(tmp), MoveOptions.StandardMoveOptions.IGNORE_MISSING_FILES);
+        }
+        if (renameFailure != null && !exists(file)) {
+            throw renameFailure;
+        }
+    }
+
+    @Override
+    public Schema lookup(long fingerprint) throws IOException {
+        ResourceId file = getFile(fingerprint);
+        if (!exists(file)) {
+            return null;
+        }
+        try (InputStream in = Channels.newInputStream(FileSystems.open(file))) {
+            return new Schema.Parser().parse(in);
+        }
+    }
+
+    private ResourceId getDirectoryResource() {
+        return FileSystems.matchNewResource(directory, true);
+    }
+
+    private ResourceId getFile(long fingerprint) {
+        return getDirectoryResource().resolve(Long.toHexString(fingerprint) + ".avsc", StandardResolveOptions.RESOLVE_FILE);
+    }
+
+    private static boolean exists(ResourceId file) throws IOException {
+        MatchResult match = FileSystems.match(file.toString());
+        return match.status() == MatchResult.Status.OK && !match.metadata().isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof FileSystemSchemaSideChannel && directory.equals(((FileSystemSchemaSideChannel) o).directory);
+    }
+
+    @Override
+    public int hashCode() {
+        return directory.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "FileSystemSchemaSideChannel[" + directory + "]";
+    }
+}
@@ -0,0 +1,175 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.adapter.beam.coders;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.beam.sdk.coders.AtomicCoder;
+import org.apache.beam.sdk.coders.CoderException;
+import org.apache.beam.sdk.util.EmptyOnDeserializationThreadLocal;
+import org.talend.components.adapter.beam.transform.ConvertToIndexedRecord;
+
+/**
+ * Encode and decode records using an Avro {@link Schema} discovered at runtime, identified in the data by its
+ * fingerprint.
+ *
+ * Each element is written as the 8 bytes of the fingerprint of its schema followed by the binary Avro record.
+ * The schemas are kept in the {@link AvroSchemaRegistry} of the JVM, so unlike the {@link LazyAvroCoder} there is no
+ * synchronized list to go through and one coder can handle several schemas. When the data is decoded in another JVM
+ * than the one that encoded it, a {@link SchemaSideChannel} must be given to share the schemas.
+ */
+public class FingerprintAvroCoder extends AtomicCoder<Object> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int FINGERPRINT_SIZE = 8;
+
+    private final SchemaSideChannel sideChannel;
+
+    /** The last encoded schema and its entry, most of the elements of a collection share the same schema. */
+    private transient volatile EncodedSchema lastEncoded;
+
+    /** The fingerprints already sent to the side channel, publishing one twice is harmless. */
+    private transient volatile Set<Long> published;
+
+    private final EmptyOnDeserializationThreadLocal<BinaryEncoder> encoder = new EmptyOnDeserializationThreadLocal<>();
+
+    private final EmptyOnDeserializationThreadLocal<BinaryDecoder> decoder = new EmptyOnDeserializationThreadLocal<>();
+
+    protected FingerprintAvroCoder(SchemaSideChannel sideChannel) {
+        this.sideChannel = sideChannel;
+    }
+
+    /**
+     * @return A coder for pipelines running in a single JVM.
+     */
+    public static FingerprintAvroCoder of() {
+        return new FingerprintAvroCoder(null);
+    }
+
+    /**
+     * @param sideChannel Shares the schemas between the nodes of the cluster.
+     * @return A coder for pipelines running on several JVMs.
+     */
+    public static FingerprintAvroCoder of(SchemaSideChannel sideChannel) {
+        return new FingerprintAvroCoder(sideChannel);
+    }
+
+    @Override
+    public void encode(Object value, OutputStream outputStream) throws IOException {
+        IndexedRecord ir = value instanceof IndexedRecord ? (IndexedRecord) value : ConvertToIndexedRecord.convertToAvro(value);
+        AvroSchemaRegistry.Entry entry = getEntry(ir.getSchema());
+
+        long fingerprint = entry.getFingerprint();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            outputStream.write((int) (fingerprint >>> shift));
+        }
+        BinaryEncoder binaryEncoder = EncoderFactory.get().directBinaryEncoder(outputStream, encoder.get());
+        encoder.set(binaryEncoder);
+        entry.getWriter().write(ir, binaryEncoder);
+        binaryEncoder.flush();
+    }
+
+    @Override
+    public Object decode(InputStream inputStream) throws CoderException, IOException {
+        long fingerprint = 0;
+        for (int i = 0; i < FINGERPRINT_SIZE; i++) {
+            int b = inputStream.read();
+            if (b < 0) {
+                throw new EOFException("Missing schema fingerprint");
+            }
+            fingerprint = fingerprint << 8 | b;
+        }
+        AvroSchemaRegistry.Entry entry = lookupEntry(fingerprint);
+
+        BinaryDecoder binaryDecoder = DecoderFactory.get().directBinaryDecoder(inputStream, decoder.get());
+        decoder.set(binaryDecoder);
+        return entry.getReader().read(null, binaryDecoder);
+    }
+
+    private AvroSchemaRegistry.Entry getEntry(Schema s) throws IOException {
+        EncodedSchema encoded = lastEncoded;
+        if (encoded != null && encoded.schema == s) {
+            return encoded.entry;
+        }
+        AvroSchemaRegistry.Entry entry = AvroSchemaRegistry.register(s);
+        if (sideChannel != null) {
+            if (published == null) {
+                published = ConcurrentHashMap.newKeySet();
+            }
+            // Only remembered once published, so a failed publication is retried by the next record.
+            if (!published.contains(entry.getFingerprint())) {
+                sideChannel.publish(entry.getFingerprint(), entry.getSchema());
+                published.add(entry.getFingerprint());
+            }
+        }
+        lastEncoded = new EncodedSchema(s, entry);
+        return entry;
+    }
+
+    private AvroSchemaRegistry.Entry lookupEntry(long fingerprint) throws IOException {
+        AvroSchemaRegistry.Entry entry = AvroSchemaRegistry.get(fingerprint);
+        if (entry == null && sideChannel != null) {
+            Schema s = sideChannel.lookup(fingerprint);
+            if (s != null) {
+                entry = AvroSchemaRegistry.register(s);
+            }
+        }
+        if (entry == null) {
+            throw new CoderException("No schema found for fingerprint " + Long.toHexString(fingerprint));
+        }
+        return entry;
+    }
+
+    public SchemaSideChannel getSideChannel() {
+        return sideChannel;
+    }
+
+    /**
+     * Two coders are only interchangeable when they share their schemas through the same side channel.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof FingerprintAvroCoder && getClass() == o.getClass()
+                && Objects.equals(sideChannel, ((FingerprintAvroCoder) o).sideChannel);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getClass(), sideChannel);
+    }
+
+    private static class EncodedSchema {
+
+        private final Schema schema;
+
+        private final AvroSchemaRegistry.Entry entry;
+
+        private EncodedSchema(Schema schema, AvroSchemaRegistry.Entry entry) {
+            this.schema = schema;
+            this.entry = entry;
+        }
+    }
+}
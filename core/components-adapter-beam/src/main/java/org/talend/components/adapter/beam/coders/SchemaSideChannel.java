@@ -0,0 +1,41 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.adapter.beam.coders;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+import org.apache.avro.Schema;
+
+/**
+ * Shares the schemas registered by a {@link FingerprintAvroCoder} between the JVMs of a cluster runner, so that a worker
+ * can decode the data encoded by another one.
+ *
+ * This must be serializable to all of the nodes that will be using it, like the {@link AvroSchemaHolder}.
+ */
+public interface SchemaSideChannel extends Serializable {
+
+    /**
+     * Make a schema available to the other nodes. This can be called several times for the same schema, by several nodes.
+     *
+     * @param fingerprint The fingerprint of the schema.
+     * @param s The schema.
+     */
+    void publish(long fingerprint, Schema s) throws IOException;
+
+    /**
+     * @param fingerprint The fingerprint of a schema.
+     * @return The published schema, or null if it is unknown.
+     */
+    Schema lookup(long fingerprint) throws IOException;
+}
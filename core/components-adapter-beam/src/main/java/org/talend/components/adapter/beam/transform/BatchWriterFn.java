@@ -0,0 +1,184 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.adapter.beam.transform;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.windowing.GlobalWindow;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.components.adapter.beam.BeamJobRuntimeContainer;
+import org.talend.components.api.component.runtime.WriteOperation;
+import org.talend.components.api.component.runtime.Writer;
+
+/**
+ * Hosts a TCOMP {@link WriteOperation} in a Beam {@link DoFn}, opening one {@link Writer} per bundle. The write
+ * operation is read from a singleton side input, so that it is initialized by a step of the pipeline and not when the
+ * pipeline is built.
+ *
+ * The writer is opened lazily on the first element of a bundle and closed in {@link FinishBundle}, so connectors that
+ * batch internally flush on bundle boundaries. A batch can be cut earlier with {@link #withMaxBatchSize(int)} or
+ * {@link #withMaxBatchLatency(long)}, in which case the current writer is closed and a new one is opened for the next
+ * element. The latency is only checked when an element arrives.
+ *
+ * The writer results of the bundle are emitted in the global window when the bundle finishes, they must be
+ * {@link Serializable}. The writer of a failed bundle is closed to release its connection and files, but its result
+ * is discarded so the write operation does not finalize it. A TCOMP writer has no rollback, so the records it already
+ * committed may be written again by the retried bundle.
+ */
+public class BatchWriterFn extends DoFn<IndexedRecord, Serializable> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchWriterFn.class);
+
+    private final PCollectionView<WriteOperation<?>> writeOperationView;
+
+    private int maxBatchSize;
+
+    private long maxBatchLatency;
+
+    private transient BeamJobRuntimeContainer container;
+
+    private transient WriteOperation<?> writeOperation;
+
+    private transient Writer<?> writer;
+
+    private transient int batchCount;
+
+    private transient long batchStart;
+
+    private transient List<Serializable> results;
+
+    /**
+     * @param writeOperationView the initialized write operation, it must be a side input of the ParDo.
+     */
+    public BatchWriterFn(PCollectionView<WriteOperation<?>> writeOperationView) {
+        this.writeOperationView = writeOperationView;
+    }
+
+    /**
+     * @param maxBatchSize the maximum number of records written by one writer, or 0 to use one writer per bundle.
+     * @return this function.
+     */
+    public BatchWriterFn withMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    /**
+     * @param maxBatchLatency the maximum time in milliseconds a writer is kept open, or 0 to use one writer per bundle.
+     * @return this function.
+     */
+    public BatchWriterFn withMaxBatchLatency(long maxBatchLatency) {
+        this.maxBatchLatency = maxBatchLatency;
+        return this;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public long getMaxBatchLatency() {
+        return maxBatchLatency;
+    }
+
+    @StartBundle
+    public void startBundle(StartBundleContext c) {
+        if (container == null) {
+            container = new BeamJobRuntimeContainer(c.getPipelineOptions());
+        }
+        results = new ArrayList<>();
+    }
+
+    @ProcessElement
+    public void processElement(ProcessContext c) throws IOException {
+        if (writer != null && maxBatchLatency > 0 && System.currentTimeMillis() - batchStart >= maxBatchLatency) {
+            closeWriter();
+        }
+        if (writer == null) {
+            if (writeOperation == null) {
+                writeOperation = c.sideInput(writeOperationView);
+            }
+            openWriter();
+        }
+        try {
+            writer.write(c.element());
+        } catch (IOException | RuntimeException e) {
+            dropWriter();
+            throw e;
+        }
+        batchCount++;
+        if (maxBatchSize > 0 && batchCount >= maxBatchSize) {
+            closeWriter();
+        }
+    }
+
+    @FinishBundle
+    public void finishBundle(FinishBundleContext c) throws IOException {
+        closeWriter();
+        for (Serializable result : results) {
+            c.output(result, GlobalWindow.INSTANCE.maxTimestamp(), GlobalWindow.INSTANCE);
+        }
+        results = null;
+    }
+
+    @Teardown
+    public void teardown() {
+        // Only still open if the bundle failed, its result must not be kept since the bundle will be retried.
+        dropWriter();
+    }
+
+    private void openWriter() throws IOException {
+        writer = writeOperation.createWriter(container);
+        writer.open(UUID.randomUUID().toString());
+        batchCount = 0;
+        batchStart = System.currentTimeMillis();
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        Writer<?> closing = writer;
+        // Dropped if the close fails, it may have committed a part of the batch already.
+        writer = null;
+        Object result = closing.close();
+        if (result != null) {
+            results.add((Serializable) result);
+        }
+    }
+
+    /**
+     * Release the writer of a failed bundle and discard its result. The failure of the bundle is the one to report, so
+     * a failure of the close is only logged.
+     */
+    private void dropWriter() {
+        if (writer == null) {
+            return;
+        }
+        Writer<?> dropping = writer;
+        writer = null;
+        LOG.warn("Dropping the writer of a failed bundle, the result of its {} records is discarded", batchCount);
+        try {
+            dropping.close();
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Unable to close the writer of a failed bundle", e);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.adapter.beam;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.beam.sdk.Pipeline;
+import org.apache.beam.sdk.Pipeline.PipelineExecutionException;
+import org.apache.beam.sdk.coders.SerializableCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.options.PipelineOptionsFactory;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.DoFnTester;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.View;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.talend.components.adapter.beam.coders.LazyAvroCoder;
+import org.talend.components.adapter.beam.transform.BatchWriterFn;
+import org.talend.components.api.component.ComponentDefinition;
+import org.talend.components.api.component.runtime.Result;
+import org.talend.components.api.component.runtime.Sink;
+import org.talend.components.api.component.runtime.WriteOperation;
+import org.talend.components.api.component.runtime.Writer;
+import org.talend.components.api.container.RuntimeContainer;
+import org.talend.components.api.properties.ComponentProperties;
+import org.talend.daikon.NamedThing;
+import org.talend.daikon.properties.ValidationResult;
+
+/**
+ * Unit tests for {@link TCompSinkAdapter}.
+ */
+public class TCompSinkAdapterTest {
+
+    /** Records written, one list per closed writer. */
+    private static final List<List<String>> batches = Collections.synchronizedList(new ArrayList<List<String>>());
+
+    /** Return values of the finalized write operation. */
+    private static final List<Map<String, Object>> finalized = Collections
+            .synchronizedList(new ArrayList<Map<String, Object>>());
+
+    /** Number of times the write operation was initialized. */
+    private static final AtomicInteger initialized = new AtomicInteger();
+
+    /** Writers closed after one of their writes failed, their close fails without committing. */
+    private static final List<String> closedAfterFailure = Collections.synchronizedList(new ArrayList<String>());
+
+    /** The value which fails to be written. */
+    private static final String FAILURE = "fail";
+
+    @Rule
+    public final TestPipeline pipeline = TestPipeline.create();
+
+    @Before
+    public void reset() {
+        batches.clear();
+        finalized.clear();
+        initialized.set(0);
+        closedAfterFailure.clear();
+    }
+
+    @Test
+    public void testWriteAndFinalize() {
+        runPipeline(new TCompSinkAdapter(new MemorySink()), "a", "b", "c");
+
+        List<String> written = new ArrayList<>();
+        for (List<String> batch : batches) {
+            written.addAll(batch);
+        }
+        assertThat(written, containsInAnyOrder("a", "b", "c"));
+        assertEquals(1, finalized.size());
+        assertEquals(3, finalized.get(0).get(ComponentDefinition.RETURN_TOTAL_RECORD_COUNT));
+    }
+
+    @Test
+    public void testMaxBatchSize() {
+        runPipeline(new TCompSinkAdapter(new MemorySink()).withMaxBatchSize(2), "a", "b", "c", "d", "e", "f", "g");
+
+        List<String> written = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        for (List<String> batch : batches) {
+            written.addAll(batch);
+            sizes.add(batch.size());
+        }
+        assertThat(written, containsInAnyOrder("a", "b", "c", "d", "e", "f", "g"));
+        assertThat(sizes, everyItem(lessThanOrEqualTo(2)));
+        assertEquals(7, finalized.get(0).get(ComponentDefinition.RETURN_TOTAL_RECORD_COUNT));
+    }
+
+    /**
+     * The write operation is initialized by the pipeline when it runs, not when the pipeline is built.
+     */
+    @Test
+    public void testInitializeWhenRun() {
+        applySink(new TCompSinkAdapter(new MemorySink()), "a", "b");
+        assertEquals(0, initialized.get());
+
+        pipeline.run().waitUntilFinish();
+        assertEquals(1, initialized.get());
+    }
+
+    @Test
+    public void testEmptyInputFinalized() {
+        runPipeline(new TCompSinkAdapter(new MemorySink()));
+
+        assertThat(batches, empty());
+        assertEquals(1, initialized.get());
+        assertEquals(1, finalized.size());
+        assertEquals(0, finalized.get(0).get(ComponentDefinition.RETURN_TOTAL_RECORD_COUNT));
+    }
+
+    /**
+     * The writer of a failed bundle is closed to release it, but its result is not finalized since the bundle is
+     * retried.
+     */
+    @Test
+    public void testFailedWriterReleased() {
+        try {
+            runPipeline(new TCompSinkAdapter(new MemorySink()), "a", "b", FAILURE, "c");
+            fail("The pipeline should have failed");
+        } catch (PipelineExecutionException e) {
+            // expected
+        }
+
+        assertThat(closedAfterFailure, hasSize(1));
+        assertThat(finalized, empty());
+    }
+
+    /**
+     * A writer is closed at the end of each bundle, and its result is emitted.
+     */
+    @Test
+    public void testWriterClosedOnBundleBoundary() throws Exception {
+        DoFnTester<IndexedRecord, Serializable> tester = createTester(new BatchWriterFn(createWriteOperationView()));
+
+        List<Serializable> firstResults = tester.processBundle(createRow("a"), createRow("b"));
+        assertThat(batches, contains(Arrays.asList("a", "b")));
+        assertEquals(1, firstResults.size());
+
+        List<Serializable> secondResults = tester.processBundle(createRow("c"));
+        assertThat(batches, contains(Arrays.asList("a", "b"), Arrays.asList("c")));
+        assertEquals(1, secondResults.size());
+        tester.close();
+    }
+
+    /**
+     * A writer opened for longer than the latency is closed when the next element arrives, in the same bundle.
+     */
+    @Test
+    public void testMaxBatchLatency() throws Exception {
+        DoFnTester<IndexedRecord, Serializable> tester = createTester(
+                new BatchWriterFn(createWriteOperationView()).withMaxBatchLatency(100));
+
+        tester.startBundle();
+        tester.processElement(createRow("a"));
+        tester.processElement(createRow("b"));
+        assertThat(batches, empty());
+        Thread.sleep(200);
+        tester.processElement(createRow("c"));
+        assertThat(batches, contains(Arrays.asList("a", "b")));
+        tester.finishBundle();
+
+        assertThat(batches, contains(Arrays.asList("a", "b"), Arrays.asList("c")));
+        assertEquals(2, tester.takeOutputElements().size());
+        tester.close();
+    }
+
+    @Test
+    public void testMaxBatchSizeInBundle() throws Exception {
+        DoFnTester<IndexedRecord, Serializable> tester = createTester(
+                new BatchWriterFn(createWriteOperationView()).withMaxBatchSize(2));
+
+        List<Serializable> results = tester.processBundle(createRow("a"), createRow("b"), createRow("c"),
+                createRow("d"), createRow("e"));
+
+        assertThat(batches, contains(Arrays.asList("a", "b"), Arrays.asList("c", "d"), Arrays.asList("e")));
+        assertEquals(3, results.size());
+        tester.close();
+    }
+
+    /**
+     * A failed write releases the writer without emitting its result, and the failure of its close does not hide the
+     * one of the write.
+     */
+    @Test
+    public void testFailedWriterDropped() throws Exception {
+        DoFnTester<IndexedRecord, Serializable> tester = createTester(new BatchWriterFn(createWriteOperationView()));
+
+        tester.startBundle();
+        tester.processElement(createRow("a"));
+        try {
+            tester.processElement(createRow(FAILURE));
+            fail("The write should have failed");
+        } catch (IOException e) {
+            assertEquals("Unable to write " + FAILURE, e.getMessage());
+        }
+        tester.close();
+
+        assertThat(batches, empty());
+        assertThat(closedAfterFailure, hasSize(1));
+        assertThat(tester.takeOutputElements(), empty());
+    }
+
+    private static DoFnTester<IndexedRecord, Serializable> createTester(BatchWriterFn fn) {
+        DoFnTester<IndexedRecord, Serializable> tester = DoFnTester.of(fn);
+        tester.setCloningBehavior(DoFnTester.CloningBehavior.DO_NOT_CLONE);
+        return tester;
+    }
+
+    /**
+     * The side input of the write operation, in a pipeline that is never run.
+     */
+    @SuppressWarnings("unchecked")
+    private static PCollectionView<WriteOperation<?>> createWriteOperationView() {
+        WriteOperation<?> writeOperation = new MemorySink().createWriteOperation();
+        Class<WriteOperation<?>> writeOperationClass = (Class<WriteOperation<?>>) (Class<?>) WriteOperation.class;
+        return Pipeline.create(PipelineOptionsFactory.create()) //
+                .apply(Create.<WriteOperation<?>> of(writeOperation) //
+                        .withCoder(SerializableCoder.of(writeOperationClass))) //
+                .apply(View.<WriteOperation<?>> asSingleton());
+    }
+
+    private static IndexedRecord createRow(String value) {
+        Schema schema = SchemaBuilder.record("row").fields().requiredString("value").endRecord();
+        IndexedRecord row = new GenericData.Record(schema);
+        row.put(0, value);
+        return row;
+    }
+
+    private void runPipeline(TCompSinkAdapter sink, String... values) {
+        applySink(sink, values);
+        pipeline.run().waitUntilFinish();
+    }
+
+    private void applySink(TCompSinkAdapter sink, String... values) {
+        final String schemaStr = SchemaBuilder.record("row").fields().requiredString("value").endRecord().toString();
+        pipeline.apply(Create.of(Arrays.asList(values)).withCoder(StringUtf8Coder.of())) //
+                .apply(ParDo.of(new DoFn<String, IndexedRecord>() {
+
+                    @ProcessElement
+                    public void processElement(ProcessContext c) {
+                        IndexedRecord row = new GenericData.Record(new Schema.Parser().parse(schemaStr));
+                        row.put(0, c.element());
+                        c.output(row);
+                    }
+                })) //
+                .setCoder(LazyAvroCoder.of()) //
+                .apply(sink);
+    }
+
+    private static class MemorySink implements Sink {
+
+        @Override
+        public ValidationResult initialize(RuntimeContainer container, ComponentProperties properties) {
+            return ValidationResult.OK;
+        }
+
+        @Override
+        public List<NamedThing> getSchemaNames(RuntimeContainer container) throws IOException {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Schema getEndpointSchema(RuntimeContainer container, String schemaName) throws IOException {
+            return null;
+        }
+
+        @Override
+        public ValidationResult validate(RuntimeContainer container) {
+            return ValidationResult.OK;
+        }
+
+        @Override
+        public WriteOperation<?> createWriteOperation() {
+            return new MemoryWriteOperation(this);
+        }
+    }
+
+    private static class MemoryWriteOperation implements WriteOperation<Result> {
+
+        private final MemorySink sink;
+
+        private MemoryWriteOperation(MemorySink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void initialize(RuntimeContainer adaptor) {
+            initialized.incrementAndGet();
+        }
+
+        @Override
+        public Map<String, Object> finalize(Iterable<Result> writerResults, RuntimeContainer adaptor) {
+            Map<String, Object> returnValues = Result.accumulateAndReturnMap(writerResults);
+            finalized.add(returnValues);
+            return returnValues;
+        }
+
+        @Override
+        public Writer<Result> createWriter(RuntimeContainer adaptor) {
+            return new MemoryWriter(this);
+        }
+
+        @Override
+        public Sink getSink() {
+            return sink;
+        }
+    }
+
+    private static class MemoryWriter implements Writer<Result> {
+
+        private final MemoryWriteOperation writeOperation;
+
+        private final List<String> batch = new ArrayList<>();
+
+        private String uId;
+
+        private boolean failed;
+
+        private MemoryWriter(MemoryWriteOperation writeOperation) {
+            this.writeOperation = writeOperation;
+        }
+
+        @Override
+        public void open(String uId) throws IOException {
+            this.uId = uId;
+        }
+
+        @Override
+        public void write(Object object) throws IOException {
+            String value = ((IndexedRecord) object).get(0).toString();
+            if (FAILURE.equals(value)) {
+                failed = true;
+                throw new IOException("Unable to write " + value);
+            }
+            batch.add(value);
+        }
+
+        @Override
+        public Result close() throws IOException {
+            if (failed) {
+                closedAfterFailure.add(uId);
+                throw new IOException("Unable to close the failed writer " + uId);
+            }
+            batches.add(batch);
+            return new Result(uId, batch.size(), batch.size(), 0);
+        }
+
+        @Override
+        public WriteOperation<Result> getWriteOperation() {
+            return writeOperation;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package org.talend.components.adapter.beam.coders;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.beam.sdk.coders.AvroCoder;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.CoderException;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Count;
+import org.apache.beam.sdk.transforms.Keys;
+import org.apache.beam.sdk.util.CoderUtils;
+import org.apache.beam.sdk.util.SerializableUtils;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.talend.components.adapter.beam.io.rowgenerator.RowGeneratorIO;
+import org.talend.daikon.avro.SampleSchemas;
+
+/**
+ * Unit tests for {@link FingerprintAvroCoder}.
+ */
+public class FingerprintAvroCoderTest {
+
+    @Rule
+    public final TestPipeline p = TestPipeline.create();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final Schema schema = SchemaBuilder.record("Simple").fields().requiredString("name").optionalInt("age")
+            .endRecord();
+
+    @Before
+    @After
+    public void teardown() {
+        AvroSchemaRegistry.clear();
+    }
+
+    private GenericData.Record createRecord(String name, Integer age) {
+        return new GenericRecordBuilder(schema).set("name", name).set("age", age).build();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        FingerprintAvroCoder coder = FingerprintAvroCoder.of();
+        GenericData.Record record = createRecord("one", 1);
+
+        byte[] encoded = CoderUtils.encodeToByteArray(coder, record);
+
+        assertThat(CoderUtils.decodeFromByteArray(coder, encoded), is((Object) record));
+        // The header is only the fingerprint of the schema.
+        assertThat(encoded.length, is(8 + CoderUtils.encodeToByteArray(AvroCoder.of(schema), record).length));
+    }
+
+    @Test
+    public void testSideChannel() throws Exception {
+        FingerprintAvroCoder coder = FingerprintAvroCoder
+                .of(new FileSystemSchemaSideChannel(folder.getRoot().getAbsolutePath()));
+        IndexedRecord record = createRecord("two", null);
+        byte[] encoded = CoderUtils.encodeToByteArray(coder, record);
+
+        // Emulate another JVM, which only knows the serialized coder.
+        AvroSchemaRegistry.clear();
+        FingerprintAvroCoder remoteCoder = SerializableUtils.clone(coder);
+
+        assertThat(CoderUtils.decodeFromByteArray(remoteCoder, encoded), is((Object) record));
+    }
+
+    /**
+     * A schema whose publication failed is published again by the next record instead of being skipped.
+     */
+    @Test
+    public void testPublishRetriedAfterFailure() throws Exception {
+        final List<Long> publications = new ArrayList<>();
+        FingerprintAvroCoder coder = FingerprintAvroCoder.of(new SchemaSideChannel() {
+
+            @Override
+            public void publish(long fingerprint, Schema s) throws IOException {
+                publications.add(fingerprint);
+                if (publications.size() == 1) {
+                    throw new IOException("The side channel is not available.");
+                }
+            }
+
+            @Override
+            public Schema lookup(long fingerprint) {
+                return null;
+            }
+        });
+
+        try {
+            // CoderUtils would hide the IOException of the side channel behind an IllegalArgumentException.
+            coder.encode(createRecord("one", 1), new ByteArrayOutputStream());
+            fail("The failure of the side channel must be thrown.");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), is("The side channel is not available."));
+        }
+        CoderUtils.encodeToByteArray(coder, createRecord("two", 2));
+        CoderUtils.encodeToByteArray(coder, createRecord("three", 3));
+
+        long fingerprint = AvroSchemaRegistry.register(schema).getFingerprint();
+        assertThat(publications, is(Arrays.asList(fingerprint, fingerprint)));
+    }
+
+    /**
+     * Several workers publish the same schema at the same time, one file is kept and no temporary file is left.
+     */
+    @Test
+    public void testConcurrentPublish() throws Exception {
+        final FileSystemSchemaSideChannel sideChannel = new FileSystemSchemaSideChannel(
+                folder.getRoot().getAbsolutePath());
+        final long fingerprint = AvroSchemaRegistry.fingerprint(schema);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+
+                    @Override
+                    public Void call() throws Exception {
+                        sideChannel.publish(fingerprint, schema);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(folder.getRoot().list(), is(new String[] { Long.toHexString(fingerprint) + ".avsc" }));
+        assertThat(sideChannel.lookup(fingerprint), is(schema));
+    }
+
+    @Test
+    public void testEquals() {
+        FingerprintAvroCoder coder = FingerprintAvroCoder
+                .of(new FileSystemSchemaSideChannel(folder.getRoot().getAbsolutePath()));
+
+        assertThat(coder, is(FingerprintAvroCoder.of(new FileSystemSchemaSideChannel(folder.getRoot().getAbsolutePath()))));
+        assertThat(coder.hashCode(),
+                is(FingerprintAvroCoder.of(new FileSystemSchemaSideChannel(folder.getRoot().getAbsolutePath())).hashCode()));
+        assertThat(coder, not(FingerprintAvroCoder.of(new FileSystemSchemaSideChannel(folder.getRoot() + "/other"))));
+        assertThat(coder, not(FingerprintAvroCoder.of()));
+        assertThat(FingerprintAvroCoder.of(), is(FingerprintAvroCoder.of()));
+    }
+
+    @Test(expected = CoderException.class)
+    public void testUnknownSchema() throws Exception {
+        FingerprintAvroCoder coder = FingerprintAvroCoder.of();
+        byte[] encoded = CoderUtils.encodeToByteArray(coder, createRecord("three", 3));
+
+        AvroSchemaRegistry.clear();
+        CoderUtils.decodeFromByteArray(coder, encoded);
+    }
+
+    /**
+     * Same pipeline as {@link LazyAvroCoderTest#testBasic()}.
+     */
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testBasic() {
+        Coder coder = FingerprintAvroCoder.of();
+
+        PCollection<IndexedRecord> a = p.apply("a", RowGeneratorIO.read().withSchema(SampleSchemas.recordSimple()));
+        a.setCoder(coder);
+
+        PCollection<KV<IndexedRecord, Long>> b = a.apply("b", Count.<IndexedRecord> perElement());
+        PCollection<IndexedRecord> c = b.apply("c", Keys.<IndexedRecord> create());
+        c.setCoder(coder);
+        PCollection<KV<IndexedRecord, Long>> d = c.apply("d", Count.<IndexedRecord> perElement());
+
+        p.run().waitUntilFinish();
+
+        // No exception should have occurred, and the schema was registered once.
+        assertThat(AvroSchemaRegistry.get(AvroSchemaRegistry.fingerprint(SampleSchemas.recordSimple())).getSchema(),
+                is(SampleSchemas.recordSimple()));
+    }
+}
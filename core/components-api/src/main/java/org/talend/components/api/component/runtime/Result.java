@@ -74,7 +74,7 @@ public class Result implements Serializable {
     /**
      * Accumulate the given {@code WriterResult} objects and return the map with the record counts.
      * 
-     * @param writerResults the results to accumulate
+     * @param writerResults the results to accumulate, may be empty
      * @return a {@link Map} with the standard record count results
      */
     public static <T extends Result> Map<String, Object> accumulateAndReturnMap(Iterable<T> writerResults) {
@@ -91,7 +91,8 @@ public class Result implements Serializable {
             }
             returnResult.add(result);
         }
-        return returnResult.toMap();
+        // No writer result when nothing was written, e.g. with an empty input on Beam.
+        return returnResult == null ? new Result().toMap() : returnResult.toMap();
     }
 
     public void add(Result result) {
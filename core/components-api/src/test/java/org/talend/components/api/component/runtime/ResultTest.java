@@ -69,4 +69,13 @@ public class ResultTest {
         assertEquals(108, resultMap.get(ComponentDefinition.RETURN_SUCCESS_RECORD_COUNT));
         assertEquals(104, resultMap.get(ComponentDefinition.RETURN_REJECT_RECORD_COUNT));
     }
+
+    @Test
+    public void testAccumulateNoResult() {
+        Map<String, Object> resultMap = Result.accumulateAndReturnMap(new ArrayList<Result>());
+
+        assertEquals(0, resultMap.get(ComponentDefinition.RETURN_TOTAL_RECORD_COUNT));
+        assertEquals(0, resultMap.get(ComponentDefinition.RETURN_SUCCESS_RECORD_COUNT));
+        assertEquals(0, resultMap.get(ComponentDefinition.RETURN_REJECT_RECORD_COUNT));
+    }
 }
@@ -322,11 +322,12 @@ public class JDBCAvroRegistry extends AvroRegistry {
                 @Override
                 public Object convertToAvro(ResultSet value) {
                     try {
-                        if (value.getObject(index) == null) {
+                        int result = value.getInt(index);
+                        if (value.wasNull()) {
                             return null;
                         }
 
-                        return value.getInt(index);
+                        return result;
                     } catch (SQLException e) {
                         throw new ComponentException(e);
                     }
@@ -381,11 +382,12 @@ public class JDBCAvroRegistry extends AvroRegistry {
                 @Override
                 public Object convertToAvro(ResultSet value) {
                     try {
-                        if (value.getObject(index) == null) {
+                        long result = value.getLong(index);
+                        if (value.wasNull()) {
                             return null;
                         }
 
-                        return value.getLong(index);
+                        return result;
                     } catch (SQLException e) {
                         throw new ComponentException(e);
                     }
@@ -398,11 +400,12 @@ public class JDBCAvroRegistry extends AvroRegistry {
                 @Override
                 public Object convertToAvro(ResultSet value) {
                     try {
-                        if (value.getObject(index) == null) {
+                        double result = value.getDouble(index);
+                        if (value.wasNull()) {
                             return null;
                         }
 
-                        return value.getDouble(index);
+                        return result;
                     } catch (SQLException e) {
                         throw new ComponentException(e);
                     }
@@ -415,11 +418,12 @@ public class JDBCAvroRegistry extends AvroRegistry {
                 @Override
                 public Object convertToAvro(ResultSet value) {
                     try {
-                        if (value.getObject(index) == null) {
+                        float result = value.getFloat(index);
+                        if (value.wasNull()) {
                             return null;
                         }
 
-                        return value.getFloat(index);
+                        return result;
                     } catch (SQLException e) {
                         throw new ComponentException(e);
                     }
@@ -432,11 +436,12 @@ public class JDBCAvroRegistry extends AvroRegistry {
                 @Override
                 public Object convertToAvro(ResultSet value) {
                     try {
-                        if (value.getObject(index) == null) {
+                        boolean result = value.getBoolean(index);
+                        if (value.wasNull()) {
                             return null;
                         }
 
-                        return value.getBoolean(index);
+                        return result;
                     } catch (SQLException e) {
                         throw new ComponentException(e);
                     }
@@ -449,11 +454,12 @@ public class JDBCAvroRegistry extends AvroRegistry {
                 @Override
                 public Object convertToAvro(ResultSet value) {
                     try {
-                        if (value.getObject(index) == null) {
+                        short result = value.getShort(index);
+                        if (value.wasNull()) {
                             return null;
                         }
 
-                        return value.getShort(index);
+                        return result;
                     } catch (SQLException e) {
                         throw new ComponentException(e);
                     }
@@ -490,11 +496,12 @@ public class JDBCAvroRegistry extends AvroRegistry {
                 @Override
                 public Object convertToAvro(ResultSet value) {
                     try {
-                        if (value.getObject(index) == null) {
+                        byte result = value.getByte(index);
+                        if (value.wasNull()) {
                             return null;
                         }
 
-                        return value.getByte(index);
+                        return result;
                     } catch (SQLException e) {
                         throw new ComponentException(e);
                     }
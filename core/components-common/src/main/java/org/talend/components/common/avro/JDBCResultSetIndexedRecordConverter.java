@@ -55,6 +55,7 @@ public class JDBCResultSetIndexedRecordConverter implements IndexedRecordConvert
             }
             fieldConverter[j] = jdbcConverter;
         }
+        reusableRecord = null;
     }
 
     private int sizeInResultSet;
@@ -79,7 +80,30 @@ public class JDBCResultSetIndexedRecordConverter implements IndexedRecordConvert
 
     @Override
     public IndexedRecord convertToAvro(ResultSet value) {
-        return new ResultSetIndexedRecord(value);
+        if (!reuseRecord) {
+            return new ResultSetIndexedRecord(value);
+        }
+
+        if (reusableRecord == null) {
+            reusableRecord = new ResultSetIndexedRecord(value);
+        } else {
+            reusableRecord.fill(value);
+        }
+        return reusableRecord;
+    }
+
+    private boolean reuseRecord;
+
+    private transient ResultSetIndexedRecord reusableRecord;
+
+    /**
+     * When set, {@link #convertToAvro(ResultSet)} fills and returns the same record for every row instead of creating a new
+     * one, which avoids an allocation per row for big extracts. Only enable it when the consumer doesn't keep the records,
+     * as the values of a returned record are overwritten by the next conversion.
+     */
+    public void setReuseRecord(boolean reuseRecord) {
+        this.reuseRecord = reuseRecord;
+        this.reusableRecord = null;
     }
 
     private JDBCAvroRegistryInfluencer influencer;
@@ -93,14 +117,15 @@ public class JDBCResultSetIndexedRecordConverter implements IndexedRecordConvert
         private Object[] values;
 
         public ResultSetIndexedRecord(ResultSet resultSet) {
-            resetSizeByResultSet(resultSet);
-            
             values = new Object[names.length];
-            for (int i = 0; i < values.length; i++) {
-                if ((sizeInResultSet > 0) && (i == sizeInResultSet)) {
-                    break;
-                }
+            fill(resultSet);
+        }
+
+        private void fill(ResultSet resultSet) {
+            resetSizeByResultSet(resultSet);
 
+            int size = (sizeInResultSet > 0) ? Math.min(sizeInResultSet, values.length) : values.length;
+            for (int i = 0; i < size; i++) {
                 values[i] = fieldConverter[i].convertToAvro(resultSet);
             }
         }
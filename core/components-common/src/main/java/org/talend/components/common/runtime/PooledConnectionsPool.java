@@ -0,0 +1,123 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.common.runtime;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * shared connections pool used when the job doesn't give its own pool. Like the pool of the job, the same connection
+ * name with the same settings gives the same connection, so the components which share it use the same transaction.
+ *
+ * The connections are leased from a {@link PooledDataSource} by settings. Closing the shared connection gives it back to
+ * that data source, the next call for the name leases a new one.
+ *
+ * The components which don't share their connection lease it from {@link #getDataSource(Driver, String, Properties)}, so
+ * they reuse the physical connections too.
+ */
+public class PooledConnectionsPool implements SharedConnectionsPool {
+
+    private static final PooledConnectionsPool INSTANCE = new PooledConnectionsPool();
+
+    private final Map<List<String>, PooledDataSource> dataSources = new HashMap<>();
+
+    private final Map<List<String>, Connection> connections = new HashMap<>();
+
+    private final Map<List<Object>, PooledDataSource> unsharedDataSources = new HashMap<>();
+
+    public static PooledConnectionsPool getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public synchronized Connection getDBConnection(String dbDriver, String url, String userName, String password,
+            String dbConnectionName) throws ClassNotFoundException, SQLException {
+        List<String> settings = Arrays.asList(dbDriver, url, userName, password);
+        List<String> key = Arrays.asList(dbConnectionName, dbDriver, url, userName, password);
+
+        Connection connection = connections.get(key);
+        if (connection != null && !connection.isClosed()) {
+            return connection;
+        }
+
+        PooledDataSource dataSource = dataSources.get(settings);
+        if (dataSource == null) {
+            dataSource = new PooledDataSource(dbDriver, url, userName, password);
+            dataSources.put(settings, dataSource);
+        }
+        connection = dataSource.getConnection();
+        connections.put(key, connection);
+        return connection;
+    }
+
+    @Override
+    public Connection getDBConnection(String dbDriver, String url, String dbConnectionName)
+            throws ClassNotFoundException, SQLException {
+        return getDBConnection(dbDriver, url, null, null, dbConnectionName);
+    }
+
+    /**
+     * @return the data source of the settings, null if no connection was asked for them yet
+     */
+    public synchronized PooledDataSource getDataSource(String dbDriver, String url, String userName, String password) {
+        return dataSources.get(Arrays.asList(dbDriver, url, userName, password));
+    }
+
+    /**
+     * @param driver the driver opening the connections, see {@link PooledDataSource#setDriver(Driver)}
+     * @return the data source of the connection properties for the connections which are not shared, created at the first
+     * call. Its pool is not bounded, like opening the connections one by one.
+     */
+    public synchronized PooledDataSource getDataSource(Driver driver, String url, Properties connectionProperties) {
+        String dbDriver = driver.getClass().getName();
+        List<Object> key = Arrays.<Object> asList(dbDriver, url, new TreeMap<>(connectionProperties));
+        PooledDataSource dataSource = unsharedDataSources.get(key);
+        if (dataSource == null) {
+            dataSource = new PooledDataSource(dbDriver, url, connectionProperties);
+            dataSource.setDriver(driver);
+            dataSource.setMaxPoolSize(0);
+            unsharedDataSources.put(key, dataSource);
+        }
+        return dataSource;
+    }
+
+    /**
+     * close the shared connections and the pools of all the settings
+     */
+    public synchronized void close() {
+        for (Connection connection : connections.values()) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                // close quietly
+            }
+        }
+        connections.clear();
+        for (PooledDataSource dataSource : dataSources.values()) {
+            dataSource.close();
+        }
+        dataSources.clear();
+        for (PooledDataSource dataSource : unsharedDataSources.values()) {
+            dataSource.close();
+        }
+        unsharedDataSources.clear();
+    }
+
+}
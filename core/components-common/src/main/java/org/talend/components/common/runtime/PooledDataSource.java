@@ -0,0 +1,821 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.common.runtime;
+
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.security.Key;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.LoggerFactory;
+
+/**
+ * JDBC data source which keeps the physical connections open between their uses, so the components of a job don't pay
+ * the connection handshake each time they need a connection.
+ *
+ * The pool is bounded by the max pool size : when all the connections are used, getConnection waits until one is given
+ * back, or fails after the connection timeout. A max pool size of 0 or less means no bound, to use when the callers keep
+ * their connection for a long time, like the Beam functions which hold one from their setup to their teardown. An idle connection is checked by the validation query (or by
+ * {@link Connection#isValid(int)} if not set) before it's given, and it's closed when it stays idle longer than the idle
+ * timeout or when it's older than the max lifetime.
+ *
+ * The connections returned are proxies : closing them gives back the physical connection to the pool, with the auto
+ * commit mode restored, the pending transaction rolled back and the statements opened on it closed. The proxy and its
+ * statements can't be used anymore after that.
+ *
+ * The pool itself is not serialized : all the data sources with the same settings share the same pool in a JVM, so this
+ * object can be sent to the workers of a distributed job. The pool is closed when the last data source using it is
+ * closed. The settings must be set before the first connection is asked, they are ignored after.
+ */
+public class PooledDataSource implements DataSource, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient static final org.slf4j.Logger LOG = LoggerFactory.getLogger(PooledDataSource.class);
+
+    // guarded by itself, with the number of data sources using each pool
+    private static final Map<String, ConnectionPool> POOLS = new HashMap<>();
+
+    private static volatile ScheduledExecutorService evictor;
+
+    private final String driverClass;
+
+    private final String url;
+
+    private final Properties connectionProperties;
+
+    private int maxPoolSize = 8;
+
+    private String validationQuery;
+
+    private int validationTimeout = 5;
+
+    private long connectionTimeout = 30 * 1000L;
+
+    private long idleTimeout = 10 * 60 * 1000L;
+
+    private long maxLifetime = 30 * 60 * 1000L;
+
+    private transient Driver driver;
+
+    private transient volatile ConnectionPool pool;
+
+    public PooledDataSource(String driverClass, String url, String userName, String password) {
+        this(driverClass, url, new Properties());
+        if (userName != null) {
+            connectionProperties.setProperty("user", userName);
+        }
+        if (password != null) {
+            connectionProperties.setProperty("password", password);
+        }
+    }
+
+    public PooledDataSource(String driverClass, String url, Properties connectionProperties) {
+        this.driverClass = driverClass;
+        this.url = url;
+        this.connectionProperties = new Properties();
+        if (connectionProperties != null) {
+            this.connectionProperties.putAll(connectionProperties);
+        }
+    }
+
+    /**
+     * @param driver the driver opening the connections, when the class loader of the caller sees it but not the one of this
+     * class, so {@link DriverManager} would refuse to use it. Not serialized, the workers use {@link DriverManager}.
+     */
+    public void setDriver(Driver driver) {
+        this.driver = driver;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    /**
+     * @param maxPoolSize the max number of connections used at the same time, 0 or less for no bound
+     */
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public String getValidationQuery() {
+        return validationQuery;
+    }
+
+    /**
+     * @param validationQuery query executed to check an idle connection before giving it, if null the driver checks it
+     */
+    public void setValidationQuery(String validationQuery) {
+        this.validationQuery = validationQuery;
+    }
+
+    public int getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    /**
+     * @param validationTimeout in seconds
+     */
+    public void setValidationTimeout(int validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    public long getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    /**
+     * @param connectionTimeout max time to wait for a connection when all of them are used, in milliseconds
+     */
+    public void setConnectionTimeout(long connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * @param idleTimeout max time a connection stays open without being used, in milliseconds
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public long getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    /**
+     * @param maxLifetime max time a connection stays open since its creation, in milliseconds
+     */
+    public void setMaxLifetime(long maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getPool().borrow();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The user is set when the pooled data source is created");
+    }
+
+    /**
+     * @return the current state of the pool and the statistics about the waits for a connection
+     */
+    public Metrics getMetrics() {
+        return getPool().getMetrics();
+    }
+
+    /**
+     * release the pool. When no other data source with the same settings uses it, its idle connections are closed, and the
+     * connections still used are closed when given back.
+     */
+    public void close() {
+        synchronized (POOLS) {
+            ConnectionPool current = pool;
+            pool = null;
+            if (current != null && --current.users == 0) {
+                POOLS.remove(getKey());
+                current.shutdown();
+            }
+        }
+    }
+
+    private ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (POOLS) {
+                current = pool;
+                if (current == null) {
+                    String key = getKey();
+                    current = POOLS.get(key);
+                    if (current == null) {
+                        current = new ConnectionPool(this);
+                        current.scheduleEviction();
+                        POOLS.put(key, current);
+                    }
+                    current.users++;
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private String getKey() {
+        StringBuilder key = new StringBuilder().append(driverClass).append('|').append(url);
+        // sorted, so the same properties always give the same key
+        for (Map.Entry<Object, Object> property : new TreeMap<>(connectionProperties).entrySet()) {
+            Object value = property.getValue();
+            if (value instanceof Key) {
+                // like the private key of a key pair authentication, its toString doesn't tell the key
+                Key secret = (Key) value;
+                value = secret.getAlgorithm() + ':' + Base64.getEncoder().encodeToString(secret.getEncoded());
+            }
+            key.append('|').append(property.getKey()).append('=').append(value);
+        }
+        return key.append('|').append(maxPoolSize).append('|').append(validationQuery).append('|').append(validationTimeout)
+                .append('|').append(connectionTimeout).append('|').append(idleTimeout).append('|').append(maxLifetime)
+                .toString();
+    }
+
+    private static ScheduledExecutorService getEvictor() {
+        if (evictor == null) {
+            synchronized (PooledDataSource.class) {
+                if (evictor == null) {
+                    evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+                        @Override
+                        public Thread newThread(Runnable runnable) {
+                            Thread thread = new Thread(runnable, "talend-jdbc-pool-evictor");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                }
+            }
+        }
+        return evictor;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        // not used, the pool logs by slf4j
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        connectionTimeout = seconds * 1000L;
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return (int) (connectionTimeout / 1000);
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * snapshot of the state of a pool
+     */
+    public static class Metrics {
+
+        private final int activeConnections;
+
+        private final int idleConnections;
+
+        private final long createdConnections;
+
+        private final long closedConnections;
+
+        private final long waitCount;
+
+        private final long totalWaitMillis;
+
+        private final long maxWaitMillis;
+
+        Metrics(int activeConnections, int idleConnections, long createdConnections, long closedConnections, long waitCount,
+                long totalWaitNanos, long maxWaitNanos) {
+            this.activeConnections = activeConnections;
+            this.idleConnections = idleConnections;
+            this.createdConnections = createdConnections;
+            this.closedConnections = closedConnections;
+            this.waitCount = waitCount;
+            this.totalWaitMillis = TimeUnit.NANOSECONDS.toMillis(totalWaitNanos);
+            this.maxWaitMillis = TimeUnit.NANOSECONDS.toMillis(maxWaitNanos);
+        }
+
+        public int getActiveConnections() {
+            return activeConnections;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        public long getCreatedConnections() {
+            return createdConnections;
+        }
+
+        public long getClosedConnections() {
+            return closedConnections;
+        }
+
+        /**
+         * @return the number of the connections asked to the pool
+         */
+        public long getWaitCount() {
+            return waitCount;
+        }
+
+        public long getTotalWaitMillis() {
+            return totalWaitMillis;
+        }
+
+        public long getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics{" + "activeConnections=" + activeConnections + ", idleConnections=" + idleConnections
+                    + ", createdConnections=" + createdConnections + ", closedConnections=" + closedConnections
+                    + ", waitCount=" + waitCount + ", totalWaitMillis=" + totalWaitMillis + ", maxWaitMillis=" + maxWaitMillis
+                    + '}';
+        }
+    }
+
+    /**
+     * one physical connection with its times
+     */
+    private static class PhysicalConnection {
+
+        private final Connection connection;
+
+        private final long createdAt = System.currentTimeMillis();
+
+        private volatile long lastUsedAt = createdAt;
+
+        PhysicalConnection(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    private static class ConnectionPool {
+
+        private final String driverClass;
+
+        private final Driver driver;
+
+        private final String url;
+
+        private final Properties connectionProperties;
+
+        private final String validationQuery;
+
+        private final int validationTimeout;
+
+        private final long connectionTimeout;
+
+        private final long idleTimeout;
+
+        private final long maxLifetime;
+
+        private final Semaphore permits;
+
+        // LIFO, so the connections used the least are the ones which expire
+        private final LinkedBlockingDeque<PhysicalConnection> idle = new LinkedBlockingDeque<>();
+
+        private final AtomicInteger active = new AtomicInteger();
+
+        private final AtomicLong created = new AtomicLong();
+
+        private final AtomicLong closed = new AtomicLong();
+
+        private final AtomicLong waitCount = new AtomicLong();
+
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        private volatile boolean shutdown;
+
+        // the number of data sources using the pool, guarded by POOLS
+        private int users;
+
+        private ScheduledFuture<?> eviction;
+
+        ConnectionPool(PooledDataSource dataSource) {
+            this.driverClass = dataSource.driverClass;
+            this.driver = dataSource.driver;
+            this.url = dataSource.url;
+            this.connectionProperties = dataSource.connectionProperties;
+            this.validationQuery = dataSource.validationQuery;
+            this.validationTimeout = dataSource.validationTimeout;
+            this.connectionTimeout = dataSource.connectionTimeout;
+            this.idleTimeout = dataSource.idleTimeout;
+            this.maxLifetime = dataSource.maxLifetime;
+            this.permits = new Semaphore(dataSource.maxPoolSize > 0 ? dataSource.maxPoolSize : Integer.MAX_VALUE, true);
+        }
+
+        void scheduleEviction() {
+            long period = Math.max(1000L, Math.min(idleTimeout, maxLifetime) / 2);
+            eviction = getEvictor().scheduleWithFixedDelay(new Runnable() {
+
+                @Override
+                public void run() {
+                    evict();
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+        }
+
+        Connection borrow() throws SQLException {
+            if (shutdown) {
+                throw new SQLException("The connection pool to " + url + " is closed");
+            }
+
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(connectionTimeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection to " + url, e);
+            } finally {
+                recordWait(System.nanoTime() - start);
+            }
+            if (!acquired) {
+                throw new SQLTransientConnectionException(
+                        "No connection to " + url + " available in the pool after " + connectionTimeout + "ms");
+            }
+
+            try {
+                PhysicalConnection physical;
+                while ((physical = idle.pollFirst()) != null) {
+                    if (!isExpired(physical) && isValid(physical)) {
+                        break;
+                    }
+                    closeQuietly(physical);
+                }
+
+                if (physical == null) {
+                    physical = create();
+                }
+
+                active.incrementAndGet();
+                return new LeasedConnection(this, physical).proxy;
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        void giveBack(PhysicalConnection physical, boolean broken) {
+            active.decrementAndGet();
+            try {
+                if (broken || shutdown || isExpired(physical)) {
+                    closeQuietly(physical);
+                    return;
+                }
+
+                Connection connection = physical.connection;
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                if (connection.isReadOnly()) {
+                    connection.setReadOnly(false);
+                }
+                physical.lastUsedAt = System.currentTimeMillis();
+                idle.offerFirst(physical);
+            } catch (SQLException e) {
+                LOG.debug("Unable to reset the connection to '{}', it's closed.", url, e);
+                closeQuietly(physical);
+            } finally {
+                permits.release();
+            }
+        }
+
+        Metrics getMetrics() {
+            return new Metrics(active.get(), idle.size(), created.get(), closed.get(), waitCount.get(), totalWaitNanos.get(),
+                    maxWaitNanos.get());
+        }
+
+        void shutdown() {
+            shutdown = true;
+            if (eviction != null) {
+                eviction.cancel(false);
+            }
+            PhysicalConnection physical;
+            while ((physical = idle.pollFirst()) != null) {
+                closeQuietly(physical);
+            }
+        }
+
+        private void evict() {
+            for (PhysicalConnection physical : idle) {
+                if (isExpired(physical) && idle.remove(physical)) {
+                    closeQuietly(physical);
+                }
+            }
+        }
+
+        private PhysicalConnection create() throws SQLException {
+            LOG.debug("Opening a new pooled connection to '{}'", url);
+            Connection connection;
+            if (driver != null) {
+                connection = driver.connect(url, connectionProperties);
+                if (connection == null) {
+                    throw new SQLException("The driver " + driverClass + " doesn't accept the url " + url);
+                }
+            } else {
+                try {
+                    Class.forName(driverClass);
+                } catch (ClassNotFoundException e) {
+                    throw new SQLException("Driver class not found : " + driverClass, e);
+                }
+                connection = DriverManager.getConnection(url, connectionProperties);
+            }
+            created.incrementAndGet();
+            return new PhysicalConnection(connection);
+        }
+
+        private boolean isExpired(PhysicalConnection physical) {
+            long now = System.currentTimeMillis();
+            return (now - physical.createdAt >= maxLifetime) || (now - physical.lastUsedAt >= idleTimeout);
+        }
+
+        private boolean isValid(PhysicalConnection physical) {
+            try {
+                if (validationQuery == null || validationQuery.isEmpty()) {
+                    return physical.connection.isValid(validationTimeout);
+                }
+                try (Statement statement = physical.connection.createStatement()) {
+                    statement.setQueryTimeout(validationTimeout);
+                    statement.execute(validationQuery);
+                }
+                return true;
+            } catch (SQLException e) {
+                LOG.debug("The pooled connection to '{}' is not valid anymore.", url, e);
+                return false;
+            }
+        }
+
+        private void closeQuietly(PhysicalConnection physical) {
+            closed.incrementAndGet();
+            try {
+                physical.connection.close();
+            } catch (SQLException e) {
+                LOG.debug("Unable to close the pooled connection to '{}'.", url, e);
+            }
+        }
+
+        private void recordWait(long nanos) {
+            waitCount.incrementAndGet();
+            totalWaitNanos.addAndGet(nanos);
+            long max;
+            while (nanos > (max = maxWaitNanos.get())) {
+                if (maxWaitNanos.compareAndSet(max, nanos)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * the connection given to the caller, it delegates to the physical connection until it's closed. The statements it
+     * creates are proxies too, so they can't be used after the connection is closed and they give back the proxy as their
+     * connection.
+     */
+    private static class LeasedConnection implements InvocationHandler {
+
+        private final ConnectionPool pool;
+
+        private final PhysicalConnection physical;
+
+        private final Connection proxy;
+
+        // the statements not closed yet, closed when the connection is given back
+        private final Set<Statement> statements = Collections.newSetFromMap(new IdentityHashMap<Statement, Boolean>());
+
+        private volatile boolean closed;
+
+        private volatile boolean broken;
+
+        LeasedConnection(ConnectionPool pool, PhysicalConnection physical) {
+            this.pool = pool;
+            this.physical = physical;
+            this.proxy = (Connection) Proxy.newProxyInstance(PooledDataSource.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            } else if ("toString".equals(name)) {
+                return "Pooled" + physical.connection;
+            } else if ("close".equals(name)) {
+                if (!closed) {
+                    closed = true;
+                    closeStatements();
+                    pool.giveBack(physical, broken);
+                }
+                return null;
+            } else if ("isClosed".equals(name)) {
+                return closed || physical.connection.isClosed();
+            }
+
+            checkNotClosed();
+
+            if ("unwrap".equals(name)) {
+                return unwrap((Class<?>) args[0]);
+            } else if ("isWrapperFor".equals(name) && ((Class<?>) args[0]).isInstance(proxy)) {
+                return true;
+            }
+
+            Object result = delegate(physical.connection, method, args);
+            if (result instanceof Statement) {
+                return track(method.getReturnType(), (Statement) result);
+            }
+            return result;
+        }
+
+        /**
+         * unwrap the physical connection. An interface gives a proxy which can't be used after the connection is closed, a
+         * class gives the object of the driver, it must not be kept after the connection is closed.
+         */
+        private Object unwrap(Class<?> iface) throws Throwable {
+            if (iface.isInstance(proxy)) {
+                return proxy;
+            }
+            Object unwrapped = physical.connection.unwrap(iface);
+            if (!iface.isInterface()) {
+                return unwrapped;
+            }
+            return Proxy.newProxyInstance(iface.getClassLoader(), new Class<?>[] { iface }, new Guard(unwrapped));
+        }
+
+        private Statement track(Class<?> type, Statement statement) {
+            synchronized (statements) {
+                statements.add(statement);
+            }
+            return (Statement) Proxy.newProxyInstance(PooledDataSource.class.getClassLoader(), new Class<?>[] { type },
+                    new LeasedStatement(statement));
+        }
+
+        private void closeStatements() {
+            synchronized (statements) {
+                for (Statement statement : statements) {
+                    try {
+                        statement.close();
+                    } catch (SQLException e) {
+                        LOG.debug("Unable to close a statement of the pooled connection to '{}'.", pool.url, e);
+                    }
+                }
+                statements.clear();
+            }
+        }
+
+        private void checkNotClosed() throws SQLException {
+            if (closed) {
+                throw new SQLException("The connection is closed");
+            }
+        }
+
+        private Object delegate(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                // SQL state class 08 : connection exception, the connection can't be reused
+                if (cause instanceof SQLException) {
+                    String state = ((SQLException) cause).getSQLState();
+                    if (state != null && state.startsWith("08")) {
+                        broken = true;
+                    }
+                }
+                throw cause;
+            }
+        }
+
+        /**
+         * a statement created by the leased connection
+         */
+        private class LeasedStatement implements InvocationHandler {
+
+            private final Statement statement;
+
+            LeasedStatement(Statement statement) {
+                this.statement = statement;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if ("equals".equals(name)) {
+                    return proxy == args[0];
+                } else if ("hashCode".equals(name)) {
+                    return System.identityHashCode(proxy);
+                } else if ("toString".equals(name)) {
+                    return "Pooled" + statement;
+                } else if ("close".equals(name)) {
+                    synchronized (statements) {
+                        statements.remove(statement);
+                    }
+                    statement.close();
+                    return null;
+                } else if ("isClosed".equals(name)) {
+                    return closed || statement.isClosed();
+                }
+
+                checkNotClosed();
+
+                if ("getConnection".equals(name)) {
+                    return LeasedConnection.this.proxy;
+                } else if ("unwrap".equals(name) && ((Class<?>) args[0]).isInstance(proxy)) {
+                    return proxy;
+                } else if ("isWrapperFor".equals(name) && ((Class<?>) args[0]).isInstance(proxy)) {
+                    return true;
+                }
+                return delegate(statement, method, args);
+            }
+        }
+
+        /**
+         * an interface of the physical connection given by unwrap
+         */
+        private class Guard implements InvocationHandler {
+
+            private final Object target;
+
+            Guard(Object target) {
+                this.target = target;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if ("equals".equals(name)) {
+                    return proxy == args[0];
+                } else if ("hashCode".equals(name)) {
+                    return System.identityHashCode(proxy);
+                } else if ("toString".equals(name)) {
+                    return "Pooled" + target;
+                }
+
+                checkNotClosed();
+                return delegate(target, method, args);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.common.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PooledConnectionsPoolTest {
+
+    private static final String DRIVER = PooledDataSourceTest.StubDriver.class.getName();
+
+    private static final String URL = "jdbc:pooltest:shared";
+
+    private final PooledConnectionsPool pool = new PooledConnectionsPool();
+
+    @BeforeClass
+    public static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(new PooledDataSourceTest.StubDriver());
+    }
+
+    @After
+    public void closePool() {
+        pool.close();
+    }
+
+    @Test
+    public void testSameNameSameConnection() throws Exception {
+        Connection first = pool.getDBConnection(DRIVER, URL, "user", "password", "conn1");
+        Connection second = pool.getDBConnection(DRIVER, URL, "user", "password", "conn1");
+        assertSame(first, second);
+
+        Connection other = pool.getDBConnection(DRIVER, URL, "user", "password", "conn2");
+        assertNotSame(first, other);
+    }
+
+    @Test
+    public void testSettingsArePartOfTheKey() throws Exception {
+        Connection first = pool.getDBConnection(DRIVER, URL, "user", "password", "conn1");
+        Connection otherUser = pool.getDBConnection(DRIVER, URL, "admin", "password", "conn1");
+        Connection otherUrl = pool.getDBConnection(DRIVER, URL + "2", "user", "password", "conn1");
+        assertNotSame(first, otherUser);
+        assertNotSame(first, otherUrl);
+        assertNotSame(otherUser, otherUrl);
+    }
+
+    @Test
+    public void testClosedConnectionReplaced() throws Exception {
+        Connection first = pool.getDBConnection(DRIVER, URL, "user", "password", "conn1");
+        first.close();
+
+        Connection second = pool.getDBConnection(DRIVER, URL, "user", "password", "conn1");
+        assertNotSame(first, second);
+        // the physical connection given back by the first one is reused
+        assertEquals(1, pool.getDataSource(DRIVER, URL, "user", "password").getMetrics().getCreatedConnections());
+    }
+
+    @Test
+    public void testUnsharedConnectionsReusePhysicalConnections() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("user", "user");
+        PooledDataSource dataSource = pool.getDataSource(new PooledDataSourceTest.StubDriver(), URL, properties);
+        assertSame(dataSource, pool.getDataSource(new PooledDataSourceTest.StubDriver(), URL, properties));
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertNotSame(first, second);
+        first.close();
+        second.close();
+        dataSource.getConnection().close();
+        assertEquals(2, dataSource.getMetrics().getCreatedConnections());
+
+        properties.setProperty("user", "admin");
+        assertNotSame(dataSource, pool.getDataSource(new PooledDataSourceTest.StubDriver(), URL, properties));
+    }
+}
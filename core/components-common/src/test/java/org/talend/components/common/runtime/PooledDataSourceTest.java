@@ -0,0 +1,401 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2017 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+package org.talend.components.common.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PooledDataSourceTest {
+
+    private static final AtomicInteger URL_INDEX = new AtomicInteger();
+
+    private static final List<StubConnection> CONNECTIONS = new ArrayList<>();
+
+    @BeforeClass
+    public static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(new StubDriver());
+    }
+
+    /**
+     * every test has its own url, so its own pool
+     */
+    private PooledDataSource createDataSource() {
+        return new PooledDataSource(StubDriver.class.getName(), "jdbc:pooltest:" + URL_INDEX.incrementAndGet(), "user",
+                "password");
+    }
+
+    @Test
+    public void testConnectionReused() throws SQLException {
+        PooledDataSource dataSource = createDataSource();
+        try {
+            Connection first = dataSource.getConnection();
+            String physical = first.toString();
+            first.close();
+            assertTrue(first.isClosed());
+
+            Connection second = dataSource.getConnection();
+            assertEquals(physical, second.toString());
+            assertEquals(1, dataSource.getMetrics().getActiveConnections());
+            second.close();
+
+            PooledDataSource.Metrics metrics = dataSource.getMetrics();
+            assertEquals(1, metrics.getCreatedConnections());
+            assertEquals(0, metrics.getActiveConnections());
+            assertEquals(1, metrics.getIdleConnections());
+            assertEquals(2, metrics.getWaitCount());
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testPoolBounded() throws SQLException {
+        PooledDataSource dataSource = createDataSource();
+        dataSource.setMaxPoolSize(1);
+        dataSource.setConnectionTimeout(50);
+        try {
+            Connection first = dataSource.getConnection();
+            try {
+                dataSource.getConnection();
+                fail("the pool should be exhausted");
+            } catch (SQLTransientConnectionException e) {
+                // expected
+            }
+            first.close();
+
+            dataSource.getConnection().close();
+            assertEquals(1, dataSource.getMetrics().getCreatedConnections());
+            assertTrue(dataSource.getMetrics().getMaxWaitMillis() >= 50);
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testPoolUnbounded() throws SQLException {
+        PooledDataSource dataSource = createDataSource();
+        dataSource.setMaxPoolSize(0);
+        dataSource.setConnectionTimeout(50);
+        try {
+            List<Connection> connections = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                connections.add(dataSource.getConnection());
+            }
+            assertEquals(20, dataSource.getMetrics().getActiveConnections());
+            for (Connection connection : connections) {
+                connection.close();
+            }
+            assertEquals(20, dataSource.getMetrics().getIdleConnections());
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testInvalidConnectionReplaced() throws SQLException {
+        PooledDataSource dataSource = createDataSource();
+        try {
+            Connection first = dataSource.getConnection();
+            String physical = first.toString();
+            first.close();
+
+            lastConnection().valid = false;
+
+            Connection second = dataSource.getConnection();
+            assertNotEquals(physical, second.toString());
+            second.close();
+
+            assertEquals(2, dataSource.getMetrics().getCreatedConnections());
+            assertEquals(1, dataSource.getMetrics().getClosedConnections());
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testMaxLifetime() throws SQLException {
+        PooledDataSource dataSource = createDataSource();
+        dataSource.setMaxLifetime(0);
+        try {
+            dataSource.getConnection().close();
+            assertTrue(lastConnection().closed);
+            assertEquals(0, dataSource.getMetrics().getIdleConnections());
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testTransactionResetWhenGivenBack() throws SQLException {
+        PooledDataSource dataSource = createDataSource();
+        try {
+            Connection connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            connection.close();
+
+            StubConnection physical = lastConnection();
+            assertTrue(physical.rolledBack);
+            assertTrue(physical.autoCommit);
+            assertFalse(physical.closed);
+
+            try {
+                connection.commit();
+                fail("a closed connection should not be used");
+            } catch (SQLException e) {
+                // expected
+            }
+        } finally {
+            dataSource.close();
+        }
+        assertTrue(lastConnection().closed);
+    }
+
+    @Test
+    public void testPoolKeptUntilLastDataSourceClosed() throws SQLException {
+        PooledDataSource dataSource = createDataSource();
+        PooledDataSource sameSettings = new PooledDataSource(StubDriver.class.getName(),
+                "jdbc:pooltest:" + URL_INDEX.get(), "user", "password");
+        try {
+            dataSource.getConnection().close();
+            sameSettings.getConnection().close();
+            StubConnection physical = lastConnection();
+            assertEquals(1, sameSettings.getMetrics().getCreatedConnections());
+
+            dataSource.close();
+            assertFalse(physical.closed);
+
+            Connection connection = sameSettings.getConnection();
+            assertEquals(physical.name, connection.toString().substring("Pooled".length()));
+            connection.close();
+        } finally {
+            dataSource.close();
+            sameSettings.close();
+        }
+        assertTrue(lastConnection().closed);
+    }
+
+    @Test
+    public void testStatementsClosedWhenGivenBack() throws SQLException {
+        PooledDataSource dataSource = createDataSource();
+        try {
+            Connection connection = dataSource.getConnection();
+            Statement statement = connection.createStatement();
+            PreparedStatement prepared = connection.prepareStatement("select 1");
+            Statement closedByCaller = connection.createStatement();
+            closedByCaller.close();
+
+            StubConnection physical = lastConnection();
+            assertEquals(3, physical.statements.size());
+            assertTrue(physical.statements.get(2).closed);
+
+            // the caller never sees the physical connection
+            assertSame(connection, statement.getConnection());
+            assertSame(connection, prepared.getConnection());
+            assertSame(connection, connection.unwrap(Connection.class));
+            assertSame(prepared, prepared.unwrap(PreparedStatement.class));
+
+            connection.close();
+            assertTrue(physical.statements.get(0).closed);
+            assertTrue(physical.statements.get(1).closed);
+            assertTrue(statement.isClosed());
+
+            try {
+                prepared.executeQuery();
+                fail("a statement of a closed connection should not be used");
+            } catch (SQLException e) {
+                // expected
+            }
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testUnwrappedInterfaceNotUsableAfterClose() throws SQLException {
+        PooledDataSource dataSource = createDataSource();
+        try {
+            Connection connection = dataSource.getConnection();
+            VendorConnection unwrapped = connection.unwrap(VendorConnection.class);
+            unwrapped.vendorCall();
+            connection.close();
+
+            try {
+                unwrapped.vendorCall();
+                fail("the unwrapped connection should not be used after the close");
+            } catch (SQLException e) {
+                // expected
+            }
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    private static StubConnection lastConnection() {
+        synchronized (CONNECTIONS) {
+            return CONNECTIONS.get(CONNECTIONS.size() - 1);
+        }
+    }
+
+    private static class StubConnection implements InvocationHandler {
+
+        private final String name;
+
+        private volatile boolean valid = true;
+
+        private volatile boolean closed;
+
+        private volatile boolean autoCommit = true;
+
+        private volatile boolean rolledBack;
+
+        private final List<StubStatement> statements = new ArrayList<>();
+
+        StubConnection(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+            case "toString":
+                return name;
+            case "isValid":
+                return valid;
+            case "close":
+                closed = true;
+                return null;
+            case "isClosed":
+                return closed;
+            case "getAutoCommit":
+                return autoCommit;
+            case "setAutoCommit":
+                autoCommit = (Boolean) args[0];
+                return null;
+            case "rollback":
+                rolledBack = true;
+                return null;
+            case "isReadOnly":
+                return false;
+            case "unwrap":
+                return proxy;
+            case "createStatement":
+            case "prepareStatement":
+                StubStatement statement = new StubStatement();
+                statements.add(statement);
+                return Proxy.newProxyInstance(StubDriver.class.getClassLoader(), new Class<?>[] { method.getReturnType() },
+                        statement);
+            default:
+                return null;
+            }
+        }
+    }
+
+    /**
+     * an interface of the driver, only given by unwrap
+     */
+    public interface VendorConnection {
+
+        void vendorCall() throws SQLException;
+    }
+
+    private static class StubStatement implements InvocationHandler {
+
+        private volatile boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+            case "close":
+                closed = true;
+                return null;
+            case "isClosed":
+                return closed;
+            default:
+                return null;
+            }
+        }
+    }
+
+    public static class StubDriver implements Driver {
+
+        @Override
+        public Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            StubConnection handler;
+            synchronized (CONNECTIONS) {
+                handler = new StubConnection(url + "#" + CONNECTIONS.size());
+                CONNECTIONS.add(handler);
+            }
+            return (Connection) Proxy.newProxyInstance(StubDriver.class.getClassLoader(),
+                    new Class<?>[] { Connection.class, VendorConnection.class }, handler);
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url.startsWith("jdbc:pooltest:");
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+
+}